@@ -0,0 +1,125 @@
+package com.obsinity.telemetry.benchmarks;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import com.obsinity.telemetry.annotations.EventReceiver;
+import com.obsinity.telemetry.annotations.Flow;
+import com.obsinity.telemetry.annotations.OnAllLifecycles;
+import com.obsinity.telemetry.annotations.OnFlowNotMatched;
+import com.obsinity.telemetry.annotations.OrphanAlert;
+import com.obsinity.telemetry.annotations.PushAttribute;
+import com.obsinity.telemetry.annotations.Step;
+import com.obsinity.telemetry.aspect.TelemetryAspect;
+import com.obsinity.telemetry.dispatch.HandlerGroup;
+import com.obsinity.telemetry.dispatch.TelemetryEventHandlerScanner;
+import com.obsinity.telemetry.model.Lifecycle;
+import com.obsinity.telemetry.model.TelemetryHolder;
+import com.obsinity.telemetry.processor.TelemetryAttributeBinder;
+import com.obsinity.telemetry.processor.TelemetryProcessor;
+import com.obsinity.telemetry.processor.TelemetryProcessorSupport;
+import com.obsinity.telemetry.receivers.TelemetryDispatchBus;
+
+/**
+ * Hand-wired SDK stack for benchmarks (no Spring context).
+ *
+ * <p>Mirrors what the auto-configuration builds: scanner → handler groups → dispatch bus → processor → aspect, with the
+ * aspect applied to {@link BenchService} through an {@link AspectJProxyFactory}. Nested calls go through
+ * {@link BenchService#self} so they are intercepted exactly like {@code AopContext.currentProxy()} calls in tests.
+ */
+final class BenchmarkFixtures {
+
+	private BenchmarkFixtures() {}
+
+	/** Fully wired processor stack plus the proxied service under test. */
+	static final class Stack {
+		final TelemetryProcessorSupport support;
+		final TelemetryDispatchBus bus;
+		final TelemetryProcessor processor;
+		final BenchService service;
+		final CountingReceiver receiver;
+
+		Stack() {
+			this.support = new TelemetryProcessorSupport();
+			this.receiver = new CountingReceiver();
+
+			Map<String, Object> beans = new LinkedHashMap<>();
+			beans.put("countingReceiver", receiver);
+			List<HandlerGroup> groups = scan(beans, support);
+
+			this.bus = new TelemetryDispatchBus(groups);
+			this.processor = new TelemetryProcessor(new TelemetryAttributeBinder(), support, bus);
+
+			BenchService target = new BenchService();
+			AspectJProxyFactory factory = new AspectJProxyFactory(target);
+			factory.setProxyTargetClass(true);
+			factory.addAspect(new TelemetryAspect(processor));
+			this.service = factory.getProxy();
+			target.self = this.service;
+		}
+	}
+
+	static List<HandlerGroup> scan(Map<String, Object> receivers, TelemetryProcessorSupport support) {
+		StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+		receivers.forEach(beanFactory::addBean);
+		return new TelemetryEventHandlerScanner(beanFactory, support).handlerGroups();
+	}
+
+	/** Service whose annotated methods exercise each processor path. */
+	public static class BenchService {
+		/** Proxy reference used for nested calls (self-invocation would bypass the aspect). */
+		BenchService self;
+
+		@Flow(name = "bench.root")
+		public int rootFlow(@PushAttribute("order.id") String orderId) {
+			return orderId.length();
+		}
+
+		@Flow(name = "bench.root")
+		public int rootWithNestedFlow(@PushAttribute("order.id") String orderId) {
+			return self.nestedFlow(orderId);
+		}
+
+		@Flow(name = "bench.nested")
+		public int nestedFlow(@PushAttribute("order.id") String orderId) {
+			return orderId.length();
+		}
+
+		@Flow(name = "bench.root")
+		public int rootWithNestedSteps(@PushAttribute("order.id") String orderId, int steps) {
+			int acc = 0;
+			for (int i = 0; i < steps; i++) {
+				acc += self.step(orderId);
+			}
+			return acc;
+		}
+
+		@Step(name = "bench.step")
+		public int step(@PushAttribute("order.id") String orderId) {
+			return orderId.length();
+		}
+
+		/** Promoted orphan; TRACE keeps the promotion log line out of the measurement. */
+		@Step(name = "bench.orphan")
+		@OrphanAlert(level = OrphanAlert.Level.TRACE)
+		public int orphanStep(@PushAttribute("order.id") String orderId) {
+			return orderId.length();
+		}
+	}
+
+	/** Catch-all receiver so every phase reaches a handler (and nothing is logged as unhandled). */
+	@EventReceiver
+	@OnAllLifecycles
+	public static class CountingReceiver {
+		volatile long seen;
+
+		@OnFlowNotMatched
+		public void onAny(TelemetryHolder holder, Lifecycle phase) {
+			seen++;
+		}
+	}
+}
@@ -0,0 +1,112 @@
+package com.obsinity.telemetry.benchmarks;
+
+import java.lang.reflect.Method;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import io.opentelemetry.api.trace.SpanKind;
+import com.obsinity.telemetry.dispatch.Handler;
+import com.obsinity.telemetry.dispatch.HandlerGroup;
+import com.obsinity.telemetry.dispatch.HolderBinder;
+import com.obsinity.telemetry.model.Lifecycle;
+import com.obsinity.telemetry.model.OAttributes;
+import com.obsinity.telemetry.model.TelemetryHolder;
+import com.obsinity.telemetry.receivers.TelemetryDispatchBus;
+
+/**
+ * Dispatch cost as the number of registered {@link HandlerGroup}s grows.
+ *
+ * <p>Every tenth group registers a success handler for the benchmarked flow name; the rest register handlers for
+ * unrelated names so the bus has to reject them. Measures {@code flowStarted}/{@code flowFinished} on a pre-built
+ * holder, i.e. matching and invocation without interception overhead.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DispatchBenchmark {
+
+	static final String FLOW = "bench.orders.create";
+
+	@Param({"1", "10", "100"})
+	int groups;
+
+	private TelemetryDispatchBus bus;
+	private TelemetryHolder holder;
+
+	@Setup
+	public void setUp() throws NoSuchMethodException {
+		Sink sink = new Sink();
+		Method onEvent = Sink.class.getMethod("onEvent", TelemetryHolder.class);
+
+		List<HandlerGroup> list = new ArrayList<>(groups);
+		for (int g = 0; g < groups; g++) {
+			HandlerGroup group = new HandlerGroup("bench-" + g);
+			String name = (g % 10 == 0) ? FLOW : "bench.other" + g + ".op";
+			group.registerFlowSuccess(name, Lifecycle.FLOW_FINISHED, handler(sink, onEvent, name, g));
+			group.registerFlowCompleted(name, Lifecycle.FLOW_STARTED, handler(sink, onEvent, name, g));
+			list.add(group);
+		}
+		bus = new TelemetryDispatchBus(list);
+
+		holder = TelemetryHolder.builder()
+				.name(FLOW)
+				.timestamp(Instant.now())
+				.traceId("4bf92f3577b34da6a3ce929d0e0e4736")
+				.spanId("00f067aa0ba902b7")
+				.kind(SpanKind.INTERNAL)
+				.serviceId("obsinity-bench")
+				.attributes(new OAttributes(null))
+				.putAttribute("order.id", "O-12345")
+				.build();
+	}
+
+	@Benchmark
+	public void flowStarted(Blackhole bh) {
+		bus.flowStarted(holder);
+		bh.consume(holder);
+	}
+
+	@Benchmark
+	public void flowFinished(Blackhole bh) {
+		bus.flowFinished(holder);
+		bh.consume(holder);
+	}
+
+	private static Handler handler(Object bean, Method method, String name, int group) {
+		return new Handler(
+				bean,
+				method,
+				name,
+				null,
+				null,
+				List.of(),
+				true,
+				null,
+				null,
+				List.of(new HolderBinder()),
+				Set.of(),
+				"bench-" + group + "#" + method.getName());
+	}
+
+	/** Minimal handler target. */
+	public static final class Sink {
+		volatile long seen;
+
+		public void onEvent(TelemetryHolder holder) {
+			seen++;
+		}
+	}
+}
@@ -0,0 +1,84 @@
+package com.obsinity.telemetry.benchmarks;
+
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.obsinity.telemetry.utils.TelemetryIdGenerator;
+import com.obsinity.telemetry.utils.TelemetryIdStrategy;
+
+/**
+ * Trace/span ID generation throughput as thread count grows.
+ *
+ * <p>Each benchmark produces what one flow needs (trace id + span id as hex strings). {@code legacy} reproduces the
+ * previous implementation (one shared {@link SecureRandom}, {@code String.format}) as the baseline. Compare the
+ * {@code T1}, {@code T4} and {@code TMax} variants: contention-free strategies should scale roughly linearly.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public abstract class IdGenerationBenchmark {
+
+	private static final SecureRandom SHARED = new SecureRandom();
+
+	@State(Scope.Thread)
+	public static class Strategies {
+		final TelemetryIdStrategy secure = TelemetryIdStrategy.secure();
+		final TelemetryIdStrategy fast = TelemetryIdStrategy.fast();
+	}
+
+	@Benchmark
+	public void legacy(Blackhole bh) {
+		bh.consume(legacyHex128(legacyUuid()));
+		bh.consume(legacyHex64(legacyUuid()));
+	}
+
+	@Benchmark
+	public void secure(Strategies s, Blackhole bh) {
+		UUID u = s.secure.nextUuidV7();
+		bh.consume(TelemetryIdGenerator.hex128(u.getMostSignificantBits(), u.getLeastSignificantBits()));
+		bh.consume(TelemetryIdGenerator.hex64(s.secure.nextSpanId()));
+	}
+
+	@Benchmark
+	public void fast(Strategies s, Blackhole bh) {
+		UUID u = s.fast.nextUuidV7();
+		bh.consume(TelemetryIdGenerator.hex128(u.getMostSignificantBits(), u.getLeastSignificantBits()));
+		bh.consume(TelemetryIdGenerator.hex64(s.fast.nextSpanId()));
+	}
+
+	@Threads(1)
+	public static class T1 extends IdGenerationBenchmark {}
+
+	@Threads(4)
+	public static class T4 extends IdGenerationBenchmark {}
+
+	@Threads(Threads.MAX)
+	public static class TMax extends IdGenerationBenchmark {}
+
+	/* ---------------- previous implementation (baseline) ---------------- */
+
+	private static UUID legacyUuid() {
+		long millis = Instant.now().toEpochMilli();
+		long msb = ((millis & 0xFFFFFFFFFFFFL) << 16) | 0x7000L | (SHARED.nextLong() & 0x0FFFL);
+		long lsb = (SHARED.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+		return new UUID(msb, lsb);
+	}
+
+	private static String legacyHex128(UUID u) {
+		return String.format("%016x%016x", u.getMostSignificantBits(), u.getLeastSignificantBits());
+	}
+
+	private static String legacyHex64(UUID u) {
+		return String.format("%016x", u.getLeastSignificantBits());
+	}
+}
@@ -0,0 +1,96 @@
+package com.obsinity.telemetry.benchmarks;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import com.obsinity.telemetry.model.OAttributes;
+import com.obsinity.telemetry.model.OEvent;
+import com.obsinity.telemetry.model.OResource;
+import com.obsinity.telemetry.model.OStatus;
+import com.obsinity.telemetry.model.TelemetryHolder;
+import com.obsinity.telemetry.model.TelemetryJsonModule;
+
+/**
+ * JSON serialization of a finished flow (attributes, two folded steps, shared resource): Jackson's reflective bean
+ * serializers driven by the model annotations versus the hand-written {@link TelemetryJsonModule} serializers. Both
+ * produce the same bytes and write to a discarding stream, so the numbers isolate serializer cost.
+ *
+ * <p>Run with {@code mvn -Pjmh -DskipTests verify -Djmh.includes=JsonSerializationBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JsonSerializationBenchmark {
+
+	private static final OutputStream DISCARD = OutputStream.nullOutputStream();
+
+	private ObjectWriter reflective;
+	private ObjectWriter streaming;
+	private TelemetryHolder holder;
+
+	@Setup
+	public void setUp() {
+		reflective = new ObjectMapper().writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+		streaming = new ObjectMapper()
+				.registerModule(new TelemetryJsonModule())
+				.writer()
+				.without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+		OAttributes attrs = new OAttributes();
+		attrs.put("order.id", "O-12345");
+		attrs.put("customer.tier", "gold");
+		attrs.putLong("items", 3L);
+		attrs.putDouble("total", 129.95d);
+		attrs.putBoolean("express", true);
+		attrs.put("tags", List.of("web", "promo"));
+		holder = TelemetryHolder.builder()
+				.name("orders.place")
+				.timestamp(Instant.ofEpochSecond(1_700_000_000L, 123_456_789))
+				.endTimestamp(Instant.ofEpochSecond(1_700_000_000L, 223_456_789))
+				.traceId(0x0102030405060708L, 0x1112131415161718L)
+				.spanId(0x2122232425262728L)
+				.kind(SpanKind.SERVER)
+				.resource(OResource.shared(Map.of("service.id", "bench", "host.name", "localhost")))
+				.attributes(attrs)
+				.addEvent(step("inventory.reserve", 1))
+				.addEvent(step("payment.charge", 2))
+				.status(new OStatus(StatusCode.OK, null))
+				.serviceId("bench")
+				.correlationId("corr-1")
+				.build();
+	}
+
+	@Benchmark
+	public void reflective() throws IOException {
+		reflective.writeValue(DISCARD, holder);
+	}
+
+	@Benchmark
+	public void streaming() throws IOException {
+		streaming.writeValue(DISCARD, holder);
+	}
+
+	private static OEvent step(String name, int n) {
+		OAttributes a = new OAttributes();
+		a.put("sku", "SKU-" + n);
+		a.putLong("duration.nanos", 1_000L * n);
+		return new OEvent(name, 1_700_000_000_000_000_000L + n, 1_700_000_000_000_001_000L + n, a, 0, 0L);
+	}
+}
@@ -0,0 +1,61 @@
+package com.obsinity.telemetry.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * End-to-end cost of an intercepted call: {@code TelemetryAspect} → {@code TelemetryProcessor.proceed} →
+ * {@code TelemetryDispatchBus.dispatch}.
+ *
+ * <p>Run with {@code mvn -Pjmh -DskipTests verify -Djmh.includes=ProcessorBenchmark}; the GC profiler adds
+ * {@code gc.alloc.rate.norm} (bytes allocated per operation) next to ns/op.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ProcessorBenchmark {
+
+	private BenchmarkFixtures.BenchService service;
+	private final String orderId = "O-12345";
+
+	@Setup
+	public void setUp() {
+		service = new BenchmarkFixtures.Stack().service;
+	}
+
+	@Benchmark
+	public int rootFlow() {
+		return service.rootFlow(orderId);
+	}
+
+	@Benchmark
+	public int nestedFlow() {
+		return service.rootWithNestedFlow(orderId);
+	}
+
+	@Benchmark
+	public int nestedSteps(StepCount count) {
+		return service.rootWithNestedSteps(orderId, count.steps);
+	}
+
+	@Benchmark
+	public int promotedOrphanStep() {
+		return service.orphanStep(orderId);
+	}
+
+	/** Scoped separately so only {@link #nestedSteps} is parameterised. */
+	@State(Scope.Benchmark)
+	public static class StepCount {
+		/** Number of nested {@code @Step} calls inside one root flow. */
+		@Param({"1", "10"})
+		int steps;
+	}
+}
@@ -0,0 +1,54 @@
+package com.obsinity.telemetry.annotations;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Protects flows from a slow or failing {@link EventReceiver}: caps concurrent invocations, measures each call against
+ * a time budget, and opens a circuit breaker when the receiver's recent p99 latency or error rate crosses a threshold.
+ *
+ * <p>While the breaker is open every invocation of the receiver is skipped (and counted). After {@link #openMillis()} a
+ * single probe call is let through at a time; {@link #probes()} consecutive healthy probes close the breaker, any
+ * unhealthy probe re-opens it.
+ *
+ * <pre>
+ *   &#64;EventReceiver
+ *   &#64;Bulkhead(maxConcurrent = 4, timeBudgetMillis = 50, p99Millis = 100, errorRate = 0.5)
+ *   public class AuditSink { ... }
+ * </pre>
+ *
+ * Java cannot pre-empt a running handler: a call that exceeds the budget still completes, but is counted as timed out
+ * and as a failure for the error rate.
+ */
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Bulkhead {
+
+	/** Maximum concurrent invocations; further calls are skipped. {@code 0} = unlimited. */
+	int maxConcurrent() default 0;
+
+	/** Per-invocation time budget; {@code 0} = none. */
+	long timeBudgetMillis() default 0;
+
+	/** Open the breaker when p99 latency over the window exceeds this; {@code 0} = latency not checked. */
+	long p99Millis() default 0;
+
+	/** Open the breaker when the failure ratio over the window exceeds this (0..1); {@code 1} = never. */
+	double errorRate() default 1.0;
+
+	/** Number of most recent invocations the breaker evaluates. */
+	int window() default 100;
+
+	/** Invocations required in the window before the breaker may open. */
+	int minCalls() default 20;
+
+	/** How long the breaker stays open before probing. */
+	long openMillis() default 5_000;
+
+	/** Consecutive healthy probes required to close the breaker again. */
+	int probes() default 3;
+}
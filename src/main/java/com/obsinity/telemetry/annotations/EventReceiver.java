@@ -36,6 +36,15 @@ import java.lang.annotation.Target;
  * <p>Outcome filters like {@link OnFlowSuccess} or {@link OnOutcome} can also be placed at the <em>class level</em> to
  * act as defaults for all handlers in the receiver.
  *
+ * <p>Handlers run inline on the thread that completes the flow by default. Set {@link #async()} to have the receiver's
+ * handlers delivered by the asynchronous multi-queue dispatcher instead (FIFO per root flow). Async handlers receive a
+ * detached copy of the holder as it was when the flow started or finished, never the live holder.
+ *
+ * <p>Receivers doing blocking I/O can move the handler call itself off the dispatching thread with
+ * {@link #execution()}: a named {@link java.util.concurrent.Executor} bean or virtual threads.
+ * {@link #maxConcurrency()} caps concurrent invocations of the receiver in any mode. Off-thread handlers get the same
+ * kind of detached copy.
+ *
  * @see OnFlowCompleted
  * @see OnOutcome
  * @see OnFlowSuccess
@@ -43,4 +52,32 @@ import java.lang.annotation.Target;
 @Target(ElementType.TYPE)
 @Retention(RetentionPolicy.RUNTIME)
 @Documented
-public @interface EventReceiver {}
+public @interface EventReceiver {
+	/**
+	 * Deliver this receiver's events on dispatcher worker threads instead of the calling thread. Global not-matched
+	 * fallbacks still consider every receiver: they run only when neither an inline nor an async receiver handled the
+	 * event.
+	 */
+	boolean async() default false;
+
+	/**
+	 * Whether nested {@code @Step} events (dispatched as FLOW_STARTED/FLOW_FINISHED of a step holder) reach this
+	 * receiver, including its not-matched fallbacks. A step no receiver wants is never materialized as a holder, so
+	 * catch-all receivers that only care about flows should set this to {@code false}. Receivers deciding per instance
+	 * implement {@link com.obsinity.telemetry.dispatch.StepInterest} instead.
+	 */
+	boolean steps() default true;
+
+	/** Where selected handlers run; see {@link ExecutionMode}. */
+	ExecutionMode execution() default ExecutionMode.INLINE;
+
+	/** Name of the {@link java.util.concurrent.Executor} bean for {@link ExecutionMode#EXECUTOR}. */
+	String executor() default "";
+
+	/**
+	 * Maximum concurrent handler invocations for this receiver; {@code 0} = unlimited. Inline callers wait for a
+	 * permit; off-thread invocations beyond the limit queue per receiver (at most
+	 * {@code obsinity.receivers.maxWaiting}, further ones are dropped and counted) and start as running ones finish.
+	 */
+	int maxConcurrency() default 0;
+}
@@ -0,0 +1,14 @@
+package com.obsinity.telemetry.annotations;
+
+/** Where an {@link EventReceiver}'s handlers run once the dispatch bus has selected them. */
+public enum ExecutionMode {
+	/** On the dispatching thread (the flow's thread, or an async dispatcher worker). */
+	INLINE,
+	/** On the {@link java.util.concurrent.Executor} bean named by {@link EventReceiver#executor()}. */
+	EXECUTOR,
+	/**
+	 * One virtual thread per invocation on Java 21+; on older runtimes a per-receiver fixed pool of daemon platform
+	 * threads with a bounded queue is used instead.
+	 */
+	VIRTUAL
+}
@@ -3,10 +3,13 @@ package com.obsinity.telemetry.aspect;
 import java.lang.reflect.Method;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.reflect.MethodSignature;
 import org.springframework.aop.support.AopUtils;
+import org.springframework.core.MethodClassKey;
 import org.springframework.core.annotation.AnnotatedElementUtils;
 import org.springframework.util.ReflectionUtils;
 
@@ -23,13 +26,50 @@ import com.obsinity.telemetry.annotations.Step;
  *   <li>{@code @Flow} → FlowType.FLOW, orphanAlertLevel = null
  *   <li>{@code @Step} → FlowType.STEP, orphanAlertLevel = level from {@code @OrphanAlert} if present (else ERROR)
  * </ul>
+ *
+ * <p>Resolved options are immutable and cached per method (and per invoked method + target class for join points), so
+ * after the first call an interception costs a single map lookup instead of most-specific-method resolution and
+ * annotation merging. Methods without {@code @Flow}/{@code @Step} are never cached.
  */
 public final class FlowOptionsFactory {
 
+	/** Most-specific method → compiled options. */
+	private static final Map<Method, FlowOptions> BY_METHOD = new ConcurrentHashMap<>(256);
+
+	/** (invoked method, target class) → compiled options; skips AopUtils resolution on the hot path. */
+	private static final Map<MethodClassKey, FlowOptions> BY_JOIN_POINT = new ConcurrentHashMap<>(256);
+
 	private FlowOptionsFactory() {}
 
 	/** Build FlowOptions from a reflective method (expects most-specific method). */
 	public static FlowOptions fromMethod(Method method) {
+		FlowOptions cached = BY_METHOD.get(method);
+		if (cached != null) return cached;
+		return BY_METHOD.computeIfAbsent(method, FlowOptionsFactory::compile);
+	}
+
+	/** Build FlowOptions from a ProceedingJoinPoint (resolves most-specific method). */
+	public static FlowOptions fromJoinPoint(ProceedingJoinPoint pjp) {
+		MethodSignature sig = (MethodSignature) pjp.getSignature();
+		Method method = sig.getMethod();
+		Object target = pjp.getTarget();
+		Class<?> targetClass = (target != null) ? target.getClass() : method.getDeclaringClass();
+
+		MethodClassKey key = new MethodClassKey(method, targetClass);
+		FlowOptions cached = BY_JOIN_POINT.get(key);
+		if (cached != null) return cached;
+		return BY_JOIN_POINT.computeIfAbsent(key, k -> fromMethod(AopUtils.getMostSpecificMethod(method, targetClass)));
+	}
+
+	/** Drop all cached options (e.g. after class reloading in dev tools/tests). */
+	public static void clearCache() {
+		BY_METHOD.clear();
+		BY_JOIN_POINT.clear();
+	}
+
+	/* ------------------ compilation ------------------ */
+
+	private static FlowOptions compile(Method method) {
 		Class<?> targetClass = method.getDeclaringClass();
 		SpanKind spanKind = resolveKind(method, targetClass);
 
@@ -68,15 +108,6 @@ public final class FlowOptionsFactory {
 		return fromMethod(mostSpecific);
 	}
 
-	/** Build FlowOptions from a ProceedingJoinPoint (resolves most-specific method). */
-	public static FlowOptions fromJoinPoint(ProceedingJoinPoint pjp) {
-		MethodSignature sig = (MethodSignature) pjp.getSignature();
-		Method method = sig.getMethod();
-		Class<?> targetClass = (pjp.getTarget() != null) ? pjp.getTarget().getClass() : method.getDeclaringClass();
-		Method mostSpecific = AopUtils.getMostSpecificMethod(method, targetClass);
-		return fromMethod(mostSpecific);
-	}
-
 	/* ------------------ helpers ------------------ */
 
 	private static Method pickAnnotatedOrSingleByName(Class<?> type, String name) {
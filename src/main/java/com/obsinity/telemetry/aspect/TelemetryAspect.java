@@ -23,7 +23,8 @@ import com.obsinity.telemetry.processor.TelemetryProcessor;
  * <ul>
  *   <li>Match and wrap calls to methods annotated with {@code @Flow} or {@code @Step}.
  *   <li>Build a {@link FlowOptions} from the current {@link ProceedingJoinPoint} via {@link FlowOptionsFactory} (this
- *       inspects {@code @Flow}, {@code @Step}, optional {@code @AutoFlow}, and {@code @Kind} if present).
+ *       inspects {@code @Flow}, {@code @Step}, optional {@code @AutoFlow}, and {@code @Kind} if present; the result is
+ *       cached per method, so steady-state interception is a single map lookup).
  *   <li>Delegate to {@link TelemetryProcessor#proceed(ProceedingJoinPoint, FlowOptions)} which creates/links spans
  *       (flows), manages per-thread context, and notifies receivers.
  * </ul>
@@ -1,6 +1,7 @@
 package com.obsinity.telemetry.dispatch;
 
 import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
 import java.util.BitSet;
 import java.util.List;
 import java.util.Map;
@@ -24,9 +25,40 @@ public record Handler(
 		Class<?> causeTypeOrNull, // optional Throwable.getCause() type
 		List<ParamBinder> binders,
 		Set<String> requiredAttrs,
-		String id // e.g. beanClass#method
+		String id, // e.g. beanClass#method
+		HandlerInvoker invoker // compiled call path (binders fused in)
 		) {
 
+	/** Descriptor whose invoker is compiled from {@code bean}, {@code method} and {@code binders}. */
+	public Handler(
+			Object bean,
+			Method method,
+			String exactName,
+			BitSet lifecycleMask,
+			BitSet kindMask,
+			List<Class<? extends Throwable>> throwableTypes,
+			boolean includeSubclasses,
+			Pattern messagePattern,
+			Class<?> causeTypeOrNull,
+			List<ParamBinder> binders,
+			Set<String> requiredAttrs,
+			String id) {
+		this(
+				bean,
+				method,
+				exactName,
+				lifecycleMask,
+				kindMask,
+				throwableTypes,
+				includeSubclasses,
+				messagePattern,
+				causeTypeOrNull,
+				binders,
+				requiredAttrs,
+				id,
+				HandlerInvoker.compile(bean, method, binders));
+	}
+
 	/** Lifecycle acceptance (null mask = any). */
 	public boolean lifecycleAccepts(Lifecycle lc) {
 		if (lc == null) return true;
@@ -135,32 +167,16 @@ public record Handler(
 	}
 
 	/**
-	 * Invoke the handler method using precompiled {@link ParamBinder}s. Ensures reflective access even for non-public
-	 * declaring classes (e.g., test inner classes).
+	 * Invoke the handler through its compiled {@link HandlerInvoker}. Exceptions thrown by the handler method propagate
+	 * unwrapped.
 	 */
 	public void invoke(TelemetryHolder h, Lifecycle phase) throws Exception {
-		final int paramCount = method.getParameterCount();
-		final Object[] args = new Object[paramCount];
-
-		final int n = (binders == null) ? 0 : Math.min(binders.size(), paramCount);
-		final Throwable error = (h == null ? null : h.throwable());
-
-		for (int i = 0; i < n; i++) {
-			final ParamBinder b = binders.get(i);
-			args[i] = (b == null) ? null : b.bind(h, phase, error);
-		}
-		// Any remaining parameters beyond known binders default to null.
-
-		if (!method.canAccess(bean)) {
-			method.setAccessible(true);
-		}
-
 		try {
-			method.invoke(bean, args);
-		} catch (IllegalAccessException e) {
-			// Rare edge under stricter environments: retry once after forcing accessibility
-			method.setAccessible(true);
-			method.invoke(bean, args);
+			invoker.invoke(h, phase, (h == null ? null : h.throwable()));
+		} catch (Exception | Error e) {
+			throw e;
+		} catch (Throwable t) {
+			throw new UndeclaredThrowableException(t);
 		}
 	}
 }
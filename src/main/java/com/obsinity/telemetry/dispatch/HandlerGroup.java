@@ -27,6 +27,18 @@ public final class HandlerGroup {
 	/** Optional component-level scope filter; null/ALLOW_ALL means no filtering. */
 	private Scope scope = Scope.allowAll();
 
+	/** Delivered by the async dispatcher instead of inline ({@code @EventReceiver(async = true)}). */
+	private boolean async;
+
+	/** Whether nested {@code @Step} holders are routed to this component. */
+	private boolean receivesSteps = true;
+
+	/** Where selected handlers run and how many may run at once ({@code @EventReceiver(execution, maxConcurrency)}). */
+	private ReceiverExecution execution = ReceiverExecution.inline();
+
+	/** Optional bulkhead/circuit breaker ({@code @Bulkhead}); null = unprotected. */
+	private ReceiverBulkhead bulkhead;
+
 	/** Dot-chop tiers: event name → per-phase buckets. Exact name first, then ancestors during dispatch. */
 	private final Map<String, ModeBucketsByPhase> tiers = new HashMap<>();
 
@@ -53,6 +65,39 @@ public final class HandlerGroup {
 		return scope;
 	}
 
+	/** False when the receiver opted out of nested {@code @Step} events ({@code @EventReceiver(steps = false)}). */
+	public boolean receivesSteps() {
+		return receivesSteps;
+	}
+
+	public void setReceivesSteps(boolean receivesSteps) {
+		this.receivesSteps = receivesSteps;
+	}
+
+	public boolean isAsync() {
+		return async;
+	}
+
+	public void setAsync(boolean async) {
+		this.async = async;
+	}
+
+	public ReceiverExecution getExecution() {
+		return execution;
+	}
+
+	public void setExecution(ReceiverExecution execution) {
+		this.execution = (execution == null ? ReceiverExecution.inline() : execution);
+	}
+
+	public ReceiverBulkhead getBulkhead() {
+		return bulkhead;
+	}
+
+	public void setBulkhead(ReceiverBulkhead bulkhead) {
+		this.bulkhead = bulkhead;
+	}
+
 	/** Configure/override the component-level scope. Null means "allow all". */
 	public void setScope(Scope scope) {
 		this.scope = (scope == null ? Scope.allowAll() : scope);
@@ -0,0 +1,94 @@
+package com.obsinity.telemetry.dispatch;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.List;
+
+import com.obsinity.telemetry.model.Lifecycle;
+import com.obsinity.telemetry.model.TelemetryHolder;
+
+/**
+ * Direct call path for a handler method, compiled once at scan time.
+ *
+ * <p>{@link #compile} unreflects the method into a {@link MethodHandle} bound to the bean and adapted to
+ * {@code (Object...)void}, then fuses it with the parameter binders. Arities 0–4 have dedicated implementations that
+ * pass bound values straight to {@code invokeExact} (no argument array); wider methods use a spreader. Exceptions
+ * thrown by the handler propagate unwrapped.
+ *
+ * <p>Note: {@code invokeExact} call sites must be statements (block lambdas) so javac types them as returning
+ * {@code void}.
+ */
+@FunctionalInterface
+public interface HandlerInvoker {
+
+	void invoke(TelemetryHolder holder, Lifecycle phase, Throwable error) throws Throwable;
+
+	/**
+	 * Compile an invoker for {@code method} on {@code bean}. Missing or null binders bind {@code null}. Non-public
+	 * declaring classes (e.g. test inner classes) are made accessible once here rather than on every call.
+	 */
+	static HandlerInvoker compile(Object bean, Method method, List<ParamBinder> binders) {
+		final int n = method.getParameterCount();
+		final ParamBinder[] b = new ParamBinder[n];
+		for (int i = 0; i < n; i++) {
+			ParamBinder pb = (binders == null || i >= binders.size()) ? null : binders.get(i);
+			b[i] = (pb == null) ? (h, p, e) -> null : pb;
+		}
+
+		MethodHandle mh;
+		try {
+			if (!method.canAccess(bean)) method.setAccessible(true);
+			mh = MethodHandles.lookup().unreflect(method).bindTo(bean);
+		} catch (IllegalAccessException | RuntimeException e) {
+			throw new IllegalStateException("Cannot create invoker for " + method, e);
+		}
+		mh = mh.asType(MethodType.genericMethodType(n).changeReturnType(void.class));
+
+		switch (n) {
+			case 0 -> {
+				final MethodHandle h0 = mh;
+				return (h, p, e) -> {
+					h0.invokeExact();
+				};
+			}
+			case 1 -> {
+				final MethodHandle h1 = mh;
+				final ParamBinder b0 = b[0];
+				return (h, p, e) -> {
+					h1.invokeExact(b0.bind(h, p, e));
+				};
+			}
+			case 2 -> {
+				final MethodHandle h2 = mh;
+				final ParamBinder b0 = b[0], b1 = b[1];
+				return (h, p, e) -> {
+					h2.invokeExact(b0.bind(h, p, e), b1.bind(h, p, e));
+				};
+			}
+			case 3 -> {
+				final MethodHandle h3 = mh;
+				final ParamBinder b0 = b[0], b1 = b[1], b2 = b[2];
+				return (h, p, e) -> {
+					h3.invokeExact(b0.bind(h, p, e), b1.bind(h, p, e), b2.bind(h, p, e));
+				};
+			}
+			case 4 -> {
+				final MethodHandle h4 = mh;
+				final ParamBinder b0 = b[0], b1 = b[1], b2 = b[2], b3 = b[3];
+				return (h, p, e) -> {
+					h4.invokeExact(b0.bind(h, p, e), b1.bind(h, p, e), b2.bind(h, p, e), b3.bind(h, p, e));
+				};
+			}
+			default -> {
+				final MethodHandle spread = mh.asSpreader(Object[].class, n);
+				return (h, p, e) -> {
+					Object[] args = new Object[n];
+					for (int i = 0; i < n; i++) args[i] = b[i].bind(h, p, e);
+					spread.invokeExact(args);
+				};
+			}
+		}
+	}
+}
@@ -0,0 +1,292 @@
+package com.obsinity.telemetry.dispatch;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.obsinity.telemetry.annotations.Bulkhead;
+import com.obsinity.telemetry.utils.TelemetryClock;
+
+/**
+ * Per-receiver bulkhead and circuit breaker (see {@link Bulkhead}).
+ *
+ * <p>Callers bracket each invocation with {@link #acquire()} and {@link #complete(int, long, boolean)}. The breaker
+ * evaluates a sliding window of the last {@code window} results; p99 and error rate are tracked incrementally as counts
+ * of slow and failed samples in the window, so evaluation is O(1) per call with no sorting. While {@code CLOSED} the
+ * window is an atomic ring with striped counts and calls take no lock; the monitor is only entered for state changes
+ * and half-open probes. Counts may briefly lag a concurrent sample, so a trip can come one result early or late.
+ *
+ * <p>States: {@code CLOSED} (calls flow, bounded by {@code maxConcurrent}) → {@code OPEN} (all calls skipped until
+ * {@code openNanos} elapse) → {@code HALF_OPEN} (one probe at a time; {@code probes} healthy probes close the breaker,
+ * an unhealthy one re-opens it).
+ */
+public final class ReceiverBulkhead {
+
+	private static final Logger log = LoggerFactory.getLogger(ReceiverBulkhead.class);
+
+	/** {@link #acquire()} result: skip the invocation. */
+	public static final int DENIED = 0;
+	/** {@link #acquire()} result: regular call. */
+	public static final int CALL = 1;
+	/** {@link #acquire()} result: half-open probe call. */
+	public static final int PROBE = 2;
+
+	public enum State {
+		CLOSED,
+		OPEN,
+		HALF_OPEN
+	}
+
+	/** Bulkhead settings; durations in nanoseconds, {@code 0} disables the respective check. */
+	public record Config(
+			int maxConcurrent,
+			long timeBudgetNanos,
+			long p99ThresholdNanos,
+			double errorRateThreshold,
+			int window,
+			int minCalls,
+			long openNanos,
+			int probes) {
+		public Config {
+			if (maxConcurrent < 0) throw new IllegalArgumentException("maxConcurrent must be >= 0");
+			if (timeBudgetNanos < 0) throw new IllegalArgumentException("timeBudget must be >= 0");
+			if (p99ThresholdNanos < 0) throw new IllegalArgumentException("p99 threshold must be >= 0");
+			if (errorRateThreshold < 0 || errorRateThreshold > 1) {
+				throw new IllegalArgumentException("errorRate must be within 0..1");
+			}
+			if (window <= 0) throw new IllegalArgumentException("window must be > 0");
+			if (minCalls <= 0 || minCalls > window) throw new IllegalArgumentException("minCalls must be in 1..window");
+			if (openNanos < 0) throw new IllegalArgumentException("open duration must be >= 0");
+			if (probes <= 0) throw new IllegalArgumentException("probes must be > 0");
+		}
+
+		public static Config from(Bulkhead ann) {
+			return new Config(
+					ann.maxConcurrent(),
+					TimeUnit.MILLISECONDS.toNanos(ann.timeBudgetMillis()),
+					TimeUnit.MILLISECONDS.toNanos(ann.p99Millis()),
+					ann.errorRate(),
+					ann.window(),
+					ann.minCalls(),
+					TimeUnit.MILLISECONDS.toNanos(ann.openMillis()),
+					ann.probes());
+		}
+	}
+
+	/** Point-in-time counters. */
+	public record Stats(
+			State state,
+			int inFlight,
+			long calls,
+			long errors,
+			long timedOut,
+			long skippedOpen,
+			long skippedSaturated,
+			long opened) {
+		/** All invocations skipped by this bulkhead. */
+		public long skipped() {
+			return skippedOpen + skippedSaturated;
+		}
+	}
+
+	private final String name;
+	private final Config config;
+	private final TelemetryClock clock;
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final LongAdder calls = new LongAdder();
+	private final LongAdder errors = new LongAdder();
+	private final LongAdder timedOut = new LongAdder();
+	private final LongAdder skippedOpen = new LongAdder();
+	private final LongAdder skippedSaturated = new LongAdder();
+	private final LongAdder opened = new LongAdder();
+
+	private volatile State state = State.CLOSED;
+
+	// Guarded by this
+	private long openUntil;
+	private boolean probeInFlight;
+	private int healthyProbes;
+
+	// CLOSED-state window, updated without locking: FILLED | SLOW | FAILED per slot, counts kept alongside
+	private static final int FILLED = 1;
+	private static final int SLOW = 2;
+	private static final int FAILED = 4;
+	private final AtomicIntegerArray samples;
+	private final AtomicLong cursor = new AtomicLong();
+	private final LongAdder sampleCount = new LongAdder();
+	private final LongAdder slowCount = new LongAdder();
+	private final LongAdder failCount = new LongAdder();
+
+	public ReceiverBulkhead(String name, Config config) {
+		this(name, config, TelemetryClock.system());
+	}
+
+	public ReceiverBulkhead(String name, Config config, TelemetryClock clock) {
+		this.name = Objects.requireNonNull(name, "name");
+		this.config = Objects.requireNonNull(config, "config");
+		this.clock = Objects.requireNonNull(clock, "clock");
+		this.samples = new AtomicIntegerArray(config.window());
+	}
+
+	public Config config() {
+		return config;
+	}
+
+	public State state() {
+		return state;
+	}
+
+	/** Monotonic time for measuring an invocation (pass to {@link #complete}). */
+	public long nanoTime() {
+		return clock.nanoTime();
+	}
+
+	/** Admit an invocation: {@link #CALL}, {@link #PROBE}, or {@link #DENIED} (skipped, counted). */
+	public int acquire() {
+		if (state != State.CLOSED) return acquireNotClosed();
+		return enter() ? CALL : DENIED;
+	}
+
+	/**
+	 * Record the outcome of an admitted invocation.
+	 *
+	 * @param permit value returned by {@link #acquire()}; {@link #DENIED} is ignored
+	 * @param startNanos {@link #nanoTime()} taken before the call
+	 * @param error whether the handler threw
+	 */
+	public void complete(int permit, long startNanos, boolean error) {
+		if (permit == DENIED) return;
+		inFlight.decrementAndGet();
+		final long elapsed = clock.nanoTime() - startNanos;
+		final boolean overBudget = config.timeBudgetNanos() > 0 && elapsed > config.timeBudgetNanos();
+		final boolean isSlow = config.p99ThresholdNanos() > 0 && elapsed > config.p99ThresholdNanos();
+		calls.increment();
+		if (error) errors.increment();
+		if (overBudget) timedOut.increment();
+
+		if (permit == PROBE) {
+			completeProbe(error || overBudget || isSlow);
+			return;
+		}
+		if (state != State.CLOSED) return; // finished after the breaker opened
+		record(isSlow, error || overBudget);
+		final long n = sampleCount.sum();
+		if (n < config.minCalls()) return;
+		if (p99Exceeded(n, slowCount.sum())) tripIfClosed("p99 latency above " + config.p99ThresholdNanos() + "ns");
+		else {
+			final long failures = failCount.sum();
+			if (errorRateExceeded(n, failures)) tripIfClosed("error rate " + failures + "/" + n);
+		}
+	}
+
+	public Stats stats() {
+		return new Stats(
+				state,
+				inFlight.get(),
+				calls.sum(),
+				errors.sum(),
+				timedOut.sum(),
+				skippedOpen.sum(),
+				skippedSaturated.sum(),
+				opened.sum());
+	}
+
+	private boolean enter() {
+		final int max = config.maxConcurrent();
+		if (max <= 0) {
+			inFlight.incrementAndGet();
+			return true;
+		}
+		for (; ; ) {
+			int n = inFlight.get();
+			if (n >= max) {
+				skippedSaturated.increment();
+				return false;
+			}
+			if (inFlight.compareAndSet(n, n + 1)) return true;
+		}
+	}
+
+	private synchronized int acquireNotClosed() {
+		if (state == State.CLOSED) return enter() ? CALL : DENIED;
+		if (state == State.OPEN) {
+			if (clock.nanoTime() - openUntil < 0) {
+				skippedOpen.increment();
+				return DENIED;
+			}
+			state = State.HALF_OPEN;
+			healthyProbes = 0;
+		}
+		if (probeInFlight) {
+			skippedOpen.increment();
+			return DENIED;
+		}
+		if (!enter()) return DENIED;
+		probeInFlight = true;
+		return PROBE;
+	}
+
+	private synchronized void completeProbe(boolean unhealthy) {
+		probeInFlight = false;
+		if (unhealthy) {
+			trip("probe failed");
+		} else if (++healthyProbes >= config.probes()) {
+			resetWindow();
+			state = State.CLOSED;
+			log.info("Receiver {} bulkhead closed after {} healthy probes", name, healthyProbes);
+		}
+	}
+
+	/** Open the breaker unless a concurrent call already did. */
+	private synchronized void tripIfClosed(String reason) {
+		if (state == State.CLOSED) trip(reason);
+	}
+
+	private void trip(String reason) {
+		state = State.OPEN;
+		openUntil = clock.nanoTime() + config.openNanos();
+		opened.increment();
+		log.warn(
+				"Receiver {} bulkhead opened ({}); skipping invocations for {}ms",
+				name,
+				reason,
+				config.openNanos() / 1_000_000);
+	}
+
+	/** Overwrite the oldest slot with this result and adjust the counts by what it replaced. */
+	private void record(boolean isSlow, boolean isFailure) {
+		final int slot = (int) (cursor.getAndIncrement() % samples.length());
+		final int old = samples.getAndSet(slot, FILLED | (isSlow ? SLOW : 0) | (isFailure ? FAILED : 0));
+		if ((old & FILLED) == 0) sampleCount.increment();
+		final int slowDelta = (isSlow ? 1 : 0) - ((old & SLOW) != 0 ? 1 : 0);
+		if (slowDelta != 0) slowCount.add(slowDelta);
+		final int failDelta = (isFailure ? 1 : 0) - ((old & FAILED) != 0 ? 1 : 0);
+		if (failDelta != 0) failCount.add(failDelta);
+	}
+
+	/** Nearest-rank p99 exceeds the threshold iff more than {@code count - ceil(0.99 * count)} samples do. */
+	private boolean p99Exceeded(long count, long slow) {
+		if (config.p99ThresholdNanos() <= 0) return false;
+		final long rank = (99 * count + 99) / 100;
+		return slow > count - rank;
+	}
+
+	private boolean errorRateExceeded(long count, long failures) {
+		return config.errorRateThreshold() < 1.0 && failures > config.errorRateThreshold() * count;
+	}
+
+	/** Called while HALF_OPEN, when no CLOSED-path call records. */
+	private void resetWindow() {
+		for (int i = 0; i < samples.length(); i++) samples.set(i, 0);
+		cursor.set(0L);
+		sampleCount.reset();
+		slowCount.reset();
+		failCount.reset();
+	}
+}
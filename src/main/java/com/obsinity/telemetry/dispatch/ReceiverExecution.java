@@ -0,0 +1,264 @@
+package com.obsinity.telemetry.dispatch;
+
+import java.lang.reflect.Method;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.obsinity.telemetry.annotations.ExecutionMode;
+
+/**
+ * Runs one receiver's handler invocations according to its {@link ExecutionMode}, bounded by a per-receiver concurrency
+ * limit.
+ *
+ * <ul>
+ *   <li>{@link ExecutionMode#INLINE}: runs on the caller; with a limit the caller waits for a permit.
+ *   <li>{@link ExecutionMode#EXECUTOR} / {@link ExecutionMode#VIRTUAL}: hands the task to the executor; with a limit,
+ *       tasks beyond it wait in a per-receiver queue and are started as running tasks complete, so no executor thread
+ *       ever blocks on the limit. That queue holds at most {@code maxWaiting} tasks (default
+ *       {@code obsinity.receivers.maxWaiting}, 10000); further tasks are dropped and counted ({@link #dropped()}).
+ *   <li>{@link ExecutionMode#VIRTUAL} before Java 21 falls back to a fixed pool of daemon threads
+ *       ({@code maxConcurrency}, or {@code obsinity.receivers.fallbackThreads} when unlimited) whose queue is bounded
+ *       by {@code maxWaiting}; overflow is rejected and counted.
+ * </ul>
+ *
+ * Tasks are expected to isolate their own failures; a rejected submission is counted and logged, never thrown.
+ */
+public final class ReceiverExecution implements AutoCloseable {
+
+	private static final Logger log = LoggerFactory.getLogger(ReceiverExecution.class);
+
+	/** Default bound on tasks waiting for a permit (or, in the pre-21 VIRTUAL fallback, for a pool thread). */
+	public static final int DEFAULT_MAX_WAITING = Integer.getInteger("obsinity.receivers.maxWaiting", 10_000);
+
+	/** Pool size of the pre-21 VIRTUAL fallback when the receiver sets no concurrency limit. */
+	static final int FALLBACK_THREADS = Integer.getInteger(
+			"obsinity.receivers.fallbackThreads",
+			Math.max(4, 2 * Runtime.getRuntime().availableProcessors()));
+
+	private static final ReceiverExecution INLINE =
+			new ReceiverExecution(ExecutionMode.INLINE, null, false, "-", 0, DEFAULT_MAX_WAITING);
+
+	private final ExecutionMode mode;
+	private final Executor executor; // null for INLINE
+	private final boolean ownsExecutor;
+	private final String name;
+	private final int maxConcurrency;
+	private final Semaphore permits; // null = unlimited
+	private final int maxWaiting;
+	private final Queue<Runnable> waiting = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger waitingCount = new AtomicInteger();
+	private final AtomicInteger active = new AtomicInteger();
+	private final LongAdder rejected = new LongAdder();
+	private final LongAdder dropped = new LongAdder();
+
+	private ReceiverExecution(
+			ExecutionMode mode,
+			Executor executor,
+			boolean ownsExecutor,
+			String name,
+			int maxConcurrency,
+			int maxWaiting) {
+		if (maxWaiting <= 0) throw new IllegalArgumentException("maxWaiting must be > 0");
+		this.mode = mode;
+		this.executor = executor;
+		this.ownsExecutor = ownsExecutor;
+		this.name = name;
+		this.maxConcurrency = Math.max(0, maxConcurrency);
+		this.permits = this.maxConcurrency > 0 ? new Semaphore(this.maxConcurrency) : null;
+		this.maxWaiting = maxWaiting;
+	}
+
+	/** Shared unlimited inline execution (the default for every receiver). */
+	public static ReceiverExecution inline() {
+		return INLINE;
+	}
+
+	public static ReceiverExecution inline(String name, int maxConcurrency) {
+		return maxConcurrency <= 0
+				? INLINE
+				: new ReceiverExecution(ExecutionMode.INLINE, null, false, name, maxConcurrency, DEFAULT_MAX_WAITING);
+	}
+
+	/** Runs on a caller-managed executor (not shut down by {@link #close()}). */
+	public static ReceiverExecution executor(String name, Executor executor, int maxConcurrency) {
+		return executor(name, executor, maxConcurrency, DEFAULT_MAX_WAITING);
+	}
+
+	public static ReceiverExecution executor(String name, Executor executor, int maxConcurrency, int maxWaiting) {
+		return new ReceiverExecution(
+				ExecutionMode.EXECUTOR,
+				Objects.requireNonNull(executor, "executor"),
+				false,
+				name,
+				maxConcurrency,
+				maxWaiting);
+	}
+
+	/**
+	 * Virtual thread per task on Java 21+, otherwise a bounded pool of daemon threads; shut down by {@link #close()}.
+	 */
+	public static ReceiverExecution virtual(String name, int maxConcurrency) {
+		return virtual(name, maxConcurrency, DEFAULT_MAX_WAITING);
+	}
+
+	public static ReceiverExecution virtual(String name, int maxConcurrency, int maxWaiting) {
+		return new ReceiverExecution(
+				ExecutionMode.VIRTUAL,
+				newVirtualExecutor(name, maxConcurrency, maxWaiting),
+				true,
+				name,
+				maxConcurrency,
+				maxWaiting);
+	}
+
+	public ExecutionMode mode() {
+		return mode;
+	}
+
+	/** True when tasks run on the calling thread. */
+	public boolean isInline() {
+		return mode == ExecutionMode.INLINE;
+	}
+
+	public int maxConcurrency() {
+		return maxConcurrency;
+	}
+
+	/** Invocations currently running. */
+	public int active() {
+		return active.get();
+	}
+
+	/** Off-thread invocations waiting for a concurrency permit. */
+	public int waiting() {
+		return waitingCount.get();
+	}
+
+	/** Invocations the executor refused (or inline waits that were interrupted). */
+	public long rejected() {
+		return rejected.sum();
+	}
+
+	/** Invocations dropped because {@code maxWaiting} tasks were already waiting for a permit. */
+	public long dropped() {
+		return dropped.sum();
+	}
+
+	public void execute(Runnable task) {
+		if (executor == null) {
+			runInline(task);
+		} else if (permits == null) {
+			submit(task, false);
+		} else if (waitingCount.incrementAndGet() > maxWaiting) {
+			waitingCount.decrementAndGet();
+			dropped.increment();
+			final long n = dropped.sum();
+			if (n == 1 || n % 1_000 == 0) {
+				log.warn(
+						"Receiver {} dropped an invocation: {} already waiting ({} dropped so far)",
+						name,
+						maxWaiting,
+						n);
+			}
+		} else {
+			waiting.add(task);
+			drain();
+		}
+	}
+
+	@Override
+	public void close() {
+		if (ownsExecutor && executor instanceof ExecutorService es) es.shutdown();
+	}
+
+	private void runInline(Runnable task) {
+		if (permits == null) {
+			task.run();
+			return;
+		}
+		try {
+			permits.acquire();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			rejected.increment();
+			log.warn("Receiver {} skipped an invocation: interrupted waiting for a concurrency permit", name);
+			return;
+		}
+		active.incrementAndGet();
+		try {
+			task.run();
+		} finally {
+			active.decrementAndGet();
+			permits.release();
+		}
+	}
+
+	/** Start waiting tasks while permits are available. */
+	private void drain() {
+		while (!waiting.isEmpty() && permits.tryAcquire()) {
+			Runnable next = waiting.poll();
+			if (next == null) {
+				permits.release();
+			} else {
+				waitingCount.decrementAndGet();
+				submit(next, true);
+			}
+		}
+	}
+
+	private void submit(Runnable task, boolean holdsPermit) {
+		try {
+			executor.execute(() -> {
+				active.incrementAndGet();
+				try {
+					task.run();
+				} finally {
+					active.decrementAndGet();
+					if (holdsPermit) {
+						permits.release();
+						drain();
+					}
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			if (holdsPermit) permits.release();
+			rejected.increment();
+			log.error("Receiver {} invocation rejected by its {} executor: {}", name, mode, e.toString());
+		}
+	}
+
+	private static Executor newVirtualExecutor(String name, int maxConcurrency, int maxWaiting) {
+		try {
+			Method m = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return (Executor) m.invoke(null);
+		} catch (ReflectiveOperationException | RuntimeException notAvailable) {
+			// Pre-21 runtime: platform threads are not cheap, so bound both the pool and its queue.
+			AtomicInteger seq = new AtomicInteger();
+			ThreadFactory tf = r -> {
+				Thread t = new Thread(r, "obsinity-receiver-" + name + "-" + seq.incrementAndGet());
+				t.setDaemon(true);
+				return t;
+			};
+			int threads = maxConcurrency > 0 ? maxConcurrency : FALLBACK_THREADS;
+			ThreadPoolExecutor pool = new ThreadPoolExecutor(
+					threads, threads, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(maxWaiting), tf);
+			pool.allowCoreThreadTimeOut(true);
+			return pool;
+		}
+	}
+}
@@ -0,0 +1,13 @@
+package com.obsinity.telemetry.dispatch;
+
+import com.obsinity.telemetry.annotations.EventReceiver;
+
+/**
+ * Implemented by receivers that decide per instance whether nested {@code @Step} events reach them; overrides
+ * {@link EventReceiver#steps()}. Read once, when the receiver is scanned.
+ */
+public interface StepInterest {
+
+	/** False to leave nested steps out of this receiver's routing. */
+	boolean receivesSteps();
+}
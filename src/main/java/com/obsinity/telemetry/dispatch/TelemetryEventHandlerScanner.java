@@ -14,8 +14,10 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
+import org.springframework.aop.framework.AopProxyUtils;
 import org.springframework.aop.support.AopUtils;
 import org.springframework.beans.factory.ListableBeanFactory;
 import org.springframework.context.annotation.Bean;
@@ -26,6 +28,7 @@ import org.springframework.core.annotation.MergedAnnotations;
 
 import io.opentelemetry.api.trace.SpanKind;
 import com.obsinity.telemetry.annotations.BindEventThrowable;
+import com.obsinity.telemetry.annotations.Bulkhead;
 import com.obsinity.telemetry.annotations.EventReceiver;
 import com.obsinity.telemetry.annotations.GlobalFlowFallback;
 import com.obsinity.telemetry.annotations.OnEventScope;
@@ -42,6 +45,7 @@ import com.obsinity.telemetry.annotations.PullAttribute;
 import com.obsinity.telemetry.annotations.PullContextValue;
 import com.obsinity.telemetry.model.Lifecycle;
 import com.obsinity.telemetry.model.TelemetryHolder;
+import com.obsinity.telemetry.model.TelemetrySnapshot;
 import com.obsinity.telemetry.processor.TelemetryProcessorSupport;
 
 /**
@@ -84,8 +88,8 @@ public class TelemetryEventHandlerScanner {
 		List<HandlerGroup> groups = new ArrayList<>(receivers.size());
 
 		for (Map.Entry<String, Object> entry : receivers.entrySet()) {
-			Object bean = entry.getValue();
-			Class<?> userClass = AopUtils.getTargetClass(bean);
+			Class<?> userClass = AopUtils.getTargetClass(entry.getValue());
+			Object bean = resolveTarget(entry.getValue());
 			String componentName = userClass.getSimpleName();
 
 			boolean isGlobalFallback = AnnotationUtils.findAnnotation(userClass, GlobalFlowFallback.class) != null;
@@ -116,6 +120,15 @@ public class TelemetryEventHandlerScanner {
 					lifecycleSet.isEmpty() ? null : lifecycleSet.toArray(new Lifecycle[0]));
 
 			HandlerGroup group = new HandlerGroup(componentName, scope);
+			EventReceiver receiver = AnnotationUtils.findAnnotation(userClass, EventReceiver.class);
+			group.setAsync(receiver != null && receiver.async());
+			group.setReceivesSteps(
+					bean instanceof StepInterest interest
+							? interest.receivesSteps()
+							: receiver == null || receiver.steps());
+			if (receiver != null) group.setExecution(resolveExecution(userClass, componentName, receiver));
+			Bulkhead bulkhead = AnnotationUtils.findAnnotation(userClass, Bulkhead.class);
+			if (bulkhead != null) group.setBulkhead(resolveBulkhead(userClass, componentName, bulkhead));
 
 			// Guard (exactName + phase + outcome-bucket [+ failureType]) within this component
 			Map<String, List<String>> dupGuard = new LinkedHashMap<>();
@@ -299,7 +312,7 @@ public class TelemetryEventHandlerScanner {
 		for (int i = 0; i < pts.length; i++) {
 			Class<?> pt = pts[i];
 
-			if (TelemetryHolder.class.isAssignableFrom(pt)) {
+			if (TelemetryHolder.class.isAssignableFrom(pt) || TelemetrySnapshot.class.isAssignableFrom(pt)) {
 				hasHolder = true;
 			}
 			if (List.class.isAssignableFrom(pt) && gpts[i] instanceof ParameterizedType p) {
@@ -399,7 +412,10 @@ public class TelemetryEventHandlerScanner {
 					b = (holder, phase, error) -> {
 						if (phase != Lifecycle.ROOT_FLOW_FINISHED) return null;
 						try {
-							List<TelemetryHolder> batch = support.getBatch();
+							// Async workers publish the batch via RootBatchContext; inline dispatch uses the
+							// processor's batch
+							List<TelemetryHolder> batch = RootBatchContext.get();
+							if (batch == null) batch = support.getBatch();
 							return (batch == null || batch.isEmpty()) ? null : batch;
 						} catch (Throwable t) {
 							return null;
@@ -412,6 +428,8 @@ public class TelemetryEventHandlerScanner {
 			if (b == null) {
 				if (TelemetryHolder.class.isAssignableFrom(pt)) {
 					b = (holder, phase, error) -> holder;
+				} else if (TelemetrySnapshot.class.isAssignableFrom(pt)) {
+					b = (holder, phase, error) -> (holder == null ? null : holder.freeze());
 				} else if (Lifecycle.class.isAssignableFrom(pt)) {
 					b = (holder, phase, error) -> phase;
 				} else if (Throwable.class.isAssignableFrom(pt)) {
@@ -572,10 +590,56 @@ public class TelemetryEventHandlerScanner {
 		return "Invalid handler [" + userClass.getSimpleName() + "#" + m.getName() + "]: ";
 	}
 
+	/** Execution mode and concurrency limit from {@code @EventReceiver}; executor beans are looked up by name. */
+	private ReceiverExecution resolveExecution(Class<?> userClass, String componentName, EventReceiver receiver) {
+		int limit = receiver.maxConcurrency();
+		if (limit < 0) {
+			throw new IllegalStateException("Invalid receiver " + userClass.getSimpleName()
+					+ ": @EventReceiver.maxConcurrency must be >= 0 (0 = unlimited)");
+		}
+		String executorName = receiver.executor();
+		return switch (receiver.execution()) {
+			case INLINE -> ReceiverExecution.inline(componentName, limit);
+			case VIRTUAL -> ReceiverExecution.virtual(componentName, limit);
+			case EXECUTOR -> {
+				if (executorName == null || executorName.isBlank()) {
+					throw new IllegalStateException("Invalid receiver " + userClass.getSimpleName()
+							+ ": @EventReceiver(execution = EXECUTOR) requires executor = \"<bean name>\"");
+				}
+				if (!beanFactory.containsBean(executorName) || !beanFactory.isTypeMatch(executorName, Executor.class)) {
+					throw new IllegalStateException("Invalid receiver " + userClass.getSimpleName()
+							+ ": no Executor bean named '" + executorName + "'");
+				}
+				yield ReceiverExecution.executor(
+						componentName, beanFactory.getBean(executorName, Executor.class), limit);
+			}
+		};
+	}
+
+	private static ReceiverBulkhead resolveBulkhead(Class<?> userClass, String componentName, Bulkhead bulkhead) {
+		try {
+			return new ReceiverBulkhead(componentName, ReceiverBulkhead.Config.from(bulkhead));
+		} catch (IllegalArgumentException e) {
+			throw new IllegalStateException(
+					"Invalid receiver " + userClass.getSimpleName() + ": @Bulkhead " + e.getMessage());
+		}
+	}
+
 	/* =========================
 	Utils
 	========================= */
 
+	/** Unwrap singleton AOP proxies once so compiled invokers call the target directly. */
+	private static Object resolveTarget(Object bean) {
+		Object current = bean;
+		while (AopUtils.isAopProxy(current)) {
+			Object target = AopProxyUtils.getSingletonTarget(current);
+			if (target == null) break;
+			current = target;
+		}
+		return current;
+	}
+
 	private static List<Method> methodsAnnotated(Class<?> c, Class<? extends Annotation> ann) {
 		return Arrays.stream(c.getMethods())
 				.filter(m -> m.isAnnotationPresent(ann))
@@ -0,0 +1,229 @@
+package com.obsinity.telemetry.export;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import com.obsinity.telemetry.model.TelemetryHolder;
+
+/**
+ * Batching hand-off from finished flows to an OTEL {@link SpanExporter}.
+ *
+ * <ul>
+ *   <li>Producers {@link #offer} spans into a bounded queue and never block; when the queue is full the span is dropped
+ *       and counted.
+ *   <li>One daemon thread ({@code obsinity-span-export}) drains the queue and calls {@link SpanExporter#export} with at
+ *       most {@link Config#maxBatchSize()} spans, as soon as a batch is full or {@link Config#scheduleDelay()} has
+ *       passed since the first queued span, and waits up to {@link Config#exportTimeout()} for each export.
+ *   <li>{@link #forceFlush} exports everything queued so far; {@link #close()} flushes and shuts the exporter down.
+ * </ul>
+ *
+ * Same shape as the SDK's {@code BatchSpanProcessor}, but fed from the dispatch bus instead of an OTEL tracer.
+ */
+public final class BatchingSpanExportStage implements AutoCloseable {
+
+	private static final Logger log = LoggerFactory.getLogger(BatchingSpanExportStage.class);
+
+	/** Batch sizing and timing. */
+	public record Config(int maxBatchSize, Duration scheduleDelay, int maxQueueSize, Duration exportTimeout) {
+		public Config {
+			if (maxBatchSize <= 0) throw new IllegalArgumentException("maxBatchSize must be > 0");
+			if (maxQueueSize < maxBatchSize) throw new IllegalArgumentException("maxQueueSize must be >= maxBatchSize");
+			if (scheduleDelay == null || scheduleDelay.isNegative() || scheduleDelay.isZero()) {
+				throw new IllegalArgumentException("scheduleDelay must be > 0");
+			}
+			if (exportTimeout == null || exportTimeout.isNegative() || exportTimeout.isZero()) {
+				throw new IllegalArgumentException("exportTimeout must be > 0");
+			}
+		}
+
+		/**
+		 * From {@code obsinity.export.otel.maxBatchSize} (default 512), {@code .scheduleDelayMillis} (5000),
+		 * {@code .maxQueueSize} (2048) and {@code .exportTimeoutMillis} (30000).
+		 */
+		public static Config fromSystemProperties() {
+			return new Config(
+					Integer.getInteger("obsinity.export.otel.maxBatchSize", 512),
+					Duration.ofMillis(Long.getLong("obsinity.export.otel.scheduleDelayMillis", 5000L)),
+					Integer.getInteger("obsinity.export.otel.maxQueueSize", 2048),
+					Duration.ofMillis(Long.getLong("obsinity.export.otel.exportTimeoutMillis", 30000L)));
+		}
+	}
+
+	/** Point-in-time metrics. */
+	public record Stats(int queued, long accepted, long dropped, long exported, long failed, long batches) {}
+
+	private final Config config;
+	private final SpanExporter exporter;
+	private final ArrayBlockingQueue<SpanData> queue;
+	private final Thread worker;
+	private final Object signal = new Object();
+
+	private final LongAdder accepted = new LongAdder();
+	private final LongAdder dropped = new LongAdder();
+	private final LongAdder exported = new LongAdder();
+	private final LongAdder failed = new LongAdder();
+	private final LongAdder batches = new LongAdder();
+
+	/** Flush generation requested by {@link #forceFlush} and the last one the worker completed. */
+	private final AtomicLong flushRequested = new AtomicLong();
+
+	private volatile long flushCompleted;
+	private volatile boolean closed;
+
+	public BatchingSpanExportStage(SpanExporter exporter, Config config) {
+		this.exporter = Objects.requireNonNull(exporter, "exporter");
+		this.config = Objects.requireNonNull(config, "config");
+		this.queue = new ArrayBlockingQueue<>(config.maxQueueSize());
+		this.worker = new Thread(this::run, "obsinity-span-export");
+		this.worker.setDaemon(true);
+		this.worker.start();
+	}
+
+	public Config config() {
+		return config;
+	}
+
+	/** Queue a finished holder (viewed as {@link TelemetrySpanData}); false if dropped. */
+	public boolean offer(TelemetryHolder holder) {
+		return holder != null && offer(TelemetrySpanData.of(holder));
+	}
+
+	/** Queue a span for export; false if the stage is closed or the queue is full. */
+	public boolean offer(SpanData span) {
+		if (closed || span == null || !queue.offer(span)) {
+			dropped.increment();
+			return false;
+		}
+		accepted.increment();
+		// Wake the worker to start the batch timer (first span) or to export a full batch
+		final int size = queue.size();
+		if (size == 1 || size >= config.maxBatchSize()) wake();
+		return true;
+	}
+
+	/** Export everything queued before this call; returns false on timeout. */
+	public boolean forceFlush(Duration timeout) {
+		final long generation = flushRequested.incrementAndGet();
+		wake();
+		final long deadline = System.nanoTime() + timeout.toNanos();
+		synchronized (signal) {
+			while (flushCompleted < generation) {
+				long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+				if (remaining <= 0 || !worker.isAlive()) return flushCompleted >= generation;
+				try {
+					signal.wait(remaining);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	public Stats stats() {
+		return new Stats(queue.size(), accepted.sum(), dropped.sum(), exported.sum(), failed.sum(), batches.sum());
+	}
+
+	/** Stop accepting spans, export what is queued and shut the exporter down. */
+	@Override
+	public void close() {
+		if (closed) return;
+		forceFlush(config.exportTimeout());
+		closed = true;
+		wake();
+		try {
+			worker.join(config.exportTimeout().toMillis());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		exporter.shutdown().join(config.exportTimeout().toMillis(), TimeUnit.MILLISECONDS);
+	}
+
+	private void wake() {
+		synchronized (signal) {
+			signal.notifyAll();
+		}
+	}
+
+	private void run() {
+		final List<SpanData> batch = new ArrayList<>(config.maxBatchSize());
+		final long delayNanos = config.scheduleDelay().toNanos();
+		long batchDeadline = 0L; // 0 = no span waiting
+		while (true) {
+			final long flushTarget = flushRequested.get();
+			final boolean flushing = flushTarget > flushCompleted;
+
+			if (!queue.isEmpty() && batchDeadline == 0L) batchDeadline = System.nanoTime() + delayNanos;
+			final boolean due = batchDeadline != 0L && System.nanoTime() - batchDeadline >= 0;
+			if (flushing || closed || due || queue.size() >= config.maxBatchSize()) {
+				// Full batches only, unless the batch is due, flushed or closing: then everything queued so far (spans
+				// arriving meanwhile wait for the next round, so a flush ends under sustained load)
+				final int max = config.maxBatchSize();
+				int toDrain = (flushing || closed || due) ? queue.size() : (queue.size() / max) * max;
+				while (toDrain > 0) {
+					int n = queue.drainTo(batch, Math.min(max, toDrain));
+					if (n == 0) break;
+					toDrain -= n;
+					export(batch);
+				}
+				if (queue.isEmpty()) batchDeadline = 0L;
+				else if (flushing || closed || due) batchDeadline = System.nanoTime() + delayNanos;
+				if (flushing) {
+					synchronized (signal) {
+						flushCompleted = flushTarget;
+						signal.notifyAll();
+					}
+				}
+				if (closed && queue.isEmpty()) return;
+				continue;
+			}
+
+			synchronized (signal) {
+				// Re-check under the monitor: offer() and forceFlush() notify while holding it
+				if (closed
+						|| flushRequested.get() > flushCompleted
+						|| (batchDeadline == 0L && !queue.isEmpty())
+						|| queue.size() >= config.maxBatchSize()) continue;
+				long waitNanos = batchDeadline == 0L ? delayNanos : batchDeadline - System.nanoTime();
+				if (waitNanos <= 0) continue;
+				try {
+					TimeUnit.NANOSECONDS.timedWait(signal, waitNanos);
+				} catch (InterruptedException e) {
+					if (closed) return;
+				}
+			}
+		}
+	}
+
+	private void export(List<SpanData> batch) {
+		try {
+			CompletableResultCode result = exporter.export(new ArrayList<>(batch));
+			result.join(config.exportTimeout().toMillis(), TimeUnit.MILLISECONDS);
+			if (result.isSuccess()) {
+				exported.add(batch.size());
+			} else {
+				failed.add(batch.size());
+				log.warn("Span export of {} spans failed or timed out", batch.size());
+			}
+		} catch (Throwable t) {
+			failed.add(batch.size());
+			log.error("Span export failed: {}", t.toString(), t);
+		} finally {
+			batches.increment();
+			batch.clear();
+		}
+	}
+}
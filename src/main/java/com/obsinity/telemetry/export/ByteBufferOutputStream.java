@@ -0,0 +1,60 @@
+package com.obsinity.telemetry.export;
+
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * {@link OutputStream} over a buffer from a {@link ByteBufferPool}, growing by swapping in a larger pooled buffer. Not
+ * thread-safe; {@link #close()} is a no-op so generators may close it freely.
+ */
+final class ByteBufferOutputStream extends OutputStream {
+
+	private final ByteBufferPool pool;
+	private ByteBuffer buffer;
+
+	ByteBufferOutputStream(ByteBufferPool pool, int initialCapacity) {
+		this.pool = pool;
+		this.buffer = pool.acquire(initialCapacity);
+	}
+
+	@Override
+	public void write(int b) {
+		ensure(1);
+		buffer.put((byte) b);
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) {
+		ensure(len);
+		buffer.put(b, off, len);
+	}
+
+	/** Bytes written since the last {@link #reset()}. */
+	int size() {
+		return buffer.position();
+	}
+
+	/** Read-only view of the bytes written so far, positioned at 0. */
+	ByteBuffer contents() {
+		return buffer.duplicate().flip();
+	}
+
+	void reset() {
+		buffer.clear();
+	}
+
+	/** Return the buffer to the pool; the stream must not be used afterwards. */
+	void release() {
+		pool.release(buffer);
+		buffer = null;
+	}
+
+	private void ensure(int extra) {
+		if (buffer.remaining() >= extra) return;
+		ByteBuffer bigger = pool.acquire(Math.max(buffer.capacity() * 2, buffer.position() + extra));
+		buffer.flip();
+		bigger.put(buffer);
+		pool.release(buffer);
+		buffer = bigger;
+	}
+}
@@ -0,0 +1,49 @@
+package com.obsinity.telemetry.export;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Bounded pool of heap {@link ByteBuffer}s for encoded export payloads.
+ *
+ * <p>Buffers are little-endian (protobuf fixed-width order) and array-backed, so a payload can be handed to an HTTP
+ * client as {@code (array, offset, length)} without copying. At most {@code maxPooled} buffers are kept; buffers larger
+ * than {@code maxRetainedCapacity} are left to the GC on release. Thread-safe.
+ */
+public final class ByteBufferPool {
+
+	private static final int MIN_CAPACITY = 4096;
+
+	private final ArrayBlockingQueue<ByteBuffer> free;
+	private final int maxRetainedCapacity;
+
+	public ByteBufferPool(int maxPooled, int maxRetainedCapacity) {
+		if (maxPooled <= 0) throw new IllegalArgumentException("maxPooled must be > 0");
+		if (maxRetainedCapacity <= 0) throw new IllegalArgumentException("maxRetainedCapacity must be > 0");
+		this.free = new ArrayBlockingQueue<>(maxPooled);
+		this.maxRetainedCapacity = maxRetainedCapacity;
+	}
+
+	/** Cleared buffer with at least {@code minCapacity} bytes; pooled when one is large enough. */
+	public ByteBuffer acquire(int minCapacity) {
+		ByteBuffer b = free.poll();
+		if (b != null && b.capacity() >= minCapacity) return b;
+		// Too small (dropped) or none pooled: allocate, rounded up to a power of two
+		int cap = Math.max(MIN_CAPACITY, Integer.highestOneBit(Math.max(1, minCapacity - 1)) << 1);
+		if (cap < minCapacity) cap = minCapacity; // overflow guard
+		return ByteBuffer.allocate(cap).order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	/** Return a buffer obtained from {@link #acquire}; it must not be used afterwards. */
+	public void release(ByteBuffer buffer) {
+		if (buffer == null || buffer.capacity() > maxRetainedCapacity) return;
+		buffer.clear();
+		free.offer(buffer);
+	}
+
+	/** Buffers currently pooled. */
+	public int pooled() {
+		return free.size();
+	}
+}
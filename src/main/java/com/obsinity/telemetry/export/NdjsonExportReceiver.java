@@ -0,0 +1,45 @@
+package com.obsinity.telemetry.export;
+
+import java.util.List;
+import java.util.Objects;
+
+import com.obsinity.telemetry.annotations.EventReceiver;
+import com.obsinity.telemetry.annotations.OnFlowLifecycle;
+import com.obsinity.telemetry.annotations.OnFlowNotMatched;
+import com.obsinity.telemetry.model.Lifecycle;
+import com.obsinity.telemetry.model.TelemetryHolder;
+
+/**
+ * Receiver that appends each finished root flow, with its nested flows, to an {@link NdjsonFileSink}.
+ *
+ * <p>Not registered automatically; declare it as a bean:
+ *
+ * <pre>{@code
+ * @Bean(destroyMethod = "close")
+ * NdjsonFileSink ndjsonSink() {
+ *     return new NdjsonFileSink(NdjsonFileSink.Config.fromSystemProperties());
+ * }
+ *
+ * @Bean
+ * NdjsonExportReceiver ndjsonExportReceiver(NdjsonFileSink sink) {
+ *     return new NdjsonExportReceiver(sink);
+ * }
+ * }</pre>
+ *
+ * Delivered through the async dispatcher, so serialization and file I/O stay off the thread that finished the flow.
+ */
+@EventReceiver(async = true)
+@OnFlowLifecycle(Lifecycle.ROOT_FLOW_FINISHED)
+public class NdjsonExportReceiver {
+
+	private final NdjsonFileSink sink;
+
+	public NdjsonExportReceiver(NdjsonFileSink sink) {
+		this.sink = Objects.requireNonNull(sink, "sink");
+	}
+
+	@OnFlowNotMatched
+	public void onRootFinished(List<TelemetryHolder> batch) {
+		sink.append(batch);
+	}
+}
@@ -0,0 +1,184 @@
+package com.obsinity.telemetry.export;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.obsinity.telemetry.model.TelemetryHolder;
+import com.obsinity.telemetry.model.TelemetryJsonModule;
+
+/**
+ * Newline-delimited JSON file sink: one {@link TelemetryHolder} per line, written with {@link TelemetryJsonModule}.
+ *
+ * <ul>
+ *   <li>Each {@link #append} call serializes its holders into one pooled buffer and writes it to the current file with
+ *       a single channel write, so a batch is never split across files.
+ *   <li>Files are named {@code <prefix>-<epochMillis>-<seq>.ndjson} in {@link Config#directory()}; the sink rolls to a
+ *       new file before a write that would take the current one past {@link Config#maxFileBytes()}, or once the file is
+ *       older than {@link Config#maxFileAge()}. Rolled files are left in place for shipping/cleanup.
+ *   <li>I/O errors are counted and logged; the current file is abandoned and the next append starts a new one.
+ * </ul>
+ *
+ * Thread-safe (appends are serialized).
+ */
+public final class NdjsonFileSink implements AutoCloseable {
+
+	private static final Logger log = LoggerFactory.getLogger(NdjsonFileSink.class);
+
+	/** Output location and rolling thresholds. */
+	public record Config(Path directory, String filePrefix, long maxFileBytes, Duration maxFileAge) {
+		public Config {
+			Objects.requireNonNull(directory, "directory");
+			if (filePrefix == null || filePrefix.isBlank()) throw new IllegalArgumentException("filePrefix is blank");
+			if (maxFileBytes <= 0) throw new IllegalArgumentException("maxFileBytes must be > 0");
+			if (maxFileAge == null || maxFileAge.isNegative() || maxFileAge.isZero()) {
+				throw new IllegalArgumentException("maxFileAge must be > 0");
+			}
+		}
+
+		/**
+		 * From {@code obsinity.export.ndjson.directory} (default {@code telemetry}), {@code .filePrefix}
+		 * ({@code obsinity}), {@code .maxFileBytes} (64 MiB) and {@code .maxFileAgeMillis} (3600000).
+		 */
+		public static Config fromSystemProperties() {
+			return new Config(
+					Path.of(System.getProperty("obsinity.export.ndjson.directory", "telemetry")),
+					System.getProperty("obsinity.export.ndjson.filePrefix", "obsinity"),
+					Long.getLong("obsinity.export.ndjson.maxFileBytes", 64L << 20),
+					Duration.ofMillis(Long.getLong("obsinity.export.ndjson.maxFileAgeMillis", 3_600_000L)));
+		}
+	}
+
+	/** Point-in-time metrics. */
+	public record Stats(long written, long bytes, long files, long failed) {}
+
+	private final Config config;
+	private final Clock clock;
+	private final ObjectWriter writer;
+	private final ByteBufferOutputStream out;
+
+	// Guarded by this
+	private FileChannel channel;
+	private Path current;
+	private long currentBytes;
+	private long openedAt;
+	private long sequence;
+	private long written;
+	private long bytes;
+	private long files;
+	private long failed;
+	private boolean closed;
+
+	public NdjsonFileSink(Config config) {
+		this(config, Clock.systemUTC());
+	}
+
+	public NdjsonFileSink(Config config, Clock clock) {
+		this.config = Objects.requireNonNull(config, "config");
+		this.clock = Objects.requireNonNull(clock, "clock");
+		ObjectMapper mapper = new ObjectMapper()
+				.registerModule(new TelemetryJsonModule())
+				.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+		this.writer = mapper.writer().withRootValueSeparator("\n");
+		this.out = new ByteBufferOutputStream(new ByteBufferPool(2, 16 << 20), 64 << 10);
+	}
+
+	public Config config() {
+		return config;
+	}
+
+	/** Append one holder as a line. */
+	public boolean append(TelemetryHolder holder) {
+		return holder == null || append(List.of(holder));
+	}
+
+	/** Append {@code holders}, one line each, with a single write; false if the sink is closed or the write failed. */
+	public synchronized boolean append(List<TelemetryHolder> holders) {
+		if (holders == null || holders.isEmpty()) return true;
+		if (closed) {
+			failed += holders.size();
+			return false;
+		}
+		try {
+			out.reset();
+			try (SequenceWriter seq = writer.writeValues(out)) {
+				for (int i = 0, n = holders.size(); i < n; i++) seq.write(holders.get(i));
+			}
+			out.write('\n');
+
+			final int size = out.size();
+			if (channel == null || shouldRoll(size)) open();
+			final ByteBuffer payload = out.contents();
+			while (payload.hasRemaining()) channel.write(payload);
+			currentBytes += size;
+			bytes += size;
+			written += holders.size();
+			return true;
+		} catch (IOException | RuntimeException e) {
+			failed += holders.size();
+			log.warn("NDJSON append to {} failed", current, e);
+			closeChannel();
+			return false;
+		}
+	}
+
+	/** Close the current file; the next append starts a new one. */
+	public synchronized void roll() {
+		closeChannel();
+	}
+
+	/** File currently written to (null before the first append or after a roll). */
+	public synchronized Path currentFile() {
+		return channel != null ? current : null;
+	}
+
+	public synchronized Stats stats() {
+		return new Stats(written, bytes, files, failed);
+	}
+
+	@Override
+	public synchronized void close() {
+		closed = true;
+		closeChannel();
+		out.release();
+	}
+
+	private boolean shouldRoll(int incoming) {
+		if (currentBytes > 0 && currentBytes + incoming > config.maxFileBytes()) return true;
+		return clock.millis() - openedAt >= config.maxFileAge().toMillis();
+	}
+
+	private void open() throws IOException {
+		closeChannel();
+		Files.createDirectories(config.directory());
+		openedAt = clock.millis();
+		current = config.directory().resolve(config.filePrefix() + "-" + openedAt + "-" + (sequence++) + ".ndjson");
+		channel = FileChannel.open(current, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+		currentBytes = 0;
+		files++;
+	}
+
+	private void closeChannel() {
+		if (channel == null) return;
+		try {
+			channel.close();
+		} catch (IOException e) {
+			log.warn("Failed to close {}", current, e);
+		}
+		channel = null;
+	}
+}
@@ -0,0 +1,45 @@
+package com.obsinity.telemetry.export;
+
+import java.util.List;
+import java.util.Objects;
+
+import com.obsinity.telemetry.annotations.EventReceiver;
+import com.obsinity.telemetry.annotations.OnFlowLifecycle;
+import com.obsinity.telemetry.annotations.OnFlowNotMatched;
+import com.obsinity.telemetry.model.Lifecycle;
+import com.obsinity.telemetry.model.TelemetryHolder;
+
+/**
+ * Receiver that sends each finished root flow, with its nested flows, to an OTLP/HTTP collector as one request.
+ *
+ * <p>Not registered automatically; declare it as a bean:
+ *
+ * <pre>{@code
+ * @Bean(destroyMethod = "close")
+ * OtlpHttpTraceExporter otlpExporter() {
+ *     return new OtlpHttpTraceExporter(OtlpHttpTraceExporter.Config.fromSystemProperties());
+ * }
+ *
+ * @Bean
+ * OtlpExportReceiver otlpExportReceiver(OtlpHttpTraceExporter exporter) {
+ *     return new OtlpExportReceiver(exporter);
+ * }
+ * }</pre>
+ *
+ * Encoding runs on the finishing thread (no intermediate span objects); the request is sent asynchronously.
+ */
+@EventReceiver
+@OnFlowLifecycle(Lifecycle.ROOT_FLOW_FINISHED)
+public class OtlpExportReceiver {
+
+	private final OtlpHttpTraceExporter exporter;
+
+	public OtlpExportReceiver(OtlpHttpTraceExporter exporter) {
+		this.exporter = Objects.requireNonNull(exporter, "exporter");
+	}
+
+	@OnFlowNotMatched
+	public void onRootFinished(List<TelemetryHolder> batch) {
+		exporter.export(batch);
+	}
+}
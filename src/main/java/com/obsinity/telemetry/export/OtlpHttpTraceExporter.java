@@ -0,0 +1,314 @@
+package com.obsinity.telemetry.export;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.obsinity.telemetry.model.TelemetryHolder;
+
+/**
+ * OTLP/HTTP trace exporter posting {@link OtlpTraceEncoder} payloads ({@code application/x-protobuf}) with the JDK
+ * {@link HttpClient}.
+ *
+ * <ul>
+ *   <li>{@link #export} encodes on the caller's thread, with that thread's own {@link OtlpTraceEncoder} (no shared
+ *       lock), into a pooled buffer and sends asynchronously; the buffer's backing array is handed to the client as-is
+ *       and returned to the pool when the response arrives.
+ *   <li>At most {@link Config#maxInFlight()} requests are outstanding; beyond that batches are dropped and counted, so
+ *       a slow collector never blocks the flow that finished.
+ *   <li>Transport errors, HTTP 429 and 5xx are retryable; any other non-2xx response is permanent and the batch is
+ *       counted as failed (a malformed request will not succeed on replay).
+ *   <li>With a {@link SegmentSpool}, batches that would be dropped or failed retryably are appended to the spool
+ *       instead and replayed one request at a time, oldest first, after each successful send and on {@link #flush}. A
+ *       replayed record is acknowledged once the collector accepts it, or discarded (and counted) when it is rejected
+ *       permanently or has failed {@link Config#maxReplayAttempts()} times, so one bad record never blocks the spool.
+ *       Attempts are counted in memory and restart from zero after a restart.
+ * </ul>
+ */
+public final class OtlpHttpTraceExporter implements AutoCloseable {
+
+	private static final Logger log = LoggerFactory.getLogger(OtlpHttpTraceExporter.class);
+
+	/** Collector endpoint, request limits and how often a spooled request is retried. */
+	public record Config(URI endpoint, Duration timeout, int maxInFlight, int maxReplayAttempts) {
+		public Config {
+			Objects.requireNonNull(endpoint, "endpoint");
+			if (timeout == null || timeout.isNegative() || timeout.isZero()) {
+				throw new IllegalArgumentException("timeout must be > 0");
+			}
+			if (maxInFlight <= 0) throw new IllegalArgumentException("maxInFlight must be > 0");
+			if (maxReplayAttempts <= 0) throw new IllegalArgumentException("maxReplayAttempts must be > 0");
+		}
+
+		/** With the default of 5 replay attempts per spooled request. */
+		public Config(URI endpoint, Duration timeout, int maxInFlight) {
+			this(endpoint, timeout, maxInFlight, 5);
+		}
+
+		/**
+		 * From {@code obsinity.export.otlp.endpoint} (default {@code http://localhost:4318/v1/traces}),
+		 * {@code .timeoutMillis} (10000), {@code .maxInFlight} (4) and {@code .maxReplayAttempts} (5).
+		 */
+		public static Config fromSystemProperties() {
+			return new Config(
+					URI.create(System.getProperty("obsinity.export.otlp.endpoint", "http://localhost:4318/v1/traces")),
+					Duration.ofMillis(Long.getLong("obsinity.export.otlp.timeoutMillis", 10000L)),
+					Integer.getInteger("obsinity.export.otlp.maxInFlight", 4),
+					Integer.getInteger("obsinity.export.otlp.maxReplayAttempts", 5));
+		}
+	}
+
+	/**
+	 * Point-in-time metrics; {@code exported}/{@code failed}/{@code dropped}/{@code spooled} count spans,
+	 * {@code replayed} counts spooled requests delivered, {@code discarded} spooled requests given up on (permanently
+	 * rejected or out of attempts), {@code bytes} is payload bytes sent successfully.
+	 */
+	public record Stats(
+			long exported, long failed, long dropped, long bytes, long spooled, long replayed, long discarded) {}
+
+	/** How the collector answered one request. */
+	private enum Outcome {
+		ACCEPTED,
+		/** Transport error, 429 or 5xx: worth sending again later. */
+		RETRYABLE,
+		/** Any other non-2xx: the same bytes will be rejected again. */
+		PERMANENT
+	}
+
+	private final Config config;
+	private final HttpClient client;
+	private final ByteBufferPool pool;
+	private final ThreadLocal<OtlpTraceEncoder> encoder;
+	private final Semaphore inFlight;
+	private final SegmentSpool spool; // null: drop under backpressure
+	private final AtomicBoolean replaying = new AtomicBoolean();
+
+	private final LongAdder exported = new LongAdder();
+	private final LongAdder failed = new LongAdder();
+	private final LongAdder dropped = new LongAdder();
+	private final LongAdder bytes = new LongAdder();
+	private final LongAdder spooled = new LongAdder();
+	private final LongAdder replayed = new LongAdder();
+	private final LongAdder discarded = new LongAdder();
+
+	/** Failed sends of the spool's current head; only touched by the single replay in progress. */
+	private int headAttempts;
+
+	private volatile boolean closed;
+
+	public OtlpHttpTraceExporter(Config config) {
+		this(config, HttpClient.newBuilder().connectTimeout(config.timeout()).build());
+	}
+
+	public OtlpHttpTraceExporter(Config config, HttpClient client) {
+		this(config, client, null);
+	}
+
+	/** Spool batches the collector cannot take now into {@code spool} (not closed by this exporter). */
+	public OtlpHttpTraceExporter(Config config, HttpClient client, SegmentSpool spool) {
+		this.spool = spool;
+		this.config = Objects.requireNonNull(config, "config");
+		this.client = Objects.requireNonNull(client, "client");
+		this.pool = new ByteBufferPool(config.maxInFlight(), 4 << 20);
+		this.encoder = ThreadLocal.withInitial(() -> new OtlpTraceEncoder(pool));
+		this.inFlight = new Semaphore(config.maxInFlight());
+	}
+
+	public Config config() {
+		return config;
+	}
+
+	/**
+	 * Encode and send {@code holders} as one request; false if dropped (closed, or too many requests in flight and no
+	 * spool to take the batch).
+	 */
+	public boolean export(List<TelemetryHolder> holders) {
+		if (holders == null || holders.isEmpty()) return true;
+		final int spans = holders.size();
+		if (closed) {
+			dropped.add(spans);
+			return false;
+		}
+		final boolean permit = inFlight.tryAcquire();
+		if (!permit && spool == null) {
+			dropped.add(spans);
+			return false;
+		}
+		final ByteBuffer payload;
+		try {
+			payload = encoder.get().encode(holders);
+		} catch (RuntimeException e) {
+			if (permit) inFlight.release();
+			failed.add(spans);
+			log.warn("OTLP encoding failed for {} spans", spans, e);
+			return false;
+		}
+		if (!permit) {
+			try {
+				return spool(payload, spans);
+			} finally {
+				pool.release(payload);
+			}
+		}
+
+		final int length = payload.remaining();
+		send(payload.array(), payload.arrayOffset() + payload.position(), length)
+				.whenComplete((response, error) -> {
+					final Outcome outcome = outcome(response, error);
+					final boolean ok = outcome == Outcome.ACCEPTED;
+					try {
+						if (ok) {
+							exported.add(spans);
+							bytes.add(length);
+						} else if (spool == null || outcome == Outcome.PERMANENT) {
+							failed.add(spans);
+						} else {
+							spool(payload, spans);
+						}
+					} finally {
+						pool.release(payload);
+						inFlight.release();
+					}
+					if (ok) replay();
+				});
+		return true;
+	}
+
+	/** Wait for in-flight requests to complete; returns false on timeout. */
+	public boolean flush(Duration timeout) {
+		replay();
+		final int permits = config.maxInFlight();
+		try {
+			if (!inFlight.tryAcquire(permits, timeout.toNanos(), TimeUnit.NANOSECONDS)) return false;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+		inFlight.release(permits);
+		return true;
+	}
+
+	public Stats stats() {
+		return new Stats(
+				exported.sum(),
+				failed.sum(),
+				dropped.sum(),
+				bytes.sum(),
+				spooled.sum(),
+				replayed.sum(),
+				discarded.sum());
+	}
+
+	private CompletableFuture<HttpResponse<Void>> send(byte[] body, int offset, int length) {
+		final HttpRequest request = HttpRequest.newBuilder(config.endpoint())
+				.timeout(config.timeout())
+				.header("Content-Type", "application/x-protobuf")
+				.POST(HttpRequest.BodyPublishers.ofByteArray(body, offset, length))
+				.build();
+		return client.sendAsync(request, HttpResponse.BodyHandlers.discarding());
+	}
+
+	private Outcome outcome(HttpResponse<Void> response, Throwable error) {
+		if (error != null) {
+			log.warn("OTLP export to {} failed", config.endpoint(), error);
+			return Outcome.RETRYABLE;
+		}
+		final int status = response.statusCode();
+		if (status / 100 == 2) return Outcome.ACCEPTED;
+		log.warn("OTLP export to {} rejected: HTTP {}", config.endpoint(), status);
+		return status == 429 || status / 100 == 5 ? Outcome.RETRYABLE : Outcome.PERMANENT;
+	}
+
+	/** Append an encoded request to the spool; false (and counted as dropped) if the append fails. */
+	private boolean spool(ByteBuffer payload, int spans) {
+		try {
+			spool.append(payload);
+			spooled.add(spans);
+			return true;
+		} catch (IOException | RuntimeException e) {
+			dropped.add(spans);
+			log.warn("OTLP spool append failed; dropped {} spans", spans, e);
+			return false;
+		}
+	}
+
+	/**
+	 * Send the spool's head record if nothing else is replaying and a request slot is free; chains while records are
+	 * acknowledged or discarded, and stops at the first retryable failure until the next trigger.
+	 */
+	private void replay() {
+		if (spool == null || closed || !replaying.compareAndSet(false, true)) return;
+		final byte[] body;
+		try {
+			if (!inFlight.tryAcquire()) {
+				replaying.set(false);
+				return;
+			}
+			final ByteBuffer head = spool.peek();
+			if (head == null) {
+				inFlight.release();
+				replaying.set(false);
+				return;
+			}
+			body = new byte[head.remaining()]; // copy: the mapped view is only valid until ack
+			head.get(body);
+		} catch (RuntimeException e) {
+			inFlight.release();
+			replaying.set(false);
+			log.warn("OTLP spool read failed", e);
+			return;
+		}
+		send(body, 0, body.length).whenComplete((response, error) -> {
+			final Outcome outcome = outcome(response, error);
+			boolean advance = true;
+			try {
+				if (outcome == Outcome.ACCEPTED) {
+					spool.ack();
+					replayed.increment();
+					bytes.add(body.length);
+				} else if (outcome == Outcome.PERMANENT) {
+					discardHead("rejected permanently");
+				} else if (++headAttempts >= config.maxReplayAttempts()) {
+					discardHead("failed " + headAttempts + " times");
+				} else {
+					advance = false;
+				}
+			} catch (RuntimeException e) {
+				advance = false;
+				log.warn("OTLP spool ack failed", e);
+			} finally {
+				if (advance) headAttempts = 0;
+				replaying.set(false); // before the permit, so a flush() that got every permit can replay again
+				inFlight.release();
+			}
+			if (advance) replay();
+		});
+	}
+
+	private void discardHead(String reason) {
+		spool.ack();
+		discarded.increment();
+		log.warn("OTLP spooled request discarded: {}", reason);
+	}
+
+	/** Stop accepting batches and wait (up to the request timeout) for in-flight ones. */
+	@Override
+	public void close() {
+		closed = true;
+		if (!flush(config.timeout())) log.warn("OTLP exporter closed with requests still in flight");
+	}
+}
@@ -0,0 +1,788 @@
+package com.obsinity.telemetry.export;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.TraceState;
+import io.opentelemetry.sdk.trace.data.LinkData;
+import com.obsinity.telemetry.model.OLink;
+import com.obsinity.telemetry.model.OResource;
+import com.obsinity.telemetry.model.OStatus;
+import com.obsinity.telemetry.model.TelemetryHolder;
+import com.obsinity.telemetry.model.TelemetrySnapshot;
+
+/**
+ * Dependency-free OTLP/protobuf encoder ({@code ExportTraceServiceRequest}) writing straight from frozen holders.
+ *
+ * <p>Produces the same bytes as the OTEL SDK's reference marshaler fed with {@link TelemetrySpanData} views of the same
+ * holders, without building SDK data objects or protobuf messages:
+ *
+ * <ul>
+ *   <li>Spans are grouped by resource (the shared {@link OResource} instance, else equal attributes; first-seen order)
+ *       under a single {@code com.obsinity.telemetry} scope.
+ *   <li>A first pass computes every nested message length into a reusable {@code int[]} in pre-order; the second pass
+ *       writes tags, varints and fixed-width fields into one pooled buffer, consuming the lengths in the same order.
+ *   <li>Ids are written from the snapshot's numeric ids, strings are UTF-8 encoded in place, attributes are emitted in
+ *       key order (as OTEL {@code Attributes} sort them) using a reusable index array.
+ * </ul>
+ *
+ * Steady state, the encode path allocates nothing per span: the holders' snapshots already exist, the shared resource's
+ * encoding is cached and scratch arrays are reused. Links and attribute values that need stringifying are the
+ * exceptions. Not thread-safe; use one encoder per thread or guard it.
+ */
+public final class OtlpTraceEncoder {
+
+	// Wire types
+	private static final int VARINT = 0;
+	private static final int I64 = 1;
+	private static final int LEN = 2;
+	private static final int I32 = 5;
+
+	// ExportTraceServiceRequest / ResourceSpans / Resource / ScopeSpans / InstrumentationScope
+	private static final int REQUEST_RESOURCE_SPANS = 1;
+	private static final int RESOURCE_SPANS_RESOURCE = 1;
+	private static final int RESOURCE_SPANS_SCOPE_SPANS = 2;
+	private static final int RESOURCE_ATTRIBUTES = 1;
+	private static final int SCOPE_SPANS_SCOPE = 1;
+	private static final int SCOPE_SPANS_SPANS = 2;
+	private static final int SCOPE_NAME = 1;
+
+	// Span
+	private static final int SPAN_TRACE_ID = 1;
+	private static final int SPAN_SPAN_ID = 2;
+	private static final int SPAN_PARENT_SPAN_ID = 4;
+	private static final int SPAN_NAME = 5;
+	private static final int SPAN_KIND = 6;
+	private static final int SPAN_START = 7;
+	private static final int SPAN_END = 8;
+	private static final int SPAN_ATTRIBUTES = 9;
+	private static final int SPAN_DROPPED_ATTRIBUTES = 10;
+	private static final int SPAN_EVENTS = 11;
+	private static final int SPAN_LINKS = 13;
+	private static final int SPAN_STATUS = 15;
+	private static final int SPAN_FLAGS = 16;
+
+	// Span.Event / Span.Link / Status
+	private static final int EVENT_TIME = 1;
+	private static final int EVENT_NAME = 2;
+	private static final int EVENT_ATTRIBUTES = 3;
+	private static final int EVENT_DROPPED_ATTRIBUTES = 4;
+	private static final int LINK_TRACE_ID = 1;
+	private static final int LINK_SPAN_ID = 2;
+	private static final int LINK_TRACE_STATE = 3;
+	private static final int LINK_ATTRIBUTES = 4;
+	private static final int LINK_DROPPED_ATTRIBUTES = 5;
+	private static final int LINK_FLAGS = 6;
+	private static final int STATUS_MESSAGE = 2;
+	private static final int STATUS_CODE = 3;
+
+	// KeyValue / AnyValue / ArrayValue
+	private static final int KV_KEY = 1;
+	private static final int KV_VALUE = 2;
+	private static final int ANY_STRING = 1;
+	private static final int ANY_BOOL = 2;
+	private static final int ANY_INT = 3;
+	private static final int ANY_DOUBLE = 4;
+	private static final int ANY_ARRAY = 5;
+	private static final int ARRAY_VALUES = 1;
+
+	/** Span flags: W3C sampled bit plus "parent is-remote known" (parents here are always local). */
+	private static final int FLAG_SAMPLED = 0x01;
+
+	private static final int FLAG_HAS_IS_REMOTE = 0x100;
+	private static final int FLAG_IS_REMOTE = 0x200;
+
+	// Value kinds
+	private static final byte K_SKIP = 0;
+	private static final byte K_STRING = 1;
+	private static final byte K_BOOL = 2;
+	private static final byte K_INT = 3;
+	private static final byte K_DOUBLE = 4;
+	private static final byte K_STRING_ARRAY = 5;
+	private static final byte K_BOOL_ARRAY = 6;
+	private static final byte K_INT_ARRAY = 7;
+	private static final byte K_DOUBLE_ARRAY = 8;
+	private static final byte K_STRINGIFY = 9;
+
+	/** {@code InstrumentationScope} message body for the Obsinity scope. */
+	private static final byte[] SCOPE = scopeBytes(TelemetrySpanData.SCOPE.getName());
+
+	private final ByteBufferPool pool;
+
+	// Pre-order message lengths: filled by the size pass, consumed by the write pass
+	private int[] sizes = new int[256];
+	private int cursor;
+
+	// Key-sorted attribute indices, reused per attribute set
+	private int[] order = new int[16];
+
+	// Batch scratch
+	private TelemetrySnapshot[] snapshots = new TelemetrySnapshot[64];
+	private int[] groupOf = new int[64];
+	private OResource[] groupResources = new OResource[4];
+	private byte[][] groupResourceBytes = new byte[4][];
+	private int groupCount;
+
+	// Encoded body of the last shared resource seen
+	private OResource cachedResource;
+	private byte[] cachedResourceBytes;
+
+	public OtlpTraceEncoder(ByteBufferPool pool) {
+		this.pool = Objects.requireNonNull(pool, "pool");
+	}
+
+	/**
+	 * Encode {@code holders} (typically a ROOT_FLOW_FINISHED batch) as one {@code ExportTraceServiceRequest}. Holders
+	 * are frozen if they have not been already. Returns a pooled buffer positioned at 0 with the payload up to its
+	 * limit; release it to the pool when sent.
+	 */
+	public ByteBuffer encode(List<TelemetryHolder> holders) {
+		final int n = prepare(holders);
+		try {
+			cursor = 0;
+			int total = 0;
+			for (int g = 0; g < groupCount; g++) total += lenField(REQUEST_RESOURCE_SPANS, sizeResourceSpans(g, n));
+
+			final ByteBuffer buf = pool.acquire(total);
+			cursor = 0;
+			for (int g = 0; g < groupCount; g++) {
+				writeTag(buf, REQUEST_RESOURCE_SPANS, LEN);
+				writeVarint(buf, sizes[cursor]);
+				writeResourceSpans(buf, g, n);
+			}
+			buf.flip();
+			return buf;
+		} finally {
+			Arrays.fill(snapshots, 0, n, null);
+			Arrays.fill(groupResources, 0, groupCount, null);
+			Arrays.fill(groupResourceBytes, 0, groupCount, null);
+		}
+	}
+
+	/* ========================= Batch preparation ========================= */
+
+	private int prepare(List<TelemetryHolder> holders) {
+		final int size = holders.size();
+		if (snapshots.length < size) {
+			snapshots = new TelemetrySnapshot[Math.max(size, snapshots.length * 2)];
+			groupOf = new int[snapshots.length];
+		}
+		groupCount = 0;
+		int n = 0;
+		for (int i = 0; i < size; i++) {
+			TelemetryHolder h = holders.get(i);
+			if (h == null) continue;
+			snapshots[n] = h.freeze();
+			groupOf[n] = groupFor(h.resource());
+			n++;
+		}
+		return n;
+	}
+
+	private int groupFor(OResource resource) {
+		for (int g = 0; g < groupCount; g++) {
+			if (groupResources[g] == resource) return g;
+		}
+		for (int g = 0; g < groupCount; g++) {
+			if (sameAttributes(groupResources[g], resource)) return g;
+		}
+		if (groupCount == groupResources.length) {
+			groupResources = Arrays.copyOf(groupResources, groupCount * 2);
+			groupResourceBytes = Arrays.copyOf(groupResourceBytes, groupCount * 2);
+		}
+		groupResources[groupCount] = resource;
+		groupResourceBytes[groupCount] = resourceBytes(resource);
+		return groupCount++;
+	}
+
+	private static boolean sameAttributes(OResource a, OResource b) {
+		if (a == null || b == null) return a == b;
+		return Objects.equals(a.toOtel(), b.toOtel());
+	}
+
+	private byte[] resourceBytes(OResource resource) {
+		if (resource == null) return new byte[0];
+		if (resource == cachedResource) return cachedResourceBytes;
+		final Attributes attrs = resource.toOtel().getAttributes();
+		final int start = cursor;
+		int size = 0;
+		for (Map.Entry<AttributeKey<?>, Object> e : attrs.asMap().entrySet()) {
+			size += lenField(RESOURCE_ATTRIBUTES, sizeOtelKeyValue(e.getKey(), e.getValue()));
+		}
+		final ByteBuffer tmp = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+		cursor = start;
+		for (Map.Entry<AttributeKey<?>, Object> e : attrs.asMap().entrySet()) {
+			writeTag(tmp, RESOURCE_ATTRIBUTES, LEN);
+			writeVarint(tmp, sizes[cursor]);
+			writeOtelKeyValue(tmp, e.getKey(), e.getValue());
+		}
+		cursor = start;
+		final byte[] bytes = tmp.array();
+		if (resource.isShared()) {
+			cachedResource = resource;
+			cachedResourceBytes = bytes;
+		}
+		return bytes;
+	}
+
+	/* ========================= Size pass ========================= */
+
+	private int reserve() {
+		if (cursor == sizes.length) sizes = Arrays.copyOf(sizes, sizes.length * 2);
+		return cursor++;
+	}
+
+	private int sizeResourceSpans(int g, int n) {
+		final int slot = reserve();
+		int size = lenField(RESOURCE_SPANS_RESOURCE, groupResourceBytes[g].length);
+		size += lenField(RESOURCE_SPANS_SCOPE_SPANS, sizeScopeSpans(g, n));
+		sizes[slot] = size;
+		return size;
+	}
+
+	private int sizeScopeSpans(int g, int n) {
+		final int slot = reserve();
+		int size = lenField(SCOPE_SPANS_SCOPE, SCOPE.length);
+		for (int i = 0; i < n; i++) {
+			if (groupOf[i] == g) size += lenField(SCOPE_SPANS_SPANS, sizeSpan(snapshots[i]));
+		}
+		sizes[slot] = size;
+		return size;
+	}
+
+	private int sizeSpan(TelemetrySnapshot s) {
+		final int slot = reserve();
+		int size = lenField(SPAN_TRACE_ID, 16) + lenField(SPAN_SPAN_ID, 8);
+		if (hasParent(s)) size += lenField(SPAN_PARENT_SPAN_ID, 8);
+		size += stringField(SPAN_NAME, s.name());
+		size += tagSize(SPAN_KIND) + 1;
+		if (s.startEpochNanos() != 0L) size += tagSize(SPAN_START) + 8;
+		if (s.endEpochNanos() != 0L) size += tagSize(SPAN_END) + 8;
+
+		final TelemetrySnapshot.Attributes attrs = s.attributes();
+		final int count = sortKeys(attrs);
+		for (int k = 0; k < count; k++) {
+			int i = order[k];
+			size += lenField(SPAN_ATTRIBUTES, sizeModelKeyValue(attrs.key(i), attrs.value(i)));
+		}
+		final int dropped = attrs.size() - count;
+		if (dropped > 0) size += tagSize(SPAN_DROPPED_ATTRIBUTES) + varintSize(dropped);
+
+		final List<TelemetrySnapshot.Event> events = s.events();
+		for (int e = 0, ne = events.size(); e < ne; e++) size += lenField(SPAN_EVENTS, sizeEvent(events.get(e)));
+		final List<OLink> links = s.links();
+		for (int l = 0, nl = links.size(); l < nl; l++) {
+			size += lenField(SPAN_LINKS, sizeLink(links.get(l).toOtel()));
+		}
+
+		size += lenField(SPAN_STATUS, sizeStatus(s));
+		size += tagSize(SPAN_FLAGS) + 4;
+		sizes[slot] = size;
+		return size;
+	}
+
+	private int sizeEvent(TelemetrySnapshot.Event ev) {
+		final int slot = reserve();
+		int size = 0;
+		if (ev.epochNanos() != 0L) size += tagSize(EVENT_TIME) + 8;
+		size += stringField(EVENT_NAME, ev.name());
+		final TelemetrySnapshot.Attributes attrs = ev.attributes();
+		final int count = sortKeys(attrs);
+		for (int k = 0; k < count; k++) {
+			int i = order[k];
+			size += lenField(EVENT_ATTRIBUTES, sizeModelKeyValue(attrs.key(i), attrs.value(i)));
+		}
+		if (ev.droppedAttributesCount() > 0) {
+			size += tagSize(EVENT_DROPPED_ATTRIBUTES) + varintSize(ev.droppedAttributesCount());
+		}
+		sizes[slot] = size;
+		return size;
+	}
+
+	private int sizeLink(LinkData link) {
+		final int slot = reserve();
+		int size = lenField(LINK_TRACE_ID, 16) + lenField(LINK_SPAN_ID, 8);
+		size += stringField(LINK_TRACE_STATE, traceState(link.getSpanContext()));
+		final Attributes attrs = link.getAttributes();
+		for (Map.Entry<AttributeKey<?>, Object> e : attrs.asMap().entrySet()) {
+			size += lenField(LINK_ATTRIBUTES, sizeOtelKeyValue(e.getKey(), e.getValue()));
+		}
+		final int dropped = link.getTotalAttributeCount() - attrs.size();
+		if (dropped > 0) size += tagSize(LINK_DROPPED_ATTRIBUTES) + varintSize(dropped);
+		size += tagSize(LINK_FLAGS) + 4;
+		sizes[slot] = size;
+		return size;
+	}
+
+	private int sizeStatus(TelemetrySnapshot s) {
+		final int slot = reserve();
+		int size = stringField(STATUS_MESSAGE, statusMessage(s));
+		final int code = statusCode(s);
+		if (code != 0) size += tagSize(STATUS_CODE) + varintSize(code);
+		sizes[slot] = size;
+		return size;
+	}
+
+	private int sizeModelKeyValue(String key, Object value) {
+		return sizeKeyValue(key, modelKind(value), value);
+	}
+
+	private int sizeOtelKeyValue(AttributeKey<?> key, Object value) {
+		return sizeKeyValue(key.getKey(), otelKind(key), value);
+	}
+
+	private int sizeKeyValue(String key, byte kind, Object value) {
+		final int slot = reserve();
+		final int size = stringField(KV_KEY, key) + lenField(KV_VALUE, sizeAnyValue(kind, value));
+		sizes[slot] = size;
+		return size;
+	}
+
+	private int sizeAnyValue(byte kind, Object value) {
+		final int slot = reserve();
+		final int size =
+				switch (kind) {
+					case K_STRING -> lenField(ANY_STRING, utf8Length((String) value));
+					case K_STRINGIFY -> lenField(ANY_STRING, utf8Length(String.valueOf(value)));
+					case K_BOOL -> tagSize(ANY_BOOL) + 1;
+					case K_INT -> tagSize(ANY_INT) + varintSize(((Number) value).longValue());
+					case K_DOUBLE -> tagSize(ANY_DOUBLE) + 8;
+					default -> lenField(ANY_ARRAY, sizeArrayValue(elementKind(kind), (List<?>) value));
+				};
+		sizes[slot] = size;
+		return size;
+	}
+
+	private int sizeArrayValue(byte elementKind, List<?> values) {
+		final int slot = reserve();
+		int size = 0;
+		for (int i = 0, n = values.size(); i < n; i++) {
+			size += lenField(ARRAY_VALUES, sizeAnyValue(elementKind, element(elementKind, values.get(i))));
+		}
+		sizes[slot] = size;
+		return size;
+	}
+
+	/* ========================= Write pass ========================= */
+
+	private void writeResourceSpans(ByteBuffer buf, int g, int n) {
+		cursor++; // this message's own length was written by the caller
+		final byte[] resource = groupResourceBytes[g];
+		writeTag(buf, RESOURCE_SPANS_RESOURCE, LEN);
+		writeVarint(buf, resource.length);
+		buf.put(resource);
+		writeTag(buf, RESOURCE_SPANS_SCOPE_SPANS, LEN);
+		writeVarint(buf, sizes[cursor]);
+		writeScopeSpans(buf, g, n);
+	}
+
+	private void writeScopeSpans(ByteBuffer buf, int g, int n) {
+		cursor++;
+		writeTag(buf, SCOPE_SPANS_SCOPE, LEN);
+		writeVarint(buf, SCOPE.length);
+		buf.put(SCOPE);
+		for (int i = 0; i < n; i++) {
+			if (groupOf[i] != g) continue;
+			writeTag(buf, SCOPE_SPANS_SPANS, LEN);
+			writeVarint(buf, sizes[cursor]);
+			writeSpan(buf, snapshots[i]);
+		}
+	}
+
+	private void writeSpan(ByteBuffer buf, TelemetrySnapshot s) {
+		cursor++;
+		final boolean valid = traceValid(s) && s.spanIdLong() != 0L;
+		writeTag(buf, SPAN_TRACE_ID, LEN);
+		buf.put((byte) 16);
+		writeId(buf, valid ? s.traceIdHigh() : 0L);
+		writeId(buf, valid ? s.traceIdLow() : 0L);
+		writeTag(buf, SPAN_SPAN_ID, LEN);
+		buf.put((byte) 8);
+		writeId(buf, valid ? s.spanIdLong() : 0L);
+		if (hasParent(s)) {
+			writeTag(buf, SPAN_PARENT_SPAN_ID, LEN);
+			buf.put((byte) 8);
+			writeId(buf, s.parentSpanIdLong());
+		}
+		writeString(buf, SPAN_NAME, s.name());
+		writeTag(buf, SPAN_KIND, VARINT);
+		writeVarint(buf, kindNumber(s.kind()));
+		if (s.startEpochNanos() != 0L) {
+			writeTag(buf, SPAN_START, I64);
+			buf.putLong(s.startEpochNanos());
+		}
+		if (s.endEpochNanos() != 0L) {
+			writeTag(buf, SPAN_END, I64);
+			buf.putLong(s.endEpochNanos());
+		}
+
+		final TelemetrySnapshot.Attributes attrs = s.attributes();
+		final int count = sortKeys(attrs);
+		for (int k = 0; k < count; k++) {
+			int i = order[k];
+			writeTag(buf, SPAN_ATTRIBUTES, LEN);
+			writeVarint(buf, sizes[cursor]);
+			writeModelKeyValue(buf, attrs.key(i), attrs.value(i));
+		}
+		final int dropped = attrs.size() - count;
+		if (dropped > 0) {
+			writeTag(buf, SPAN_DROPPED_ATTRIBUTES, VARINT);
+			writeVarint(buf, dropped);
+		}
+
+		final List<TelemetrySnapshot.Event> events = s.events();
+		for (int e = 0, ne = events.size(); e < ne; e++) {
+			writeTag(buf, SPAN_EVENTS, LEN);
+			writeVarint(buf, sizes[cursor]);
+			writeEvent(buf, events.get(e));
+		}
+		final List<OLink> links = s.links();
+		for (int l = 0, nl = links.size(); l < nl; l++) {
+			writeTag(buf, SPAN_LINKS, LEN);
+			writeVarint(buf, sizes[cursor]);
+			writeLink(buf, links.get(l).toOtel());
+		}
+
+		writeTag(buf, SPAN_STATUS, LEN);
+		writeVarint(buf, sizes[cursor++]);
+		writeString(buf, STATUS_MESSAGE, statusMessage(s));
+		final int code = statusCode(s);
+		if (code != 0) {
+			writeTag(buf, STATUS_CODE, VARINT);
+			writeVarint(buf, code);
+		}
+
+		writeTag(buf, SPAN_FLAGS, I32);
+		buf.putInt(FLAG_SAMPLED | FLAG_HAS_IS_REMOTE);
+	}
+
+	private void writeEvent(ByteBuffer buf, TelemetrySnapshot.Event ev) {
+		cursor++;
+		if (ev.epochNanos() != 0L) {
+			writeTag(buf, EVENT_TIME, I64);
+			buf.putLong(ev.epochNanos());
+		}
+		writeString(buf, EVENT_NAME, ev.name());
+		final TelemetrySnapshot.Attributes attrs = ev.attributes();
+		final int count = sortKeys(attrs);
+		for (int k = 0; k < count; k++) {
+			int i = order[k];
+			writeTag(buf, EVENT_ATTRIBUTES, LEN);
+			writeVarint(buf, sizes[cursor]);
+			writeModelKeyValue(buf, attrs.key(i), attrs.value(i));
+		}
+		if (ev.droppedAttributesCount() > 0) {
+			writeTag(buf, EVENT_DROPPED_ATTRIBUTES, VARINT);
+			writeVarint(buf, ev.droppedAttributesCount());
+		}
+	}
+
+	private void writeLink(ByteBuffer buf, LinkData link) {
+		cursor++;
+		final SpanContext ctx = link.getSpanContext();
+		writeTag(buf, LINK_TRACE_ID, LEN);
+		buf.put((byte) 16);
+		buf.put(ctx.getTraceIdBytes());
+		writeTag(buf, LINK_SPAN_ID, LEN);
+		buf.put((byte) 8);
+		buf.put(ctx.getSpanIdBytes());
+		writeString(buf, LINK_TRACE_STATE, traceState(ctx));
+		final Attributes attrs = link.getAttributes();
+		for (Map.Entry<AttributeKey<?>, Object> e : attrs.asMap().entrySet()) {
+			writeTag(buf, LINK_ATTRIBUTES, LEN);
+			writeVarint(buf, sizes[cursor]);
+			writeOtelKeyValue(buf, e.getKey(), e.getValue());
+		}
+		final int dropped = link.getTotalAttributeCount() - attrs.size();
+		if (dropped > 0) {
+			writeTag(buf, LINK_DROPPED_ATTRIBUTES, VARINT);
+			writeVarint(buf, dropped);
+		}
+		writeTag(buf, LINK_FLAGS, I32);
+		buf.putInt(ctx.getTraceFlags().asByte() | FLAG_HAS_IS_REMOTE | (ctx.isRemote() ? FLAG_IS_REMOTE : 0));
+	}
+
+	private void writeModelKeyValue(ByteBuffer buf, String key, Object value) {
+		writeKeyValue(buf, key, modelKind(value), value);
+	}
+
+	private void writeOtelKeyValue(ByteBuffer buf, AttributeKey<?> key, Object value) {
+		writeKeyValue(buf, key.getKey(), otelKind(key), value);
+	}
+
+	private void writeKeyValue(ByteBuffer buf, String key, byte kind, Object value) {
+		cursor++;
+		writeString(buf, KV_KEY, key);
+		writeTag(buf, KV_VALUE, LEN);
+		writeVarint(buf, sizes[cursor]);
+		writeAnyValue(buf, kind, value);
+	}
+
+	private void writeAnyValue(ByteBuffer buf, byte kind, Object value) {
+		cursor++;
+		switch (kind) {
+			case K_STRING -> writeStringAlways(buf, ANY_STRING, (String) value);
+			case K_STRINGIFY -> writeStringAlways(buf, ANY_STRING, String.valueOf(value));
+			case K_BOOL -> {
+				writeTag(buf, ANY_BOOL, VARINT);
+				buf.put((byte) (((Boolean) value) ? 1 : 0));
+			}
+			case K_INT -> {
+				writeTag(buf, ANY_INT, VARINT);
+				writeVarint(buf, ((Number) value).longValue());
+			}
+			case K_DOUBLE -> {
+				writeTag(buf, ANY_DOUBLE, I64);
+				buf.putLong(Double.doubleToRawLongBits(((Number) value).doubleValue()));
+			}
+			default -> {
+				writeTag(buf, ANY_ARRAY, LEN);
+				writeVarint(buf, sizes[cursor]);
+				writeArrayValue(buf, elementKind(kind), (List<?>) value);
+			}
+		}
+	}
+
+	private void writeArrayValue(ByteBuffer buf, byte elementKind, List<?> values) {
+		cursor++;
+		for (int i = 0, n = values.size(); i < n; i++) {
+			writeTag(buf, ARRAY_VALUES, LEN);
+			writeVarint(buf, sizes[cursor]);
+			writeAnyValue(buf, elementKind, element(elementKind, values.get(i)));
+		}
+	}
+
+	/* ========================= Value mapping ========================= */
+
+	/** Mirrors the model's best-effort OTEL conversion (see {@code OtelAttributeKeys}). */
+	private static byte modelKind(Object v) {
+		if (v == null) return K_SKIP;
+		if (v instanceof String) return K_STRING;
+		if (v instanceof Boolean) return K_BOOL;
+		if (v instanceof Integer || v instanceof Long) return K_INT;
+		if (v instanceof Float || v instanceof Double) return K_DOUBLE;
+		if (v instanceof List<?> list && allStrings(list)) return K_STRING_ARRAY;
+		return K_STRINGIFY;
+	}
+
+	private static byte otelKind(AttributeKey<?> key) {
+		return switch (key.getType()) {
+			case STRING -> K_STRING;
+			case BOOLEAN -> K_BOOL;
+			case LONG -> K_INT;
+			case DOUBLE -> K_DOUBLE;
+			case STRING_ARRAY -> K_STRING_ARRAY;
+			case BOOLEAN_ARRAY -> K_BOOL_ARRAY;
+			case LONG_ARRAY -> K_INT_ARRAY;
+			case DOUBLE_ARRAY -> K_DOUBLE_ARRAY;
+			default -> K_STRINGIFY;
+		};
+	}
+
+	private static byte elementKind(byte arrayKind) {
+		return switch (arrayKind) {
+			case K_BOOL_ARRAY -> K_BOOL;
+			case K_INT_ARRAY -> K_INT;
+			case K_DOUBLE_ARRAY -> K_DOUBLE;
+			default -> K_STRING;
+		};
+	}
+
+	private static Object element(byte kind, Object v) {
+		if (v != null) return v;
+		return switch (kind) {
+			case K_BOOL -> Boolean.FALSE;
+			case K_INT -> 0L;
+			case K_DOUBLE -> 0.0d;
+			default -> "";
+		};
+	}
+
+	private static boolean allStrings(List<?> list) {
+		for (int i = 0, n = list.size(); i < n; i++) {
+			if (!(list.get(i) instanceof String)) return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Fill {@link #order} with the indices of exportable attributes (non-empty key, non-null value) sorted by key;
+	 * returns their count.
+	 */
+	private int sortKeys(TelemetrySnapshot.Attributes attrs) {
+		final int n = attrs.size();
+		if (order.length < n) order = new int[Math.max(n, order.length * 2)];
+		int count = 0;
+		for (int i = 0; i < n; i++) {
+			String key = attrs.key(i);
+			if (key == null || key.isEmpty() || attrs.value(i) == null) continue;
+			int j = count++;
+			while (j > 0 && attrs.key(order[j - 1]).compareTo(key) > 0) {
+				order[j] = order[j - 1];
+				j--;
+			}
+			order[j] = i;
+		}
+		return count;
+	}
+
+	private static boolean traceValid(TelemetrySnapshot s) {
+		return (s.traceIdHigh() | s.traceIdLow()) != 0L;
+	}
+
+	/** Parent id is exported only when it forms a valid context with the trace id. */
+	private static boolean hasParent(TelemetrySnapshot s) {
+		return traceValid(s) && s.parentSpanIdLong() != 0L;
+	}
+
+	private static int kindNumber(SpanKind kind) {
+		if (kind == null) return 1;
+		return switch (kind) {
+			case INTERNAL -> 1;
+			case SERVER -> 2;
+			case CLIENT -> 3;
+			case PRODUCER -> 4;
+			case CONSUMER -> 5;
+		};
+	}
+
+	private static String statusMessage(TelemetrySnapshot s) {
+		OStatus st = s.status();
+		return (st != null && st.code() != null && st.message() != null) ? st.message() : "";
+	}
+
+	private static int statusCode(TelemetrySnapshot s) {
+		OStatus st = s.status();
+		StatusCode code =
+				(st != null && st.code() != null) ? st.code() : (s.failed() ? StatusCode.ERROR : StatusCode.UNSET);
+		return switch (code) {
+			case UNSET -> 0;
+			case OK -> 1;
+			case ERROR -> 2;
+		};
+	}
+
+	private static String traceState(SpanContext ctx) {
+		final TraceState state = ctx.getTraceState();
+		if (state.isEmpty()) return "";
+		final StringBuilder sb = new StringBuilder();
+		state.forEach((k, v) -> {
+			if (sb.length() > 0) sb.append(',');
+			sb.append(k).append('=').append(v);
+		});
+		return sb.toString();
+	}
+
+	/* ========================= Protobuf primitives ========================= */
+
+	private static int tagSize(int field) {
+		return varintSize(field << 3);
+	}
+
+	private static int lenField(int field, int length) {
+		return tagSize(field) + varintSize(length) + length;
+	}
+
+	/** Length of an optional string field: absent when empty (proto3 default). */
+	private static int stringField(int field, String s) {
+		if (s == null || s.isEmpty()) return 0;
+		return lenField(field, utf8Length(s));
+	}
+
+	static int varintSize(long v) {
+		int n = 1;
+		while ((v & ~0x7FL) != 0L) {
+			v >>>= 7;
+			n++;
+		}
+		return n;
+	}
+
+	private static void writeTag(ByteBuffer buf, int field, int wireType) {
+		writeVarint(buf, (field << 3) | wireType);
+	}
+
+	static void writeVarint(ByteBuffer buf, long v) {
+		while ((v & ~0x7FL) != 0L) {
+			buf.put((byte) ((v & 0x7F) | 0x80));
+			v >>>= 7;
+		}
+		buf.put((byte) v);
+	}
+
+	private static void writeId(ByteBuffer buf, long v) {
+		for (int shift = 56; shift >= 0; shift -= 8) buf.put((byte) (v >>> shift));
+	}
+
+	private static void writeString(ByteBuffer buf, int field, String s) {
+		if (s == null || s.isEmpty()) return;
+		writeStringAlways(buf, field, s);
+	}
+
+	private static void writeStringAlways(ByteBuffer buf, int field, String s) {
+		writeTag(buf, field, LEN);
+		writeVarint(buf, utf8Length(s));
+		writeUtf8(buf, s);
+	}
+
+	/** UTF-8 length; unpaired surrogates count as one byte ({@code '?'}), as {@link String#getBytes} encodes them. */
+	static int utf8Length(String s) {
+		final int n = s.length();
+		int len = n;
+		for (int i = 0; i < n; i++) {
+			char c = s.charAt(i);
+			if (c < 0x80) continue;
+			if (c < 0x800) {
+				len += 1;
+			} else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(s.charAt(i + 1))) {
+				len += 2; // 4 bytes for 2 chars
+				i++;
+			} else if (Character.isSurrogate(c)) {
+				// unpaired: '?'
+			} else {
+				len += 2;
+			}
+		}
+		return len;
+	}
+
+	private static void writeUtf8(ByteBuffer buf, String s) {
+		final int n = s.length();
+		for (int i = 0; i < n; i++) {
+			char c = s.charAt(i);
+			if (c < 0x80) {
+				buf.put((byte) c);
+			} else if (c < 0x800) {
+				buf.put((byte) (0xC0 | (c >>> 6)));
+				buf.put((byte) (0x80 | (c & 0x3F)));
+			} else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(s.charAt(i + 1))) {
+				int cp = Character.toCodePoint(c, s.charAt(++i));
+				buf.put((byte) (0xF0 | (cp >>> 18)));
+				buf.put((byte) (0x80 | ((cp >>> 12) & 0x3F)));
+				buf.put((byte) (0x80 | ((cp >>> 6) & 0x3F)));
+				buf.put((byte) (0x80 | (cp & 0x3F)));
+			} else if (Character.isSurrogate(c)) {
+				buf.put((byte) '?');
+			} else {
+				buf.put((byte) (0xE0 | (c >>> 12)));
+				buf.put((byte) (0x80 | ((c >>> 6) & 0x3F)));
+				buf.put((byte) (0x80 | (c & 0x3F)));
+			}
+		}
+	}
+
+	private static byte[] scopeBytes(String name) {
+		ByteBuffer b = ByteBuffer.allocate(stringField(SCOPE_NAME, name));
+		writeString(b, SCOPE_NAME, name);
+		return b.array();
+	}
+}
@@ -0,0 +1,421 @@
+package com.obsinity.telemetry.export;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.zip.CRC32C;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Append-only, memory-mapped spool of opaque records (encoded export batches) for riding out slow or unavailable sinks
+ * without holding the data on the heap.
+ *
+ * <ul>
+ *   <li>Records go into fixed-size segment files ({@code <seq>.seg}) written through a {@link MappedByteBuffer}. Each
+ *       is framed as {@code [length][crc32c][payload]}; a zero length marks the end of a segment's data.
+ *   <li>Writes are made durable in batches: the active segment is forced every {@link Config#fsyncEveryRecords()}
+ *       records or once {@link Config#fsyncInterval()} has passed since the last force, and on {@link #sync()} /
+ *       {@link #close()}.
+ *   <li>One reader consumes records in order: {@link #peek()} returns the head record, {@link #ack()} moves past it.
+ *       The cursor is persisted with each sync, so after a restart unacknowledged records are replayed (at least once).
+ *       Fully read segments are deleted.
+ *   <li>Disk use is capped at {@link Config#maxBytes()}: opening a segment beyond the cap evicts the oldest one, read
+ *       or not, and counts the records lost.
+ *   <li>On open, the last segment is scanned and truncated after the last intact record; records failing their CRC
+ *       while reading are skipped along with the rest of their segment and counted.
+ * </ul>
+ *
+ * Thread-safe; intended for one reader.
+ */
+public final class SegmentSpool implements AutoCloseable {
+
+	private static final Logger log = LoggerFactory.getLogger(SegmentSpool.class);
+
+	private static final int MAGIC = 0x4F425350; // "OBSP"
+	private static final int VERSION = 1;
+	private static final int HEADER = 16; // magic, version, seq
+	private static final int FRAME = 8; // length, crc
+	private static final String SUFFIX = ".seg";
+	private static final String CURSOR = "cursor";
+
+	/** Location, segment sizing and fsync batching. */
+	public record Config(
+			Path directory, int segmentBytes, long maxBytes, int fsyncEveryRecords, Duration fsyncInterval) {
+		public Config {
+			Objects.requireNonNull(directory, "directory");
+			if (segmentBytes < 4096) throw new IllegalArgumentException("segmentBytes must be >= 4096");
+			if (maxBytes < 2L * segmentBytes) throw new IllegalArgumentException("maxBytes must be >= 2 segments");
+			if (fsyncEveryRecords <= 0) throw new IllegalArgumentException("fsyncEveryRecords must be > 0");
+			if (fsyncInterval == null || fsyncInterval.isNegative() || fsyncInterval.isZero()) {
+				throw new IllegalArgumentException("fsyncInterval must be > 0");
+			}
+		}
+
+		/**
+		 * From {@code obsinity.export.spool.directory} (default {@code telemetry-spool}), {@code .segmentBytes} (16
+		 * MiB), {@code .maxBytes} (256 MiB), {@code .fsyncEveryRecords} (64) and {@code .fsyncIntervalMillis} (1000).
+		 */
+		public static Config fromSystemProperties() {
+			return new Config(
+					Path.of(System.getProperty("obsinity.export.spool.directory", "telemetry-spool")),
+					Integer.getInteger("obsinity.export.spool.segmentBytes", 16 << 20),
+					Long.getLong("obsinity.export.spool.maxBytes", 256L << 20),
+					Integer.getInteger("obsinity.export.spool.fsyncEveryRecords", 64),
+					Duration.ofMillis(Long.getLong("obsinity.export.spool.fsyncIntervalMillis", 1000L)));
+		}
+	}
+
+	/** Point-in-time metrics; {@code pendingSegments} includes the one being written. */
+	public record Stats(
+			long appended,
+			long acked,
+			long evictedSegments,
+			long evictedRecords,
+			long corruptRecords,
+			long syncs,
+			int pendingSegments) {}
+
+	private static final class Segment {
+		final long seq;
+		final Path path;
+		final MappedByteBuffer buf;
+
+		Segment(long seq, Path path, MappedByteBuffer buf) {
+			this.seq = seq;
+			this.path = path;
+			this.buf = buf;
+		}
+	}
+
+	private final Config config;
+	private final int maxSegments;
+	private final TreeMap<Long, Segment> segments = new TreeMap<>();
+	private final CRC32C crc = new CRC32C();
+	private final FileChannel cursorChannel;
+	private final ByteBuffer cursorBuf = ByteBuffer.allocate(16);
+
+	// Guarded by this
+	private Segment writer;
+	private int writePos;
+	private long nextSeq;
+	private int unsynced;
+	private long lastSyncNanos = System.nanoTime();
+
+	private long readSeq;
+	private int readPos;
+	private int pendingEnd = -1; // end of the record returned by peek(), -1 if none
+	private boolean cursorDirty;
+
+	private long appended;
+	private long acked;
+	private long evictedSegments;
+	private long evictedRecords;
+	private long corruptRecords;
+	private long syncs;
+	private boolean closed;
+
+	/** Open (or create) the spool in {@link Config#directory()}, recovering existing segments and the read cursor. */
+	public SegmentSpool(Config config) throws IOException {
+		this.config = Objects.requireNonNull(config, "config");
+		this.maxSegments = (int) Math.min(Integer.MAX_VALUE, config.maxBytes() / config.segmentBytes());
+		Files.createDirectories(config.directory());
+		recoverSegments();
+		this.cursorChannel = FileChannel.open(
+				config.directory().resolve(CURSOR),
+				StandardOpenOption.CREATE,
+				StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+		recoverCursor();
+	}
+
+	public Config config() {
+		return config;
+	}
+
+	/**
+	 * Append {@code record} (its remaining bytes; position unchanged). Throws {@link IllegalArgumentException} if it
+	 * cannot fit in an empty segment.
+	 */
+	public synchronized void append(ByteBuffer record) throws IOException {
+		ensureOpen();
+		final int length = record.remaining();
+		if (length == 0) throw new IllegalArgumentException("empty record");
+		if ((long) FRAME + length > config.segmentBytes() - HEADER) {
+			throw new IllegalArgumentException("record of " + length + " bytes does not fit in a segment");
+		}
+		if (writer == null || writePos + FRAME + length > writer.buf.capacity()) openWriter();
+
+		final int start = record.position();
+		crc.reset();
+		crc.update(record);
+		record.position(start);
+
+		final MappedByteBuffer buf = writer.buf;
+		buf.putInt(writePos + 4, (int) crc.getValue());
+		buf.put(writePos + FRAME, record, start, length);
+		buf.putInt(writePos, length); // length last: a torn frame reads as end-of-data or fails its CRC
+		writePos += FRAME + length;
+		appended++;
+
+		if (++unsynced >= config.fsyncEveryRecords()
+				|| System.nanoTime() - lastSyncNanos >= config.fsyncInterval().toNanos()) {
+			sync();
+		}
+	}
+
+	/** Append a whole byte array as one record. */
+	public void append(byte[] record) throws IOException {
+		append(ByteBuffer.wrap(record));
+	}
+
+	/**
+	 * Head record (read-only view into the mapped segment), or null when everything appended has been read. Returns the
+	 * same record until {@link #ack()}; the view is only valid until then.
+	 */
+	public synchronized ByteBuffer peek() {
+		ensureOpen();
+		while (true) {
+			Segment seg = segments.get(readSeq);
+			if (seg == null) {
+				Map.Entry<Long, Segment> next = segments.higherEntry(readSeq);
+				if (next == null) return null;
+				moveCursor(next.getKey(), HEADER);
+				continue;
+			}
+			final MappedByteBuffer buf = seg.buf;
+			final int limit = seg == writer ? writePos : buf.capacity();
+			if (readPos + FRAME <= limit) {
+				final int length = buf.getInt(readPos);
+				if (length > 0 && readPos + FRAME + (long) length <= limit) {
+					final ByteBuffer payload = buf.slice(readPos + FRAME, length);
+					crc.reset();
+					crc.update(payload.duplicate());
+					if ((int) crc.getValue() == buf.getInt(readPos + 4)) {
+						pendingEnd = readPos + FRAME + length;
+						return payload.asReadOnlyBuffer();
+					}
+					corruptRecords++;
+					log.warn(
+							"Spool segment {} has a corrupt record at offset {}; skipping the rest", seg.path, readPos);
+				} else if (length != 0) {
+					corruptRecords++;
+					log.warn(
+							"Spool segment {} has an invalid frame at offset {}; skipping the rest", seg.path, readPos);
+				}
+			}
+			if (seg == writer) return null; // caught up with the writer
+			// End of a finished segment: it has been read completely
+			Map.Entry<Long, Segment> next = segments.higherEntry(seg.seq);
+			delete(segments.remove(seg.seq));
+			moveCursor(next.getKey(), HEADER);
+		}
+	}
+
+	/** Move past the record returned by the last {@link #peek()}; no-op if there is none (or it was evicted). */
+	public synchronized void ack() {
+		if (pendingEnd < 0) return;
+		moveCursor(readSeq, pendingEnd);
+		acked++;
+	}
+
+	/** Force the active segment and persist the read cursor. */
+	public synchronized void sync() throws IOException {
+		if (closed) return;
+		if (writer != null && unsynced > 0) writer.buf.force();
+		if (cursorDirty) {
+			cursorBuf.clear();
+			cursorBuf.putLong(readSeq).putInt(readPos);
+			crc.reset();
+			crc.update(cursorBuf.array(), 0, 12);
+			cursorBuf.putInt((int) crc.getValue()).flip();
+			cursorChannel.write(cursorBuf, 0);
+			cursorChannel.force(false);
+			cursorDirty = false;
+		}
+		unsynced = 0;
+		lastSyncNanos = System.nanoTime();
+		syncs++;
+	}
+
+	public synchronized Stats stats() {
+		return new Stats(appended, acked, evictedSegments, evictedRecords, corruptRecords, syncs, segments.size());
+	}
+
+	/** Sync and release the spool; segments stay on disk for the next open. */
+	@Override
+	public synchronized void close() throws IOException {
+		if (closed) return;
+		try {
+			sync();
+		} finally {
+			closed = true;
+			segments.clear();
+			writer = null;
+			cursorChannel.close();
+		}
+	}
+
+	/* ========================= Segments ========================= */
+
+	private void openWriter() throws IOException {
+		if (writer != null && unsynced > 0) {
+			writer.buf.force();
+			unsynced = 0;
+		}
+		final long seq = nextSeq++;
+		final Path path = config.directory().resolve(String.format("%016d%s", seq, SUFFIX));
+		final MappedByteBuffer buf;
+		try (FileChannel ch = FileChannel.open(
+				path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			buf = ch.map(FileChannel.MapMode.READ_WRITE, 0, config.segmentBytes());
+		}
+		buf.putInt(0, MAGIC).putInt(4, VERSION).putLong(8, seq);
+		writer = new Segment(seq, path, buf);
+		writePos = HEADER;
+		segments.put(seq, writer);
+		if (segments.size() == 1) moveCursor(seq, HEADER);
+
+		while (segments.size() > maxSegments) evictOldest();
+	}
+
+	private void evictOldest() {
+		final Segment oldest = segments.pollFirstEntry().getValue();
+		final int from = oldest.seq == readSeq ? readPos : oldest.seq > readSeq ? HEADER : -1;
+		final long lost = from < 0 ? 0 : countRecords(oldest, from);
+		evictedSegments++;
+		evictedRecords += lost;
+		log.warn(
+				"Spool over {} bytes: evicted segment {} with {} unread records", config.maxBytes(), oldest.path, lost);
+		if (oldest.seq >= readSeq) moveCursor(segments.firstKey(), HEADER);
+		delete(oldest);
+	}
+
+	private long countRecords(Segment seg, int from) {
+		final int limit = seg == writer ? writePos : seg.buf.capacity();
+		long n = 0;
+		int pos = from;
+		while (pos + FRAME <= limit) {
+			int length = seg.buf.getInt(pos);
+			if (length <= 0 || pos + FRAME + (long) length > limit) break;
+			n++;
+			pos += FRAME + length;
+		}
+		return n;
+	}
+
+	private void moveCursor(long seq, int pos) {
+		readSeq = seq;
+		readPos = pos;
+		pendingEnd = -1;
+		cursorDirty = true;
+	}
+
+	private static void delete(Segment seg) {
+		try {
+			Files.deleteIfExists(seg.path);
+		} catch (IOException e) {
+			log.warn("Failed to delete spool segment {}", seg.path, e);
+		}
+	}
+
+	/* ========================= Recovery ========================= */
+
+	private void recoverSegments() throws IOException {
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(config.directory(), "*" + SUFFIX)) {
+			for (Path path : files) {
+				String name = path.getFileName().toString();
+				long seq;
+				try {
+					seq = Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+				} catch (NumberFormatException e) {
+					continue;
+				}
+				MappedByteBuffer buf;
+				try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+					long size = ch.size();
+					if (size < HEADER || size > Integer.MAX_VALUE) {
+						log.warn("Ignoring spool segment {} of unexpected size {}", path, size);
+						continue;
+					}
+					buf = ch.map(FileChannel.MapMode.READ_WRITE, 0, size);
+				}
+				if (buf.getInt(0) != MAGIC || buf.getInt(4) != VERSION || buf.getLong(8) != seq) {
+					log.warn("Ignoring spool segment {} with an invalid header", path);
+					continue;
+				}
+				segments.put(seq, new Segment(seq, path, buf));
+			}
+		} catch (DirectoryIteratorException e) {
+			throw e.getCause();
+		}
+		if (segments.isEmpty()) return;
+
+		// Continue writing the newest segment after its last intact record
+		writer = segments.lastEntry().getValue();
+		nextSeq = writer.seq + 1;
+		writePos = scanIntact(writer);
+		final MappedByteBuffer buf = writer.buf;
+		for (int i = writePos; i < Math.min(buf.capacity(), writePos + FRAME); i++) buf.put(i, (byte) 0);
+		readSeq = segments.firstKey();
+		readPos = HEADER;
+	}
+
+	/** Offset just past the last record of {@code seg} whose frame and CRC are intact. */
+	private int scanIntact(Segment seg) {
+		final MappedByteBuffer buf = seg.buf;
+		int pos = HEADER;
+		while (pos + FRAME <= buf.capacity()) {
+			int length = buf.getInt(pos);
+			if (length <= 0 || pos + FRAME + (long) length > buf.capacity()) break;
+			crc.reset();
+			crc.update(buf.slice(pos + FRAME, length));
+			if ((int) crc.getValue() != buf.getInt(pos + 4)) {
+				log.warn("Truncating spool segment {} at offset {} (torn or corrupt record)", seg.path, pos);
+				break;
+			}
+			pos += FRAME + length;
+		}
+		return pos;
+	}
+
+	private void recoverCursor() throws IOException {
+		if (segments.isEmpty()) return;
+		cursorBuf.clear();
+		if (cursorChannel.read(cursorBuf, 0) == 16) {
+			cursorBuf.flip();
+			long seq = cursorBuf.getLong();
+			int pos = cursorBuf.getInt();
+			crc.reset();
+			crc.update(cursorBuf.array(), 0, 12);
+			if (cursorBuf.getInt() == (int) crc.getValue()) {
+				Segment seg = segments.get(seq);
+				if (seg != null && pos >= HEADER && pos <= (seg == writer ? writePos : seg.buf.capacity())) {
+					readSeq = seq;
+					readPos = pos;
+				} else if (seg == null && seq > segments.firstKey()) {
+					// Cursor's segment was consumed and deleted: resume at the next one
+					Map.Entry<Long, Segment> next = segments.higherEntry(seq);
+					if (next != null) readSeq = next.getKey();
+				}
+			}
+		}
+		// Segments wholly before the cursor were read but not deleted before the restart
+		while (segments.firstKey() < readSeq) delete(segments.pollFirstEntry().getValue());
+	}
+
+	private void ensureOpen() {
+		if (closed) throw new IllegalStateException("spool is closed");
+	}
+}
@@ -0,0 +1,59 @@
+package com.obsinity.telemetry.export;
+
+import java.util.Objects;
+
+import com.obsinity.telemetry.annotations.EventReceiver;
+import com.obsinity.telemetry.annotations.OnFlowLifecycle;
+import com.obsinity.telemetry.annotations.OnFlowNotMatched;
+import com.obsinity.telemetry.dispatch.StepInterest;
+import com.obsinity.telemetry.model.Lifecycle;
+import com.obsinity.telemetry.model.TelemetryHolder;
+
+/**
+ * Receiver that hands every finished flow (and every step finished as its own holder) to a
+ * {@link BatchingSpanExportStage}, so existing OTEL {@code SpanExporter}s can consume Obsinity telemetry.
+ *
+ * <p>Not registered automatically; declare it as a bean around the exporter of your choice:
+ *
+ * <pre>{@code
+ * @Bean(destroyMethod = "close")
+ * BatchingSpanExportStage spanExport(SpanExporter exporter) {
+ *     return new BatchingSpanExportStage(exporter, BatchingSpanExportStage.Config.fromSystemProperties());
+ * }
+ *
+ * @Bean
+ * SpanExportReceiver spanExportReceiver(BatchingSpanExportStage stage) {
+ *     return new SpanExportReceiver(stage);
+ * }
+ * }</pre>
+ *
+ * The handler only enqueues; conversion and export happen on the stage's thread. Pass {@code includeSteps = false} to
+ * export flows only: steps then stay folded into their parent as events, and steps no other receiver wants are never
+ * materialized as holders.
+ */
+@EventReceiver
+@OnFlowLifecycle(Lifecycle.FLOW_FINISHED)
+public class SpanExportReceiver implements StepInterest {
+
+	private final BatchingSpanExportStage stage;
+	private final boolean includeSteps;
+
+	public SpanExportReceiver(BatchingSpanExportStage stage) {
+		this(stage, true);
+	}
+
+	public SpanExportReceiver(BatchingSpanExportStage stage, boolean includeSteps) {
+		this.stage = Objects.requireNonNull(stage, "stage");
+		this.includeSteps = includeSteps;
+	}
+
+	@Override
+	public boolean receivesSteps() {
+		return includeSteps;
+	}
+
+	@OnFlowNotMatched
+	public void onFinished(TelemetryHolder holder) {
+		stage.offer(holder);
+	}
+}
@@ -0,0 +1,206 @@
+package com.obsinity.telemetry.export;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceState;
+import io.opentelemetry.sdk.common.InstrumentationLibraryInfo;
+import io.opentelemetry.sdk.common.InstrumentationScopeInfo;
+import io.opentelemetry.sdk.resources.Resource;
+import io.opentelemetry.sdk.trace.data.EventData;
+import io.opentelemetry.sdk.trace.data.LinkData;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.data.StatusData;
+import com.obsinity.telemetry.model.OLink;
+import com.obsinity.telemetry.model.OResource;
+import com.obsinity.telemetry.model.OStatus;
+import com.obsinity.telemetry.model.TelemetryHolder;
+import com.obsinity.telemetry.model.TelemetrySnapshot;
+
+/**
+ * {@link SpanData} view of a finished flow or step, for handing Obsinity telemetry to OTEL {@code SpanExporter}s.
+ *
+ * <p>The view reads the holder's {@link TelemetrySnapshot} (taken when the flow finished; reused, not copied) and
+ * converts lazily: ids are rendered, attributes converted and folded step events wrapped on first access, then kept.
+ * The snapshot is immutable, so the view is safe to queue and export from another thread. The resource comes from the
+ * holder's {@link OResource}, whose OTEL form is cached when shared.
+ *
+ * <p>Status is the holder's {@link OStatus} if set, else {@code ERROR} when the flow failed, else {@code UNSET}.
+ */
+public final class TelemetrySpanData implements SpanData {
+
+	static final InstrumentationScopeInfo SCOPE = InstrumentationScopeInfo.create("com.obsinity.telemetry");
+
+	@SuppressWarnings("deprecation")
+	private static final InstrumentationLibraryInfo LIBRARY = InstrumentationLibraryInfo.create(SCOPE.getName(), null);
+
+	private final TelemetrySnapshot snapshot;
+	private final Resource resource;
+
+	// Derived on first access (benign races: every thread builds an equal value)
+	private SpanContext spanContext;
+	private SpanContext parentSpanContext;
+	private List<EventData> events;
+	private List<LinkData> links;
+
+	private TelemetrySpanData(TelemetrySnapshot snapshot, Resource resource) {
+		this.snapshot = snapshot;
+		this.resource = resource;
+	}
+
+	/** View of {@code holder}, freezing it first if that has not happened yet. */
+	public static TelemetrySpanData of(TelemetryHolder holder) {
+		Objects.requireNonNull(holder, "holder");
+		OResource r = holder.resource();
+		return new TelemetrySpanData(holder.freeze(), r != null ? r.toOtel() : Resource.empty());
+	}
+
+	/** View of a snapshot; the resource is rebuilt from the snapshot's resource attributes. */
+	public static TelemetrySpanData of(TelemetrySnapshot snapshot) {
+		Objects.requireNonNull(snapshot, "snapshot");
+		return new TelemetrySpanData(
+				snapshot, Resource.create(snapshot.resource().toOtel()));
+	}
+
+	public TelemetrySnapshot snapshot() {
+		return snapshot;
+	}
+
+	@Override
+	public String getName() {
+		return snapshot.name();
+	}
+
+	@Override
+	public SpanKind getKind() {
+		return snapshot.kind() != null ? snapshot.kind() : SpanKind.INTERNAL;
+	}
+
+	@Override
+	public SpanContext getSpanContext() {
+		SpanContext c = spanContext;
+		if (c == null) spanContext = c = context(snapshot.spanId());
+		return c;
+	}
+
+	@Override
+	public SpanContext getParentSpanContext() {
+		SpanContext c = parentSpanContext;
+		if (c == null) {
+			c = snapshot.hasParentSpanId() ? context(snapshot.parentSpanId()) : SpanContext.getInvalid();
+			parentSpanContext = c;
+		}
+		return c;
+	}
+
+	@Override
+	public StatusData getStatus() {
+		OStatus s = snapshot.status();
+		if (s != null && s.code() != null) return s.toOtel();
+		return snapshot.failed() ? StatusData.error() : StatusData.unset();
+	}
+
+	@Override
+	public long getStartEpochNanos() {
+		return snapshot.startEpochNanos();
+	}
+
+	@Override
+	public Attributes getAttributes() {
+		return snapshot.attributes().toOtel();
+	}
+
+	@Override
+	public List<EventData> getEvents() {
+		List<EventData> e = events;
+		if (e == null) {
+			List<TelemetrySnapshot.Event> src = snapshot.events();
+			if (src.isEmpty()) {
+				e = List.of();
+			} else {
+				List<EventData> out = new ArrayList<>(src.size());
+				for (TelemetrySnapshot.Event ev : src) {
+					Attributes a = ev.attributes().toOtel();
+					out.add(EventData.create(ev.epochNanos(), ev.name(), a, a.size() + ev.droppedAttributesCount()));
+				}
+				e = Collections.unmodifiableList(out);
+			}
+			events = e;
+		}
+		return e;
+	}
+
+	@Override
+	public List<LinkData> getLinks() {
+		List<LinkData> l = links;
+		if (l == null) {
+			List<OLink> src = snapshot.links();
+			if (src.isEmpty()) {
+				l = List.of();
+			} else {
+				List<LinkData> out = new ArrayList<>(src.size());
+				for (OLink link : src) out.add(link.toOtel());
+				l = Collections.unmodifiableList(out);
+			}
+			links = l;
+		}
+		return l;
+	}
+
+	@Override
+	public long getEndEpochNanos() {
+		return snapshot.endEpochNanos();
+	}
+
+	@Override
+	public boolean hasEnded() {
+		return snapshot.endEpochNanos() != 0L;
+	}
+
+	@Override
+	public int getTotalRecordedEvents() {
+		return snapshot.events().size();
+	}
+
+	@Override
+	public int getTotalRecordedLinks() {
+		return snapshot.links().size();
+	}
+
+	@Override
+	public int getTotalAttributeCount() {
+		return snapshot.attributes().size();
+	}
+
+	@Override
+	@Deprecated
+	public InstrumentationLibraryInfo getInstrumentationLibraryInfo() {
+		return LIBRARY;
+	}
+
+	@Override
+	public InstrumentationScopeInfo getInstrumentationScopeInfo() {
+		return SCOPE;
+	}
+
+	@Override
+	public Resource getResource() {
+		return resource;
+	}
+
+	@Override
+	public String toString() {
+		return "TelemetrySpanData{name=" + getName() + ", traceId=" + snapshot.traceId() + ", spanId="
+				+ snapshot.spanId() + "}";
+	}
+
+	private SpanContext context(String spanId) {
+		return SpanContext.create(snapshot.traceId(), spanId, TraceFlags.getSampled(), TraceState.getDefault());
+	}
+}
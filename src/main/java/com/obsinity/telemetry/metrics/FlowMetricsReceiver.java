@@ -0,0 +1,170 @@
+package com.obsinity.telemetry.metrics;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.opentelemetry.api.trace.StatusCode;
+import com.obsinity.telemetry.annotations.EventReceiver;
+import com.obsinity.telemetry.annotations.OnFlowLifecycle;
+import com.obsinity.telemetry.annotations.OnFlowNotMatched;
+import com.obsinity.telemetry.dispatch.StepInterest;
+import com.obsinity.telemetry.model.Lifecycle;
+import com.obsinity.telemetry.model.OStatus;
+import com.obsinity.telemetry.model.TelemetryHolder;
+
+/**
+ * Receiver aggregating every finished flow (and step) in process: per flow name, a {@link LogLinearHistogram} of
+ * durations plus success and failure counts in {@link LongAdder}s. Dashboards read percentiles, error rate and
+ * throughput from {@link #snapshot()} instead of exporting every holder.
+ *
+ * <p>Not registered automatically; declare it as a bean:
+ *
+ * <pre>{@code
+ * @Bean
+ * FlowMetricsReceiver flowMetrics() {
+ *     return new FlowMetricsReceiver(FlowMetricsReceiver.DEFAULT_MAX_FLOWS);
+ * }
+ * }</pre>
+ *
+ * <ul>
+ *   <li>Recording is lock-free and runs on the finishing thread: a map lookup, one histogram increment and one counter
+ *       increment. A flow fails if it has a throwable or an {@code ERROR} status.
+ *   <li>Snapshots never block recorders. {@link #snapshot()} returns the interval since the previous call, computed as
+ *       the difference of cumulative counts; {@link #cumulative()} returns totals since start.
+ *   <li>At most {@code maxFlows} names are tracked; flows with further names are counted in {@link #overflow()} only.
+ *   <li>With {@code includeSteps = false} only flows are recorded; steps no other receiver wants then stay lean (never
+ *       materialized as holders).
+ * </ul>
+ */
+@EventReceiver
+@OnFlowLifecycle(Lifecycle.FLOW_FINISHED)
+public class FlowMetricsReceiver implements StepInterest {
+
+	public static final int DEFAULT_MAX_FLOWS = 1000;
+
+	private static final class FlowMetrics {
+		final LogLinearHistogram latency = new LogLinearHistogram();
+		final LongAdder successes = new LongAdder();
+		final LongAdder failures = new LongAdder();
+	}
+
+	private record Baseline(long successes, long failures, HistogramSnapshot latency) {}
+
+	private final int maxFlows;
+	private final boolean includeSteps;
+	private final Clock clock;
+	private final Instant started;
+	private final ConcurrentHashMap<String, FlowMetrics> flows = new ConcurrentHashMap<>();
+	private final LongAdder overflow = new LongAdder();
+
+	// Guarded by this (snapshot readers only)
+	private final Map<String, Baseline> baselines = new HashMap<>();
+	private Instant lastSnapshot;
+
+	public FlowMetricsReceiver(int maxFlows) {
+		this(maxFlows, Clock.systemUTC());
+	}
+
+	public FlowMetricsReceiver(int maxFlows, boolean includeSteps) {
+		this(maxFlows, Clock.systemUTC(), includeSteps);
+	}
+
+	public FlowMetricsReceiver(int maxFlows, Clock clock) {
+		this(maxFlows, clock, true);
+	}
+
+	public FlowMetricsReceiver(int maxFlows, Clock clock, boolean includeSteps) {
+		if (maxFlows <= 0) throw new IllegalArgumentException("maxFlows must be > 0");
+		this.maxFlows = maxFlows;
+		this.includeSteps = includeSteps;
+		this.clock = Objects.requireNonNull(clock, "clock");
+		this.started = clock.instant();
+		this.lastSnapshot = started;
+	}
+
+	@Override
+	public boolean receivesSteps() {
+		return includeSteps;
+	}
+
+	@OnFlowNotMatched
+	public void onFinished(TelemetryHolder holder) {
+		record(holder.name(), durationNanos(holder), failed(holder));
+	}
+
+	/** Record one finished flow directly. */
+	public void record(String name, long durationNanos, boolean failed) {
+		if (name == null) return;
+		FlowMetrics metrics = flows.get(name);
+		if (metrics == null) {
+			if (flows.size() >= maxFlows) {
+				overflow.increment();
+				return;
+			}
+			metrics = flows.computeIfAbsent(name, n -> new FlowMetrics());
+		}
+		metrics.latency.record(durationNanos);
+		(failed ? metrics.failures : metrics.successes).increment();
+	}
+
+	/** Aggregates since the previous call (or since start), by flow name. */
+	public synchronized Map<String, FlowSnapshot> snapshot() {
+		final Instant now = clock.instant();
+		final Duration interval = Duration.between(lastSnapshot, now);
+		lastSnapshot = now;
+		final Map<String, FlowSnapshot> out = new TreeMap<>();
+		flows.forEach((name, metrics) -> {
+			final Baseline current =
+					new Baseline(metrics.successes.sum(), metrics.failures.sum(), metrics.latency.snapshot());
+			final Baseline previous = baselines.getOrDefault(name, new Baseline(0, 0, HistogramSnapshot.EMPTY));
+			baselines.put(name, current);
+			out.put(
+					name,
+					new FlowSnapshot(
+							name,
+							current.successes - previous.successes,
+							current.failures - previous.failures,
+							current.latency.minus(previous.latency),
+							interval));
+		});
+		return Collections.unmodifiableMap(out);
+	}
+
+	/** Aggregates since start, by flow name; does not affect {@link #snapshot()} intervals. */
+	public Map<String, FlowSnapshot> cumulative() {
+		final Duration interval = Duration.between(started, clock.instant());
+		final Map<String, FlowSnapshot> out = new TreeMap<>();
+		flows.forEach((name, metrics) -> out.put(
+				name,
+				new FlowSnapshot(
+						name, metrics.successes.sum(), metrics.failures.sum(), metrics.latency.snapshot(), interval)));
+		return Collections.unmodifiableMap(out);
+	}
+
+	/** Finished flows not tracked because {@code maxFlows} names were already known. */
+	public long overflow() {
+		return overflow.sum();
+	}
+
+	private static long durationNanos(TelemetryHolder holder) {
+		final long monotonic = holder.durationNanos();
+		if (monotonic > 0) return monotonic;
+		final Instant start = holder.timestamp();
+		final Instant end = holder.endTimestamp();
+		return start != null && end != null ? Duration.between(start, end).toNanos() : 0L;
+	}
+
+	private static boolean failed(TelemetryHolder holder) {
+		if (holder.throwable() != null) return true;
+		final OStatus status = holder.status();
+		return status != null && status.code() == StatusCode.ERROR;
+	}
+}
@@ -0,0 +1,26 @@
+package com.obsinity.telemetry.metrics;
+
+import java.time.Duration;
+
+/**
+ * Aggregates for one flow name over {@code interval} (time since the previous interval snapshot, or since the receiver
+ * started for cumulative ones). Latencies are in nanoseconds.
+ */
+public record FlowSnapshot(String name, long successes, long failures, HistogramSnapshot latency, Duration interval) {
+
+	public long total() {
+		return successes + failures;
+	}
+
+	/** Failures / total, or 0 if nothing finished. */
+	public double errorRate() {
+		final long total = total();
+		return total == 0 ? 0d : (double) failures / total;
+	}
+
+	/** Finished flows per second over the interval. */
+	public double throughputPerSecond() {
+		final long nanos = interval.toNanos();
+		return nanos <= 0 ? 0d : total() * 1e9d / nanos;
+	}
+}
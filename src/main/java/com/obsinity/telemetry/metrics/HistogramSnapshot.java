@@ -0,0 +1,71 @@
+package com.obsinity.telemetry.metrics;
+
+/**
+ * Immutable counts of a {@link LogLinearHistogram}, cumulative or for an interval ({@link #minus}). Percentiles and
+ * {@link #max()} report the upper bound of the bucket they fall in, so they never understate a latency.
+ */
+public final class HistogramSnapshot {
+
+	static final HistogramSnapshot EMPTY = new HistogramSnapshot(new long[LogLinearHistogram.BUCKETS], 0L);
+
+	private final long[] counts;
+	private final long count;
+	private final long sum;
+
+	HistogramSnapshot(long[] counts, long sum) {
+		this.counts = counts;
+		long n = 0;
+		for (long c : counts) n += c;
+		this.count = n;
+		this.sum = sum;
+	}
+
+	/** Values recorded in {@code this} but not in the earlier snapshot {@code baseline}. */
+	public HistogramSnapshot minus(HistogramSnapshot baseline) {
+		final long[] delta = new long[counts.length];
+		for (int i = 0; i < delta.length; i++) delta[i] = Math.max(0L, counts[i] - baseline.counts[i]);
+		return new HistogramSnapshot(delta, Math.max(0L, sum - baseline.sum));
+	}
+
+	public long count() {
+		return count;
+	}
+
+	public long sum() {
+		return sum;
+	}
+
+	/** Mean value, or 0 if empty. */
+	public double mean() {
+		return count == 0 ? 0d : (double) sum / count;
+	}
+
+	/** Upper bound of the highest non-empty bucket, or 0 if empty. */
+	public long max() {
+		for (int i = counts.length - 1; i >= 0; i--) {
+			if (counts[i] != 0) return LogLinearHistogram.upperBound(i);
+		}
+		return 0L;
+	}
+
+	/** Value at {@code percentile} (0..100], or 0 if empty. */
+	public long valueAtPercentile(double percentile) {
+		if (!(percentile > 0d && percentile <= 100d)) {
+			throw new IllegalArgumentException("percentile must be in (0, 100]");
+		}
+		if (count == 0) return 0L;
+		final long rank = Math.max(1L, (long) Math.ceil(percentile / 100d * count));
+		long seen = 0;
+		for (int i = 0; i < counts.length; i++) {
+			seen += counts[i];
+			if (seen >= rank) return LogLinearHistogram.upperBound(i);
+		}
+		return max();
+	}
+
+	@Override
+	public String toString() {
+		return "HistogramSnapshot{count=" + count + ", mean=" + mean() + ", p50=" + valueAtPercentile(50) + ", p99="
+				+ valueAtPercentile(99) + ", max=" + max() + '}';
+	}
+}
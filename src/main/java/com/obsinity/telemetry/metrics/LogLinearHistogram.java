@@ -0,0 +1,62 @@
+package com.obsinity.telemetry.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrent log-linear (HDR-style) histogram of non-negative {@code long} values, typically nanoseconds.
+ *
+ * <p>Values below {@value #SUB_BUCKETS} get a bucket each; above that, every power of two is split into
+ * {@value #SUB_BUCKETS} linear sub-buckets, so a bucket's width is at most 1/{@value #SUB_BUCKETS} (~3%) of its values
+ * across the full {@code long} range, in a fixed {@value #BUCKETS}-slot array.
+ *
+ * <p>{@link #record} is lock-free (one atomic increment plus a striped sum). {@link #snapshot} copies the counts
+ * without stopping writers, so a snapshot taken under load may be off by the handful of values recorded while it was
+ * copied.
+ */
+public final class LogLinearHistogram {
+
+	static final int SUB_BITS = 5;
+	static final int SUB_BUCKETS = 1 << SUB_BITS;
+	static final int BUCKETS = (64 - SUB_BITS) * SUB_BUCKETS;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+	private final LongAdder sum = new LongAdder();
+
+	/** Record {@code value}; negative values are recorded as 0. */
+	public void record(long value) {
+		final long v = Math.max(0L, value);
+		counts.incrementAndGet(bucket(v));
+		sum.add(v);
+	}
+
+	/** Cumulative snapshot since creation. */
+	public HistogramSnapshot snapshot() {
+		final long[] copy = new long[BUCKETS];
+		for (int i = 0; i < BUCKETS; i++) copy[i] = counts.get(i);
+		return new HistogramSnapshot(copy, sum.sum());
+	}
+
+	/** Bucket index of a non-negative value. */
+	static int bucket(long value) {
+		if (value < SUB_BUCKETS) return (int) value;
+		final int exponent = 63 - Long.numberOfLeadingZeros(value);
+		final int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+		return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+	}
+
+	/** Smallest value mapped to {@code bucket}. */
+	static long lowerBound(int bucket) {
+		if (bucket < SUB_BUCKETS) return bucket;
+		final int shift = bucket / SUB_BUCKETS - 1;
+		return (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+	}
+
+	/** Largest value mapped to {@code bucket}. */
+	static long upperBound(int bucket) {
+		if (bucket < SUB_BUCKETS) return bucket;
+		final int shift = bucket / SUB_BUCKETS - 1;
+		final long upper = lowerBound(bucket) + (1L << shift) - 1;
+		return upper < 0 ? Long.MAX_VALUE : upper;
+	}
+}
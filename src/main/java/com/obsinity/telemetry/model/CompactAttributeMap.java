@@ -0,0 +1,422 @@
+package com.obsinity.telemetry.model;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Insertion-ordered small map backing {@link OAttributes}: parallel key/value arrays scanned linearly, with
+ * {@code long}, {@code double} and {@code boolean} values held in a primitive slot instead of a box.
+ *
+ * <p>Holders typically carry a handful of attributes, where a scan over a few keys beats hashing and the arrays cost
+ * far less than a {@link LinkedHashMap}'s table and entry objects. Once more than {@link #threshold} keys are added the
+ * map moves its contents to a {@code LinkedHashMap} and delegates from then on.
+ *
+ * <p>{@link Long}, {@link Double} and {@link Boolean} values written through {@link #put} are unboxed on the way in and
+ * re-boxed (to an equal value) by {@link #get}; every other value type, {@code Integer} included, is stored as is. Not
+ * thread-safe, like the map it replaces.
+ */
+final class CompactAttributeMap extends AbstractMap<String, Object> {
+
+	static final byte REF = 0;
+	static final byte LONG = 1;
+	static final byte DOUBLE = 2;
+	static final byte BOOLEAN = 3;
+
+	private static final int INITIAL_CAPACITY = 4;
+
+	private final int threshold;
+
+	private String[] keys;
+	private Object[] refs;
+	private long[] bits;
+	private byte[] types;
+	private int size;
+	private int modCount;
+
+	/** Non-null once the map has outgrown the arrays. */
+	private LinkedHashMap<String, Object> spilled;
+
+	private Set<Map.Entry<String, Object>> entrySet;
+
+	CompactAttributeMap(int threshold) {
+		this.threshold = Math.max(1, threshold);
+	}
+
+	CompactAttributeMap(int threshold, Map<String, ?> source) {
+		this(threshold);
+		if (source.size() > this.threshold) {
+			spilled = new LinkedHashMap<>(source);
+		} else if (!source.isEmpty()) {
+			allocate(source.size());
+			source.forEach(this::put);
+		}
+	}
+
+	// ── primitive access ───────────────────────────────────────────────
+
+	void putLong(String key, long value) {
+		int i = slot(key);
+		if (i < 0) {
+			spilled.put(key, value);
+			return;
+		}
+		types[i] = LONG;
+		bits[i] = value;
+		refs[i] = null;
+	}
+
+	void putDouble(String key, double value) {
+		int i = slot(key);
+		if (i < 0) {
+			spilled.put(key, value);
+			return;
+		}
+		types[i] = DOUBLE;
+		bits[i] = Double.doubleToRawLongBits(value);
+		refs[i] = null;
+	}
+
+	void putBoolean(String key, boolean value) {
+		int i = slot(key);
+		if (i < 0) {
+			spilled.put(key, value);
+			return;
+		}
+		types[i] = BOOLEAN;
+		bits[i] = value ? 1L : 0L;
+		refs[i] = null;
+	}
+
+	long getLong(String key, long defaultValue) {
+		if (spilled != null) return spilled.get(key) instanceof Number n ? n.longValue() : defaultValue;
+		int i = indexOf(key);
+		if (i < 0) return defaultValue;
+		return switch (types[i]) {
+			case LONG -> bits[i];
+			case DOUBLE -> (long) Double.longBitsToDouble(bits[i]);
+			case REF -> refs[i] instanceof Number n ? n.longValue() : defaultValue;
+			default -> defaultValue;
+		};
+	}
+
+	double getDouble(String key, double defaultValue) {
+		if (spilled != null) return spilled.get(key) instanceof Number n ? n.doubleValue() : defaultValue;
+		int i = indexOf(key);
+		if (i < 0) return defaultValue;
+		return switch (types[i]) {
+			case LONG -> bits[i];
+			case DOUBLE -> Double.longBitsToDouble(bits[i]);
+			case REF -> refs[i] instanceof Number n ? n.doubleValue() : defaultValue;
+			default -> defaultValue;
+		};
+	}
+
+	boolean getBoolean(String key, boolean defaultValue) {
+		if (spilled != null) return spilled.get(key) instanceof Boolean b ? b : defaultValue;
+		int i = indexOf(key);
+		if (i < 0) return defaultValue;
+		if (types[i] == BOOLEAN) return bits[i] != 0L;
+		return refs[i] instanceof Boolean b ? b : defaultValue;
+	}
+
+	// ── slot access (for encoders that want primitives without boxing) ─
+
+	/** True once the map has spilled into a {@code LinkedHashMap}; slot accessors are then unusable. */
+	boolean isSpilled() {
+		return spilled != null;
+	}
+
+	String keyAt(int i) {
+		return keys[i];
+	}
+
+	byte typeAt(int i) {
+		return types[i];
+	}
+
+	long bitsAt(int i) {
+		return bits[i];
+	}
+
+	Object refAt(int i) {
+		return refs[i];
+	}
+
+	// ── Map ────────────────────────────────────────────────────────────
+
+	@Override
+	public int size() {
+		return spilled != null ? spilled.size() : size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return spilled != null ? spilled.containsKey(key) : indexOf(key) >= 0;
+	}
+
+	@Override
+	public Object get(Object key) {
+		if (spilled != null) return spilled.get(key);
+		int i = indexOf(key);
+		return i < 0 ? null : valueAt(i);
+	}
+
+	@Override
+	public Object put(String key, Object value) {
+		if (spilled != null) return spilled.put(key, value);
+		int i = indexOf(key);
+		if (i >= 0) {
+			Object old = valueAt(i);
+			store(i, value);
+			return old;
+		}
+		if ((i = append(key)) < 0) return spilled.put(key, value);
+		store(i, value);
+		return null;
+	}
+
+	@Override
+	public Object remove(Object key) {
+		if (spilled != null) return spilled.remove(key);
+		int i = indexOf(key);
+		if (i < 0) return null;
+		Object old = valueAt(i);
+		removeAt(i);
+		return old;
+	}
+
+	@Override
+	public void clear() {
+		spilled = null;
+		if (keys != null) {
+			Arrays.fill(keys, 0, size, null);
+			Arrays.fill(refs, 0, size, null);
+		}
+		size = 0;
+		modCount++;
+	}
+
+	@Override
+	public void forEach(BiConsumer<? super String, ? super Object> action) {
+		if (spilled != null) {
+			spilled.forEach(action);
+			return;
+		}
+		int expected = modCount;
+		for (int i = 0; i < size; i++) {
+			action.accept(keys[i], valueAt(i));
+			if (modCount != expected) throw new ConcurrentModificationException();
+		}
+	}
+
+	@Override
+	public Set<Map.Entry<String, Object>> entrySet() {
+		Set<Map.Entry<String, Object>> es = entrySet;
+		if (es == null) entrySet = es = new EntrySet();
+		return es;
+	}
+
+	// ── internals ──────────────────────────────────────────────────────
+
+	private int indexOf(Object key) {
+		final String[] ks = keys;
+		for (int i = 0; i < size; i++) {
+			if (ks[i] == key) return i;
+		}
+		for (int i = 0; i < size; i++) {
+			if (Objects.equals(ks[i], key)) return i;
+		}
+		return -1;
+	}
+
+	/** Index of {@code key}, appending an empty slot if absent; -1 if the map has spilled (or spills now). */
+	private int slot(String key) {
+		if (spilled != null) return -1;
+		int i = indexOf(key);
+		return i >= 0 ? i : append(key);
+	}
+
+	private int append(String key) {
+		if (size == threshold) {
+			spill();
+			return -1;
+		}
+		if (keys == null || size == keys.length) allocate(size == 0 ? INITIAL_CAPACITY : size * 2);
+		keys[size] = key;
+		types[size] = REF;
+		modCount++;
+		return size++;
+	}
+
+	private Object valueAt(int i) {
+		return switch (types[i]) {
+			case LONG -> bits[i];
+			case DOUBLE -> Double.longBitsToDouble(bits[i]);
+			case BOOLEAN -> bits[i] != 0L;
+			default -> refs[i];
+		};
+	}
+
+	private void store(int i, Object value) {
+		if (value instanceof Long l) {
+			types[i] = LONG;
+			bits[i] = l;
+			refs[i] = null;
+		} else if (value instanceof Double d) {
+			types[i] = DOUBLE;
+			bits[i] = Double.doubleToRawLongBits(d);
+			refs[i] = null;
+		} else if (value instanceof Boolean b) {
+			types[i] = BOOLEAN;
+			bits[i] = b ? 1L : 0L;
+			refs[i] = null;
+		} else {
+			types[i] = REF;
+			refs[i] = value;
+		}
+	}
+
+	private void allocate(int capacity) {
+		int cap = Math.min(Math.max(capacity, INITIAL_CAPACITY), threshold);
+		if (keys == null) {
+			keys = new String[cap];
+			refs = new Object[cap];
+			bits = new long[cap];
+			types = new byte[cap];
+		} else if (cap > keys.length) {
+			keys = Arrays.copyOf(keys, cap);
+			refs = Arrays.copyOf(refs, cap);
+			bits = Arrays.copyOf(bits, cap);
+			types = Arrays.copyOf(types, cap);
+		}
+	}
+
+	private void removeAt(int i) {
+		int tail = size - i - 1;
+		if (tail > 0) {
+			System.arraycopy(keys, i + 1, keys, i, tail);
+			System.arraycopy(refs, i + 1, refs, i, tail);
+			System.arraycopy(bits, i + 1, bits, i, tail);
+			System.arraycopy(types, i + 1, types, i, tail);
+		}
+		size--;
+		keys[size] = null;
+		refs[size] = null;
+		modCount++;
+	}
+
+	private void spill() {
+		LinkedHashMap<String, Object> m = new LinkedHashMap<>(Math.max(16, size * 4));
+		for (int i = 0; i < size; i++) m.put(keys[i], valueAt(i));
+		spilled = m;
+		keys = null;
+		refs = null;
+		bits = null;
+		types = null;
+		size = 0;
+		modCount++;
+	}
+
+	private final class EntrySet extends AbstractSet<Map.Entry<String, Object>> {
+		@Override
+		public Iterator<Map.Entry<String, Object>> iterator() {
+			return spilled != null ? spilled.entrySet().iterator() : new EntryIterator();
+		}
+
+		@Override
+		public int size() {
+			return CompactAttributeMap.this.size();
+		}
+
+		@Override
+		public void clear() {
+			CompactAttributeMap.this.clear();
+		}
+	}
+
+	private final class EntryIterator implements Iterator<Map.Entry<String, Object>> {
+		private int next;
+		private int last = -1;
+		private int expected = modCount;
+
+		@Override
+		public boolean hasNext() {
+			return next < size;
+		}
+
+		@Override
+		public Map.Entry<String, Object> next() {
+			if (modCount != expected) throw new ConcurrentModificationException();
+			if (next >= size) throw new NoSuchElementException();
+			last = next++;
+			return new Entry(last);
+		}
+
+		@Override
+		public void remove() {
+			if (last < 0) throw new IllegalStateException();
+			if (modCount != expected) throw new ConcurrentModificationException();
+			removeAt(last);
+			next = last;
+			last = -1;
+			expected = modCount;
+		}
+	}
+
+	private final class Entry implements Map.Entry<String, Object> {
+		private final int index;
+		private final String key;
+
+		Entry(int index) {
+			this.index = index;
+			this.key = keys[index];
+		}
+
+		@Override
+		public String getKey() {
+			return key;
+		}
+
+		@Override
+		public Object getValue() {
+			// Index is only trusted while no earlier entry has been removed
+			return (spilled == null && index < size && keys[index] == key) ? valueAt(index) : get(key);
+		}
+
+		@Override
+		public Object setValue(Object value) {
+			return put(key, value);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			return o instanceof Map.Entry<?, ?> e
+					&& Objects.equals(key, e.getKey())
+					&& Objects.equals(getValue(), e.getValue());
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hashCode(key) ^ Objects.hashCode(getValue());
+		}
+
+		@Override
+		public String toString() {
+			return key + "=" + getValue();
+		}
+	}
+}
@@ -1,28 +1,68 @@
 package com.obsinity.telemetry.model;
 
+import java.util.Collections;
 import java.util.LinkedHashMap;
-import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
-import io.opentelemetry.api.common.AttributeKey;
+import com.fasterxml.jackson.annotation.JsonValue;
 import io.opentelemetry.api.common.Attributes;
 import io.opentelemetry.api.common.AttributesBuilder;
 
+/**
+ * Attribute bag of a holder, event, link or resource.
+ *
+ * <p>Backed by a {@link CompactAttributeMap} (parallel arrays, unboxed {@code long}/{@code double}/{@code boolean}) up
+ * to {@code -Dobsinity.attributes.compactMax} keys (default 16; 0 selects a plain {@code LinkedHashMap}), beyond which
+ * it upgrades to a hash map. {@link #map()} is a live, insertion-ordered view either way.
+ */
 @JsonInclude(Include.NON_NULL)
 public final class OAttributes {
+	static final int COMPACT_MAX = Integer.getInteger("obsinity.attributes.compactMax", 16);
+
 	private final Map<String, Object> attributes;
+	private final boolean readOnly;
+
+	// OTEL form of a read-only bag, computed once (benign race: every thread builds an equal value)
+	@JsonIgnore
+	private transient Attributes otel;
 
+	/** Empty, mutable attributes. */
+	public OAttributes() {
+		this.attributes = newStore();
+		this.readOnly = false;
+	}
+
+	/** Mutable copy of {@code attributes} (null means empty). */
 	public OAttributes(Map<String, Object> attributes) {
-		if (attributes != null) {
-			this.attributes = new LinkedHashMap<>(attributes);
-		} else {
-			this.attributes = new LinkedHashMap<>();
-		}
+		this.attributes = (attributes == null || attributes.isEmpty()) ? newStore() : copyOf(attributes);
+		this.readOnly = false;
+	}
+
+	private OAttributes(Map<String, Object> attributes, boolean unmodifiable) {
+		this.attributes = unmodifiable ? Collections.unmodifiableMap(copyOf(attributes)) : attributes;
+		this.readOnly = unmodifiable;
 	}
 
+	/**
+	 * Adopt {@code attributes} as the backing map without copying, for builders that already own a fresh map. The
+	 * caller hands the map over: later writes to it show up here.
+	 */
+	public static OAttributes wrap(Map<String, Object> attributes) {
+		return attributes == null ? new OAttributes() : new OAttributes(attributes, false);
+	}
+
+	/**
+	 * Read-only copy of {@code attributes} (insertion order kept); {@link #put} throws. Safe to share, and
+	 * {@link #toOtel()} is computed once.
+	 */
+	public static OAttributes unmodifiable(Map<String, Object> attributes) {
+		return new OAttributes(attributes == null ? Map.of() : attributes, true);
+	}
+
+	@JsonValue
 	public Map<String, Object> map() {
 		return attributes;
 	}
@@ -32,34 +72,87 @@ public final class OAttributes {
 		if (key != null) attributes.put(key, value);
 	}
 
+	/** Put a {@code long} without boxing when the compact store is in use. */
+	public void putLong(String key, long value) {
+		if (key == null) return;
+		if (attributes instanceof CompactAttributeMap c) c.putLong(key, value);
+		else attributes.put(key, value);
+	}
+
+	/** Put a {@code double} without boxing when the compact store is in use. */
+	public void putDouble(String key, double value) {
+		if (key == null) return;
+		if (attributes instanceof CompactAttributeMap c) c.putDouble(key, value);
+		else attributes.put(key, value);
+	}
+
+	/** Put a {@code boolean} without boxing when the compact store is in use. */
+	public void putBoolean(String key, boolean value) {
+		if (key == null) return;
+		if (attributes instanceof CompactAttributeMap c) c.putBoolean(key, value);
+		else attributes.put(key, value);
+	}
+
+	/** Numeric value of {@code key} as a {@code long}, or {@code defaultValue} if absent or not a number. */
+	public long getLong(String key, long defaultValue) {
+		if (attributes instanceof CompactAttributeMap c) return c.getLong(key, defaultValue);
+		return attributes.get(key) instanceof Number n ? n.longValue() : defaultValue;
+	}
+
+	/** Numeric value of {@code key} as a {@code double}, or {@code defaultValue} if absent or not a number. */
+	public double getDouble(String key, double defaultValue) {
+		if (attributes instanceof CompactAttributeMap c) return c.getDouble(key, defaultValue);
+		return attributes.get(key) instanceof Number n ? n.doubleValue() : defaultValue;
+	}
+
+	/** Boolean value of {@code key}, or {@code defaultValue} if absent or not a boolean. */
+	public boolean getBoolean(String key, boolean defaultValue) {
+		if (attributes instanceof CompactAttributeMap c) return c.getBoolean(key, defaultValue);
+		return attributes.get(key) instanceof Boolean b ? b : defaultValue;
+	}
+
+	/** OTEL attributes with interned, typed keys ({@link OtelAttributeKeys}); memoized for read-only bags. */
 	public Attributes toOtel() {
+		Attributes a = otel;
+		if (a != null) return a;
+		a = buildOtel();
+		if (readOnly) otel = a;
+		return a;
+	}
+
+	private Attributes buildOtel() {
+		if (attributes.isEmpty()) return Attributes.empty();
 		AttributesBuilder b = Attributes.builder();
-		attributes.forEach((k, v) -> putBestEffort(b, k, v));
+		if (attributes instanceof CompactAttributeMap c && !c.isSpilled()) {
+			// Primitive slots go straight to typed keys
+			for (int i = 0, n = c.size(); i < n; i++) {
+				String k = c.keyAt(i);
+				if (k == null) continue;
+				switch (c.typeAt(i)) {
+					case CompactAttributeMap.LONG -> b.put(OtelAttributeKeys.longKey(k), c.bitsAt(i));
+					case CompactAttributeMap.DOUBLE ->
+						b.put(OtelAttributeKeys.doubleKey(k), Double.longBitsToDouble(c.bitsAt(i)));
+					case CompactAttributeMap.BOOLEAN -> b.put(OtelAttributeKeys.booleanKey(k), c.bitsAt(i) != 0L);
+					default -> OtelAttributeKeys.putBestEffort(b, k, c.refAt(i));
+				}
+			}
+		} else {
+			attributes.forEach((k, v) -> OtelAttributeKeys.putBestEffort(b, k, v));
+		}
 		return b.build();
 	}
 
 	public static OAttributes fromOtel(Attributes attrs) {
-		if (attrs == null) return new OAttributes(new LinkedHashMap<>());
-		Map<String, Object> m = attrs.asMap().entrySet().stream()
-				.collect(Collectors.toMap(
-						e -> e.getKey().getKey(), Map.Entry::getValue, (a, b) -> a, LinkedHashMap::new));
-		return new OAttributes(m);
-	}
-
-	private static void putBestEffort(AttributesBuilder b, String k, Object v) {
-		if (v == null) return;
-		if (v instanceof String s) b.put(AttributeKey.stringKey(k), s);
-		else if (v instanceof Boolean bo) b.put(AttributeKey.booleanKey(k), bo);
-		else if (v instanceof Integer i) b.put(AttributeKey.longKey(k), i.longValue());
-		else if (v instanceof Long l) b.put(AttributeKey.longKey(k), l);
-		else if (v instanceof Float f) b.put(AttributeKey.doubleKey(k), f.doubleValue());
-		else if (v instanceof Double d) b.put(AttributeKey.doubleKey(k), d);
-		else if (v instanceof List<?> list && list.stream().allMatch(String.class::isInstance)) {
-			@SuppressWarnings("unchecked")
-			List<String> ss = (List<String>) list;
-			b.put(AttributeKey.stringArrayKey(k), ss);
-		} else {
-			b.put(AttributeKey.stringKey(k), String.valueOf(v)); // last resort
-		}
+		OAttributes out = new OAttributes();
+		if (attrs != null) attrs.forEach((k, v) -> out.attributes.put(k.getKey(), v));
+		return out;
+	}
+
+	private static Map<String, Object> newStore() {
+		return COMPACT_MAX > 0 ? new CompactAttributeMap(COMPACT_MAX) : new LinkedHashMap<>();
+	}
+
+	private static Map<String, Object> copyOf(Map<String, Object> source) {
+		return COMPACT_MAX > 0 ? new CompactAttributeMap(COMPACT_MAX, source) : new LinkedHashMap<>(source);
 	}
 }
@@ -8,10 +8,13 @@ import java.util.Objects;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import io.opentelemetry.api.common.Attributes;
 import io.opentelemetry.sdk.trace.data.EventData;
 
 @JsonInclude(Include.NON_NULL)
+@JsonPropertyOrder({"name", "epochNanos", "endEpochNanos", "attributes", "droppedAttributesCount"})
 public final class OEvent {
 	private final String name;
 	private final long epochNanos; // start (wall clock)
@@ -47,32 +50,38 @@ public final class OEvent {
 		this.name = Objects.requireNonNull(name, "name");
 		this.epochNanos = epochNanos;
 		this.endEpochNanos = endEpochNanos;
-		this.attributes = (attributes == null ? new OAttributes(new LinkedHashMap<>()) : attributes);
+		this.attributes = (attributes == null ? new OAttributes() : attributes);
 		this.droppedAttributesCount = droppedAttributesCount;
 		this.startNanoTime = startNanoTime;
 		this.eventContext = (eventContext != null ? eventContext : new LinkedHashMap<>());
 	}
 
+	@JsonProperty
 	public String name() {
 		return name;
 	}
 
+	@JsonProperty
 	public long epochNanos() {
 		return epochNanos;
 	}
 
+	@JsonProperty
 	public Long endEpochNanos() {
 		return endEpochNanos;
 	}
 
+	@JsonProperty
 	public OAttributes attributes() {
 		return attributes;
 	}
 
+	@JsonProperty
 	public Integer droppedAttributesCount() {
 		return droppedAttributesCount;
 	}
 
+	@JsonIgnore
 	public long getStartNanoTime() {
 		return startNanoTime;
 	}
@@ -1,41 +1,94 @@
 package com.obsinity.telemetry.model;
 
-import java.util.LinkedHashMap;
 import java.util.Objects;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import io.opentelemetry.api.trace.SpanContext;
 import io.opentelemetry.api.trace.TraceFlags;
 import io.opentelemetry.api.trace.TraceState;
 import io.opentelemetry.sdk.trace.data.LinkData;
+import com.obsinity.telemetry.utils.TelemetryIdGenerator;
 
+/**
+ * Link to another span. Ids are stored as longs; lowercase hex is rendered on first {@link #traceId()} /
+ * {@link #spanId()} call and cached. Non-canonical id strings are kept verbatim.
+ */
 @JsonInclude(Include.NON_NULL)
+@JsonPropertyOrder({"traceId", "spanId", "attributes"})
 public final class OLink {
-	private final String traceId;
-	private final String spanId;
+	private final long traceIdHi;
+	private final long traceIdLo;
+	private final long spanIdBits;
 	private final OAttributes attributes;
 
+	private transient String traceIdHex;
+	private transient String spanIdHex;
+
 	public OLink(String traceId, String spanId, OAttributes attributes) {
-		this.traceId = Objects.requireNonNull(traceId, "traceId");
-		this.spanId = Objects.requireNonNull(spanId, "spanId");
-		this.attributes = (attributes == null ? new OAttributes(new LinkedHashMap<>()) : attributes);
+		Objects.requireNonNull(traceId, "traceId");
+		Objects.requireNonNull(spanId, "spanId");
+		if (TelemetryIdGenerator.isLowerHex(traceId, 32)) {
+			this.traceIdHi = TelemetryIdGenerator.parseHex64(traceId, 0);
+			this.traceIdLo = TelemetryIdGenerator.parseHex64(traceId, 16);
+		} else {
+			this.traceIdHi = 0L;
+			this.traceIdLo = 0L;
+		}
+		this.spanIdBits = TelemetryIdGenerator.isLowerHex(spanId, 16) ? TelemetryIdGenerator.parseHex64(spanId, 0) : 0L;
+		this.traceIdHex = traceId;
+		this.spanIdHex = spanId;
+		this.attributes = (attributes == null ? new OAttributes() : attributes);
+	}
+
+	/** Binary constructor; hex is rendered lazily. */
+	public OLink(long traceIdHi, long traceIdLo, long spanId, OAttributes attributes) {
+		if ((traceIdHi | traceIdLo) == 0L) throw new IllegalArgumentException("traceId must be non-zero");
+		if (spanId == 0L) throw new IllegalArgumentException("spanId must be non-zero");
+		this.traceIdHi = traceIdHi;
+		this.traceIdLo = traceIdLo;
+		this.spanIdBits = spanId;
+		this.attributes = (attributes == null ? new OAttributes() : attributes);
 	}
 
+	@JsonProperty
 	public String traceId() {
-		return traceId;
+		String s = traceIdHex;
+		if (s == null) traceIdHex = s = TelemetryIdGenerator.hex128(traceIdHi, traceIdLo);
+		return s;
 	}
 
+	@JsonProperty
 	public String spanId() {
-		return spanId;
+		String s = spanIdHex;
+		if (s == null) spanIdHex = s = TelemetryIdGenerator.hex64(spanIdBits);
+		return s;
+	}
+
+	/** High 64 bits of the linked trace id (0 if the id was not canonical hex). */
+	public long traceIdHigh() {
+		return traceIdHi;
+	}
+
+	/** Low 64 bits of the linked trace id (0 if the id was not canonical hex). */
+	public long traceIdLow() {
+		return traceIdLo;
+	}
+
+	/** Linked span id bits (0 if the id was not canonical hex). */
+	public long spanIdLong() {
+		return spanIdBits;
 	}
 
+	@JsonProperty
 	public OAttributes attributes() {
 		return attributes;
 	}
 
 	public LinkData toOtel() {
-		SpanContext ctx = SpanContext.create(traceId, spanId, TraceFlags.getSampled(), TraceState.getDefault());
+		SpanContext ctx = SpanContext.create(traceId(), spanId(), TraceFlags.getSampled(), TraceState.getDefault());
 		return LinkData.create(ctx, attributes.toOtel());
 	}
 
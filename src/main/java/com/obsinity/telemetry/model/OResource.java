@@ -1,24 +1,79 @@
 package com.obsinity.telemetry.model;
 
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.opentelemetry.api.common.Attributes;
 import io.opentelemetry.sdk.resources.Resource;
 
 @JsonInclude(Include.NON_NULL)
 public final class OResource {
+	private static final ObjectMapper JSON = new ObjectMapper();
+
 	private final OAttributes attributes;
+	private final boolean shared;
+
+	// Derived forms of a shared resource, computed once (benign race: every thread builds an equal value)
+	@JsonIgnore
+	private transient Resource otel;
+
+	@JsonIgnore
+	private transient String json;
 
 	public OResource(OAttributes attributes) {
+		this(attributes, false);
+	}
+
+	private OResource(OAttributes attributes, boolean shared) {
 		this.attributes = attributes;
+		this.shared = shared;
 	}
 
+	/**
+	 * Immutable resource meant to be shared by every holder of a process: attributes are read-only and
+	 * {@link #toOtel()} / {@link #toJson()} are computed once.
+	 */
+	public static OResource shared(Map<String, Object> attributes) {
+		return new OResource(OAttributes.unmodifiable(attributes), true);
+	}
+
+	@JsonProperty
 	public OAttributes attributes() {
 		return attributes;
 	}
 
+	/** True for {@link #shared(Map)} instances (exporters may dedupe by identity). */
+	@JsonIgnore
+	public boolean isShared() {
+		return shared;
+	}
+
 	public Resource toOtel() {
-		return Resource.create(attributes != null ? attributes.toOtel() : Attributes.empty());
+		Resource r = otel;
+		if (r == null) {
+			r = Resource.create(attributes != null ? attributes.toOtel() : Attributes.empty());
+			if (shared) otel = r;
+		}
+		return r;
+	}
+
+	/** JSON object of the attributes ({@code {"service.name":...}}); cached for shared resources. */
+	public String toJson() {
+		String s = json;
+		if (s == null) {
+			try {
+				s = JSON.writeValueAsString(attributes == null ? Map.of() : attributes.map());
+			} catch (JsonProcessingException e) {
+				throw new IllegalStateException("Resource attributes are not serializable", e);
+			}
+			if (shared) json = s;
+		}
+		return s;
 	}
 
 	public static OResource fromOtel(Resource r) {
@@ -2,10 +2,13 @@ package com.obsinity.telemetry.model;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import io.opentelemetry.api.trace.StatusCode;
 import io.opentelemetry.sdk.trace.data.StatusData;
 
 @JsonInclude(Include.NON_NULL)
+@JsonPropertyOrder({"code", "message"})
 public final class OStatus {
 	private final StatusCode code;
 	private final String message;
@@ -15,10 +18,12 @@ public final class OStatus {
 		this.message = message;
 	}
 
+	@JsonProperty
 	public StatusCode code() {
 		return code;
 	}
 
+	@JsonProperty
 	public String message() {
 		return message;
 	}
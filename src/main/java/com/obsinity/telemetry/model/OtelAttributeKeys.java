@@ -0,0 +1,109 @@
+package com.obsinity.telemetry.model;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.AttributeType;
+import io.opentelemetry.api.common.AttributesBuilder;
+
+/**
+ * Interned, typed OTEL {@link AttributeKey}s, so conversions to OTEL do not allocate a key per attribute per call.
+ *
+ * <p>Keys are cached by name, with one slot per {@link AttributeType}. The cache holds at most
+ * {@code -Dobsinity.attributes.keyCacheSize} names (default 1024); past that, keys are created uncached, so
+ * high-cardinality names cannot grow it without bound. Safe for concurrent use.
+ */
+public final class OtelAttributeKeys {
+
+	static final int MAX_NAMES = Integer.getInteger("obsinity.attributes.keyCacheSize", 1024);
+
+	private static final int TYPES = AttributeType.values().length;
+	private static final ConcurrentHashMap<String, AttributeKey<?>[]> CACHE = new ConcurrentHashMap<>();
+
+	private OtelAttributeKeys() {}
+
+	public static AttributeKey<String> stringKey(String name) {
+		return key(name, AttributeType.STRING);
+	}
+
+	public static AttributeKey<Long> longKey(String name) {
+		return key(name, AttributeType.LONG);
+	}
+
+	public static AttributeKey<Double> doubleKey(String name) {
+		return key(name, AttributeType.DOUBLE);
+	}
+
+	public static AttributeKey<Boolean> booleanKey(String name) {
+		return key(name, AttributeType.BOOLEAN);
+	}
+
+	public static AttributeKey<List<String>> stringArrayKey(String name) {
+		return key(name, AttributeType.STRING_ARRAY);
+	}
+
+	/** Number of names currently cached. */
+	static int size() {
+		return CACHE.size();
+	}
+
+	/**
+	 * Put {@code value} under {@code name} with the closest OTEL type: strings, booleans, integral and floating point
+	 * numbers map to their typed keys, all-string lists to a string array; anything else is stringified. Nulls are
+	 * skipped.
+	 */
+	static void putBestEffort(AttributesBuilder b, String name, Object value) {
+		if (value == null || name == null) return;
+		if (value instanceof String s) b.put(stringKey(name), s);
+		else if (value instanceof Boolean bo) b.put(booleanKey(name), bo);
+		else if (value instanceof Integer i) b.put(longKey(name), i.longValue());
+		else if (value instanceof Long l) b.put(longKey(name), l);
+		else if (value instanceof Float f) b.put(doubleKey(name), f.doubleValue());
+		else if (value instanceof Double d) b.put(doubleKey(name), d);
+		else if (value instanceof List<?> list && allStrings(list)) {
+			@SuppressWarnings("unchecked")
+			List<String> ss = (List<String>) list;
+			b.put(stringArrayKey(name), ss);
+		} else {
+			b.put(stringKey(name), String.valueOf(value)); // last resort
+		}
+	}
+
+	private static boolean allStrings(List<?> list) {
+		for (int i = 0, n = list.size(); i < n; i++) {
+			if (!(list.get(i) instanceof String)) return false;
+		}
+		return true;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> AttributeKey<T> key(String name, AttributeType type) {
+		AttributeKey<?>[] slots = CACHE.get(name);
+		if (slots == null) {
+			if (CACHE.size() >= MAX_NAMES) return (AttributeKey<T>) create(name, type);
+			slots = CACHE.computeIfAbsent(name, n -> new AttributeKey<?>[TYPES]);
+		}
+		AttributeKey<?> k = slots[type.ordinal()];
+		if (k == null) {
+			// Benign race: concurrent callers may each create an equal key; one of them sticks
+			k = create(name, type);
+			slots[type.ordinal()] = k;
+		}
+		return (AttributeKey<T>) k;
+	}
+
+	private static AttributeKey<?> create(String name, AttributeType type) {
+		return switch (type) {
+			case STRING -> AttributeKey.stringKey(name);
+			case BOOLEAN -> AttributeKey.booleanKey(name);
+			case LONG -> AttributeKey.longKey(name);
+			case DOUBLE -> AttributeKey.doubleKey(name);
+			case STRING_ARRAY -> AttributeKey.stringArrayKey(name);
+			case BOOLEAN_ARRAY -> AttributeKey.booleanArrayKey(name);
+			case LONG_ARRAY -> AttributeKey.longArrayKey(name);
+			case DOUBLE_ARRAY -> AttributeKey.doubleArrayKey(name);
+			default -> throw new IllegalArgumentException("Unsupported attribute type " + type);
+		};
+	}
+}
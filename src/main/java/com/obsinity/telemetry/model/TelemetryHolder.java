@@ -11,7 +11,12 @@ import java.util.Map;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
 import io.opentelemetry.api.trace.SpanKind;
+import com.obsinity.telemetry.utils.TelemetryIdGenerator;
 
 /**
  * OTEL-shaped telemetry container with Obsinity-native fields.
@@ -19,8 +24,29 @@ import io.opentelemetry.api.trace.SpanKind;
  * <p><strong>Service ID requirement:</strong> You MUST provide a service identifier either at the top level
  * {@link #serviceId} or in {@code resource.attributes["service.id"]}. If both exist they must match. Use
  * {@link #effectiveServiceId()} to read the resolved value.
+ *
+ * <p><strong>JSON:</strong> the properties below, in {@link JsonPropertyOrder} order, nulls omitted; instants as
+ * ISO-8601 strings, ids as lowercase hex. {@code TelemetryJsonModule} writes the same output without reflection.
  */
 @JsonInclude(Include.NON_NULL)
+@JsonPropertyOrder({
+	"name",
+	"timestamp",
+	"timeUnixNano",
+	"endTimestamp",
+	"traceId",
+	"spanId",
+	"parentSpanId",
+	"kind",
+	"resource",
+	"attributes",
+	"events",
+	"links",
+	"status",
+	"serviceId",
+	"correlationId",
+	"synthetic"
+})
 public class TelemetryHolder {
 
 	public static final String SERVICE_ID_ATTR = "service.id";
@@ -40,9 +66,13 @@ public class TelemetryHolder {
 		private String traceId;
 		private String spanId;
 		private String parentSpanId;
+		private long traceIdHi;
+		private long traceIdLo;
+		private long spanIdBits;
+		private long parentSpanIdBits;
 		private SpanKind kind;
 		private OResource resource;
-		private OAttributes attributes = new OAttributes(new LinkedHashMap<>());
+		private OAttributes attributes = new OAttributes();
 		private List<OEvent> events = new ArrayList<>();
 		private List<OLink> links = new ArrayList<>();
 		private OStatus status;
@@ -79,16 +109,42 @@ public class TelemetryHolder {
 
 		public Builder traceId(String traceId) {
 			this.traceId = traceId;
+			this.traceIdHi = 0L;
+			this.traceIdLo = 0L;
+			return this;
+		}
+
+		/** Binary trace id (both halves zero = absent); hex is rendered lazily by {@link TelemetryHolder#traceId()}. */
+		public Builder traceId(long hi, long lo) {
+			this.traceId = null;
+			this.traceIdHi = hi;
+			this.traceIdLo = lo;
 			return this;
 		}
 
 		public Builder spanId(String spanId) {
 			this.spanId = spanId;
+			this.spanIdBits = 0L;
+			return this;
+		}
+
+		/** Binary span id (zero = absent). */
+		public Builder spanId(long spanId) {
+			this.spanId = null;
+			this.spanIdBits = spanId;
 			return this;
 		}
 
 		public Builder parentSpanId(String parentSpanId) {
 			this.parentSpanId = parentSpanId;
+			this.parentSpanIdBits = 0L;
+			return this;
+		}
+
+		/** Binary parent span id (zero = root). */
+		public Builder parentSpanId(long parentSpanId) {
+			this.parentSpanId = null;
+			this.parentSpanIdBits = parentSpanId;
 			return this;
 		}
 
@@ -184,7 +240,7 @@ public class TelemetryHolder {
 					parentSpanId,
 					kind,
 					resource,
-					attributes != null ? attributes : new OAttributes(new LinkedHashMap<>()),
+					attributes != null ? attributes : new OAttributes(),
 					events != null ? events : new ArrayList<>(),
 					links != null ? links : new ArrayList<>(),
 					status,
@@ -194,6 +250,12 @@ public class TelemetryHolder {
 			if (eventContext != null && !eventContext.isEmpty()) {
 				holder.eventContext().putAll(eventContext);
 			}
+			if (traceId == null) {
+				holder.traceIdHi = traceIdHi;
+				holder.traceIdLo = traceIdLo;
+			}
+			if (spanId == null) holder.spanIdBits = spanIdBits;
+			if (parentSpanId == null) holder.parentSpanIdBits = parentSpanIdBits;
 			holder.step = this.step;
 			holder.startNanoTime = this.startNanoTime;
 			return holder;
@@ -205,9 +267,6 @@ public class TelemetryHolder {
 	private Instant timestamp;
 	private Long timeUnixNano;
 	private Instant endTimestamp;
-	private String traceId;
-	private String spanId;
-	private String parentSpanId;
 	private SpanKind kind; // OTEL enum
 	private OResource resource; // wrapper
 	private OAttributes attributes; // wrapper
@@ -215,6 +274,26 @@ public class TelemetryHolder {
 	private List<OLink> links; // mutable
 	private OStatus status; // wrapper
 
+	/*
+	 * ── Identity (binary) ───────────────────────────────────────────
+	 * Ids are held as longs (0 = absent). The *Hex fields cache the lowercase hex rendering, created on first
+	 * traceId()/spanId()/parentSpanId() call (serialization, logging, toOtel). Strings that are not canonical lowercase
+	 * hex are kept verbatim in the *Hex field with zero bits.
+	 */
+	private long traceIdHi;
+	private long traceIdLo;
+	private long spanIdBits;
+	private long parentSpanIdBits;
+
+	@JsonIgnore
+	private transient String traceIdHex;
+
+	@JsonIgnore
+	private transient String spanIdHex;
+
+	@JsonIgnore
+	private transient String parentSpanIdHex;
+
 	/* ── Obsinity-native ─────────────────────────────────────────── */
 	private String serviceId; // required here OR in resource["service.id"]
 	private String correlationId;
@@ -239,6 +318,16 @@ public class TelemetryHolder {
 	@JsonIgnore
 	private transient long startNanoTime; // monotonic start for accurate duration when folding
 
+	@JsonIgnore
+	private transient long endNanoTime; // monotonic end (same clock as startNanoTime)
+
+	/* ── Immutable snapshot taken at FLOW_FINISHED (non-serialized) ── */
+	@JsonIgnore
+	private transient volatile TelemetrySnapshot frozen;
+
+	@JsonIgnore
+	private transient boolean detached; // built by TelemetrySnapshot.toHolder(); owned by one handler thread
+
 	/** Full constructor (validates service id consistency). */
 	public TelemetryHolder(
 			String name,
@@ -262,12 +351,14 @@ public class TelemetryHolder {
 		this.timestamp = timestamp;
 		this.timeUnixNano = timeUnixNano;
 		this.endTimestamp = endTimestamp;
-		this.traceId = traceId;
-		this.spanId = spanId;
-		this.parentSpanId = parentSpanId;
+		initTraceId(traceId);
+		this.spanIdBits = parseSpanId(spanId);
+		this.spanIdHex = spanId;
+		this.parentSpanIdBits = parseSpanId(parentSpanId);
+		this.parentSpanIdHex = parentSpanId;
 		this.kind = kind;
 		this.resource = resource;
-		this.attributes = (attributes != null ? attributes : new OAttributes(new LinkedHashMap<>()));
+		this.attributes = (attributes != null ? attributes : new OAttributes());
 		this.events = (events != null ? events : new ArrayList<>());
 		this.links = (links != null ? links : new ArrayList<>());
 		this.status = status;
@@ -279,54 +370,106 @@ public class TelemetryHolder {
 	}
 
 	/* ========================= Accessors (record-like) ========================= */
+	@JsonProperty
 	public String name() {
 		return name;
 	}
 
+	@JsonProperty
+	@JsonSerialize(using = ToStringSerializer.class)
 	public Instant timestamp() {
 		return timestamp;
 	}
 
+	@JsonProperty
 	public Long timeUnixNano() {
 		return timeUnixNano;
 	}
 
+	@JsonProperty
+	@JsonSerialize(using = ToStringSerializer.class)
 	public Instant endTimestamp() {
 		return endTimestamp;
 	}
 
+	@JsonProperty
 	public String traceId() {
-		return traceId;
+		String s = traceIdHex;
+		if (s == null && (traceIdHi | traceIdLo) != 0L) {
+			traceIdHex = s = TelemetryIdGenerator.hex128(traceIdHi, traceIdLo);
+		}
+		return s;
 	}
 
+	@JsonProperty
 	public String spanId() {
-		return spanId;
+		String s = spanIdHex;
+		if (s == null && spanIdBits != 0L) {
+			spanIdHex = s = TelemetryIdGenerator.hex64(spanIdBits);
+		}
+		return s;
 	}
 
+	@JsonProperty
 	public String parentSpanId() {
-		return parentSpanId;
+		String s = parentSpanIdHex;
+		if (s == null && parentSpanIdBits != 0L) {
+			parentSpanIdHex = s = TelemetryIdGenerator.hex64(parentSpanIdBits);
+		}
+		return s;
+	}
+
+	/** High 64 bits of the trace id (0 if absent or not canonical hex). */
+	public long traceIdHigh() {
+		return traceIdHi;
+	}
+
+	/** Low 64 bits of the trace id (0 if absent or not canonical hex). */
+	public long traceIdLow() {
+		return traceIdLo;
+	}
+
+	/** Span id bits (0 if absent or not canonical hex). */
+	public long spanIdLong() {
+		return spanIdBits;
 	}
 
+	/** Parent span id bits (0 for roots or non-canonical ids). */
+	public long parentSpanIdLong() {
+		return parentSpanIdBits;
+	}
+
+	/** True if this holder has a parent span (no hex rendering involved). */
+	public boolean hasParentSpanId() {
+		return parentSpanIdBits != 0L || parentSpanIdHex != null;
+	}
+
+	@JsonProperty
 	public SpanKind kind() {
 		return kind;
 	}
 
+	@JsonProperty
 	public OResource resource() {
 		return resource;
 	}
 
+	@JsonProperty
 	public OAttributes attributes() {
 		return attributes;
 	}
 
+	@JsonProperty
 	public List<OEvent> events() {
 		return events;
 	} // MUTABLE
 
+	@JsonProperty
 	public List<OLink> links() {
 		return links;
 	} // MUTABLE
 
+	@JsonProperty
 	public OStatus status() {
 		return status;
 	}
@@ -336,14 +479,17 @@ public class TelemetryHolder {
 		return this;
 	}
 
+	@JsonProperty
 	public String serviceId() {
 		return serviceId;
 	}
 
+	@JsonProperty
 	public String correlationId() {
 		return correlationId;
 	}
 
+	@JsonProperty
 	public Boolean synthetic() {
 		return synthetic;
 	}
@@ -380,11 +526,72 @@ public class TelemetryHolder {
 		this.startNanoTime = startNanoTime;
 	}
 
+	@JsonIgnore
+	public long getEndNanoTime() {
+		return endNanoTime;
+	}
+
+	@JsonIgnore
+	public void setEndNanoTime(long endNanoTime) {
+		this.endNanoTime = endNanoTime;
+	}
+
+	/** Monotonic duration (end - start), or 0 if either edge has not been recorded. */
+	public long durationNanos() {
+		return (startNanoTime != 0L && endNanoTime != 0L) ? (endNanoTime - startNanoTime) : 0L;
+	}
+
+	/**
+	 * Immutable snapshot of this holder. Once the holder has finished (end time recorded), the first snapshot is cached
+	 * and returned unchanged afterwards; the processor freezes every flow when it finishes (after end time and status
+	 * are set, before FLOW_FINISHED dispatch), so later mutations of the holder are not reflected. Before that, each
+	 * call returns a new, uncached point-in-time copy, so freezing a running flow (e.g. a FLOW_STARTED handler binding
+	 * {@link TelemetrySnapshot}) never pins its unfinished state. Safe to hand to other threads.
+	 */
+	public TelemetrySnapshot freeze() {
+		TelemetrySnapshot s = frozen;
+		if (s != null) return s;
+		if (!isFinished()) return new TelemetrySnapshot(this);
+		synchronized (this) {
+			s = frozen;
+			if (s == null) frozen = s = new TelemetrySnapshot(this);
+		}
+		return s;
+	}
+
+	/** The snapshot cached by {@link #freeze()} after the holder finished, or null. */
+	public TelemetrySnapshot frozen() {
+		return frozen;
+	}
+
+	/** True for holders built by {@link TelemetrySnapshot#toHolder()}: a private copy, not the flow's live holder. */
+	@JsonIgnore
+	public boolean isDetached() {
+		return detached;
+	}
+
+	static TelemetryHolder detached(
+			TelemetryHolder h, TelemetrySnapshot snapshot, long endNanoTime, Throwable throwable) {
+		h.endNanoTime = endNanoTime;
+		h.throwable = throwable;
+		h.frozen = snapshot;
+		h.detached = true;
+		return h;
+	}
+
+	/** True once an end time (monotonic or wall clock) has been recorded. */
+	@JsonIgnore
+	public boolean isFinished() {
+		return endNanoTime != 0L || endTimestamp != null;
+	}
+
 	/* ===== Convenience getters for frameworks ===== */
+	@JsonIgnore
 	public String getName() {
 		return name;
 	}
 
+	@JsonIgnore
 	public SpanKind getSpanKind() {
 		return kind;
 	}
@@ -553,7 +760,7 @@ public class TelemetryHolder {
 	/* ========================= Legacy step lifecycle helpers ========================= */
 	public OEvent beginStepEvent(
 			final String name, final long epochNanos, final long startNanoTime, final OAttributes initialAttrs) {
-		final OAttributes attrs = (initialAttrs != null) ? initialAttrs : new OAttributes(new LinkedHashMap<>());
+		final OAttributes attrs = (initialAttrs != null) ? initialAttrs : new OAttributes();
 		final OEvent ev = new OEvent(name, epochNanos, 0L, attrs, 0, startNanoTime);
 		events().add(ev);
 		eventStack.addLast(ev);
@@ -569,7 +776,7 @@ public class TelemetryHolder {
 
 		final long start = ev.getStartNanoTime();
 		final long duration = (start > 0L && endNanoTime > 0L) ? (endNanoTime - start) : 0L;
-		attrs.put("duration.nanos", duration);
+		attrs.putLong("duration.nanos", duration);
 		attrs.put("phase", "finish");
 
 		final List<OEvent> list = events();
@@ -588,6 +795,20 @@ public class TelemetryHolder {
 		}
 	}
 
+	/* ========================= Id parsing ========================= */
+
+	private void initTraceId(String hex) {
+		this.traceIdHex = hex;
+		if (TelemetryIdGenerator.isLowerHex(hex, 32)) {
+			this.traceIdHi = TelemetryIdGenerator.parseHex64(hex, 0);
+			this.traceIdLo = TelemetryIdGenerator.parseHex64(hex, 16);
+		}
+	}
+
+	private static long parseSpanId(String hex) {
+		return TelemetryIdGenerator.isLowerHex(hex, 16) ? TelemetryIdGenerator.parseHex64(hex, 0) : 0L;
+	}
+
 	/* ========================= Service Id ========================= */
 	public String effectiveServiceId() {
 		if (serviceId != null && !serviceId.isBlank()) return serviceId;
@@ -0,0 +1,332 @@
+package com.obsinity.telemetry.model;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+/**
+ * Jackson module with hand-written serializers for {@link TelemetryHolder} and the model types it carries.
+ *
+ * <p>Output is byte-for-byte what the reflective mapper produces from the model's annotations (property order, nulls
+ * omitted, ISO-8601 instants, attribute bags as plain objects) but written straight to the {@link JsonGenerator}: no
+ * bean introspection, precomputed field names, and {@code long}/{@code double}/{@code boolean} attributes read from
+ * their unboxed slots, instants formatted in place. Attribute values of other types go through the provider as before.
+ *
+ * <p>Picked up by Spring Boot's {@code ObjectMapper} as a bean; otherwise register it with
+ * {@code mapper.registerModule(new TelemetryJsonModule())}.
+ */
+@Component
+public class TelemetryJsonModule extends SimpleModule {
+
+	private static final SerializableString NAME = new SerializedString("name");
+	private static final SerializableString TIMESTAMP = new SerializedString("timestamp");
+	private static final SerializableString TIME_UNIX_NANO = new SerializedString("timeUnixNano");
+	private static final SerializableString END_TIMESTAMP = new SerializedString("endTimestamp");
+	private static final SerializableString TRACE_ID = new SerializedString("traceId");
+	private static final SerializableString SPAN_ID = new SerializedString("spanId");
+	private static final SerializableString PARENT_SPAN_ID = new SerializedString("parentSpanId");
+	private static final SerializableString KIND = new SerializedString("kind");
+	private static final SerializableString RESOURCE = new SerializedString("resource");
+	private static final SerializableString ATTRIBUTES = new SerializedString("attributes");
+	private static final SerializableString EVENTS = new SerializedString("events");
+	private static final SerializableString LINKS = new SerializedString("links");
+	private static final SerializableString STATUS = new SerializedString("status");
+	private static final SerializableString SERVICE_ID = new SerializedString("serviceId");
+	private static final SerializableString CORRELATION_ID = new SerializedString("correlationId");
+	private static final SerializableString SYNTHETIC = new SerializedString("synthetic");
+	private static final SerializableString EPOCH_NANOS = new SerializedString("epochNanos");
+	private static final SerializableString END_EPOCH_NANOS = new SerializedString("endEpochNanos");
+	private static final SerializableString DROPPED_ATTRIBUTES_COUNT = new SerializedString("droppedAttributesCount");
+	private static final SerializableString CODE = new SerializedString("code");
+	private static final SerializableString MESSAGE = new SerializedString("message");
+
+	public TelemetryJsonModule() {
+		super("ObsinityTelemetry");
+		addSerializer(TelemetryHolder.class, new HolderSerializer());
+		addSerializer(OResource.class, new ResourceSerializer());
+		addSerializer(OAttributes.class, new AttributesSerializer());
+		addSerializer(OEvent.class, new EventSerializer());
+		addSerializer(OLink.class, new LinkSerializer());
+		addSerializer(OStatus.class, new StatusSerializer());
+	}
+
+	/* ========================= Serializers ========================= */
+
+	static final class HolderSerializer extends StdSerializer<TelemetryHolder> {
+		HolderSerializer() {
+			super(TelemetryHolder.class);
+		}
+
+		@Override
+		public void serialize(TelemetryHolder h, JsonGenerator gen, SerializerProvider provider) throws IOException {
+			gen.writeStartObject(h);
+			writeString(gen, NAME, h.name());
+			writeInstant(gen, TIMESTAMP, h.timestamp());
+			if (h.timeUnixNano() != null) {
+				gen.writeFieldName(TIME_UNIX_NANO);
+				gen.writeNumber(h.timeUnixNano());
+			}
+			writeInstant(gen, END_TIMESTAMP, h.endTimestamp());
+			writeString(gen, TRACE_ID, h.traceId());
+			writeString(gen, SPAN_ID, h.spanId());
+			writeString(gen, PARENT_SPAN_ID, h.parentSpanId());
+			if (h.kind() != null) writeString(gen, KIND, h.kind().name());
+			if (h.resource() != null) {
+				gen.writeFieldName(RESOURCE);
+				writeResource(h.resource(), gen, provider);
+			}
+			if (h.attributes() != null) {
+				gen.writeFieldName(ATTRIBUTES);
+				writeAttributes(h.attributes(), gen, provider);
+			}
+			if (h.events() != null) {
+				gen.writeFieldName(EVENTS);
+				final List<OEvent> events = h.events();
+				gen.writeStartArray(events, events.size());
+				for (int i = 0, n = events.size(); i < n; i++) writeEvent(events.get(i), gen, provider);
+				gen.writeEndArray();
+			}
+			if (h.links() != null) {
+				gen.writeFieldName(LINKS);
+				final List<OLink> links = h.links();
+				gen.writeStartArray(links, links.size());
+				for (int i = 0, n = links.size(); i < n; i++) writeLink(links.get(i), gen, provider);
+				gen.writeEndArray();
+			}
+			if (h.status() != null) {
+				gen.writeFieldName(STATUS);
+				writeStatus(h.status(), gen);
+			}
+			writeString(gen, SERVICE_ID, h.serviceId());
+			writeString(gen, CORRELATION_ID, h.correlationId());
+			if (h.synthetic() != null) {
+				gen.writeFieldName(SYNTHETIC);
+				gen.writeBoolean(h.synthetic());
+			}
+			gen.writeEndObject();
+		}
+	}
+
+	static final class ResourceSerializer extends StdSerializer<OResource> {
+		ResourceSerializer() {
+			super(OResource.class);
+		}
+
+		@Override
+		public void serialize(OResource r, JsonGenerator gen, SerializerProvider provider) throws IOException {
+			writeResource(r, gen, provider);
+		}
+	}
+
+	static final class AttributesSerializer extends StdSerializer<OAttributes> {
+		AttributesSerializer() {
+			super(OAttributes.class);
+		}
+
+		@Override
+		public void serialize(OAttributes a, JsonGenerator gen, SerializerProvider provider) throws IOException {
+			writeAttributes(a, gen, provider);
+		}
+	}
+
+	static final class EventSerializer extends StdSerializer<OEvent> {
+		EventSerializer() {
+			super(OEvent.class);
+		}
+
+		@Override
+		public void serialize(OEvent e, JsonGenerator gen, SerializerProvider provider) throws IOException {
+			writeEvent(e, gen, provider);
+		}
+	}
+
+	static final class LinkSerializer extends StdSerializer<OLink> {
+		LinkSerializer() {
+			super(OLink.class);
+		}
+
+		@Override
+		public void serialize(OLink l, JsonGenerator gen, SerializerProvider provider) throws IOException {
+			writeLink(l, gen, provider);
+		}
+	}
+
+	static final class StatusSerializer extends StdSerializer<OStatus> {
+		StatusSerializer() {
+			super(OStatus.class);
+		}
+
+		@Override
+		public void serialize(OStatus s, JsonGenerator gen, SerializerProvider provider) throws IOException {
+			writeStatus(s, gen);
+		}
+	}
+
+	/* ========================= Writers ========================= */
+
+	private static void writeResource(OResource r, JsonGenerator gen, SerializerProvider provider) throws IOException {
+		gen.writeStartObject(r);
+		if (r.attributes() != null) {
+			gen.writeFieldName(ATTRIBUTES);
+			writeAttributes(r.attributes(), gen, provider);
+		}
+		gen.writeEndObject();
+	}
+
+	private static void writeEvent(OEvent e, JsonGenerator gen, SerializerProvider provider) throws IOException {
+		if (e == null) {
+			gen.writeNull();
+			return;
+		}
+		gen.writeStartObject(e);
+		writeString(gen, NAME, e.name());
+		gen.writeFieldName(EPOCH_NANOS);
+		gen.writeNumber(e.epochNanos());
+		if (e.endEpochNanos() != null) {
+			gen.writeFieldName(END_EPOCH_NANOS);
+			gen.writeNumber(e.endEpochNanos());
+		}
+		if (e.attributes() != null) {
+			gen.writeFieldName(ATTRIBUTES);
+			writeAttributes(e.attributes(), gen, provider);
+		}
+		if (e.droppedAttributesCount() != null) {
+			gen.writeFieldName(DROPPED_ATTRIBUTES_COUNT);
+			gen.writeNumber(e.droppedAttributesCount());
+		}
+		gen.writeEndObject();
+	}
+
+	private static void writeLink(OLink l, JsonGenerator gen, SerializerProvider provider) throws IOException {
+		if (l == null) {
+			gen.writeNull();
+			return;
+		}
+		gen.writeStartObject(l);
+		writeString(gen, TRACE_ID, l.traceId());
+		writeString(gen, SPAN_ID, l.spanId());
+		if (l.attributes() != null) {
+			gen.writeFieldName(ATTRIBUTES);
+			writeAttributes(l.attributes(), gen, provider);
+		}
+		gen.writeEndObject();
+	}
+
+	private static void writeStatus(OStatus s, JsonGenerator gen) throws IOException {
+		gen.writeStartObject(s);
+		if (s.code() != null) writeString(gen, CODE, s.code().name());
+		writeString(gen, MESSAGE, s.message());
+		gen.writeEndObject();
+	}
+
+	/** Attribute bag as a JSON object in insertion order; compact slots are written without boxing. */
+	private static void writeAttributes(OAttributes a, JsonGenerator gen, SerializerProvider provider)
+			throws IOException {
+		final Map<String, Object> map = a.map();
+		gen.writeStartObject(a);
+		if (map instanceof CompactAttributeMap c && !c.isSpilled()) {
+			for (int i = 0, n = c.size(); i < n; i++) {
+				gen.writeFieldName(c.keyAt(i));
+				switch (c.typeAt(i)) {
+					case CompactAttributeMap.LONG -> gen.writeNumber(c.bitsAt(i));
+					case CompactAttributeMap.DOUBLE -> gen.writeNumber(Double.longBitsToDouble(c.bitsAt(i)));
+					case CompactAttributeMap.BOOLEAN -> gen.writeBoolean(c.bitsAt(i) != 0L);
+					default -> writeValue(c.refAt(i), gen, provider);
+				}
+			}
+		} else {
+			for (Map.Entry<String, Object> e : map.entrySet()) {
+				gen.writeFieldName(e.getKey());
+				writeValue(e.getValue(), gen, provider);
+			}
+		}
+		gen.writeEndObject();
+	}
+
+	private static void writeValue(Object v, JsonGenerator gen, SerializerProvider provider) throws IOException {
+		if (v == null) gen.writeNull();
+		else if (v instanceof String s) gen.writeString(s);
+		else if (v instanceof Long l) gen.writeNumber(l);
+		else if (v instanceof Integer i) gen.writeNumber(i);
+		else if (v instanceof Boolean b) gen.writeBoolean(b);
+		else if (v instanceof Double d) gen.writeNumber(d);
+		else provider.defaultSerializeValue(v, gen);
+	}
+
+	private static void writeString(JsonGenerator gen, SerializableString field, String value) throws IOException {
+		if (value == null) return;
+		gen.writeFieldName(field);
+		gen.writeString(value);
+	}
+
+	private static void writeInstant(JsonGenerator gen, SerializableString field, Instant value) throws IOException {
+		if (value == null) return;
+		gen.writeFieldName(field);
+		final char[] buf = new char[30];
+		final int len = formatIso(value, buf);
+		if (len > 0) gen.writeString(buf, 0, len);
+		else gen.writeString(value.toString());
+	}
+
+	/**
+	 * {@link Instant#toString()} (ISO-8601, fraction in groups of three digits) into {@code buf} without the formatter
+	 * machinery; returns the length, or 0 outside years 0000-9999 where the caller falls back to {@code toString()}.
+	 */
+	static int formatIso(Instant t, char[] buf) {
+		final long seconds = t.getEpochSecond();
+		final int nanos = t.getNano();
+		final long days = Math.floorDiv(seconds, 86_400L);
+		final int secOfDay = (int) Math.floorMod(seconds, 86_400L);
+
+		// Civil date from days since 1970-01-01 (proleptic Gregorian, era-based)
+		final long z = days + 719_468L;
+		final long era = Math.floorDiv(z, 146_097L);
+		final long doe = z - era * 146_097L;
+		final long yoe = (doe - doe / 1_460 + doe / 36_524 - doe / 146_096) / 365;
+		final long doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+		final long mp = (5 * doy + 2) / 153;
+		final int day = (int) (doy - (153 * mp + 2) / 5 + 1);
+		final int month = (int) (mp < 10 ? mp + 3 : mp - 9);
+		final long year = yoe + era * 400 + (month <= 2 ? 1 : 0);
+		if (year < 0 || year > 9999) return 0;
+
+		int p = 0;
+		p = digits(buf, p, (int) year, 4);
+		buf[p++] = '-';
+		p = digits(buf, p, month, 2);
+		buf[p++] = '-';
+		p = digits(buf, p, day, 2);
+		buf[p++] = 'T';
+		p = digits(buf, p, secOfDay / 3600, 2);
+		buf[p++] = ':';
+		p = digits(buf, p, (secOfDay / 60) % 60, 2);
+		buf[p++] = ':';
+		p = digits(buf, p, secOfDay % 60, 2);
+		if (nanos != 0) {
+			buf[p++] = '.';
+			if (nanos % 1_000_000 == 0) p = digits(buf, p, nanos / 1_000_000, 3);
+			else if (nanos % 1_000 == 0) p = digits(buf, p, nanos / 1_000, 6);
+			else p = digits(buf, p, nanos, 9);
+		}
+		buf[p++] = 'Z';
+		return p;
+	}
+
+	private static int digits(char[] buf, int p, int value, int width) {
+		for (int i = p + width - 1; i >= p; i--) {
+			buf[i] = (char) ('0' + value % 10);
+			value /= 10;
+		}
+		return p + width;
+	}
+}
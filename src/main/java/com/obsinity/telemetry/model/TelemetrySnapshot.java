@@ -0,0 +1,398 @@
+package com.obsinity.telemetry.model;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.opentelemetry.api.common.AttributesBuilder;
+import io.opentelemetry.api.trace.SpanKind;
+import com.obsinity.telemetry.utils.TelemetryClock;
+import com.obsinity.telemetry.utils.TelemetryIdGenerator;
+
+/**
+ * Immutable point-in-time copy of a {@link TelemetryHolder}, taken by {@link TelemetryHolder#freeze()} when a flow
+ * finishes.
+ *
+ * <p>Attributes (flow, resource and per-event) are copied into parallel key/value arrays, events into an unmodifiable
+ * list of {@link Event}s, and the duration is computed once. Nothing here references the holder's mutable collections,
+ * so a snapshot can be handed to any thread (async receivers, batching exporters) without further copying. Attribute
+ * values that are lists or maps are copied into unmodifiable collections; other values are shared as-is and are
+ * expected to be immutable (strings, numbers, booleans).
+ */
+public final class TelemetrySnapshot {
+
+	private final String name;
+	private final long startEpochNanos;
+	private final long endEpochNanos; // 0 = not finished
+	private final long durationNanos;
+	private final long traceIdHi;
+	private final long traceIdLo;
+	private final long spanIdBits;
+	private final long parentSpanIdBits;
+	private final SpanKind kind;
+	private final Attributes resource;
+	private final Attributes attributes;
+	private final List<Event> events;
+	private final List<OLink> links;
+	private final OStatus status;
+	private final String serviceId;
+	private final String correlationId;
+	private final Boolean synthetic;
+	private final boolean step;
+	private final Map<String, Object> eventContext;
+	private final Throwable throwable;
+
+	// Raw holder state kept only to rebuild an equivalent holder (toHolder())
+	private final Instant timestamp;
+	private final Long timeUnixNano;
+	private final String rawServiceId;
+	private final OResource sharedResource; // null unless the holder used a shared (immutable) resource
+	private final boolean hasResource;
+	private final long startNanoTime;
+	private final long endNanoTime;
+
+	// Hex renderings: verbatim for non-canonical ids, otherwise rendered on first access (racy single-check is safe:
+	// String is immutable and every thread computes the same value).
+	private String traceIdHex;
+	private String spanIdHex;
+	private String parentSpanIdHex;
+
+	TelemetrySnapshot(TelemetryHolder h) {
+		this.name = h.name();
+		this.startEpochNanos = h.timeUnixNano() != null ? h.timeUnixNano() : epochNanos(h.timestamp());
+		this.endEpochNanos = epochNanos(h.endTimestamp());
+		long mono = h.durationNanos();
+		this.durationNanos = (mono != 0L || endEpochNanos == 0L) ? mono : Math.max(0L, endEpochNanos - startEpochNanos);
+		this.traceIdHi = h.traceIdHigh();
+		this.traceIdLo = h.traceIdLow();
+		this.spanIdBits = h.spanIdLong();
+		this.parentSpanIdBits = h.parentSpanIdLong();
+		this.traceIdHex = ((traceIdHi | traceIdLo) == 0L) ? h.traceId() : null;
+		this.spanIdHex = (spanIdBits == 0L) ? h.spanId() : null;
+		this.parentSpanIdHex = (parentSpanIdBits == 0L) ? h.parentSpanId() : null;
+		this.kind = h.kind();
+		this.resource = (h.resource() == null)
+				? Attributes.EMPTY
+				: Attributes.of(h.resource().attributes());
+		this.attributes = Attributes.of(h.attributes());
+		this.events = freezeEvents(h.events());
+		this.links = (h.links() == null || h.links().isEmpty()) ? List.of() : List.copyOf(h.links());
+		this.status = h.status();
+		this.serviceId = h.effectiveServiceId();
+		this.correlationId = h.correlationId();
+		this.synthetic = h.synthetic();
+		this.step = h.isStep();
+		this.eventContext = freezeMap(h.eventContext());
+		this.throwable = h.throwable();
+		this.timestamp = h.timestamp();
+		this.timeUnixNano = h.timeUnixNano();
+		this.rawServiceId = h.serviceId();
+		this.sharedResource = (h.resource() != null && h.resource().isShared()) ? h.resource() : null;
+		this.hasResource = h.resource() != null;
+		this.startNanoTime = h.getStartNanoTime();
+		this.endNanoTime = h.getEndNanoTime();
+	}
+
+	/**
+	 * A new {@link TelemetryHolder} with this snapshot's state, for handlers that run on another thread than the flow
+	 * (async receivers, off-thread execution modes). Nothing else references its collections, so it cannot race the
+	 * flow's later writes; its {@link TelemetryHolder#freeze()} returns this snapshot.
+	 */
+	public TelemetryHolder toHolder() {
+		final List<OEvent> ev = new ArrayList<>(events.size());
+		for (Event e : events) {
+			ev.add(new OEvent(
+					e.name(),
+					e.epochNanos(),
+					e.endEpochNanos() == 0L ? null : e.endEpochNanos(),
+					new OAttributes(e.attributes().toMap()),
+					e.droppedAttributesCount(),
+					0L));
+		}
+		final OResource res = sharedResource != null
+				? sharedResource
+				: (hasResource ? new OResource(new OAttributes(resource.toMap())) : null);
+		final TelemetryHolder.Builder b = TelemetryHolder.builder()
+				.name(name)
+				.timestamp(timestamp)
+				.timeUnixNano(timeUnixNano)
+				.endTimestamp(endTimestamp())
+				.kind(kind)
+				.resource(res)
+				.attributes(new OAttributes(attributes.toMap()))
+				.events(ev)
+				.links(new ArrayList<>(links))
+				.status(status)
+				.serviceId(rawServiceId)
+				.correlationId(correlationId)
+				.synthetic(synthetic)
+				.eventContext(new LinkedHashMap<>(eventContext))
+				.step(step)
+				.startNanoTime(startNanoTime);
+		if ((traceIdHi | traceIdLo) != 0L) b.traceId(traceIdHi, traceIdLo);
+		else b.traceId(traceIdHex);
+		if (spanIdBits != 0L) b.spanId(spanIdBits);
+		else b.spanId(spanIdHex);
+		if (parentSpanIdBits != 0L) b.parentSpanId(parentSpanIdBits);
+		else b.parentSpanId(parentSpanIdHex);
+		return TelemetryHolder.detached(b.build(), this, endNanoTime, throwable);
+	}
+
+	/* ========================= Accessors ========================= */
+
+	public String name() {
+		return name;
+	}
+
+	public long startEpochNanos() {
+		return startEpochNanos;
+	}
+
+	/** End time in epoch nanos, or 0 if the holder had not finished when frozen. */
+	public long endEpochNanos() {
+		return endEpochNanos;
+	}
+
+	public Instant timestamp() {
+		return TelemetryClock.toInstant(startEpochNanos);
+	}
+
+	public Instant endTimestamp() {
+		return endEpochNanos == 0L ? null : TelemetryClock.toInstant(endEpochNanos);
+	}
+
+	/** Monotonic duration when available, else derived from the epoch edges; 0 if unfinished. */
+	public long durationNanos() {
+		return durationNanos;
+	}
+
+	public String traceId() {
+		String s = traceIdHex;
+		if (s == null && (traceIdHi | traceIdLo) != 0L) {
+			traceIdHex = s = TelemetryIdGenerator.hex128(traceIdHi, traceIdLo);
+		}
+		return s;
+	}
+
+	public String spanId() {
+		String s = spanIdHex;
+		if (s == null && spanIdBits != 0L) spanIdHex = s = TelemetryIdGenerator.hex64(spanIdBits);
+		return s;
+	}
+
+	public String parentSpanId() {
+		String s = parentSpanIdHex;
+		if (s == null && parentSpanIdBits != 0L) parentSpanIdHex = s = TelemetryIdGenerator.hex64(parentSpanIdBits);
+		return s;
+	}
+
+	public long traceIdHigh() {
+		return traceIdHi;
+	}
+
+	public long traceIdLow() {
+		return traceIdLo;
+	}
+
+	public long spanIdLong() {
+		return spanIdBits;
+	}
+
+	public long parentSpanIdLong() {
+		return parentSpanIdBits;
+	}
+
+	public boolean hasParentSpanId() {
+		return parentSpanIdBits != 0L || parentSpanIdHex != null;
+	}
+
+	public SpanKind kind() {
+		return kind;
+	}
+
+	public Attributes resource() {
+		return resource;
+	}
+
+	public Attributes attributes() {
+		return attributes;
+	}
+
+	/** Unmodifiable. */
+	public List<Event> events() {
+		return events;
+	}
+
+	/** Unmodifiable. */
+	public List<OLink> links() {
+		return links;
+	}
+
+	public OStatus status() {
+		return status;
+	}
+
+	/** Resolved service id ({@link TelemetryHolder#effectiveServiceId()}). */
+	public String serviceId() {
+		return serviceId;
+	}
+
+	public String correlationId() {
+		return correlationId;
+	}
+
+	public Boolean synthetic() {
+		return synthetic;
+	}
+
+	public boolean isStep() {
+		return step;
+	}
+
+	/** Unmodifiable copy of the flow-scoped EventContext. */
+	public Map<String, Object> eventContext() {
+		return eventContext;
+	}
+
+	public Throwable throwable() {
+		return throwable;
+	}
+
+	public boolean failed() {
+		return throwable != null;
+	}
+
+	/* ========================= Types ========================= */
+
+	/** Frozen step/event: attributes are array-backed, end time 0 if the event never ended. */
+	public record Event(
+			String name, long epochNanos, long endEpochNanos, Attributes attributes, int droppedAttributesCount) {}
+
+	/** Immutable attribute set backed by parallel key/value arrays (insertion order preserved). */
+	public static final class Attributes {
+		static final Attributes EMPTY = new Attributes(new String[0], new Object[0]);
+
+		private final String[] keys;
+		private final Object[] values;
+
+		// OTEL form, computed on first export (benign race: every thread builds an equal value)
+		private io.opentelemetry.api.common.Attributes otel;
+
+		private Attributes(String[] keys, Object[] values) {
+			this.keys = keys;
+			this.values = values;
+		}
+
+		static Attributes of(OAttributes source) {
+			if (source == null || source.map().isEmpty()) return EMPTY;
+			Map<String, Object> m = source.map();
+			String[] k = new String[m.size()];
+			Object[] v = new Object[m.size()];
+			int i = 0;
+			for (Map.Entry<String, Object> e : m.entrySet()) {
+				k[i] = e.getKey();
+				v[i] = freezeValue(e.getValue());
+				i++;
+			}
+			return new Attributes(k, v);
+		}
+
+		public int size() {
+			return keys.length;
+		}
+
+		public boolean isEmpty() {
+			return keys.length == 0;
+		}
+
+		public String key(int index) {
+			return keys[index];
+		}
+
+		public Object value(int index) {
+			return values[index];
+		}
+
+		public boolean containsKey(String key) {
+			return indexOf(key) >= 0;
+		}
+
+		/** Value for {@code key}, or null. Linear scan: attribute sets are small. */
+		public Object get(String key) {
+			int i = indexOf(key);
+			return i < 0 ? null : values[i];
+		}
+
+		/** OTEL attributes with interned, typed keys; memoized, as the set never changes. */
+		public io.opentelemetry.api.common.Attributes toOtel() {
+			io.opentelemetry.api.common.Attributes a = otel;
+			if (a == null) {
+				if (keys.length == 0) {
+					a = io.opentelemetry.api.common.Attributes.empty();
+				} else {
+					AttributesBuilder b = io.opentelemetry.api.common.Attributes.builder();
+					for (int i = 0; i < keys.length; i++) OtelAttributeKeys.putBestEffort(b, keys[i], values[i]);
+					a = b.build();
+				}
+				otel = a;
+			}
+			return a;
+		}
+
+		/** New unmodifiable map view in insertion order. */
+		public Map<String, Object> toMap() {
+			Map<String, Object> m = new LinkedHashMap<>(keys.length * 2);
+			for (int i = 0; i < keys.length; i++) m.put(keys[i], values[i]);
+			return Collections.unmodifiableMap(m);
+		}
+
+		private int indexOf(String key) {
+			if (key == null) return -1;
+			for (int i = 0; i < keys.length; i++) {
+				if (key.equals(keys[i])) return i;
+			}
+			return -1;
+		}
+
+		@Override
+		public String toString() {
+			return toMap().toString();
+		}
+	}
+
+	/* ========================= Helpers ========================= */
+
+	private static long epochNanos(Instant t) {
+		return (t == null) ? 0L : t.getEpochSecond() * 1_000_000_000L + t.getNano();
+	}
+
+	private static List<Event> freezeEvents(List<OEvent> events) {
+		if (events == null || events.isEmpty()) return List.of();
+		List<Event> out = new ArrayList<>(events.size());
+		for (OEvent e : events) {
+			out.add(new Event(
+					e.name(),
+					e.epochNanos(),
+					e.endEpochNanos() == null ? 0L : e.endEpochNanos(),
+					Attributes.of(e.attributes()),
+					e.droppedAttributesCount() == null ? 0 : e.droppedAttributesCount()));
+		}
+		return Collections.unmodifiableList(out);
+	}
+
+	private static Map<String, Object> freezeMap(Map<?, ?> m) {
+		if (m == null || m.isEmpty()) return Map.of();
+		Map<String, Object> out = new LinkedHashMap<>(m.size() * 2);
+		for (Map.Entry<?, ?> e : m.entrySet()) out.put(String.valueOf(e.getKey()), freezeValue(e.getValue()));
+		return Collections.unmodifiableMap(out);
+	}
+
+	private static Object freezeValue(Object v) {
+		if (v instanceof List<?> list) return Collections.unmodifiableList(new ArrayList<>(list));
+		if (v instanceof Map<?, ?> map) return freezeMap(map);
+		return v;
+	}
+}
@@ -1,12 +1,8 @@
 package com.obsinity.telemetry.processor;
 
-import java.lang.reflect.Method;
-import java.lang.reflect.Parameter;
 import java.util.Map;
 
 import org.aspectj.lang.JoinPoint;
-import org.aspectj.lang.reflect.MethodSignature;
-import org.springframework.aop.support.AopUtils;
 import org.springframework.stereotype.Component;
 
 import com.obsinity.telemetry.annotations.PushAttribute;
@@ -21,7 +17,7 @@ import com.obsinity.telemetry.model.OAttributes;
  *
  * <ul>
  *   <li>The parameter's runtime argument value is written to {@link OAttributes} under the key specified by
- *       {@link PushAttribute#name()}.
+ *       {@link PushAttribute#value()} / {@link PushAttribute#name()}.
  *   <li>If {@link PushAttribute#omitIfNull()} is {@code true} (default) and the runtime value is {@code null}, no
  *       attribute entry is created.
  *   <li>If the runtime value is a {@link Map} (of any generic types), it is stored as a single value under the given
@@ -30,7 +26,8 @@ import com.obsinity.telemetry.model.OAttributes;
  *
  * <h2>Thread-safety</h2>
  *
- * This component is stateless and therefore thread-safe.
+ * This component is stateless and therefore thread-safe. Parameter metadata is compiled once per method into a shared,
+ * immutable {@link PushPlan} (the same plan {@link TelemetryAttributeBinder} uses).
  *
  * <h2>Examples</h2>
  *
@@ -61,54 +58,6 @@ public final class AttributeParamExtractor {
 	 */
 	public void extractTo(OAttributes attrs, JoinPoint jp) {
 		if (attrs == null || jp == null) return;
-
-		MethodSignature sig = (MethodSignature) jp.getSignature();
-		Method method = mostSpecific(sig.getMethod(), jp.getTarget());
-		Object[] args = jp.getArgs();
-		if (method == null || args == null) return;
-
-		Parameter[] params = method.getParameters();
-		int n = Math.min(params.length, args.length);
-
-		for (int i = 0; i < n; i++) {
-			Parameter p = params[i];
-			Object value = args[i];
-
-			PushAttribute push = p.getAnnotation(PushAttribute.class);
-			if (push != null && !(push.omitIfNull() && value == null)) {
-				put(attrs, push.name(), value);
-			}
-		}
-	}
-
-	/* --- helpers --- */
-
-	/**
-	 * Writes a single attribute key/value into {@link OAttributes}. If the value is a {@link Map}, it is stored as-is
-	 * under the key (entries are not merged).
-	 *
-	 * @param attrs target attributes (non-null)
-	 * @param key attribute key; ignored if {@code null} or blank
-	 * @param value attribute value; may be {@code null}
-	 */
-	private static void put(OAttributes attrs, String key, Object value) {
-		if (key == null || key.isBlank()) return;
-		if (value instanceof Map<?, ?> m) {
-			// Store the map object as a single value under 'key'
-			attrs.put(key, m);
-		} else {
-			attrs.put(key, value);
-		}
-	}
-
-	/**
-	 * Resolves the most specific method for the given target class (considering possible AOP proxies).
-	 *
-	 * @param m the declared method
-	 * @param target the invocation target (may be proxied)
-	 * @return the most specific method for {@code target}, or {@code m} if {@code target} is {@code null}
-	 */
-	private static Method mostSpecific(Method m, Object target) {
-		return (target != null) ? AopUtils.getMostSpecificMethod(m, target.getClass()) : m;
+		PushPlan.of(jp).writeAttributes(attrs, jp.getArgs());
 	}
 }
@@ -0,0 +1,205 @@
+package com.obsinity.telemetry.processor;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Head sampling for root flows: decided once when a root opens, by flow name. An unsampled root and everything nested
+ * in it run without telemetry: no holder, no ids, no binding, no dispatch (see {@link TelemetryProcessor}).
+ *
+ * <ul>
+ *   <li>A {@link Policy} combines a probability, a per-second rate limit (lock-free GCRA, bursts up to one second's
+ *       worth) and "keep errors". With keep errors, an unsampled root that throws is still reported as a single failed
+ *       root holder (parameters bound, no nested flows or steps, since those ran untraced), dispatched as FLOW_FINISHED
+ *       and ROOT_FLOW_FINISHED only.
+ *   <li>Per-name policies override the default; wire a {@code HeadSampler} bean and the processor picks it up.
+ *   <li>Outcomes of unsampled roots are counted per name ({@link #stats()}) and can be forwarded to an
+ *       {@link OutcomeListener}, e.g. {@code FlowMetricsReceiver::record}, so totals still include them. Failures kept
+ *       as holders are not forwarded: receivers already see them, so each outcome is counted once.
+ * </ul>
+ *
+ * <pre>{@code
+ * @Bean
+ * HeadSampler headSampler(FlowMetricsReceiver flowMetrics) {
+ *     return new HeadSampler(HeadSampler.Policy.probability(0.1).keepingErrors())
+ *             .policy("checkout", HeadSampler.Policy.perSecond(50))
+ *             .onUnsampledOutcome(flowMetrics::record);
+ * }
+ * }</pre>
+ */
+public final class HeadSampler {
+
+	/** Keep a root if it passes {@code probability} and the {@code perSecond} limit (0 = unlimited). */
+	public record Policy(double probability, int perSecond, boolean keepErrors) {
+		public Policy {
+			if (!(probability >= 0d && probability <= 1d)) {
+				throw new IllegalArgumentException("probability must be in [0, 1]");
+			}
+			if (perSecond < 0) throw new IllegalArgumentException("perSecond must be >= 0");
+		}
+
+		public static Policy always() {
+			return new Policy(1d, 0, false);
+		}
+
+		public static Policy never() {
+			return new Policy(0d, 0, false);
+		}
+
+		public static Policy probability(double probability) {
+			return new Policy(probability, 0, false);
+		}
+
+		public static Policy perSecond(int perSecond) {
+			if (perSecond <= 0) throw new IllegalArgumentException("perSecond must be > 0");
+			return new Policy(1d, perSecond, false);
+		}
+
+		/** This policy, also keeping every root that fails. */
+		public Policy keepingErrors() {
+			return new Policy(probability, perSecond, true);
+		}
+
+		/**
+		 * Default policy from {@code obsinity.sampling.head.probability} (default 1.0), {@code .perSecond} (0) and
+		 * {@code .keepErrors} (false).
+		 */
+		public static Policy fromSystemProperties() {
+			return new Policy(
+					Double.parseDouble(System.getProperty("obsinity.sampling.head.probability", "1.0")),
+					Integer.getInteger("obsinity.sampling.head.perSecond", 0),
+					Boolean.parseBoolean(System.getProperty("obsinity.sampling.head.keepErrors", "false")));
+		}
+	}
+
+	/** Receives the outcome of every unsampled root (after it returns or throws). */
+	@FunctionalInterface
+	public interface OutcomeListener {
+		void onOutcome(String flowName, long durationNanos, boolean failed);
+	}
+
+	/**
+	 * Per-name counts: roots sampled and unsampled, unsampled roots that succeeded or failed, and failed unsampled
+	 * roots kept because of {@link Policy#keepErrors()}.
+	 */
+	public record Stats(
+			long sampled, long unsampled, long unsampledSuccesses, long unsampledFailures, long keptErrors) {}
+
+	/** Per-name policy, limiter and counters; resolved once per name. */
+	static final class FlowState {
+		final String name;
+		final Policy policy;
+		final long emissionNanos; // GCRA interval; 0 when unlimited
+		final AtomicLong theoreticalArrival = new AtomicLong(Long.MIN_VALUE);
+		final LongAdder sampled = new LongAdder();
+		final LongAdder unsampled = new LongAdder();
+		final LongAdder successes = new LongAdder();
+		final LongAdder failures = new LongAdder();
+		final LongAdder keptErrors = new LongAdder();
+
+		FlowState(String name, Policy policy) {
+			this.name = name;
+			this.policy = policy;
+			this.emissionNanos = policy.perSecond() == 0 ? 0L : TimeUnit.SECONDS.toNanos(1) / policy.perSecond();
+		}
+	}
+
+	private static final long BURST_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+	private final Policy defaultPolicy;
+	private final Map<String, Policy> policies = new ConcurrentHashMap<>();
+	private final ConcurrentHashMap<String, FlowState> states = new ConcurrentHashMap<>();
+	private final LongSupplier nanoTime;
+	private volatile OutcomeListener listener;
+
+	public HeadSampler(Policy defaultPolicy) {
+		this(defaultPolicy, System::nanoTime);
+	}
+
+	HeadSampler(Policy defaultPolicy, LongSupplier nanoTime) {
+		this.defaultPolicy = Objects.requireNonNull(defaultPolicy, "defaultPolicy");
+		this.nanoTime = Objects.requireNonNull(nanoTime, "nanoTime");
+	}
+
+	/** Use {@code policy} for roots named {@code flowName}. Configure before flows run. */
+	public HeadSampler policy(String flowName, Policy policy) {
+		policies.put(Objects.requireNonNull(flowName, "flowName"), Objects.requireNonNull(policy, "policy"));
+		states.remove(flowName);
+		return this;
+	}
+
+	/** Forward unsampled root outcomes to {@code listener} (null to stop). */
+	public HeadSampler onUnsampledOutcome(OutcomeListener listener) {
+		this.listener = listener;
+		return this;
+	}
+
+	/** Counts by flow name, for names seen so far. */
+	public Map<String, Stats> stats() {
+		final Map<String, Stats> out = new TreeMap<>();
+		states.forEach((name, s) -> out.put(
+				name,
+				new Stats(
+						s.sampled.sum(), s.unsampled.sum(), s.successes.sum(), s.failures.sum(), s.keptErrors.sum())));
+		return Collections.unmodifiableMap(out);
+	}
+
+	/* ========================= Processor hooks ========================= */
+
+	FlowState state(String flowName) {
+		final String name = flowName != null ? flowName : "";
+		final FlowState s = states.get(name);
+		return s != null
+				? s
+				: states.computeIfAbsent(name, n -> new FlowState(n, policies.getOrDefault(n, defaultPolicy)));
+	}
+
+	/** Decide for one root and count the decision. */
+	boolean sample(FlowState s) {
+		final double p = s.policy.probability();
+		final boolean keep = p >= 1d || (p > 0d && ThreadLocalRandom.current().nextDouble() < p);
+		final boolean sampled = keep && (s.emissionNanos == 0L || acquire(s));
+		(sampled ? s.sampled : s.unsampled).increment();
+		return sampled;
+	}
+
+	/** Whether an unsampled root needs its duration measured (for keep-errors or a listener). */
+	boolean timesUnsampled(FlowState s) {
+		return s.policy.keepErrors() || listener != null;
+	}
+
+	/**
+	 * Count the outcome of an unsampled root. Returns true when it is kept (a failure under keep errors): the caller
+	 * then emits it as a failed root holder, which receivers count, so the listener is not told as well.
+	 */
+	boolean unsampledFinished(FlowState s, long durationNanos, boolean failed) {
+		(failed ? s.failures : s.successes).increment();
+		if (failed && s.policy.keepErrors()) {
+			s.keptErrors.increment();
+			return true;
+		}
+		final OutcomeListener l = listener;
+		if (l != null) l.onOutcome(s.name, durationNanos, failed);
+		return false;
+	}
+
+	/** GCRA: admit if the theoretical arrival time stays within one second of burst. */
+	private boolean acquire(FlowState s) {
+		while (true) {
+			final long now = nanoTime.getAsLong();
+			final long tat = s.theoreticalArrival.get();
+			final long base = tat == Long.MIN_VALUE || tat - now < 0 ? now : tat;
+			final long next = base + s.emissionNanos;
+			if (next - now > BURST_NANOS) return false;
+			if (s.theoreticalArrival.compareAndSet(tat, next)) return true;
+		}
+	}
+}
@@ -0,0 +1,227 @@
+package com.obsinity.telemetry.processor;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.MethodClassKey;
+
+import com.obsinity.telemetry.annotations.PushAttribute;
+import com.obsinity.telemetry.annotations.PushContextValue;
+import com.obsinity.telemetry.model.OAttributes;
+
+/**
+ * Precompiled producer-side push plan for one intercepted method.
+ *
+ * <p>Built once per (invoked method, target class) from {@link PushAttribute} / {@link PushContextValue} parameter
+ * annotations: argument index → attribute key (+ omitIfNull) and argument index → context key. At call time the plan
+ * writes arguments straight into the target maps; there is no method resolution, annotation array cloning or reflective
+ * writer lookup on the hot path.
+ *
+ * <p>Shared by {@link TelemetryAttributeBinder} and {@link AttributeParamExtractor}. Instances are immutable and
+ * thread-safe.
+ */
+final class PushPlan {
+
+	/** Plan for methods without any push annotations. */
+	static final PushPlan EMPTY = new PushPlan(new int[0], new String[0], new boolean[0], new int[0], new String[0]);
+
+	private static final Map<MethodClassKey, PushPlan> CACHE = new ConcurrentHashMap<>(256);
+
+	private final int[] attrIndex;
+	private final String[] attrKey;
+	private final boolean[] attrOmitIfNull;
+	private final int[] ctxIndex;
+	private final String[] ctxKey;
+
+	private PushPlan(int[] attrIndex, String[] attrKey, boolean[] attrOmitIfNull, int[] ctxIndex, String[] ctxKey) {
+		this.attrIndex = attrIndex;
+		this.attrKey = attrKey;
+		this.attrOmitIfNull = attrOmitIfNull;
+		this.ctxIndex = ctxIndex;
+		this.ctxKey = ctxKey;
+	}
+
+	/** Cached plan for the join point's method as invoked on its target class. */
+	static PushPlan of(JoinPoint jp) {
+		MethodSignature sig = (MethodSignature) jp.getSignature();
+		Method m = sig.getMethod();
+		Object target = jp.getTarget();
+		Class<?> targetClass = (target != null) ? target.getClass() : m.getDeclaringClass();
+
+		MethodClassKey key = new MethodClassKey(m, targetClass);
+		PushPlan plan = CACHE.get(key);
+		if (plan != null) return plan;
+		return CACHE.computeIfAbsent(key, k -> compile(resolveMethodWithAnnotations(m, targetClass)));
+	}
+
+	boolean isEmpty() {
+		return attrIndex.length == 0 && ctxIndex.length == 0;
+	}
+
+	boolean hasContextWrites() {
+		return ctxIndex.length != 0;
+	}
+
+	/** Write {@code @PushAttribute} arguments into {@code attrs}. */
+	void writeAttributes(OAttributes attrs, Object[] args) {
+		if (args == null) return;
+		for (int i = 0; i < attrIndex.length; i++) {
+			int idx = attrIndex[i];
+			if (idx >= args.length) continue;
+			Object arg = args[idx];
+			if (arg == null && attrOmitIfNull[i]) continue;
+			attrs.put(attrKey[i], arg);
+		}
+	}
+
+	/** Write {@code @PushContextValue} arguments into {@code context} (nulls are written, as before). */
+	void writeContext(Map<String, Object> context, Object[] args) {
+		if (args == null) return;
+		for (int i = 0; i < ctxIndex.length; i++) {
+			int idx = ctxIndex[i];
+			if (idx >= args.length) continue;
+			context.put(ctxKey[i], args[idx]);
+		}
+	}
+
+	/* ---------------- compilation ---------------- */
+
+	static PushPlan compile(Method method) {
+		if (method == null) return EMPTY;
+		Annotation[][] paramAnns = method.getParameterAnnotations();
+
+		int attrs = 0;
+		int ctx = 0;
+		for (Annotation[] anns : paramAnns) {
+			for (Annotation a : anns) {
+				if (a instanceof PushAttribute p && !isBlank(keyOf(p))) attrs++;
+				else if (a instanceof PushContextValue c && !isBlank(keyOf(c))) ctx++;
+			}
+		}
+		if (attrs == 0 && ctx == 0) return EMPTY;
+
+		int[] attrIndex = new int[attrs];
+		String[] attrKey = new String[attrs];
+		boolean[] attrOmit = new boolean[attrs];
+		int[] ctxIndex = new int[ctx];
+		String[] ctxKey = new String[ctx];
+
+		int a = 0;
+		int c = 0;
+		for (int i = 0; i < paramAnns.length; i++) {
+			for (Annotation ann : paramAnns[i]) {
+				if (ann instanceof PushAttribute push) {
+					String key = keyOf(push);
+					if (isBlank(key)) continue;
+					attrIndex[a] = i;
+					attrKey[a] = key;
+					attrOmit[a] = push.omitIfNull();
+					a++;
+				} else if (ann instanceof PushContextValue pcv) {
+					String key = keyOf(pcv);
+					if (isBlank(key)) continue;
+					ctxIndex[c] = i;
+					ctxKey[c] = key;
+					c++;
+				}
+			}
+		}
+		return new PushPlan(attrIndex, attrKey, attrOmit, ctxIndex, ctxKey);
+	}
+
+	// Raw reflection does not honour @AliasFor, so accept either attribute.
+	private static String keyOf(PushAttribute p) {
+		return firstNonBlank(p.value(), p.name());
+	}
+
+	private static String keyOf(PushContextValue p) {
+		return firstNonBlank(p.value(), p.name());
+	}
+
+	/* ---------------- method resolution (compile time only) ---------------- */
+
+	/**
+	 * Resolve the concrete target method (handling proxies/bridge methods), preferring one that actually has parameter
+	 * annotations like {@link PushAttribute} / {@link PushContextValue}.
+	 */
+	private static Method resolveMethodWithAnnotations(Method m, Class<?> targetClass) {
+		Class<?>[] paramTypes = m.getParameterTypes();
+
+		// 1) Try exact declared match up the hierarchy
+		Method concrete = findDeclaredMethodHierarchy(targetClass, m.getName(), paramTypes);
+		if (hasAnyParamPushAnnotation(concrete)) return concrete;
+
+		// 2) Try public method lookup
+		try {
+			Method pub = targetClass.getMethod(m.getName(), paramTypes);
+			if (hasAnyParamPushAnnotation(pub)) return pub;
+		} catch (NoSuchMethodException ignored) {
+		}
+
+		// 3) Scan by name + arity; prefer methods that HAVE the annotations we're after
+		Method byName = findByNameAndArityPreferAnnotated(targetClass, m.getName(), paramTypes.length);
+		if (byName != null) return byName;
+
+		// 4) Fallbacks
+		return (concrete != null) ? concrete : m;
+	}
+
+	private static Method findDeclaredMethodHierarchy(Class<?> type, String name, Class<?>[] params) {
+		for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+			try {
+				return c.getDeclaredMethod(name, params);
+			} catch (NoSuchMethodException ignored) {
+			}
+			// also scan for bridge methods by name/arity
+			for (Method cand : c.getDeclaredMethods()) {
+				if (cand.getName().equals(name)
+						&& cand.getParameterCount() == params.length
+						&& (cand.isBridge() || cand.isSynthetic())) {
+					return cand;
+				}
+			}
+		}
+		return null;
+	}
+
+	private static Method findByNameAndArityPreferAnnotated(Class<?> type, String name, int arity) {
+		Method candidateWithoutAnns = null;
+		for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+			for (Method cand : c.getDeclaredMethods()) {
+				if (cand.getName().equals(name) && cand.getParameterCount() == arity) {
+					if (hasAnyParamPushAnnotation(cand)) {
+						return cand; // prefer annotated
+					}
+					if (candidateWithoutAnns == null) {
+						candidateWithoutAnns = cand;
+					}
+				}
+			}
+		}
+		return candidateWithoutAnns;
+	}
+
+	private static boolean hasAnyParamPushAnnotation(Method m) {
+		if (m == null) return false;
+		for (Annotation[] anns : m.getParameterAnnotations()) {
+			for (Annotation a : anns) {
+				if (a instanceof PushAttribute) return true;
+				if (a instanceof PushContextValue) return true;
+			}
+		}
+		return false;
+	}
+
+	private static String firstNonBlank(String a, String b) {
+		if (!isBlank(a)) return a;
+		return isBlank(b) ? "" : b;
+	}
+
+	private static boolean isBlank(String s) {
+		return s == null || s.isBlank();
+	}
+}
@@ -0,0 +1,92 @@
+package com.obsinity.telemetry.processor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import io.opentelemetry.api.trace.SpanKind;
+import com.obsinity.telemetry.model.OAttributes;
+import com.obsinity.telemetry.model.OEvent;
+import com.obsinity.telemetry.model.TelemetryHolder;
+
+/**
+ * Lean stack entry for a nested {@code @Step}: name, start time, attributes and (lazily) context and child events.
+ *
+ * <p>Most steps are only folded into their parent as an {@link OEvent}, so no {@link TelemetryHolder} (resource, ids,
+ * links, status) is built for them. {@link #holder()} materialises one on demand — when a handler is interested in the
+ * step, or when code inside the step asks for the current holder — and from then on context and events live on that
+ * holder. {@link #attributes} is shared with the holder, so writes before and after materialisation land in one map.
+ */
+final class StepFrame {
+
+	final String name;
+	final SpanKind kind;
+	final long monoStart;
+	final long epochStart;
+	/** Enclosing {@link TelemetryHolder} or {@link StepFrame}. */
+	final Object parent;
+
+	final OAttributes attributes;
+
+	private final Function<StepFrame, TelemetryHolder> materializer;
+	private Map<String, Object> eventContext; // until materialised
+	private List<OEvent> events; // until materialised
+	private TelemetryHolder holder;
+
+	StepFrame(
+			String name,
+			SpanKind kind,
+			long monoStart,
+			long epochStart,
+			Object parent,
+			OAttributes attributes,
+			Function<StepFrame, TelemetryHolder> materializer) {
+		this.name = name;
+		this.kind = kind;
+		this.monoStart = monoStart;
+		this.epochStart = epochStart;
+		this.parent = parent;
+		this.attributes = attributes;
+		this.materializer = materializer;
+	}
+
+	/** The step as a full holder, built on first call. */
+	TelemetryHolder holder() {
+		if (holder == null) holder = materializer.apply(this);
+		return holder;
+	}
+
+	boolean isMaterialized() {
+		return holder != null;
+	}
+
+	/** Enclosing holder, materialising an enclosing step frame if necessary. */
+	TelemetryHolder parentHolder() {
+		return (parent instanceof StepFrame f) ? f.holder() : (TelemetryHolder) parent;
+	}
+
+	Map<String, Object> eventContext() {
+		if (holder != null) return holder.getEventContext();
+		if (eventContext == null) eventContext = new LinkedHashMap<>();
+		return eventContext;
+	}
+
+	/** Context collected so far without allocating; null if none (for materialisation and folding). */
+	Map<String, Object> eventContextOrNull() {
+		return holder != null ? holder.getEventContext() : eventContext;
+	}
+
+	/** Child step events (nested steps fold here). */
+	List<OEvent> events() {
+		if (holder != null) return holder.events();
+		if (events == null) events = new ArrayList<>();
+		return events;
+	}
+
+	/** Events collected so far, handed over to the holder on materialisation. */
+	List<OEvent> eventsOrNull() {
+		return events;
+	}
+}
@@ -0,0 +1,339 @@
+package com.obsinity.telemetry.processor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.opentelemetry.api.trace.StatusCode;
+import com.obsinity.telemetry.model.TelemetryHolder;
+
+/**
+ * Tail sampling for finished root flows: decided once the whole batch (root plus nested flows) is known, before
+ * ROOT_FLOW_FINISHED is dispatched. Kept batches are dispatched as usual; dropped ones are not, so exporters listening
+ * on ROOT_FLOW_FINISHED send less. FLOW_STARTED/FLOW_FINISHED are unaffected, so per-flow metrics still see every flow.
+ *
+ * <ul>
+ *   <li>A batch is kept if any {@link Policy} matches: {@link Policy#errors()}, {@link Policy#slowerThan(Duration)},
+ *       {@link Policy#attribute(String, Object)} or {@link Policy#probability(double)}; otherwise it is dropped.
+ *   <li>By default ({@link Config#bufferCapacity()} 0) the thread finishing the root decides and dispatches, so
+ *       ROOT_FLOW_FINISHED receivers run on the same thread as without a sampler.
+ *   <li>Opt-in: with a positive capacity, batches wait in a bounded buffer for one daemon thread
+ *       ({@code obsinity-tail-sampler}), which decides and dispatches them; ROOT_FLOW_FINISHED receivers then run on
+ *       that thread. When the buffer is full the finishing thread decides itself, so no batch is lost undecided.
+ *   <li>Dropped batches are not dispatched; the processor passes them to
+ *       {@link com.obsinity.telemetry.receivers.TelemetryDispatchBus#rootFlowDropped(List)} so async delivery releases
+ *       the flow's worker-queue pin.
+ *   <li>{@link #stats()} counts kept and dropped traces and spans, and which policy kept each trace.
+ * </ul>
+ *
+ * <pre>{@code
+ * @Bean(destroyMethod = "close")
+ * TailSampler tailSampler() {
+ *     return new TailSampler(
+ *             TailSampler.Config.fromSystemProperties(),
+ *             TailSampler.Policy.errors(),
+ *             TailSampler.Policy.slowerThan(Duration.ofSeconds(2)),
+ *             TailSampler.Policy.probability(0.05));
+ * }
+ * }</pre>
+ */
+public final class TailSampler implements AutoCloseable {
+
+	private static final Logger log = LoggerFactory.getLogger(TailSampler.class);
+
+	/** 2^62: the random part of a UUID's low half. */
+	private static final long RANDOM_BITS_RANGE = 1L << 62;
+
+	/**
+	 * Decision buffer size, in root batches; 0 (the default) decides on the finishing thread. A positive capacity moves
+	 * ROOT_FLOW_FINISHED receivers onto the sampler thread.
+	 */
+	public record Config(int bufferCapacity) {
+		public Config {
+			if (bufferCapacity < 0) throw new IllegalArgumentException("bufferCapacity must be >= 0");
+		}
+
+		/** From {@code obsinity.sampling.tail.bufferCapacity} (default 0: decide inline). */
+		public static Config fromSystemProperties() {
+			return new Config(Integer.getInteger("obsinity.sampling.tail.bufferCapacity", 0));
+		}
+	}
+
+	/** Tests one finished batch; {@code root} is the holder without a parent span. */
+	@FunctionalInterface
+	public interface Condition {
+		boolean test(TelemetryHolder root, List<TelemetryHolder> batch);
+	}
+
+	/** A named keep condition; the name labels {@link Stats#keptByPolicy()}. */
+	public record Policy(String name, Condition condition) {
+		public Policy {
+			Objects.requireNonNull(name, "name");
+			Objects.requireNonNull(condition, "condition");
+		}
+
+		/** Keep if any flow in the batch failed. */
+		public static Policy errors() {
+			return new Policy("errors", (root, batch) -> {
+				for (TelemetryHolder h : batch) if (failed(h)) return true;
+				return false;
+			});
+		}
+
+		/** Keep if the root flow took longer than {@code threshold}. */
+		public static Policy slowerThan(Duration threshold) {
+			if (threshold == null || threshold.isNegative()) {
+				throw new IllegalArgumentException("threshold must be >= 0");
+			}
+			final long nanos = threshold.toNanos();
+			return new Policy("slow", (root, batch) -> root.durationNanos() > nanos);
+		}
+
+		/** Keep if any flow in the batch has attribute {@code key} whose string form equals {@code value}'s. */
+		public static Policy attribute(String key, Object value) {
+			Objects.requireNonNull(key, "key");
+			final String expected = String.valueOf(value);
+			return new Policy("attribute:" + key, (root, batch) -> {
+				for (TelemetryHolder h : batch) {
+					final Object v =
+							h.attributes() != null ? h.attributes().map().get(key) : null;
+					if (v != null && expected.equals(String.valueOf(v))) return true;
+				}
+				return false;
+			});
+		}
+
+		/**
+		 * Keep about {@code probability} of traces, decided from the random low 62 bits of the trace id (below the UUID
+		 * variant bits) so every process using the same ratio agrees on the same trace.
+		 */
+		public static Policy probability(double probability) {
+			if (!(probability >= 0d && probability <= 1d)) {
+				throw new IllegalArgumentException("probability must be in [0, 1]");
+			}
+			final long bound = (long) (probability * RANDOM_BITS_RANGE);
+			return new Policy(
+					"probability",
+					(root, batch) -> probability >= 1d || (root.traceIdLow() & (RANDOM_BITS_RANGE - 1)) < bound);
+		}
+
+		/**
+		 * Policies from {@code obsinity.sampling.tail.keepErrors} (default true), {@code .slowerThanMillis} (0 = off),
+		 * {@code .attribute} and {@code .attributeValue} (off unless both set) and {@code .probability} (0 = off).
+		 */
+		public static List<Policy> fromSystemProperties() {
+			final List<Policy> out = new ArrayList<>(4);
+			if (Boolean.parseBoolean(System.getProperty("obsinity.sampling.tail.keepErrors", "true"))) {
+				out.add(errors());
+			}
+			final long slowMillis = Long.getLong("obsinity.sampling.tail.slowerThanMillis", 0L);
+			if (slowMillis > 0) out.add(slowerThan(Duration.ofMillis(slowMillis)));
+			final String key = System.getProperty("obsinity.sampling.tail.attribute");
+			final String value = System.getProperty("obsinity.sampling.tail.attributeValue");
+			if (key != null && !key.isBlank() && value != null) out.add(attribute(key, value));
+			final double p = Double.parseDouble(System.getProperty("obsinity.sampling.tail.probability", "0"));
+			if (p > 0d) out.add(probability(p));
+			return out;
+		}
+
+		private static boolean failed(TelemetryHolder h) {
+			return h.throwable() != null || (h.status() != null && h.status().code() == StatusCode.ERROR);
+		}
+	}
+
+	/**
+	 * Point-in-time metrics: batches waiting, traces and spans kept or dropped, decisions made on the finishing thread
+	 * because the buffer was full, and kept traces by the first policy that matched.
+	 */
+	public record Stats(
+			int buffered,
+			long keptTraces,
+			long droppedTraces,
+			long keptSpans,
+			long droppedSpans,
+			long decidedInline,
+			Map<String, Long> keptByPolicy) {}
+
+	private record Pending(
+			List<TelemetryHolder> batch,
+			Consumer<List<TelemetryHolder>> sink,
+			Consumer<List<TelemetryHolder>> dropped) {}
+
+	private final List<Policy> policies;
+	private final LongAdder[] keptBy;
+	private final ArrayBlockingQueue<Pending> buffer;
+	private final Thread worker;
+
+	private final LongAdder keptTraces = new LongAdder();
+	private final LongAdder droppedTraces = new LongAdder();
+	private final LongAdder keptSpans = new LongAdder();
+	private final LongAdder droppedSpans = new LongAdder();
+	private final LongAdder decidedInline = new LongAdder();
+
+	/** Batches handed to the worker, and how many of those it has finished. */
+	private final AtomicLong enqueued = new AtomicLong();
+
+	private volatile long completed;
+	private volatile boolean closed;
+
+	public TailSampler(Config config, Policy... policies) {
+		this(config, List.of(policies));
+	}
+
+	public TailSampler(Config config, List<Policy> policies) {
+		Objects.requireNonNull(config, "config");
+		this.policies = List.copyOf(policies);
+		if (this.policies.isEmpty()) throw new IllegalArgumentException("at least one policy is required");
+		this.keptBy = new LongAdder[this.policies.size()];
+		for (int i = 0; i < keptBy.length; i++) keptBy[i] = new LongAdder();
+		if (config.bufferCapacity() > 0) {
+			this.buffer = new ArrayBlockingQueue<>(config.bufferCapacity());
+			this.worker = new Thread(this::run, "obsinity-tail-sampler");
+			this.worker.setDaemon(true);
+			this.worker.start();
+		} else {
+			this.buffer = null;
+			this.worker = null;
+		}
+	}
+
+	/**
+	 * Decide on {@code batch}: if kept, pass it to {@code sink}, otherwise to {@code dropped}; called by the processor
+	 * at root finish.
+	 */
+	void offer(
+			List<TelemetryHolder> batch,
+			Consumer<List<TelemetryHolder>> sink,
+			Consumer<List<TelemetryHolder>> dropped) {
+		if (buffer != null && !closed) {
+			// Count first so a concurrent flush() waits for this batch too
+			enqueued.incrementAndGet();
+			if (buffer.offer(new Pending(batch, sink, dropped))) {
+				if (closed) drainAfterClose(); // the worker may already have exited
+				return;
+			}
+			enqueued.decrementAndGet();
+		}
+		decidedInline.increment();
+		decide(batch, sink, dropped);
+	}
+
+	/** Wait until every batch buffered before this call has been decided; returns false on timeout. */
+	public boolean flush(Duration timeout) {
+		if (worker == null) return true;
+		final long target = enqueued.get();
+		final long deadline = System.nanoTime() + timeout.toNanos();
+		while (completed < Math.min(target, enqueued.get())) {
+			if (System.nanoTime() - deadline >= 0 || !worker.isAlive()) return buffer.isEmpty();
+			LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+		}
+		return true;
+	}
+
+	public Stats stats() {
+		final Map<String, Long> by = new TreeMap<>();
+		for (int i = 0; i < keptBy.length; i++) by.merge(policies.get(i).name(), keptBy[i].sum(), Long::sum);
+		return new Stats(
+				buffer != null ? buffer.size() : 0,
+				keptTraces.sum(),
+				droppedTraces.sum(),
+				keptSpans.sum(),
+				droppedSpans.sum(),
+				decidedInline.sum(),
+				Collections.unmodifiableMap(by));
+	}
+
+	/** Stop buffering, decide what is buffered and stop the worker; later batches are decided inline. */
+	@Override
+	public void close() {
+		if (closed) return;
+		closed = true;
+		if (worker == null) return;
+		try {
+			worker.join(TimeUnit.SECONDS.toMillis(30));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void run() {
+		long done = 0L;
+		while (true) {
+			final Pending next;
+			try {
+				next = buffer.poll(100, TimeUnit.MILLISECONDS);
+			} catch (InterruptedException e) {
+				if (closed) return;
+				continue;
+			}
+			if (next == null) {
+				if (closed && buffer.isEmpty()) return;
+				continue;
+			}
+			decide(next.batch(), next.sink(), next.dropped());
+			completed = ++done;
+		}
+	}
+
+	private void drainAfterClose() {
+		Pending next;
+		while ((next = buffer.poll()) != null) decide(next.batch(), next.sink(), next.dropped());
+	}
+
+	private void decide(
+			List<TelemetryHolder> batch,
+			Consumer<List<TelemetryHolder>> sink,
+			Consumer<List<TelemetryHolder>> dropped) {
+		final int matched = match(batch);
+		if (matched < 0) {
+			droppedTraces.increment();
+			droppedSpans.add(batch.size());
+			try {
+				dropped.accept(batch);
+			} catch (RuntimeException e) {
+				log.error("Releasing a tail-sampled batch failed: {}", e.toString(), e);
+			}
+			return;
+		}
+		keptBy[matched].increment();
+		keptTraces.increment();
+		keptSpans.add(batch.size());
+		try {
+			sink.accept(batch);
+		} catch (RuntimeException e) {
+			log.error("ROOT_FLOW_FINISHED dispatch after tail sampling failed: {}", e.toString(), e);
+		}
+	}
+
+	/** Index of the first policy that keeps {@code batch}, or -1 to drop it. */
+	private int match(List<TelemetryHolder> batch) {
+		TelemetryHolder root = batch.get(0);
+		for (TelemetryHolder h : batch) {
+			if (h != null && !h.hasParentSpanId()) {
+				root = h;
+				break;
+			}
+		}
+		for (int i = 0; i < policies.size(); i++) {
+			try {
+				if (policies.get(i).condition().test(root, batch)) return i;
+			} catch (RuntimeException e) {
+				log.warn("Tail sampling policy '{}' failed: {}", policies.get(i).name(), e.toString());
+			}
+		}
+		return -1;
+	}
+}
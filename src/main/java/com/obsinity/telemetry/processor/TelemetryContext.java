@@ -5,6 +5,7 @@ import java.util.Objects;
 
 import org.springframework.stereotype.Component;
 
+import com.obsinity.telemetry.model.OAttributes;
 import com.obsinity.telemetry.model.TelemetryHolder;
 
 /**
@@ -16,6 +17,8 @@ import com.obsinity.telemetry.model.TelemetryHolder;
  *   <li><b>EventContext</b> (ephemeral): {@link #putContext(String, Object)} / {@link #putAllContext(Map)} — written to
  *       {@link TelemetryHolder#getEventContext()}.
  * </ul>
+ *
+ * Inside a nested {@code @Step} the writes go to the step's lean frame; no holder is materialised for them.
  */
 @Component
 public class TelemetryContext {
@@ -41,9 +44,9 @@ public class TelemetryContext {
 	/** Adds a single <b>attribute</b> to the current holder and returns the same typed value. */
 	public <T> T putAttr(String key, T value) {
 		if (key == null || key.isBlank()) return value;
-		TelemetryHolder holder = support.currentHolder();
-		if (holder != null) {
-			holder.attributes().put(key, value);
+		OAttributes attributes = support.currentAttributes();
+		if (attributes != null) {
+			attributes.put(key, value);
 		}
 		return value;
 	}
@@ -51,12 +54,12 @@ public class TelemetryContext {
 	/** Adds all entries as <b>attributes</b> to the current holder. */
 	public void putAllAttrs(Map<String, ?> map) {
 		if (map == null || map.isEmpty()) return;
-		TelemetryHolder holder = support.currentHolder();
-		if (holder == null) return;
+		OAttributes attributes = support.currentAttributes();
+		if (attributes == null) return;
 
 		map.forEach((k, v) -> {
 			if (k != null && !k.isBlank()) {
-				holder.attributes().put(k, v);
+				attributes.put(k, v);
 			}
 		});
 	}
@@ -66,9 +69,9 @@ public class TelemetryContext {
 	/** Adds a single <b>EventContext</b> entry to the current holder and returns the same typed value. */
 	public <T> T putContext(String key, T value) {
 		if (key == null || key.isBlank()) return value;
-		TelemetryHolder holder = support.currentHolder();
-		if (holder != null) {
-			holder.getEventContext().put(key, value);
+		Map<String, Object> context = support.currentEventContext();
+		if (context != null) {
+			context.put(key, value);
 		}
 		return value;
 	}
@@ -76,12 +79,12 @@ public class TelemetryContext {
 	/** Adds all entries to the <b>EventContext</b> of the current holder. */
 	public void putAllContext(Map<String, ?> map) {
 		if (map == null || map.isEmpty()) return;
-		TelemetryHolder holder = support.currentHolder();
-		if (holder == null) return;
+		Map<String, Object> context = support.currentEventContext();
+		if (context == null) return;
 
 		map.forEach((k, v) -> {
 			if (k != null && !k.isBlank()) {
-				holder.getEventContext().put(k, v);
+				context.put(k, v);
 			}
 		});
 	}
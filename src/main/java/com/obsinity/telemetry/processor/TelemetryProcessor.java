@@ -1,19 +1,22 @@
 package com.obsinity.telemetry.processor;
 
 import java.time.Instant;
-import java.util.LinkedHashMap;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Function;
 
 import lombok.RequiredArgsConstructor;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.Signature;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import io.opentelemetry.api.trace.StatusCode;
 import com.obsinity.telemetry.annotations.OrphanAlert;
 import com.obsinity.telemetry.aspect.FlowOptions;
+import com.obsinity.telemetry.model.Lifecycle;
 import com.obsinity.telemetry.model.OAttributes;
 import com.obsinity.telemetry.model.OEvent;
 import com.obsinity.telemetry.model.OLink;
@@ -21,6 +24,8 @@ import com.obsinity.telemetry.model.OResource;
 import com.obsinity.telemetry.model.OStatus;
 import com.obsinity.telemetry.model.TelemetryHolder;
 import com.obsinity.telemetry.receivers.TelemetryDispatchBus;
+import com.obsinity.telemetry.resource.ResourceRegistry;
+import com.obsinity.telemetry.utils.TelemetryClock;
 import com.obsinity.telemetry.utils.TelemetryIdGenerator;
 
 /** Orchestrates flow and step telemetry lifecycle. */
@@ -32,15 +37,66 @@ public class TelemetryProcessor {
 	private final TelemetryProcessorSupport telemetryProcessorSupport;
 	private final TelemetryDispatchBus dispatchBus;
 
+	/**
+	 * Nested steps are kept as lean {@link StepFrame}s unless a handler needs a holder;
+	 * {@code -Dobsinity.steps.lean=false} builds a holder for every step instead.
+	 */
+	private static final boolean LEAN_STEPS = Boolean.parseBoolean(System.getProperty("obsinity.steps.lean", "true"));
+
+	private final Function<StepFrame, TelemetryHolder> stepMaterializer = this::materializeStep;
+
+	/** Time source for all lifecycle edges; replace via {@link #setClock(TelemetryClock)} (e.g. in tests). */
+	private TelemetryClock clock = TelemetryClock.system();
+
+	@Autowired(required = false)
+	public void setClock(final TelemetryClock clock) {
+		this.clock = Objects.requireNonNull(clock, "clock");
+	}
+
+	protected final TelemetryClock clock() {
+		return clock;
+	}
+
+	/** Source of the shared resource and service id; defaults to system properties when not wired by Spring. */
+	private ResourceRegistry resourceRegistry;
+
+	@Autowired(required = false)
+	public void setResourceRegistry(final ResourceRegistry resourceRegistry) {
+		this.resourceRegistry = Objects.requireNonNull(resourceRegistry, "resourceRegistry");
+	}
+
+	protected final ResourceRegistry resourceRegistry() {
+		ResourceRegistry r = resourceRegistry;
+		if (r == null) resourceRegistry = r = ResourceRegistry.systemDefault();
+		return r;
+	}
+
+	/** Head sampling for root flows; null keeps every root. */
+	private HeadSampler headSampler;
+
+	@Autowired(required = false)
+	public void setHeadSampler(final HeadSampler headSampler) {
+		this.headSampler = headSampler;
+	}
+
+	/** Tail sampling of finished root batches before ROOT_FLOW_FINISHED; null dispatches every batch. */
+	private TailSampler tailSampler;
+
+	@Autowired(required = false)
+	public void setTailSampler(final TailSampler tailSampler) {
+		this.tailSampler = tailSampler;
+	}
+
 	public final Object proceed(final org.aspectj.lang.ProceedingJoinPoint joinPoint, final FlowOptions options)
 			throws Throwable {
 		final boolean active = telemetryProcessorSupport.hasActiveFlow();
+		if (!active && telemetryProcessorSupport.inUnsampledRoot()) return joinPoint.proceed();
 		final boolean isFlowMethod = options != null && options.isFlowMethod();
 		final boolean isStepMethod = options != null && options.isStepMethod();
 
 		final boolean startsNewFlow = isFlowMethod || (isStepMethod && !active);
 
-		final TelemetryHolder parent = telemetryProcessorSupport.currentHolder();
+		final TelemetryHolder parent = startsNewFlow ? telemetryProcessorSupport.currentHolder() : null;
 		final boolean opensRoot = startsNewFlow && parent == null;
 
 		final boolean nestedStep = isStepMethod && active && !startsNewFlow;
@@ -53,123 +109,173 @@ public class TelemetryProcessor {
 			telemetryProcessorSupport.logOrphanStep(stepName, level);
 		}
 
-		final TelemetryHolder opened = startsNewFlow ? openFlowIfNeeded(joinPoint, options, parent, opensRoot) : null;
-
-		if (startsNewFlow && opened != null) {
-			if (isStepMethod && !active) {
-				opened.attributes().put("origin", "STEP_FLOW");
-				opened.attributes().put("step.origin", "promoted");
-				opened.attributes().put("step.name", resolveStepName(joinPoint, options));
-			} else {
-				opened.attributes().put("origin", "FLOW");
-			}
+		final HeadSampler sampler = headSampler;
+		if (opensRoot && sampler != null) {
+			final HeadSampler.FlowState sampling = sampler.state(options.name());
+			if (!sampler.sample(sampling)) return proceedUnsampled(joinPoint, options, sampler, sampling);
 		}
 
-		// --- Nested step handling (dispatch as bare step name; fold later as same name) ---
-		if (nestedStep) {
-			final TelemetryHolder currParent = telemetryProcessorSupport.currentHolder();
-			if (currParent != null) {
-				final Instant now = Instant.now();
-				final long epochStart = telemetryProcessorSupport.unixNanos(now);
-				final long monoStart = System.nanoTime();
-
-				final Signature sig = joinPoint.getSignature();
-				final Map<String, Object> base = new LinkedHashMap<>();
-				base.put("class", sig.getDeclaringTypeName());
-				base.put("method", sig.getName());
-
-				final String stepBaseName = resolveStepName(joinPoint, options);
-
-				final TelemetryHolder stepHolder = TelemetryHolder.builder()
-						.name(stepBaseName)
-						.timestamp(now)
-						.timeUnixNano(epochStart)
-						.traceId(currParent.traceId())
-						.spanId(TelemetryIdGenerator.hex64lsb(TelemetryIdGenerator.generate()))
-						.parentSpanId(currParent.spanId())
-						.kind(options.spanKind())
-						.resource(buildResource())
-						.attributes(new OAttributes(base))
-						.events(new java.util.ArrayList<>())
-						.links(new java.util.ArrayList<>())
-						.status(buildStatus())
-						.serviceId(resolveServiceId())
-						.correlationId(
-								currParent.correlationId() != null ? currParent.correlationId() : currParent.traceId())
-						.synthetic(Boolean.FALSE)
-						.step(true)
-						.startNanoTime(monoStart)
-						.build();
-
-				// Origins and the clean step base-name for folding
-				stepHolder.attributes().put("origin", "FLOW_STEP");
-				stepHolder.attributes().put("step.origin", "nested");
-				stepHolder.attributes().put("step.name", stepBaseName);
-
-				// Bind method params -> step attributes/context
-				telemetryAttributeBinder.bind(stepHolder, joinPoint);
-
-				telemetryProcessorSupport.push(stepHolder);
-				onFlowStarted(stepHolder, currParent, options);
-			}
-		}
+		final TelemetryHolder opened =
+				startsNewFlow ? openFlowIfNeeded(joinPoint, options, parent, opensRoot, clock.nanoTime(), true) : null;
+
+		if (startsNewFlow && opened != null) markOrigin(opened, joinPoint, options, isStepMethod && !active);
+
+		// --- Nested step handling: lean frame, folded later as an event under the bare step name ---
+		final StepFrame stepFrame = nestedStep ? openStepFrame(joinPoint, options) : null;
 
 		try {
-			telemetryProcessorSupport.safe(
-					() -> onInvocationStarted(telemetryProcessorSupport.currentHolder(), options));
+			telemetryProcessorSupport.safe(() -> {
+				final TelemetryHolder current = hookTarget();
+				if (current != null) onInvocationStarted(current, options);
+			});
 
 			final Object result = joinPoint.proceed();
 
-			if (nestedStep) {
-				finalizeStepAsEvent(null);
+			if (stepFrame != null) {
+				finalizeStepAsEvent(stepFrame, null);
 			}
 
-			telemetryProcessorSupport.safe(() -> onSuccess(telemetryProcessorSupport.currentHolder(), result, options));
+			telemetryProcessorSupport.safe(() -> {
+				final TelemetryHolder current = hookTarget();
+				if (current != null) onSuccess(current, result, options);
+			});
 			return result;
 		} catch (final Throwable t) {
-			if (nestedStep) {
-				finalizeStepAsEvent(t);
+			if (stepFrame != null) {
+				finalizeStepAsEvent(stepFrame, t);
 			}
-			telemetryProcessorSupport.safe(() -> onError(telemetryProcessorSupport.currentHolder(), t, options));
+			telemetryProcessorSupport.safe(() -> {
+				final TelemetryHolder current = hookTarget();
+				if (current != null) onError(current, t, options);
+			});
 			throw t;
 		} finally {
-			telemetryProcessorSupport.safe(
-					() -> onInvocationFinishing(telemetryProcessorSupport.currentHolder(), options));
+			telemetryProcessorSupport.safe(() -> {
+				final TelemetryHolder current = hookTarget();
+				if (current != null) onInvocationFinishing(current, options);
+			});
 			finishFlowIfOpened(opened, opensRoot, joinPoint, options);
 		}
 	}
 
+	/**
+	 * Run an unsampled root: no holder, ids or dispatch for it or anything nested. Only its outcome is reported to the
+	 * sampler; a failure under a keep-errors policy is emitted as a lone root holder afterwards.
+	 */
+	private Object proceedUnsampled(
+			final ProceedingJoinPoint joinPoint,
+			final FlowOptions options,
+			final HeadSampler sampler,
+			final HeadSampler.FlowState sampling)
+			throws Throwable {
+		final boolean timed = sampler.timesUnsampled(sampling);
+		final long monoStart = timed ? clock.nanoTime() : 0L;
+		Throwable error = null;
+		telemetryProcessorSupport.setUnsampledRoot(true);
+		try {
+			return joinPoint.proceed();
+		} catch (final Throwable t) {
+			error = t;
+			throw t;
+		} finally {
+			telemetryProcessorSupport.setUnsampledRoot(false);
+			final Throwable failure = error;
+			telemetryProcessorSupport.safe(() -> {
+				final long duration = timed ? clock.nanoTime() - monoStart : 0L;
+				if (sampler.unsampledFinished(sampling, duration, failure != null)) {
+					emitFailedRoot(joinPoint, options, monoStart, failure);
+				}
+			});
+		}
+	}
+
+	/**
+	 * Report an unsampled root that failed, as if it had been traced without nested flows or steps. Only FLOW_FINISHED
+	 * and ROOT_FLOW_FINISHED are dispatched: FLOW_STARTED would arrive after the flow had already failed.
+	 */
+	private void emitFailedRoot(
+			final ProceedingJoinPoint joinPoint,
+			final FlowOptions options,
+			final long monoStart,
+			final Throwable error) {
+		final TelemetryHolder opened = openFlowIfNeeded(joinPoint, options, null, true, monoStart, false);
+		markOrigin(opened, joinPoint, options, options.isStepMethod());
+		opened.attributes().put("sampling", "error");
+		try {
+			onError(opened, error, options);
+		} finally {
+			finishFlowIfOpened(opened, true, joinPoint, options);
+		}
+	}
+
+	private void markOrigin(
+			final TelemetryHolder opened,
+			final ProceedingJoinPoint joinPoint,
+			final FlowOptions options,
+			final boolean promotedStep) {
+		if (promotedStep) {
+			opened.attributes().put("origin", "STEP_FLOW");
+			opened.attributes().put("step.origin", "promoted");
+			opened.attributes().put("step.name", resolveStepName(joinPoint, options));
+		} else {
+			opened.attributes().put("origin", "FLOW");
+		}
+	}
+
+	/** Holder the invocation hooks apply to; null while the current entry is a step frame without a holder. */
+	private TelemetryHolder hookTarget() {
+		final Object current = telemetryProcessorSupport.current();
+		if (current instanceof StepFrame f) return f.isMaterialized() ? f.holder() : null;
+		return (TelemetryHolder) current;
+	}
+
 	private TelemetryHolder openFlowIfNeeded(
 			final ProceedingJoinPoint joinPoint,
 			final FlowOptions options,
 			final TelemetryHolder parent,
-			final boolean opensRoot) {
-		final Instant now = Instant.now();
-		final long epochNanos = telemetryProcessorSupport.unixNanos(now);
-
-		final String traceId;
-		final String parentSpanId;
+			final boolean opensRoot,
+			final long monoStart,
+			final boolean announce) {
+		final long epochNanos = clock.epochNanos(monoStart);
+		final Instant now = TelemetryClock.toInstant(epochNanos);
+
+		final long traceIdHi;
+		final long traceIdLo;
+		final long parentSpanId;
 		final String correlationId;
 
 		if (parent == null) {
-			traceId = TelemetryIdGenerator.hex128(TelemetryIdGenerator.generate());
-			parentSpanId = null;
-			correlationId = traceId;
+			final UUID trace = TelemetryIdGenerator.generate();
+			traceIdHi = trace.getMostSignificantBits();
+			traceIdLo = trace.getLeastSignificantBits();
+			parentSpanId = 0L;
+			correlationId = TelemetryIdGenerator.hex128(traceIdHi, traceIdLo);
 		} else {
-			traceId = parent.traceId();
-			parentSpanId = parent.spanId();
+			traceIdHi = parent.traceIdHigh();
+			traceIdLo = parent.traceIdLow();
+			parentSpanId = parent.spanIdLong();
 			correlationId =
 					(parent.correlationId() != null && !parent.correlationId().isBlank())
 							? parent.correlationId()
 							: parent.traceId();
 		}
 
-		final String spanId = TelemetryIdGenerator.hex64lsb(TelemetryIdGenerator.generate());
+		final long spanId = TelemetryIdGenerator.newSpanIdBits();
 
 		final TelemetryHolder opened = Objects.requireNonNull(
 				createFlowHolder(
-						joinPoint, options, parent, traceId, spanId, parentSpanId, correlationId, now, epochNanos),
+						joinPoint,
+						options,
+						parent,
+						traceIdHi,
+						traceIdLo,
+						spanId,
+						parentSpanId,
+						correlationId,
+						now,
+						epochNanos),
 				"createFlowHolder() must not return null when starting a flow");
+		opened.setStartNanoTime(monoStart);
 
 		telemetryAttributeBinder.bind(opened, joinPoint);
 
@@ -178,6 +284,10 @@ public class TelemetryProcessor {
 		}
 
 		telemetryProcessorSupport.push(opened);
+		if (!announce) {
+			telemetryProcessorSupport.addToBatch(opened); // what onFlowStarted does, minus FLOW_STARTED
+			return opened;
+		}
 		try {
 			onFlowStarted(opened, parent, options);
 		} catch (Exception ignored) {
@@ -218,84 +328,137 @@ public class TelemetryProcessor {
 	}
 
 	/**
-	 * Finish a temporary step-holder: dispatch FLOW_FINISHED to handlers, fold into the parent as an OEvent, then
-	 * discard the step-holder (no batching).
-	 *
-	 * <p>IMPORTANT: capture the parent BEFORE dispatch in case handlers mutate thread state.
+	 * Open a lean frame for a nested step. A holder is built up front only when a FLOW_STARTED handler is interested in
+	 * the step name (or lean steps are disabled with {@code -Dobsinity.steps.lean=false}).
 	 */
-	private void finalizeStepAsEvent(final Throwable errorOrNull) {
-		final TelemetryHolder stepHolder = telemetryProcessorSupport.currentHolder();
-		if (stepHolder == null || !stepHolder.isStep()) {
-			return;
+	private StepFrame openStepFrame(final ProceedingJoinPoint joinPoint, final FlowOptions options) {
+		final Object parent = telemetryProcessorSupport.current();
+		if (parent == null) return null;
+
+		final long monoStart = clock.stepNanoTime();
+		final String stepBaseName = resolveStepName(joinPoint, options);
+		final Signature sig = joinPoint.getSignature();
+		final OAttributes base = new OAttributes();
+		base.put("class", sig.getDeclaringTypeName());
+		base.put("method", sig.getName());
+		// Origins and the clean step base-name for folding
+		base.put("origin", "FLOW_STEP");
+		base.put("step.origin", "nested");
+		base.put("step.name", stepBaseName);
+
+		final StepFrame frame = new StepFrame(
+				stepBaseName,
+				options.spanKind(),
+				monoStart,
+				clock.epochNanos(monoStart),
+				parent,
+				base,
+				stepMaterializer);
+
+		// Bind method params -> step attributes/context
+		telemetryAttributeBinder.bind(frame, joinPoint);
+
+		telemetryProcessorSupport.push(frame);
+		if (!LEAN_STEPS || dispatchBus.hasStepInterest(Lifecycle.FLOW_STARTED, stepBaseName)) {
+			onFlowStarted(frame.holder(), frame.parentHolder(), options);
 		}
+		return frame;
+	}
 
-		// --- Capture parent BEFORE dispatch to avoid losing it if handlers mutate state
-		final TelemetryHolder parent = telemetryProcessorSupport.currentHolderBelowTop();
+	/** Build the full holder for a step frame (see {@link StepFrame#holder()}). */
+	private TelemetryHolder materializeStep(final StepFrame frame) {
+		final TelemetryHolder parent = frame.parentHolder();
+		final List<OEvent> events = frame.eventsOrNull();
+		return TelemetryHolder.builder()
+				.name(frame.name)
+				.timestamp(TelemetryClock.toInstant(frame.epochStart))
+				.timeUnixNano(frame.epochStart)
+				.traceId(parent.traceIdHigh(), parent.traceIdLow())
+				.spanId(TelemetryIdGenerator.newSpanIdBits())
+				.parentSpanId(parent.spanIdLong())
+				.kind(frame.kind)
+				.resource(buildResource())
+				.attributes(frame.attributes)
+				.events(events != null ? events : new ArrayList<>())
+				.links(new ArrayList<>())
+				.status(buildStatus())
+				.serviceId(resolveServiceId())
+				.correlationId(parent.correlationId() != null ? parent.correlationId() : parent.traceId())
+				.synthetic(Boolean.FALSE)
+				.eventContext(frame.eventContextOrNull())
+				.step(true)
+				.startNanoTime(frame.monoStart)
+				.build();
+	}
 
-		final Instant now = Instant.now();
-		final long epochEnd = telemetryProcessorSupport.unixNanos(now);
-		final long monoEnd = System.nanoTime();
+	/**
+	 * Finish a nested step: dispatch FLOW_FINISHED if a handler is interested (materialising the holder only then),
+	 * fold into the parent as an OEvent, then discard the frame (no batching).
+	 */
+	private void finalizeStepAsEvent(final StepFrame frame, final Throwable errorOrNull) {
+		if (telemetryProcessorSupport.current() != frame) {
+			return;
+		}
+
+		final long monoEnd = clock.stepNanoTime();
+		final long epochEnd = clock.epochNanos(monoEnd);
 
 		// decorate step attributes with result/error
 		if (errorOrNull == null) {
-			stepHolder.attributes().put("result", "success");
+			frame.attributes.put("result", "success");
 		} else {
-			stepHolder.attributes().put("result", "error");
-			stepHolder.attributes().put("error.type", errorOrNull.getClass().getName());
-			stepHolder.attributes().put("error.message", String.valueOf(errorOrNull.getMessage()));
-			stepHolder.setThrowable(errorOrNull);
+			frame.attributes.put("result", "error");
+			frame.attributes.put("error.type", errorOrNull.getClass().getName());
+			frame.attributes.put("error.message", String.valueOf(errorOrNull.getMessage()));
 		}
-		stepHolder.setEndTimestamp(now);
-
-		// Dispatch as FLOW_FINISHED on the step-holder (handlers bind here)
-		dispatchBus.flowFinished(stepHolder);
-
-		// --- Fold into the captured parent
-		if (parent != null) {
-			final long duration = (stepHolder.getStartNanoTime() > 0L) ? (monoEnd - stepHolder.getStartNanoTime()) : 0L;
-			stepHolder.attributes().put("duration.nanos", duration);
-			stepHolder.attributes().put("phase", "finish");
-
-			final long epochStart = stepHolder.timeUnixNano() != null
-					? stepHolder.timeUnixNano()
-					: telemetryProcessorSupport.unixNanos(stepHolder.timestamp());
-
-			// Use clean step base name for the folded OEvent
-			String stepBaseName = String.valueOf(stepHolder.attributes().map().get("step.name"));
-			if (stepBaseName == null || stepBaseName.isBlank()) {
-				final String routed = stepHolder.name();
-				int dot = (routed != null) ? routed.lastIndexOf('.') : -1;
-				stepBaseName = (dot >= 0) ? routed.substring(dot + 1) : routed;
-			}
 
-			final OEvent folded = new OEvent(
-					stepBaseName,
-					epochStart,
-					epochEnd,
-					stepHolder.attributes(),
-					0,
-					stepHolder.getStartNanoTime(),
-					stepHolder.getEventContext());
-
-			// ensure parent has an events list, then add
-			if (parent.events() != null) {
-				parent.events().add(folded);
-			}
+		if (frame.isMaterialized()
+				|| !LEAN_STEPS
+				|| dispatchBus.hasStepInterest(Lifecycle.FLOW_FINISHED, frame.name, errorOrNull != null)) {
+			final TelemetryHolder stepHolder = frame.holder();
+			if (errorOrNull != null) stepHolder.setThrowable(errorOrNull);
+			stepHolder.setEndTimestamp(TelemetryClock.toInstant(epochEnd));
+			stepHolder.setEndNanoTime(monoEnd);
+
+			// Dispatch as FLOW_FINISHED on the step-holder (handlers bind here)
+			dispatchBus.flowFinished(stepHolder);
 		}
 
-		// Discard: do not batch step holders
-		telemetryProcessorSupport.pop(stepHolder);
+		// --- Fold into the parent (a flow holder or an enclosing step frame)
+		frame.attributes.putLong("duration.nanos", monoEnd - frame.monoStart);
+		frame.attributes.put("phase", "finish");
+		final OEvent folded = new OEvent(
+				frame.name,
+				frame.epochStart,
+				epochEnd,
+				frame.attributes,
+				0,
+				frame.monoStart,
+				frame.eventContextOrNull());
+		if (frame.parent instanceof StepFrame enclosing) {
+			enclosing.events().add(folded);
+		} else if (((TelemetryHolder) frame.parent).events() != null) {
+			((TelemetryHolder) frame.parent).events().add(folded);
+		}
+
+		// Discard: do not batch step frames
+		telemetryProcessorSupport.pop(frame);
 	}
 
-	// ---- Builders & hooks (unchanged) ----
+	// ---- Builders & hooks ----
 
+	/**
+	 * Build the holder for a newly opened flow. Ids are binary (see {@link TelemetryHolder#traceIdHigh()});
+	 * {@code parentSpanId == 0} marks a root.
+	 */
 	protected TelemetryHolder createFlowHolder(
 			final ProceedingJoinPoint pjp,
 			final FlowOptions opts,
 			final TelemetryHolder parent,
-			final String traceId,
-			final String spanId,
-			final String parentSpanId,
+			final long traceIdHi,
+			final long traceIdLo,
+			final long spanId,
+			final long parentSpanId,
 			final String correlationId,
 			final Instant ts,
 			final long tsNanos) {
@@ -310,12 +473,12 @@ public class TelemetryProcessor {
 				.name(opts.name())
 				.timestamp(ts)
 				.timeUnixNano(tsNanos)
-				.traceId(traceId)
+				.traceId(traceIdHi, traceIdLo)
 				.spanId(spanId)
 				.parentSpanId(parentSpanId)
 				.kind(opts.spanKind())
 				.resource(resource)
-				.attributes(attributes != null ? attributes : new OAttributes(new LinkedHashMap<>()))
+				.attributes(attributes != null ? attributes : new OAttributes())
 				.events(events)
 				.links(links)
 				.status(status)
@@ -325,24 +488,21 @@ public class TelemetryProcessor {
 				.build();
 	}
 
+	/** The registry's shared resource: one immutable instance for every holder of the process. */
 	protected OResource buildResource() {
-		final String sid = resolveServiceId();
-		final Map<String, Object> resAttrs = new LinkedHashMap<>();
-		resAttrs.put("service.name", sid);
-		resAttrs.put("service.id", sid);
-		return new OResource(new OAttributes(resAttrs));
+		return resourceRegistry().resource();
 	}
 
 	protected OAttributes buildAttributes(final ProceedingJoinPoint pjp, final FlowOptions opts) {
-		return new OAttributes(new LinkedHashMap<>());
+		return new OAttributes();
 	}
 
 	protected List<OEvent> buildEvents() {
-		return new java.util.ArrayList<>();
+		return new ArrayList<>();
 	}
 
 	protected List<OLink> buildLinks() {
-		return new java.util.ArrayList<>();
+		return new ArrayList<>();
 	}
 
 	protected OStatus buildStatus() {
@@ -350,7 +510,7 @@ public class TelemetryProcessor {
 	}
 
 	protected String resolveServiceId() {
-		return System.getProperty("obsinity.serviceId", "obsinity-demo");
+		return resourceRegistry().serviceId();
 	}
 
 	protected void onFlowStarted(
@@ -362,12 +522,17 @@ public class TelemetryProcessor {
 	}
 
 	protected void onFlowFinishing(final TelemetryHolder opened, final FlowOptions options) {
-		telemetryProcessorSupport.setEndTime(opened, Instant.now());
+		final long monoEnd = clock.nanoTime();
+		opened.setEndNanoTime(monoEnd);
+		telemetryProcessorSupport.setEndTime(opened, clock.instant(monoEnd));
+		opened.freeze();
 		dispatchBus.flowFinished(opened);
 	}
 
 	protected void onRootFlowFinished(final List<TelemetryHolder> batch, final FlowOptions options) {
-		dispatchBus.rootFlowFinished(batch);
+		final TailSampler sampler = tailSampler;
+		if (sampler != null) sampler.offer(batch, dispatchBus::rootFlowFinished, dispatchBus::rootFlowDropped);
+		else dispatchBus.rootFlowFinished(batch);
 	}
 
 	protected void onInvocationStarted(final TelemetryHolder current, final FlowOptions options) {
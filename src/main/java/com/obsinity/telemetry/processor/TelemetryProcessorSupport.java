@@ -5,12 +5,14 @@ import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Deque;
 import java.util.List;
+import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
 import com.obsinity.telemetry.annotations.OrphanAlert;
+import com.obsinity.telemetry.model.OAttributes;
 import com.obsinity.telemetry.model.TelemetryHolder;
 
 /**
@@ -23,8 +25,10 @@ public class TelemetryProcessorSupport {
 	public static final String STEP_EXECUTED_WITH_NO_ACTIVE_FLOW_AUTO_PROMOTED_TO_FLOW =
 			"Step '{}' executed with no active Flow; auto-promoted to Flow.";
 
-	/** Per-thread stack of active flows/holders (top = current). */
-	private final InheritableThreadLocal<Deque<TelemetryHolder>> ctx;
+	/**
+	 * Per-thread stack of active flows (top = current): {@link TelemetryHolder}s and nested-step {@link StepFrame}s.
+	 */
+	private final InheritableThreadLocal<Deque<Object>> ctx;
 
 	/**
 	 * Per-thread, per-root in-order list of completed {@link TelemetryHolder}s. Created when the root opens; appended
@@ -32,10 +36,22 @@ public class TelemetryProcessorSupport {
 	 */
 	private final InheritableThreadLocal<List<TelemetryHolder>> batch;
 
+	/**
+	 * Per-thread marker for the unsampled root (see {@link HeadSampler}) now running; everything under it is untraced.
+	 * Inherited like {@link #ctx}: a thread started inside the root shares its marker, so it stays untraced until the
+	 * root exits and no longer (a pool thread spawned there is not muted for life).
+	 */
+	private final InheritableThreadLocal<UnsampledRoot> unsampled = new InheritableThreadLocal<>();
+
+	/** Open while its unsampled root runs; closed, never reopened, at root exit. */
+	private static final class UnsampledRoot {
+		volatile boolean open = true;
+	}
+
 	public TelemetryProcessorSupport() {
 		this.ctx = new InheritableThreadLocal<>() {
 			@Override
-			protected Deque<TelemetryHolder> initialValue() {
+			protected Deque<Object> initialValue() {
 				return new ArrayDeque<>();
 			}
 		};
@@ -49,32 +65,58 @@ public class TelemetryProcessorSupport {
 
 	/* --------------------- flow stack --------------------- */
 
+	/** Current holder; a step frame on top is materialised into its holder. */
 	TelemetryHolder currentHolder() {
-		final Deque<TelemetryHolder> d = ctx.get();
-		return d.isEmpty() ? null : d.peekLast();
+		final Object top = ctx.get().peekLast();
+		return (top instanceof StepFrame f) ? f.holder() : (TelemetryHolder) top;
+	}
+
+	/** Top of the stack as-is ({@link TelemetryHolder}, {@link StepFrame} or null); never materialises. */
+	Object current() {
+		return ctx.get().peekLast();
 	}
 
-	/** Returns the holder just below the current top (the parent), or null if none. */
-	TelemetryHolder currentHolderBelowTop() {
-		final Deque<TelemetryHolder> d = ctx.get();
-		if (d.size() < 2) return null;
-		final var it = d.descendingIterator();
-		it.next(); // skip top
-		return it.next(); // parent
+	/** Attributes of the current flow or step, without materialising a step frame; null if none. */
+	OAttributes currentAttributes() {
+		final Object top = ctx.get().peekLast();
+		if (top instanceof StepFrame f) return f.attributes;
+		return top == null ? null : ((TelemetryHolder) top).attributes();
+	}
+
+	/** EventContext of the current flow or step, without materialising a step frame; null if none. */
+	Map<String, Object> currentEventContext() {
+		final Object top = ctx.get().peekLast();
+		if (top instanceof StepFrame f) return f.eventContext();
+		return top == null ? null : ((TelemetryHolder) top).getEventContext();
 	}
 
 	boolean hasActiveFlow() {
 		return !ctx.get().isEmpty();
 	}
 
+	boolean inUnsampledRoot() {
+		final UnsampledRoot root = unsampled.get();
+		return root != null && root.open;
+	}
+
+	void setUnsampledRoot(final boolean value) {
+		final UnsampledRoot root = unsampled.get();
+		if (root != null) root.open = false;
+		unsampled.set(value ? new UnsampledRoot() : null);
+	}
+
 	void push(final TelemetryHolder h) {
 		if (h != null) ctx.get().addLast(h);
 	}
 
-	void pop(final TelemetryHolder expectedTop) {
-		final Deque<TelemetryHolder> d = ctx.get();
+	void push(final StepFrame f) {
+		if (f != null) ctx.get().addLast(f);
+	}
+
+	void pop(final Object expectedTop) {
+		final Deque<Object> d = ctx.get();
 		if (!d.isEmpty()) {
-			final TelemetryHolder last = d.peekLast();
+			final Object last = d.peekLast();
 			if (last == expectedTop) {
 				d.removeLast();
 			} else {
@@ -0,0 +1,291 @@
+package com.obsinity.telemetry.receivers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.obsinity.telemetry.model.TelemetryHolder;
+
+/**
+ * Multi-queue asynchronous delivery of {@link TelemetrySignal}s (see {@code documentation/dispatch-thread-pool.md}).
+ *
+ * <ul>
+ *   <li>{@code N} bounded worker queues, each drained by one daemon thread ({@code obsinity-dispatch-<i>}).
+ *   <li>Each root flow is pinned to the least-loaded queue when it starts ({@link #pin(TelemetryHolder)}); all its
+ *       signals go to that queue, so delivery is FIFO per flow. The pin is keyed by the binary trace id and removed
+ *       once {@link TelemetrySignal.Stage#ROOT_FINISH} is enqueued, or by {@link #release(TelemetryHolder)} when no
+ *       ROOT_FINISH will follow (no async interest, tail-sampling drop).
+ *   <li>Pins are bounded ({@link Config#maxPinnedFlows()}): a flow started while the table is full, or whose pin is
+ *       missing, goes to a queue chosen by a hash of its trace id, which is equally stable for the whole flow.
+ *   <li>When the target queue is full, {@link Backpressure} decides: block the producer, evict the oldest queued
+ *       signal, or reject the new one. Drops are counted per policy.
+ * </ul>
+ *
+ * Routing happens on the producer thread (no separate ingress queue/thread): a flow's signals all originate on the
+ * thread running it, so enqueue order is already the flow order.
+ */
+public final class AsyncDispatchEngine implements AutoCloseable {
+
+	private static final Logger log = LoggerFactory.getLogger(AsyncDispatchEngine.class);
+
+	/** What to do when a worker queue is full. */
+	public enum Backpressure {
+		/** Producer waits for space. */
+		BLOCK,
+		/** Evict the oldest queued signal to make room. */
+		DROP_OLDEST,
+		/** Reject the signal being enqueued. */
+		DROP_NEWEST
+	}
+
+	/** Engine sizing and policy. */
+	public record Config(
+			int workerCount, int workerQueueCapacity, int batchMax, Backpressure backpressure, int maxPinnedFlows) {
+		public static final int DEFAULT_MAX_PINNED_FLOWS = 65_536;
+
+		public Config {
+			if (workerCount <= 0) throw new IllegalArgumentException("workerCount must be > 0");
+			if (workerQueueCapacity <= 0) throw new IllegalArgumentException("workerQueueCapacity must be > 0");
+			if (batchMax <= 0) throw new IllegalArgumentException("batchMax must be > 0");
+			Objects.requireNonNull(backpressure, "backpressure");
+			if (maxPinnedFlows < 0) throw new IllegalArgumentException("maxPinnedFlows must be >= 0");
+		}
+
+		public Config(int workerCount, int workerQueueCapacity, int batchMax, Backpressure backpressure) {
+			this(workerCount, workerQueueCapacity, batchMax, backpressure, DEFAULT_MAX_PINNED_FLOWS);
+		}
+
+		/**
+		 * From {@code obsinity.dispatch.async.workers} (default {@code min(cores, 8)}), {@code .queueCapacity} (8192),
+		 * {@code .batchMax} (128), {@code .backpressure} ({@code BLOCK}) and {@code .maxPinnedFlows} (65536).
+		 */
+		public static Config fromSystemProperties() {
+			int cores = Runtime.getRuntime().availableProcessors();
+			return new Config(
+					Integer.getInteger("obsinity.dispatch.async.workers", Math.min(cores, 8)),
+					Integer.getInteger("obsinity.dispatch.async.queueCapacity", 8192),
+					Integer.getInteger("obsinity.dispatch.async.batchMax", 128),
+					Backpressure.valueOf(System.getProperty("obsinity.dispatch.async.backpressure", "BLOCK")
+							.trim()
+							.toUpperCase(Locale.ROOT)),
+					Integer.getInteger("obsinity.dispatch.async.maxPinnedFlows", DEFAULT_MAX_PINNED_FLOWS));
+		}
+	}
+
+	/**
+	 * Point-in-time metrics. {@code pinnedFlows} is the number of root flows currently pinned to a queue;
+	 * {@code unpinnedFlows} counts flows hashed to a queue because the pin table was full.
+	 */
+	public record Stats(
+			List<Integer> queueDepths,
+			List<Long> delivered,
+			long submitted,
+			long droppedOldest,
+			long droppedNewest,
+			int pinnedFlows,
+			long unpinnedFlows) {}
+
+	private final Config config;
+	private final Consumer<TelemetrySignal> sink;
+	private final Worker[] workers;
+	private final LongAdder submitted = new LongAdder();
+	private final LongAdder droppedOldest = new LongAdder();
+	private final LongAdder droppedNewest = new LongAdder();
+	private final LongAdder unpinned = new LongAdder();
+	private final ConcurrentHashMap<Long, Integer> pins = new ConcurrentHashMap<>();
+	private final AtomicLong pending = new AtomicLong();
+	private volatile boolean closed;
+
+	public AsyncDispatchEngine(Config config, Consumer<TelemetrySignal> sink) {
+		this.config = Objects.requireNonNull(config, "config");
+		this.sink = Objects.requireNonNull(sink, "sink");
+		this.workers = new Worker[config.workerCount()];
+		for (int i = 0; i < workers.length; i++) {
+			workers[i] = new Worker(i, config.workerQueueCapacity());
+		}
+		for (Worker w : workers) w.thread.start();
+	}
+
+	public Config config() {
+		return config;
+	}
+
+	/**
+	 * Enqueue a signal on its flow's worker. Returns {@code false} if it was rejected
+	 * ({@link Backpressure#DROP_NEWEST}, engine closed, or interrupted while blocking).
+	 */
+	public boolean submit(TelemetrySignal signal) {
+		if (closed) return false;
+		final Worker w = workers[queueFor(signal)];
+		try {
+			return enqueue(w, signal);
+		} finally {
+			if (signal.stage == TelemetrySignal.Stage.ROOT_FINISH && workers.length > 1 && signal.hasRootFlow())
+				pins.remove(signal.rootFlowKey());
+		}
+	}
+
+	/**
+	 * Pin the root flow of {@code root} to the currently least-loaded queue; call as the root starts, before any of its
+	 * signals are submitted. A no-op with one worker, without a trace id, or while {@link Config#maxPinnedFlows()}
+	 * flows are pinned (the flow is then hashed to a queue).
+	 */
+	void pin(TelemetryHolder root) {
+		if (workers.length == 1 || !TelemetrySignal.hasRootFlow(root)) return;
+		if (pins.size() >= config.maxPinnedFlows()) {
+			unpinned.increment();
+			return;
+		}
+		pins.putIfAbsent(TelemetrySignal.rootFlowKey(root), pickLeastLoaded());
+	}
+
+	/** Drop the pin of {@code root}'s flow when no ROOT_FINISH signal will be submitted for it. */
+	void release(TelemetryHolder root) {
+		if (workers.length > 1 && TelemetrySignal.hasRootFlow(root)) pins.remove(TelemetrySignal.rootFlowKey(root));
+	}
+
+	private boolean enqueue(Worker w, TelemetrySignal signal) {
+		submitted.increment();
+		pending.incrementAndGet();
+		if (w.queue.offer(signal)) return true;
+
+		switch (config.backpressure()) {
+			case BLOCK -> {
+				try {
+					w.queue.put(signal);
+					return true;
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					pending.decrementAndGet();
+					droppedNewest.increment();
+					return false;
+				}
+			}
+			case DROP_OLDEST -> {
+				while (!w.queue.offer(signal)) {
+					if (w.queue.poll() != null) {
+						pending.decrementAndGet();
+						droppedOldest.increment();
+					}
+				}
+				return true;
+			}
+			default -> {
+				pending.decrementAndGet();
+				droppedNewest.increment();
+				return false;
+			}
+		}
+	}
+
+	/** Wait until every accepted signal has been delivered; returns {@code false} on timeout. */
+	public boolean awaitQuiescence(Duration timeout) {
+		final long deadline = System.nanoTime() + timeout.toNanos();
+		while (pending.get() > 0) {
+			if (System.nanoTime() - deadline >= 0) return false;
+			try {
+				TimeUnit.MILLISECONDS.sleep(1);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return false;
+			}
+		}
+		return true;
+	}
+
+	public Stats stats() {
+		List<Integer> depths = new ArrayList<>(workers.length);
+		List<Long> delivered = new ArrayList<>(workers.length);
+		for (Worker w : workers) {
+			depths.add(w.queue.size());
+			delivered.add(w.delivered.sum());
+		}
+		return new Stats(
+				List.copyOf(depths),
+				List.copyOf(delivered),
+				submitted.sum(),
+				droppedOldest.sum(),
+				droppedNewest.sum(),
+				pins.size(),
+				unpinned.sum());
+	}
+
+	/** Stop accepting signals, deliver what is queued (bounded wait) and stop the workers. */
+	@Override
+	public void close() {
+		if (closed) return;
+		closed = true;
+		awaitQuiescence(Duration.ofSeconds(5));
+		for (Worker w : workers) w.thread.interrupt();
+	}
+
+	private int queueFor(TelemetrySignal signal) {
+		if (workers.length == 1) return 0;
+		if (!signal.hasRootFlow()) return pickLeastLoaded();
+		final long key = signal.rootFlowKey();
+		final Integer pinned = pins.get(key);
+		return pinned != null ? pinned : (int) Long.remainderUnsigned(key, workers.length);
+	}
+
+	/** Queue with the fewest items; ties go to the lowest index. */
+	private int pickLeastLoaded() {
+		int idx = 0;
+		int best = Integer.MAX_VALUE;
+		for (int i = 0; i < workers.length; i++) {
+			int sz = workers[i].queue.size();
+			if (sz < best) {
+				best = sz;
+				idx = i;
+			}
+		}
+		return idx;
+	}
+
+	private final class Worker implements Runnable {
+		final ArrayBlockingQueue<TelemetrySignal> queue;
+		final LongAdder delivered = new LongAdder();
+		final Thread thread;
+
+		Worker(int index, int capacity) {
+			this.queue = new ArrayBlockingQueue<>(capacity);
+			this.thread = new Thread(this, "obsinity-dispatch-" + index);
+			this.thread.setDaemon(true);
+		}
+
+		@Override
+		public void run() {
+			final List<TelemetrySignal> drained = new ArrayList<>(config.batchMax());
+			while (!(closed && queue.isEmpty())) {
+				try {
+					drained.add(queue.take());
+				} catch (InterruptedException e) {
+					if (closed) break;
+					continue;
+				}
+				queue.drainTo(drained, config.batchMax() - 1);
+				for (int i = 0; i < drained.size(); i++) {
+					try {
+						sink.accept(drained.get(i));
+					} catch (Throwable t) {
+						log.error("Async dispatch failed: {}", t.toString(), t);
+					} finally {
+						delivered.increment();
+						pending.decrementAndGet();
+					}
+				}
+				drained.clear();
+			}
+		}
+	}
+}
@@ -0,0 +1,149 @@
+package com.obsinity.telemetry.receivers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.obsinity.telemetry.model.Lifecycle;
+import com.obsinity.telemetry.model.TelemetryHolder;
+
+/**
+ * Structured routing trace for {@link TelemetryDispatchBus}.
+ *
+ * <p>Disabled by default. When disabled, {@link #begin} is a single volatile read returning {@code null} and the bus
+ * allocates nothing for tracing. When enabled ({@link #setEnabled(boolean)} or {@code -Dobsinity.dispatch.trace=true}),
+ * every dispatch produces one {@link Entry} describing the gates each component passed or failed, the tier chosen and
+ * the handlers accepted/invoked. Entries are kept in a bounded ring buffer ({@code -Dobsinity.dispatch.trace.capacity},
+ * default 1024) and can be queried with {@link #recent(int)}; each finished entry is also logged at DEBUG.
+ */
+public final class DispatchTrace {
+
+	private static final Logger log = LoggerFactory.getLogger(DispatchTrace.class);
+
+	private volatile boolean enabled;
+	private final int capacity;
+	private final AtomicReferenceArray<Entry> ring;
+	private final AtomicLong sequence = new AtomicLong();
+
+	public DispatchTrace() {
+		this(
+				Boolean.getBoolean("obsinity.dispatch.trace"),
+				Integer.getInteger("obsinity.dispatch.trace.capacity", 1024));
+	}
+
+	public DispatchTrace(boolean enabled, int capacity) {
+		if (capacity <= 0) throw new IllegalArgumentException("capacity must be > 0");
+		this.enabled = enabled;
+		this.capacity = capacity;
+		this.ring = new AtomicReferenceArray<>(capacity);
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public int capacity() {
+		return capacity;
+	}
+
+	/** Start recording one dispatch; returns {@code null} (and allocates nothing) when tracing is disabled. */
+	Recorder begin(Lifecycle phase, TelemetryHolder holder, int batchSize) {
+		if (!enabled) return null;
+		return new Recorder(phase, holder, batchSize);
+	}
+
+	/** Up to {@code max} most recent entries, oldest first. */
+	public List<Entry> recent(int max) {
+		long end = sequence.get();
+		long start = Math.max(0L, end - Math.min(max, capacity));
+		List<Entry> out = new ArrayList<>((int) (end - start));
+		for (long s = start; s < end; s++) {
+			Entry e = ring.get((int) (s % capacity));
+			if (e != null && e.sequence() == s) out.add(e);
+		}
+		return out;
+	}
+
+	/** All retained entries, oldest first. */
+	public List<Entry> snapshot() {
+		return recent(capacity);
+	}
+
+	public void clear() {
+		for (int i = 0; i < capacity; i++) ring.set(i, null);
+	}
+
+	private void publish(Entry e) {
+		ring.set((int) (e.sequence() % capacity), e);
+		if (log.isDebugEnabled()) log.debug("BUS: {}", e);
+	}
+
+	/* ========================= Types ========================= */
+
+	/** One routing step: a gate result, tier selection, handler check or invocation. */
+	public record Decision(int component, String componentName, String stage, String detail) {
+		@Override
+		public String toString() {
+			return "[" + component + "]'" + componentName + "' " + stage + (detail == null ? "" : " " + detail);
+		}
+	}
+
+	/** Full routing record for one dispatched holder/phase. */
+	public record Entry(
+			long sequence,
+			long epochMillis,
+			Lifecycle phase,
+			String eventName,
+			String traceId,
+			String spanId,
+			boolean failed,
+			boolean step,
+			int batchSize,
+			List<String> attributeKeys,
+			List<String> contextKeys,
+			List<Decision> decisions,
+			String outcome) {}
+
+	/** Mutable per-dispatch collector; confined to the dispatching thread. */
+	final class Recorder {
+		private final Lifecycle phase;
+		private final TelemetryHolder holder;
+		private final int batchSize;
+		private final List<Decision> decisions = new ArrayList<>();
+
+		private Recorder(Lifecycle phase, TelemetryHolder holder, int batchSize) {
+			this.phase = phase;
+			this.holder = holder;
+			this.batchSize = batchSize;
+		}
+
+		void record(int component, String componentName, String stage, String detail) {
+			decisions.add(new Decision(component, componentName, stage, detail));
+		}
+
+		void finish(String outcome) {
+			publish(new Entry(
+					sequence.getAndIncrement(),
+					System.currentTimeMillis(),
+					phase,
+					holder.name(),
+					holder.traceId(),
+					holder.spanId(),
+					holder.throwable() != null,
+					holder.isStep(),
+					batchSize,
+					List.copyOf(holder.attributes().map().keySet()),
+					List.copyOf(holder.getEventContext().keySet()),
+					List.copyOf(decisions),
+					outcome));
+		}
+	}
+}
@@ -0,0 +1,163 @@
+package com.obsinity.telemetry.receivers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.obsinity.telemetry.dispatch.Handler;
+import com.obsinity.telemetry.dispatch.HandlerGroup;
+import com.obsinity.telemetry.dispatch.HandlerGroup.ModeBuckets;
+import com.obsinity.telemetry.model.Lifecycle;
+
+/**
+ * Compiled routing for {@link TelemetryDispatchBus}: {@code (Lifecycle, event name, failed, step) → Route}.
+ *
+ * <p>Everything the bus decides from the phase, name and outcome alone — lifecycle/scope gates, outcome availability,
+ * dot-chop tier selection, component and global unmatched buckets — is resolved once per key into an immutable
+ * {@link Route}. Per-holder checks ({@link Handler#accepts}, most-specific failure selection) still run on every
+ * dispatch. Step routes (nested {@code @Step} holders) leave out receivers that opted out of steps. Routes are cached
+ * lazily in one map per (phase, outcome, step), so lookups allocate nothing; once {@code maxRoutes} names are cached,
+ * further names are compiled on demand without being retained ({@code -Dobsinity.dispatch.routes.max}, default 4096).
+ */
+final class RoutingTable {
+
+	static final int DEFAULT_MAX_ROUTES = Integer.getInteger("obsinity.dispatch.routes.max", 4096);
+
+	private final List<HandlerGroup> groups;
+	private final int maxRoutes;
+	private final ConcurrentHashMap<String, Route>[] byPhaseAndOutcome;
+
+	@SuppressWarnings("unchecked")
+	RoutingTable(List<HandlerGroup> groups, int maxRoutes) {
+		this.groups = List.copyOf(groups);
+		this.maxRoutes = Math.max(0, maxRoutes);
+		this.byPhaseAndOutcome = new ConcurrentHashMap[Lifecycle.values().length * 4];
+		for (int i = 0; i < byPhaseAndOutcome.length; i++) byPhaseAndOutcome[i] = new ConcurrentHashMap<>();
+	}
+
+	/** Components covered by this table, in registration order. */
+	List<HandlerGroup> groups() {
+		return groups;
+	}
+
+	/** Route for a flow (not a step); compiled on first use. */
+	Route route(Lifecycle phase, String eventName, boolean failed) {
+		return route(phase, eventName, failed, false);
+	}
+
+	/** Route for the key; compiled on first use. */
+	Route route(Lifecycle phase, String eventName, boolean failed, boolean step) {
+		if (eventName == null) return compile(phase, null, failed, step);
+		ConcurrentHashMap<String, Route> routes =
+				byPhaseAndOutcome[phase.ordinal() * 4 + (failed ? 2 : 0) + (step ? 1 : 0)];
+		Route r = routes.get(eventName);
+		if (r != null) return r;
+		if (size() >= maxRoutes) return compile(phase, eventName, failed, step);
+		return routes.computeIfAbsent(eventName, n -> compile(phase, n, failed, step));
+	}
+
+	/** Number of cached routes across all phases/outcomes. */
+	int size() {
+		int n = 0;
+		for (ConcurrentHashMap<String, Route> m : byPhaseAndOutcome) n += m.size();
+		return n;
+	}
+
+	void clear() {
+		for (ConcurrentHashMap<String, Route> m : byPhaseAndOutcome) m.clear();
+	}
+
+	private Route compile(Lifecycle phase, String eventName, boolean failed, boolean step) {
+		List<GroupRoute> eligible = new ArrayList<>();
+		List<GlobalRoute> global = new ArrayList<>();
+		List<Skip> skips = new ArrayList<>();
+
+		for (int i = 0; i < groups.size(); i++) {
+			HandlerGroup g = groups.get(i);
+			if (step && !g.receivesSteps()) {
+				skips.add(new Skip(i, g, "steps_excluded"));
+				continue;
+			}
+			boolean lifecycleOk = g.getScope() == null || g.supportsLifecycle(phase);
+			boolean inScope = lifecycleOk && g.isInScope(phase, eventName, null);
+
+			if (inScope) {
+				List<Handler> globalCompleted = g.globalUnmatched.combined(phase);
+				List<Handler> globalOutcome =
+						failed ? g.globalUnmatched.failure(phase) : g.globalUnmatched.success(phase);
+				if (!globalCompleted.isEmpty() || !globalOutcome.isEmpty()) {
+					global.add(new GlobalRoute(i, g, List.copyOf(globalCompleted), List.copyOf(globalOutcome)));
+				}
+			}
+
+			if (!lifecycleOk) {
+				skips.add(new Skip(i, g, "lifecycle_blocked"));
+				continue;
+			}
+			if (!inScope) {
+				skips.add(new Skip(i, g, "out_of_scope"));
+				continue;
+			}
+			if (!g.hasAnyHandlersFor(phase, failed)) {
+				skips.add(new Skip(i, g, "no_handlers_for_outcome"));
+				continue;
+			}
+
+			ModeBuckets tier = g.findNearestEligibleTier(phase, eventName, null, failed, null);
+			eligible.add(new GroupRoute(
+					i,
+					g,
+					tier != null,
+					tier == null ? List.of() : List.copyOf(tier.completed),
+					tier == null ? List.of() : List.copyOf(failed ? tier.failure : tier.success),
+					tier == null
+							? "none"
+							: "completed=" + tier.completed.size() + " success=" + tier.success.size() + " failure="
+									+ tier.failure.size(),
+					List.copyOf(g.unmatched.combined(phase)),
+					List.copyOf(failed ? g.unmatched.failure(phase) : g.unmatched.success(phase))));
+		}
+		boolean mayInvoke = !global.isEmpty();
+		for (GroupRoute gr : eligible) {
+			mayInvoke |= !gr.completed().isEmpty()
+					|| !gr.outcome().isEmpty()
+					|| !gr.unmatchedCompleted().isEmpty()
+					|| !gr.unmatchedOutcome().isEmpty();
+		}
+		return new Route(List.copyOf(eligible), List.copyOf(global), List.copyOf(skips), mayInvoke);
+	}
+
+	/* ========================= Types ========================= */
+
+	/**
+	 * Precomputed routing for one key. {@code groups} are the components that passed every group-level gate, in
+	 * registration order; {@code global} are in-scope components with global-unmatched handlers for the outcome.
+	 * {@code mayInvoke} is false when no handler could run for the key (dispatch would end as unhandled or suppressed).
+	 */
+	record Route(List<GroupRoute> groups, List<GlobalRoute> global, List<Skip> skips, boolean mayInvoke) {
+		/** True if any component declared interest in this phase/outcome/name (otherwise the event is suppressed). */
+		boolean anyEligible() {
+			return !groups.isEmpty();
+		}
+	}
+
+	/**
+	 * One eligible component: the nearest dot-chop tier's handlers for the outcome plus its component-unmatched
+	 * buckets. {@code outcome} is the success or failure bucket, depending on the route key.
+	 */
+	record GroupRoute(
+			int index,
+			HandlerGroup group,
+			boolean tierFound,
+			List<Handler> completed,
+			List<Handler> outcome,
+			String tierSummary,
+			List<Handler> unmatchedCompleted,
+			List<Handler> unmatchedOutcome) {}
+
+	/** Global-unmatched handlers of one in-scope component. */
+	record GlobalRoute(int index, HandlerGroup group, List<Handler> completed, List<Handler> outcome) {}
+
+	/** Component rejected by a group-level gate (kept for {@link DispatchTrace}). */
+	record Skip(int index, HandlerGroup group, String reason) {}
+}
@@ -1,40 +1,171 @@
 package com.obsinity.telemetry.receivers;
 
-import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import com.obsinity.telemetry.dispatch.Handler;
 import com.obsinity.telemetry.dispatch.HandlerGroup;
 import com.obsinity.telemetry.dispatch.HandlerGroup.ModeBuckets;
+import com.obsinity.telemetry.dispatch.ReceiverBulkhead;
+import com.obsinity.telemetry.dispatch.ReceiverExecution;
+import com.obsinity.telemetry.dispatch.RootBatchContext;
 import com.obsinity.telemetry.model.Lifecycle;
 import com.obsinity.telemetry.model.TelemetryHolder;
 
+/**
+ * Routes lifecycle events to handler groups.
+ *
+ * <p>Group-level gates and dot-chop tier selection are compiled per (phase, event name, outcome) into a
+ * {@link RoutingTable}, so dispatching an already-seen name only touches the components that can handle it; handler
+ * {@code accepts()} checks still run per holder.
+ *
+ * <p>Receivers declared with {@code @EventReceiver(async = true)} are routed separately and delivered on
+ * {@link AsyncDispatchEngine} workers (FIFO per root flow); all others run inline on the calling thread. Independently,
+ * each receiver's {@link ReceiverExecution} decides where a selected handler actually runs (inline, a named executor or
+ * virtual threads) and caps its concurrency; handler errors are logged and isolated the same way in every mode.
+ * Receivers with a {@link ReceiverBulkhead} are additionally guarded per invocation: skipped while saturated or while
+ * their circuit breaker is open (see {@link #bulkheadStats()}).
+ *
+ * <p>Routing decisions are recorded by {@link DispatchTrace} (see {@link #trace()}); with tracing disabled the hot path
+ * performs a single null check per decision point and allocates nothing for diagnostics.
+ */
 @Component
-public class TelemetryDispatchBus {
+public class TelemetryDispatchBus implements DisposableBean {
 
 	private static final Logger log = LoggerFactory.getLogger(TelemetryDispatchBus.class);
 
-	private final List<HandlerGroup> groups;
+	private final RoutingTable routes;
+	private final RoutingTable asyncRoutes; // null = no async receivers
+	private final AsyncDispatchEngine asyncEngine; // null = no async receivers
+	private final DispatchTrace trace = new DispatchTrace();
 
+	@Autowired
 	public TelemetryDispatchBus(List<HandlerGroup> groups) {
-		this.groups = Objects.requireNonNull(groups);
+		this(groups, null);
 	}
 
-	/** Call when any flow (root or nested) is started. */
+	/**
+	 * @param asyncConfig settings for the async dispatcher used by {@code @EventReceiver(async = true)} receivers; null
+	 *     reads {@link AsyncDispatchEngine.Config#fromSystemProperties()}. No engine is started without async
+	 *     receivers.
+	 */
+	public TelemetryDispatchBus(List<HandlerGroup> groups, AsyncDispatchEngine.Config asyncConfig) {
+		Objects.requireNonNull(groups);
+		List<HandlerGroup> inline = new ArrayList<>();
+		List<HandlerGroup> async = new ArrayList<>();
+		for (HandlerGroup g : groups) (g.isAsync() ? async : inline).add(g);
+
+		this.routes = new RoutingTable(inline, RoutingTable.DEFAULT_MAX_ROUTES);
+		if (async.isEmpty()) {
+			this.asyncRoutes = null;
+			this.asyncEngine = null;
+		} else {
+			this.asyncRoutes = new RoutingTable(async, RoutingTable.DEFAULT_MAX_ROUTES);
+			this.asyncEngine = new AsyncDispatchEngine(
+					asyncConfig != null ? asyncConfig : AsyncDispatchEngine.Config.fromSystemProperties(),
+					this::deliver);
+		}
+	}
+
+	/** Routing trace facility (disabled unless {@code -Dobsinity.dispatch.trace=true} or enabled at runtime). */
+	public DispatchTrace trace() {
+		return trace;
+	}
+
+	/** Async dispatcher (metrics, quiescence); null when no receiver opted in with {@code async = true}. */
+	public AsyncDispatchEngine asyncEngine() {
+		return asyncEngine;
+	}
+
+	/** Bulkhead counters (state, skipped invocations, timeouts) per protected receiver, in registration order. */
+	public Map<String, ReceiverBulkhead.Stats> bulkheadStats() {
+		Map<String, ReceiverBulkhead.Stats> out = new LinkedHashMap<>();
+		collectBulkheadStats(routes, out);
+		if (asyncRoutes != null) collectBulkheadStats(asyncRoutes, out);
+		return out;
+	}
+
+	private static void collectBulkheadStats(RoutingTable table, Map<String, ReceiverBulkhead.Stats> out) {
+		for (HandlerGroup g : table.groups()) {
+			if (g.getBulkhead() != null)
+				out.put(g.getComponentName(), g.getBulkhead().stats());
+		}
+	}
+
+	@Override
+	public void destroy() {
+		if (asyncEngine != null) asyncEngine.close();
+		closeExecutions(routes);
+		if (asyncRoutes != null) closeExecutions(asyncRoutes);
+	}
+
+	private static void closeExecutions(RoutingTable table) {
+		for (HandlerGroup g : table.groups()) g.getExecution().close();
+	}
+
+	/**
+	 * Whether dispatching {@code phase} for {@code eventName} could invoke any handler (inline or async) for either
+	 * outcome. False means dispatch would end as suppressed or unhandled, so producers may skip building the event
+	 * (nested steps do). Always true while tracing.
+	 */
+	public boolean hasInterest(Lifecycle phase, String eventName) {
+		return hasInterest(phase, eventName, false) || hasInterest(phase, eventName, true);
+	}
+
+	/** As {@link #hasInterest(Lifecycle, String)} for one outcome. */
+	public boolean hasInterest(Lifecycle phase, String eventName, boolean failed) {
+		return hasInterest(phase, eventName, failed, false);
+	}
+
+	/**
+	 * As {@link #hasInterest(Lifecycle, String)} for a nested step: receivers that opted out of steps
+	 * ({@code @EventReceiver(steps = false)}) do not count, so catch-all flow receivers do not force every step to be
+	 * materialized.
+	 */
+	public boolean hasStepInterest(Lifecycle phase, String eventName) {
+		return hasInterest(phase, eventName, false, true) || hasInterest(phase, eventName, true, true);
+	}
+
+	/** As {@link #hasStepInterest(Lifecycle, String)} for one outcome. */
+	public boolean hasStepInterest(Lifecycle phase, String eventName, boolean failed) {
+		return hasInterest(phase, eventName, failed, true);
+	}
+
+	private boolean hasInterest(Lifecycle phase, String eventName, boolean failed, boolean step) {
+		if (trace.isEnabled()) return true;
+		if (routes.route(phase, eventName, failed, step).mayInvoke()) return true;
+		return asyncRoutes != null
+				&& asyncRoutes.route(phase, eventName, failed, step).mayInvoke();
+	}
+
+	/**
+	 * Call when any flow (root or nested) is started. Async receivers get a detached holder built from a snapshot of
+	 * the START state, taken here, since the flow keeps writing to the live holder. A root also pins its flow to an
+	 * async worker queue.
+	 */
 	public void flowStarted(TelemetryHolder holder) {
-		dispatch(holder, Lifecycle.FLOW_STARTED);
+		dispatch(routes, holder, Lifecycle.FLOW_STARTED, -1);
+		if (asyncEngine == null || holder == null) return;
+		if (!holder.hasParentSpanId()) asyncEngine.pin(holder);
+		if (asyncWants(Lifecycle.FLOW_STARTED, holder)) asyncEngine.submit(TelemetrySignal.start(holder.freeze()));
 	}
 
 	/** Call when any flow (root or nested) is finished. */
 	public void flowFinished(TelemetryHolder holder) {
-		dispatch(holder, Lifecycle.FLOW_FINISHED);
+		dispatch(routes, holder, Lifecycle.FLOW_FINISHED, -1);
+		if (asyncEngine != null && holder != null && asyncWants(Lifecycle.FLOW_FINISHED, holder)) {
+			// Snapshot on the producer thread; workers dispatch a detached holder built from it
+			asyncEngine.submit(TelemetrySignal.finish(holder.freeze()));
+		}
 	}
 
 	/**
@@ -43,179 +174,144 @@ public class TelemetryDispatchBus {
 	 * binding from TelemetryProcessorSupport (in the scanner’s binder).
 	 */
 	public void rootFlowFinished(List<TelemetryHolder> completed) {
-		log.debug(
-				"BUS: rootFlowFinished batch size={} names={}",
-				(completed == null ? 0 : completed.size()),
-				(completed == null)
-						? "[]"
-						: completed.stream().map(TelemetryHolder::name).toList());
-
 		if (completed == null || completed.isEmpty()) return;
+		dispatchRoot(routes, completed);
+		final TelemetryHolder root = asyncEngine != null ? rootOf(completed) : null;
+		if (root == null) return;
+		if (asyncWants(Lifecycle.ROOT_FLOW_FINISHED, root)) asyncEngine.submit(TelemetrySignal.rootFinish(completed));
+		else asyncEngine.release(root);
+	}
+
+	/**
+	 * Call instead of {@link #rootFlowFinished(List)} when a finished root batch is not dispatched (e.g. dropped by
+	 * tail sampling), so async delivery forgets the flow.
+	 */
+	public void rootFlowDropped(List<TelemetryHolder> completed) {
+		if (asyncEngine != null && completed != null && !completed.isEmpty()) asyncEngine.release(rootOf(completed));
+	}
 
-		// Prefer the holder with no parentSpanId; fall back to first element.
-		TelemetryHolder root = null;
+	/**
+	 * Whether an async receiver could handle {@code phase} for {@code holder}; otherwise no snapshot is taken and no
+	 * signal queued, so producers never wait on a worker queue for events nobody consumes. Always true while tracing.
+	 */
+	private boolean asyncWants(Lifecycle phase, TelemetryHolder holder) {
+		return trace.isEnabled()
+				|| asyncRoutes
+						.route(phase, holder.name(), holder.throwable() != null, holder.isStep())
+						.mayInvoke();
+	}
+
+	/** Worker-side delivery of a queued signal to the async receivers. */
+	private void deliver(TelemetrySignal signal) {
+		switch (signal.stage) {
+			case START -> dispatch(asyncRoutes, signal.holder(), Lifecycle.FLOW_STARTED, -1);
+			case FINISH -> dispatch(asyncRoutes, signal.holder(), Lifecycle.FLOW_FINISHED, -1);
+			case ROOT_FINISH -> dispatchRoot(asyncRoutes, signal.batch);
+		}
+	}
+
+	/** Root of a finished batch: the holder with no parentSpanId, else the first element. */
+	private static TelemetryHolder rootOf(List<TelemetryHolder> completed) {
 		for (TelemetryHolder h : completed) {
-			if (h != null && h.parentSpanId() == null) {
-				root = h;
-				break;
-			}
+			if (h != null && !h.hasParentSpanId()) return h;
 		}
-		if (root == null) root = completed.get(0);
+		return completed.get(0);
+	}
 
+	private void dispatchRoot(RoutingTable table, List<TelemetryHolder> completed) {
+		final TelemetryHolder root = rootOf(completed);
 		if (root != null) {
-			dispatch(root, Lifecycle.ROOT_FLOW_FINISHED);
+			// Publish the batch explicitly: async workers and off-thread receivers cannot see the processor's
+			// thread-local batch.
+			List<TelemetryHolder> previous = RootBatchContext.get();
+			RootBatchContext.set(completed);
+			try {
+				dispatch(table, root, Lifecycle.ROOT_FLOW_FINISHED, completed.size());
+			} finally {
+				if (previous != null) RootBatchContext.set(previous);
+				else RootBatchContext.clear();
+			}
 		}
 	}
 
 	// === Core dispatch ===
 
-	private void dispatch(TelemetryHolder holder, Lifecycle phase) {
-		if (holder == null) {
-			log.debug("BUS: dispatch called with null holder (phase={})", phase);
-			return;
-		}
+	private void dispatch(RoutingTable table, TelemetryHolder holder, Lifecycle phase, int batchSize) {
+		if (holder == null) return;
 
 		final String eventName = holder.name();
 		final Throwable error = holder.throwable();
 		final boolean failed = (error != null);
+		final DispatchTrace.Recorder rec = trace.begin(phase, holder, batchSize);
+		final RoutingTable.Route route = table.route(phase, eventName, failed, holder.isStep());
 
-		log.debug(
-				"BUS: dispatch phase={} name='{}' failed={} isStep={} traceId={} spanId={} attrKeys={} ctxKeys={} groups={}",
-				phase,
-				eventName,
-				failed,
-				bool(holder.isStep()),
-				safe(holder.traceId()),
-				safe(holder.spanId()),
-				attrKeys(holder),
-				ctxKeys(holder),
-				(groups == null ? 0 : groups.size()));
+		if (rec != null) {
+			for (RoutingTable.Skip s : route.skips()) {
+				rec.record(s.index(), safeComponentName(s.group()), "skip", s.reason());
+			}
+		}
 
 		boolean anyMatched = false; // flips when any named handler matched
 		boolean anyComponentUnmatched = false; // flips when a component-level unmatched ran
-		boolean anyGroupEligibleForPhase = false; // lifecycle+scope+outcome presence
-
-		// Per-component pass: group-level gates -> named handlers -> component-unmatched
-		for (int i = 0; i < groups.size(); i++) {
-			HandlerGroup g = groups.get(i);
-			String componentName = safeComponentName(g);
-			log.debug("BUS: component[{}]='{}' begin (event='{}', phase={})", i, componentName, eventName, phase);
 
-			// 1) Lifecycle gating
-			try {
-				if (g.getScope() != null && !g.supportsLifecycle(phase)) {
-					log.debug("BUS: component[{}]='{}' skipped by lifecycle (phase={})", i, componentName, phase);
-					continue;
-				}
-			} catch (NoSuchMethodError | Exception ignored) {
-				// if supportsLifecycle() doesn't exist on this build, skip this optimization
-			}
+		// Per-component pass over groups that passed every gate: named handlers -> component-unmatched
+		for (RoutingTable.GroupRoute gr : route.groups()) {
+			if (rec != null) rec.record(gr.index(), safeComponentName(gr.group()), "tier", gr.tierSummary());
 
-			// 2) Static scope (prefix/name/etc.)
-			if (!g.isInScope(phase, eventName, holder)) {
-				log.debug("BUS: component[{}]='{}' out-of-scope -> skip", i, componentName);
+			if (!gr.tierFound()) {
+				// No tier -> try component-scoped unmatched for the current phase
+				anyComponentUnmatched |= invokeComponentUnmatched(gr, phase, holder, failed, error, rec);
 				continue;
 			}
 
-			// 3) Outcome availability (fast check to avoid useless handler probes)
-			try {
-				if (!g.hasAnyHandlersFor(phase, failed)) {
-					log.debug(
-							"BUS: component[{}]='{}' has no handlers for outcome={}, phase={}",
-							i,
-							componentName,
-							failed,
-							phase);
-					continue;
-				}
-			} catch (NoSuchMethodError | Exception ignored) {
-				// if hasAnyHandlersFor() doesn't exist on this build, proceed as before
-			}
+			boolean matchedHere = false;
 
-			anyGroupEligibleForPhase = true;
-
-			// 4) Resolve nearest tier (dot-chop) AFTER group-level gates
-			ModeBuckets chosen = g.findNearestEligibleTier(phase, eventName, holder, failed, error);
-			log.debug("BUS: component[{}]='{}' tier found?={}", i, componentName, chosen != null);
-			if (chosen != null) {
-				log.debug(
-						"BUS: component[{}]='{}' tier bucket sizes: completed={} success={} failure={}",
-						i,
-						componentName,
-						(chosen.completed == null ? 0 : chosen.completed.size()),
-						(chosen.success == null ? 0 : chosen.success.size()),
-						(chosen.failure == null ? 0 : chosen.failure.size()));
+			// completed (both outcomes) first
+			if (hasAnyEligible(gr.completed(), holder, phase, failed, error)) {
+				runAll(gr.completed(), holder, phase, failed, error, rec, gr, "tier.completed");
+				matchedHere = true;
 			}
 
-			if (chosen != null) {
-				boolean matchedHere = false;
-
-				// completed (both outcomes) first
-				if (hasAnyEligible(
-						chosen.completed, holder, phase, failed, error, i, componentName, "tier.completed")) {
-					runAll(chosen.completed, holder, phase, failed, error, i, componentName, "tier.completed");
-					matchedHere = true;
-				}
-
-				if (failed) {
-					// Most-specific failure selection
-					if (chosen.failure != null && !chosen.failure.isEmpty()) {
-						List<Handler> selected = selectMostSpecificFailureHandlers(
-								chosen.failure, holder, phase, error, i, componentName);
-						if (!selected.isEmpty()) {
-							runAll(selected, holder, phase, true, error, i, componentName, "tier.failure[selected]");
-							matchedHere = true;
-						}
-					}
-					if (!matchedHere) {
-						boolean invoked = invokeComponentUnmatched(g, phase, holder, true, error, i, componentName);
-						anyComponentUnmatched |= invoked;
-						log.debug(
-								"BUS: component[{}]='{}' no eligible failure handlers -> component-unmatched invoked={}",
-								i,
-								componentName,
-								invoked);
-					}
-				} else {
-					if (hasAnyEligible(chosen.success, holder, phase, false, null, i, componentName, "tier.success")) {
-						runAll(chosen.success, holder, phase, false, null, i, componentName, "tier.success");
+			if (failed) {
+				// Most-specific failure selection
+				if (!gr.outcome().isEmpty()) {
+					List<Handler> selected = selectMostSpecificFailureHandlers(gr.outcome(), holder, phase, error);
+					if (!selected.isEmpty()) {
+						runAll(selected, holder, phase, true, error, rec, gr, "tier.failure[selected]");
 						matchedHere = true;
 					}
-					if (!matchedHere) {
-						boolean invoked = invokeComponentUnmatched(g, phase, holder, false, null, i, componentName);
-						anyComponentUnmatched |= invoked;
-						log.debug(
-								"BUS: component[{}]='{}' no eligible success handlers -> component-unmatched invoked={}",
-								i,
-								componentName,
-								invoked);
-					}
 				}
-
-				if (matchedHere) anyMatched = true;
-			} else {
-				// No tier -> try component-scoped unmatched for the current phase
-				boolean invoked = invokeComponentUnmatched(g, phase, holder, failed, error, i, componentName);
-				anyComponentUnmatched |= invoked;
-				log.debug(
-						"BUS: component[{}]='{}' no tier -> component-unmatched invoked={}", i, componentName, invoked);
+			} else if (hasAnyEligible(gr.outcome(), holder, phase, false, null)) {
+				runAll(gr.outcome(), holder, phase, false, null, rec, gr, "tier.success");
+				matchedHere = true;
 			}
 
-			log.debug("BUS: component[{}]='{}' end", i, componentName);
+			if (matchedHere) anyMatched = true;
+			else anyComponentUnmatched |= invokeComponentUnmatched(gr, phase, holder, failed, error, rec);
 		}
 
-		// GLOBAL unmatched: only if nothing matched anywhere and no component-unmatched fired
-		if (!anyMatched && !anyComponentUnmatched) {
-			if (anyGroupEligibleForPhase) {
-
-				// --- NEW: rich diagnostics before global-unmatched path ---
-				logGlobalUnmatchedDiagnostics(phase, holder, failed, error);
-
-				boolean invoked = invokeGlobalUnmatchedAcrossAllComponents(phase, holder, failed, error, eventName);
-				log.debug(
-						"BUS: global-unmatched invoked={} (no named handlers matched and no component-unmatched)",
-						invoked);
-				if (!invoked) {
+		// GLOBAL unmatched: only if nothing matched anywhere and no component-unmatched fired. Inline and async
+		// receivers are routed by separate tables, so "anywhere" includes the other table (checked without invoking).
+		String outcome;
+		if (anyMatched) {
+			outcome = "matched";
+		} else if (anyComponentUnmatched) {
+			outcome = "component-unmatched";
+		} else if (route.anyEligible()) {
+			final RoutingTable other = otherTable(table);
+			if (other != null && wouldMatch(other, phase, holder, failed, error)) {
+				outcome = "matched-elsewhere";
+			} else {
+				// Report once: from the inline table, or from the async one when no inline receiver was eligible
+				final boolean reports = other == null
+						|| table == routes
+						|| !other.route(phase, holder.name(), failed, holder.isStep())
+								.anyEligible();
+				if (reports) logGlobalUnmatchedDiagnostics(allGroups(), phase, holder, failed, error);
+
+				boolean invoked = invokeGlobalUnmatched(route, phase, holder, failed, error, rec);
+				outcome = invoked ? "global-unmatched" : "unhandled";
+				if (!invoked && reports && (other == null || !wouldInvokeGlobal(other, phase, holder, failed, error))) {
 					log.error(
 							"Unhandled {} event name='{}' phase={} traceId={} spanId={} ex={}",
 							failed ? "failure" : "success",
@@ -225,36 +321,67 @@ public class TelemetryDispatchBus {
 							safe(holder.spanId()),
 							String.valueOf(error));
 				}
-			} else {
-				// Nothing in the system declared interest in this phase/outcome/name -> suppress noise
-				log.debug("BUS: suppress unhandled (no lifecycle/scope/outcome-eligible groups for phase={})", phase);
 			}
+		} else {
+			// Nothing in the system declared interest in this phase/outcome/name -> suppress noise
+			outcome = "suppressed";
+		}
+
+		if (rec != null) rec.finish(outcome);
+	}
+
+	/** The table routing the other kind of receiver (inline vs async), or null without async receivers. */
+	private RoutingTable otherTable(RoutingTable table) {
+		if (asyncRoutes == null) return null;
+		return table == routes ? asyncRoutes : routes;
+	}
+
+	private List<HandlerGroup> allGroups() {
+		if (asyncRoutes == null) return routes.groups();
+		List<HandlerGroup> all = new ArrayList<>(routes.groups());
+		all.addAll(asyncRoutes.groups());
+		return all;
+	}
+
+	/**
+	 * Whether {@code table} handles the event with a named handler or a component-unmatched fallback, evaluated with
+	 * {@code accepts()} only (nothing is invoked). Cold path: only consulted when the dispatching table matched
+	 * nothing.
+	 */
+	private boolean wouldMatch(
+			RoutingTable table, Lifecycle phase, TelemetryHolder holder, boolean failed, Throwable error) {
+		for (RoutingTable.GroupRoute gr :
+				table.route(phase, holder.name(), failed, holder.isStep()).groups()) {
+			if (gr.tierFound()
+					&& (hasAnyEligible(gr.completed(), holder, phase, failed, error)
+							|| hasAnyEligible(gr.outcome(), holder, phase, failed, failed ? error : null))) return true;
+			if (hasAnyEligible(gr.unmatchedCompleted(), holder, phase, failed, error)
+					|| hasAnyEligible(gr.unmatchedOutcome(), holder, phase, failed, error)) return true;
 		}
+		return false;
+	}
+
+	/** Whether {@code table} has a global-unmatched handler that accepts the event (nothing is invoked). */
+	private boolean wouldInvokeGlobal(
+			RoutingTable table, Lifecycle phase, TelemetryHolder holder, boolean failed, Throwable error) {
+		for (RoutingTable.GlobalRoute gr :
+				table.route(phase, holder.name(), failed, holder.isStep()).global()) {
+			if (hasAnyEligible(gr.completed(), holder, phase, failed, error)
+					|| hasAnyEligible(gr.outcome(), holder, phase, failed, error)) return true;
+		}
+		return false;
 	}
 
 	// ---- most-specific failure selection ----
 
 	private List<Handler> selectMostSpecificFailureHandlers(
-			List<Handler> failureHandlers,
-			TelemetryHolder holder,
-			Lifecycle phase,
-			Throwable error,
-			int componentIdx,
-			String componentName) {
+			List<Handler> failureHandlers, TelemetryHolder holder, Lifecycle phase, Throwable error) {
 		if (failureHandlers == null || failureHandlers.isEmpty() || error == null) return List.of();
 
 		// 1) Filter to handlers that accept
 		List<Handler> elig = new ArrayList<>();
 		for (Handler h : failureHandlers) {
-			boolean ok = h.accepts(phase, holder, true, error);
-			log.debug(
-					"BUS: failure-candidate [{}]='{}' accepts?={} handler={} errClass={}",
-					componentIdx,
-					componentName,
-					ok,
-					safeHandlerName(h),
-					error.getClass().getName());
-			if (ok) elig.add(h);
+			if (h.accepts(phase, holder, true, error)) elig.add(h);
 		}
 		if (elig.isEmpty()) return List.of();
 
@@ -284,15 +411,10 @@ public class TelemetryDispatchBus {
 					}
 				}
 			}
-			log.debug(
-					"BUS: specific failure selection winners={} bestDistance={}",
-					winners.stream().map(TelemetryDispatchBus::safeHandlerName).toList(),
-					best);
 			return winners;
 		}
 
 		// 4) Otherwise fall back to all generic matches
-		log.debug("BUS: no specific failure handlers matched; falling back to GENERIC");
 		return generics;
 	}
 
@@ -325,28 +447,10 @@ public class TelemetryDispatchBus {
 	// ---- eligibility (without invoking) ----
 
 	private boolean hasAnyEligible(
-			List<Handler> hs,
-			TelemetryHolder holder,
-			Lifecycle phase,
-			boolean failed,
-			Throwable error,
-			int componentIdx,
-			String componentName,
-			String bucketName) {
+			List<Handler> hs, TelemetryHolder holder, Lifecycle phase, boolean failed, Throwable error) {
 		if (hs == null || hs.isEmpty()) return false;
 		for (Handler h : hs) {
-			boolean ok = h.accepts(phase, holder, failed, error);
-			log.debug(
-					"BUS: match-check [{}]='{}' [{}] accepts?={} handler={} phase={} name='{}' failed={}",
-					componentIdx,
-					componentName,
-					bucketName,
-					ok,
-					safeHandlerName(h),
-					phase,
-					holder.name(),
-					failed);
-			if (ok) return true;
+			if (h.accepts(phase, holder, failed, error)) return true;
 		}
 		return false;
 	}
@@ -359,23 +463,13 @@ public class TelemetryDispatchBus {
 			Lifecycle phase,
 			boolean failed,
 			Throwable error,
-			int componentIdx,
-			String componentName,
+			DispatchTrace.Recorder rec,
+			RoutingTable.GroupRoute gr,
 			String bucketName) {
-		if (hs == null) return;
 		for (Handler h : hs) {
 			boolean ok = h.accepts(phase, holder, failed, error);
-			log.debug(
-					"BUS: invoke-check [{}]='{}' [{}] accepts?={} handler={} phase={} name='{}' failed={}",
-					componentIdx,
-					componentName,
-					bucketName,
-					ok,
-					safeHandlerName(h),
-					phase,
-					holder.name(),
-					failed);
-			if (ok) safeInvoke(h, holder, phase);
+			if (rec != null) traceHandler(rec, gr.index(), gr.group(), bucketName, h, ok);
+			if (ok) invoke(gr.group(), h, holder, phase);
 		}
 	}
 
@@ -384,122 +478,102 @@ public class TelemetryDispatchBus {
 	 * invoked.
 	 */
 	private boolean invokeComponentUnmatched(
-			HandlerGroup g,
+			RoutingTable.GroupRoute gr,
 			Lifecycle phase,
 			TelemetryHolder holder,
 			boolean failed,
 			Throwable error,
-			int componentIdx,
-			String componentName) {
-		boolean invokedAny = false;
+			DispatchTrace.Recorder rec) {
+		// Completed (both outcomes) first, then outcome-specific unmatched
+		boolean invokedAny = invokeAccepted(
+				gr.unmatchedCompleted(),
+				holder,
+				phase,
+				failed,
+				error,
+				rec,
+				gr.index(),
+				gr.group(),
+				"component-unmatched.completed");
+		invokedAny |= invokeAccepted(
+				gr.unmatchedOutcome(),
+				holder,
+				phase,
+				failed,
+				error,
+				rec,
+				gr.index(),
+				gr.group(),
+				failed ? "component-unmatched.failure" : "component-unmatched.success");
+		return invokedAny;
+	}
 
-		// Completed (both outcomes) first
-		for (Handler h : g.unmatched.combined(phase)) { // alias to completed
-			boolean ok = h.accepts(phase, holder, failed, error);
-			log.debug(
-					"BUS: component-unmatched [{}]='{}' [completed] accepts?={} handler={} phase={} name='{}' failed={}",
-					componentIdx,
-					componentName,
-					ok,
-					safeHandlerName(h),
+	/** Global unmatched across all in-scope components: returns true if any invoked (no phase fallback). */
+	private boolean invokeGlobalUnmatched(
+			RoutingTable.Route route,
+			Lifecycle phase,
+			TelemetryHolder holder,
+			boolean failed,
+			Throwable error,
+			DispatchTrace.Recorder rec) {
+		boolean invoked = false;
+		for (RoutingTable.GlobalRoute gr : route.global()) {
+			invoked |= invokeAccepted(
+					gr.completed(),
+					holder,
 					phase,
-					holder.name(),
-					failed);
-			if (ok) {
-				log.debug("BUS: component-unmatched invoking handler={}", safeHandlerName(h));
-				safeInvoke(h, holder, phase);
-				invokedAny = true;
-			}
-		}
-		// Outcome-specific unmatched
-		List<Handler> bucket = failed ? g.unmatched.failure(phase) : g.unmatched.success(phase);
-		String modeName = failed ? "failure" : "success";
-		for (Handler h : bucket) {
-			boolean ok = h.accepts(phase, holder, failed, error);
-			log.debug(
-					"BUS: component-unmatched [{}]='{}' [{}] accepts?={} handler={} phase={} name='{}' failed={}",
-					componentIdx,
-					componentName,
-					modeName,
-					ok,
-					safeHandlerName(h),
+					failed,
+					error,
+					rec,
+					gr.index(),
+					gr.group(),
+					"global-unmatched.completed");
+			invoked |= invokeAccepted(
+					gr.outcome(),
+					holder,
 					phase,
-					holder.name(),
-					failed);
-			if (ok) {
-				log.debug("BUS: component-unmatched invoking handler={}", safeHandlerName(h));
-				safeInvoke(h, holder, phase);
-				invokedAny = true;
-			}
+					failed,
+					error,
+					rec,
+					gr.index(),
+					gr.group(),
+					failed ? "global-unmatched.failure" : "global-unmatched.success");
 		}
-		return invokedAny;
+		return invoked;
 	}
 
-	/** Global unmatched across all components: returns true if any invoked (no phase fallback). */
-	private boolean invokeGlobalUnmatchedAcrossAllComponents(
-			Lifecycle phase, TelemetryHolder holder, boolean failed, Throwable error, String eventName) {
-
+	private boolean invokeAccepted(
+			List<Handler> hs,
+			TelemetryHolder holder,
+			Lifecycle phase,
+			boolean failed,
+			Throwable error,
+			DispatchTrace.Recorder rec,
+			int componentIdx,
+			HandlerGroup g,
+			String bucketName) {
 		boolean invoked = false;
-		for (int i = 0; i < groups.size(); i++) {
-			HandlerGroup g = groups.get(i);
-
-			// Respect lifecycle and scope even for global unmatched to avoid unrelated receivers
-			try {
-				if ((g.getScope() != null && !g.supportsLifecycle(phase)) || !g.isInScope(phase, eventName, holder)) {
-					continue;
-				}
-			} catch (NoSuchMethodError | Exception ignored) {
-				if (!g.isInScope(phase, eventName, holder)) continue;
-			}
-
-			String componentName = safeComponentName(g);
-
-			for (Handler h : g.globalUnmatched.combined(phase)) { // alias to completed
-				boolean ok = h.accepts(phase, holder, failed, error);
-				log.debug(
-						"BUS: GLOBAL-unmatched [{}]='{}' [completed] accepts?={} handler={} phase={} name='{}' failed={}",
-						i,
-						componentName,
-						ok,
-						safeHandlerName(h),
-						phase,
-						holder.name(),
-						failed);
-				if (ok) {
-					log.debug("BUS: GLOBAL-unmatched invoking handler={}", safeHandlerName(h));
-					safeInvoke(h, holder, phase);
-					invoked = true;
-				}
-			}
-			List<Handler> global = failed ? g.globalUnmatched.failure(phase) : g.globalUnmatched.success(phase);
-			String modeName = failed ? "failure" : "success";
-			for (Handler h : global) {
-				boolean ok = h.accepts(phase, holder, failed, error);
-				log.debug(
-						"BUS: GLOBAL-unmatched [{}]='{}' [{}] accepts?={} handler={} phase={} name='{}' failed={}",
-						i,
-						componentName,
-						modeName,
-						ok,
-						safeHandlerName(h),
-						phase,
-						holder.name(),
-						failed);
-				if (ok) {
-					log.debug("BUS: GLOBAL-unmatched invoking handler={}", safeHandlerName(h));
-					safeInvoke(h, holder, phase);
-					invoked = true;
-				}
+		for (Handler h : hs) {
+			boolean ok = h.accepts(phase, holder, failed, error);
+			if (rec != null) traceHandler(rec, componentIdx, g, bucketName, h, ok);
+			if (ok) {
+				invoke(g, h, holder, phase);
+				invoked = true;
 			}
 		}
 		return invoked;
 	}
 
+	private static void traceHandler(
+			DispatchTrace.Recorder rec, int componentIdx, HandlerGroup g, String bucket, Handler h, boolean ok) {
+		rec.record(componentIdx, safeComponentName(g), bucket, (ok ? "invoke " : "reject ") + safeHandlerName(h));
+	}
+
 	/* =========================
-	NEW: rich diagnostics before global-unmatched
+	Rich diagnostics before global-unmatched
 	========================= */
 	private void logGlobalUnmatchedDiagnostics(
-			Lifecycle phase, TelemetryHolder holder, boolean failed, Throwable error) {
+			List<HandlerGroup> groups, Lifecycle phase, TelemetryHolder holder, boolean failed, Throwable error) {
 		try {
 			log.warn(
 					"BUS: GLOBAL-UNMATCHED DIAGNOSTICS → event='{}' phase={} failed={} traceId={} spanId={} exClass={} exMsg={}",
@@ -613,10 +687,55 @@ public class TelemetryDispatchBus {
 		return n;
 	}
 
-	private void safeInvoke(Handler h, TelemetryHolder holder, Lifecycle phase) {
+	/**
+	 * Run a selected handler per its receiver's execution mode; the root batch travels with off-thread tasks, and
+	 * off-thread tasks get a detached copy of the holder so they never read state the flow thread may still write.
+	 */
+	private void invoke(HandlerGroup g, Handler h, TelemetryHolder holder, Lifecycle phase) {
+		ReceiverExecution execution = g.getExecution();
+		ReceiverBulkhead bulkhead = g.getBulkhead();
+		if (execution == ReceiverExecution.inline() && bulkhead == null) {
+			safeInvoke(h, holder, phase);
+		} else if (execution.isInline()) {
+			execution.execute(() -> guardedInvoke(bulkhead, h, holder, phase));
+		} else {
+			List<TelemetryHolder> batch = (phase == Lifecycle.ROOT_FLOW_FINISHED) ? RootBatchContext.get() : null;
+			TelemetryHolder detached =
+					holder.isDetached() ? holder : holder.freeze().toHolder();
+			execution.execute(() -> {
+				if (batch != null) RootBatchContext.set(batch);
+				try {
+					guardedInvoke(bulkhead, h, detached, phase);
+				} finally {
+					if (batch != null) RootBatchContext.clear();
+				}
+			});
+		}
+	}
+
+	/** Bulkhead admission around {@link #safeInvoke}; runs on the thread that executes the handler. */
+	private void guardedInvoke(ReceiverBulkhead bulkhead, Handler h, TelemetryHolder holder, Lifecycle phase) {
+		if (bulkhead == null) {
+			safeInvoke(h, holder, phase);
+			return;
+		}
+		int permit = bulkhead.acquire();
+		if (permit == ReceiverBulkhead.DENIED) return;
+		long start = bulkhead.nanoTime();
+		boolean ok = false;
+		try {
+			ok = safeInvoke(h, holder, phase);
+		} finally {
+			bulkhead.complete(permit, start, !ok);
+		}
+	}
+
+	/** Invoke and log any handler error; returns false if the handler threw. */
+	private boolean safeInvoke(Handler h, TelemetryHolder holder, Lifecycle phase) {
 		try {
 			// (Optional) preview of parameter binding could be re-added if needed
 			h.invoke(holder, phase);
+			return true;
 		} catch (Throwable t) {
 			log.error(
 					"Handler error in {} for event name='{}' phase={} traceId={} spanId={}: {}",
@@ -627,6 +746,7 @@ public class TelemetryDispatchBus {
 					safe(holder.spanId()),
 					t.toString(),
 					t);
+			return false;
 		}
 	}
 
@@ -651,48 +771,4 @@ public class TelemetryDispatchBus {
 	private static String safe(String s) {
 		return s == null ? "-" : s;
 	}
-
-	private static boolean bool(Boolean b) {
-		return b != null && b;
-	}
-
-	private static String attrKeys(TelemetryHolder holder) {
-		try {
-			Object attrs = holder.attributes();
-			if (attrs == null) return "[]";
-			Method asMap = attrs.getClass().getMethod("map");
-			Object m = asMap.invoke(attrs);
-			if (m instanceof Map<?, ?> map) {
-				return map.keySet().toString();
-			}
-		} catch (Throwable ignored) {
-		}
-		return "[]";
-	}
-
-	private static String ctxKeys(TelemetryHolder holder) {
-		try {
-			Method getter;
-			try {
-				getter = holder.getClass().getMethod("getEventContext");
-			} catch (NoSuchMethodException ignored) {
-				getter = holder.getClass().getMethod("eventContext");
-			}
-			Object ctx = getter.invoke(holder);
-			if (ctx == null) return "[]";
-			try {
-				Method asMap = ctx.getClass().getMethod("asMap");
-				Object m = asMap.invoke(ctx);
-				if (m instanceof Map<?, ?> map) {
-					return map.keySet().toString();
-				}
-			} catch (NoSuchMethodException ignored) {
-				if (ctx instanceof Map<?, ?> map) {
-					return map.keySet().toString();
-				}
-			}
-		} catch (Throwable ignored) {
-		}
-		return "[]";
-	}
 }
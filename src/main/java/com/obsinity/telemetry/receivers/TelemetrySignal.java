@@ -4,8 +4,15 @@ import java.util.List;
 import java.util.Objects;
 
 import com.obsinity.telemetry.model.TelemetryHolder;
+import com.obsinity.telemetry.model.TelemetrySnapshot;
 
-/** Lightweight signal for async delivery to receivers. */
+/**
+ * Lightweight signal for async delivery to receivers.
+ *
+ * <p>START and FINISH signals carry a {@link TelemetrySnapshot} of the holder (its state when started, or when
+ * finished) rather than the holder itself: the worker materializes a detached holder from it ({@link #holder()}), so
+ * handlers never read maps the flow thread may still write.
+ */
 public final class TelemetrySignal {
 
 	public enum Stage {
@@ -15,27 +22,97 @@ public final class TelemetrySignal {
 	}
 
 	public final Stage stage;
-	public final TelemetryHolder holder; // used for START/FINISH
+	public final TelemetrySnapshot snapshot; // used for START/FINISH
 	public final List<TelemetryHolder> batch; // used for ROOT_FINISH
 
-	private TelemetrySignal(Stage stage, TelemetryHolder holder, List<TelemetryHolder> batch) {
+	private TelemetrySignal(Stage stage, TelemetrySnapshot snapshot, List<TelemetryHolder> batch) {
 		this.stage = Objects.requireNonNull(stage, "stage");
-		this.holder = holder;
+		this.snapshot = snapshot;
 		this.batch = batch;
 	}
 
+	/** Start signal for {@code h}: an uncached copy of its state now, taken on the calling thread. */
 	public static TelemetrySignal start(TelemetryHolder h) {
-		return new TelemetrySignal(Stage.START, Objects.requireNonNull(h, "holder"), null);
+		return start(Objects.requireNonNull(h, "holder").freeze());
 	}
 
+	public static TelemetrySignal start(TelemetrySnapshot snapshot) {
+		return new TelemetrySignal(Stage.START, Objects.requireNonNull(snapshot, "snapshot"), null);
+	}
+
+	/** Finish signal for {@code h}, frozen on the calling thread. */
 	public static TelemetrySignal finish(TelemetryHolder h) {
-		return new TelemetrySignal(Stage.FINISH, Objects.requireNonNull(h, "holder"), null);
+		return finish(Objects.requireNonNull(h, "holder").freeze());
+	}
+
+	public static TelemetrySignal finish(TelemetrySnapshot snapshot) {
+		return new TelemetrySignal(Stage.FINISH, Objects.requireNonNull(snapshot, "snapshot"), null);
 	}
 
 	public static TelemetrySignal rootFinish(List<TelemetryHolder> batch) {
 		return new TelemetrySignal(StageROOT_FINISH, null, Objects.requireNonNull(batch, "batch"));
 	}
 
+	/** Holder to dispatch for START/FINISH: a new detached holder built from {@link #snapshot} on each call. */
+	public TelemetryHolder holder() {
+		return snapshot != null ? snapshot.toHolder() : null;
+	}
+
+	/** Trace id shared by every holder of one root flow; rendered as hex, so not used on the dispatch path. */
+	public String rootFlowId() {
+		if (snapshot != null) return snapshot.traceId();
+		final TelemetryHolder first = firstOfBatch();
+		return first != null ? first.traceId() : null;
+	}
+
+	/** True when the signal carries a trace id, i.e. {@link #rootFlowKey()} identifies its root flow. */
+	public boolean hasRootFlow() {
+		if (snapshot != null)
+			return (snapshot.traceIdHigh() | snapshot.traceIdLow()) != 0L || snapshot.traceId() != null;
+		return hasRootFlow(firstOfBatch());
+	}
+
+	/**
+	 * Affinity key for async delivery, equal for every signal of one root flow: a mix of the binary trace id, so no hex
+	 * is rendered per submit. Ids that are not canonical hex (no bits) fall back to the hash of their verbatim string.
+	 */
+	public long rootFlowKey() {
+		if (snapshot == null) return rootFlowKey(firstOfBatch());
+		final long hi = snapshot.traceIdHigh();
+		final long lo = snapshot.traceIdLow();
+		return key(hi, lo, (hi | lo) == 0L ? snapshot.traceId() : null);
+	}
+
+	/** As {@link #hasRootFlow()} for a holder of the flow. */
+	static boolean hasRootFlow(TelemetryHolder h) {
+		return h != null && ((h.traceIdHigh() | h.traceIdLow()) != 0L || h.traceId() != null);
+	}
+
+	/** As {@link #rootFlowKey()} for a holder of the flow; 0 for null. */
+	static long rootFlowKey(TelemetryHolder h) {
+		if (h == null) return 0L;
+		final long hi = h.traceIdHigh();
+		final long lo = h.traceIdLow();
+		return key(hi, lo, (hi | lo) == 0L ? h.traceId() : null);
+	}
+
+	private TelemetryHolder firstOfBatch() {
+		return (batch == null || batch.isEmpty()) ? null : batch.get(0);
+	}
+
+	/** Mix of the trace id bits, or of {@code verbatim} (the id as given) when it has none. */
+	private static long key(long hi, long lo, String verbatim) {
+		if ((hi | lo) != 0L) return mix(hi * 0x9e3779b97f4a7c15L ^ lo);
+		return verbatim != null ? mix(verbatim.hashCode()) : 0L;
+	}
+
+	/** MurmurHash3 finalizer: spreads every input bit over the result. */
+	private static long mix(long z) {
+		z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+		z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+		return z ^ (z >>> 33);
+	}
+
 	// tiny typo-proof helper
 	private static final Stage StageROOT_FINISH = Stage.ROOT_FINISH;
 }
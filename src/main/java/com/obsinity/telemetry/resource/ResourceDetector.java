@@ -0,0 +1,73 @@
+package com.obsinity.telemetry.resource;
+
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.PropertyResolver;
+
+/**
+ * Contributes attributes to the process-wide resource built by {@link ResourceRegistry}. Detectors run once, at
+ * registry construction; anything they read is assumed constant for the life of the process.
+ *
+ * <p>Declare a {@code ResourceDetector} bean to add custom attributes; the built-ins ({@link #defaults()}) always run
+ * first and a later detector may overwrite an earlier one's keys.
+ */
+@FunctionalInterface
+public interface ResourceDetector {
+
+	/** Add attributes to {@code into}. Must not throw for missing data; just skip the attribute. */
+	void detect(PropertyResolver properties, Map<String, Object> into);
+
+	/** Host, process, service version and deployment environment. */
+	static List<ResourceDetector> defaults() {
+		return List.of(host(), process(), serviceVersion(), environment());
+	}
+
+	/** {@code host.name}: {@code obsinity.resource.host} or the local host name. */
+	static ResourceDetector host() {
+		return (props, into) -> {
+			String host = props.getProperty("obsinity.resource.host");
+			if (host == null || host.isBlank()) {
+				try {
+					host = InetAddress.getLocalHost().getHostName();
+				} catch (Exception ignored) {
+					host = System.getenv("HOSTNAME");
+				}
+			}
+			if (host != null && !host.isBlank()) into.put("host.name", host);
+		};
+	}
+
+	/** {@code process.pid}, {@code process.runtime.name} and {@code process.runtime.version}. */
+	static ResourceDetector process() {
+		return (props, into) -> {
+			into.put("process.pid", ProcessHandle.current().pid());
+			into.put(
+					"process.runtime.name", ManagementFactory.getRuntimeMXBean().getVmName());
+			into.put("process.runtime.version", Runtime.version().toString());
+		};
+	}
+
+	/** {@code service.version}: {@code obsinity.service.version}, else {@code spring.application.version}. */
+	static ResourceDetector serviceVersion() {
+		return (props, into) -> {
+			String v = props.getProperty("obsinity.service.version", props.getProperty("spring.application.version"));
+			if (v != null && !v.isBlank()) into.put("service.version", v);
+		};
+	}
+
+	/** {@code deployment.environment}: {@code obsinity.environment}, else the active Spring profiles. */
+	static ResourceDetector environment() {
+		return (props, into) -> {
+			String env = props.getProperty("obsinity.environment");
+			if ((env == null || env.isBlank()) && props instanceof Environment e && e.getActiveProfiles().length > 0) {
+				env = String.join(",", Arrays.asList(e.getActiveProfiles()));
+			}
+			if (env != null && !env.isBlank()) into.put("deployment.environment", env);
+		};
+	}
+}
@@ -0,0 +1,87 @@
+package com.obsinity.telemetry.resource;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.PropertyResolver;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.stereotype.Component;
+
+import com.obsinity.telemetry.model.OResource;
+
+/**
+ * Process-wide telemetry resource, built once.
+ *
+ * <p>The service id comes from {@code obsinity.serviceId} (Spring Environment, which includes system properties;
+ * default {@code obsinity-demo}) and is recorded as {@code service.name} and {@code service.id}; the
+ * {@link ResourceDetector}s add host, process, version and environment attributes. The resulting {@link OResource} is
+ * immutable and shared by every holder, so its OTEL {@code Resource} and JSON form are computed once and exporters can
+ * dedupe it by identity.
+ */
+@Component
+public class ResourceRegistry {
+
+	private static final Logger log = LoggerFactory.getLogger(ResourceRegistry.class);
+
+	private final String serviceId;
+	private final OResource resource;
+
+	@Autowired
+	public ResourceRegistry(Environment environment, ObjectProvider<ResourceDetector> detectors) {
+		this(environment, withDefaults(detectors.orderedStream().toList()));
+	}
+
+	public ResourceRegistry(PropertyResolver properties, List<ResourceDetector> detectors) {
+		Objects.requireNonNull(properties, "properties");
+		this.serviceId = properties.getProperty("obsinity.serviceId", "obsinity-demo");
+
+		final Map<String, Object> attrs = new LinkedHashMap<>();
+		attrs.put("service.name", serviceId);
+		attrs.put("service.id", serviceId);
+		for (ResourceDetector d : detectors) {
+			try {
+				d.detect(properties, attrs);
+			} catch (RuntimeException e) {
+				log.warn("Resource detector {} failed: {}", d.getClass().getName(), e.toString());
+			}
+		}
+		this.resource = OResource.shared(attrs);
+	}
+
+	/** Registry over system properties and environment variables with the default detectors. */
+	public static ResourceRegistry fromSystemProperties() {
+		return new ResourceRegistry(new StandardEnvironment(), ResourceDetector.defaults());
+	}
+
+	/** Process-wide {@link #fromSystemProperties()} instance for code wired without Spring; built on first use. */
+	public static ResourceRegistry systemDefault() {
+		return SystemDefault.INSTANCE;
+	}
+
+	public String serviceId() {
+		return serviceId;
+	}
+
+	/** The shared, immutable resource. */
+	public OResource resource() {
+		return resource;
+	}
+
+	private static List<ResourceDetector> withDefaults(List<ResourceDetector> custom) {
+		List<ResourceDetector> all = new ArrayList<>(ResourceDetector.defaults());
+		all.addAll(custom);
+		return all;
+	}
+
+	private static final class SystemDefault {
+		static final ResourceRegistry INSTANCE = fromSystemProperties();
+	}
+}
@@ -0,0 +1,30 @@
+package com.obsinity.telemetry.ts;
+
+import java.util.Map;
+
+/** Monotonic counter; each point carries the increments of its flush window. */
+public final class Counter extends Meter {
+
+	Counter(ObsinityTS ts, int index, String name, Map<String, String> tags, String prefix) {
+		super(ts, index, name, tags, prefix);
+	}
+
+	public void inc() {
+		ts.offer(index, 1L);
+	}
+
+	/** Add {@code amount} (ignored unless positive). */
+	public void inc(long amount) {
+		if (amount > 0) ts.offer(index, amount);
+	}
+
+	@Override
+	void accumulate(long value) {
+		count += value;
+	}
+
+	@Override
+	void appendFields(StringBuilder line) {
+		line.append("\"count\":").append(count);
+	}
+}
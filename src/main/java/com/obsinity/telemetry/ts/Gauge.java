@@ -0,0 +1,37 @@
+package com.obsinity.telemetry.ts;
+
+import java.util.Map;
+import java.util.function.DoubleSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/** Function-backed gauge, sampled on the flusher thread at every flush; nothing is recorded by callers. */
+public final class Gauge extends Meter {
+
+	private static final Logger log = LoggerFactory.getLogger(Gauge.class);
+
+	private final DoubleSupplier supplier;
+	private double value;
+
+	Gauge(ObsinityTS ts, int index, String name, Map<String, String> tags, String prefix, DoubleSupplier supplier) {
+		super(ts, index, name, tags, prefix);
+		this.supplier = supplier;
+	}
+
+	/** Sample the supplier; a failing or NaN reading emits no point this window. */
+	void observe() {
+		try {
+			value = supplier.getAsDouble();
+			count = Double.isNaN(value) ? 0 : 1;
+		} catch (RuntimeException e) {
+			count = 0;
+			log.warn("Gauge {} supplier failed", name(), e);
+		}
+	}
+
+	@Override
+	void appendFields(StringBuilder line) {
+		line.append("\"value\":").append(value);
+	}
+}
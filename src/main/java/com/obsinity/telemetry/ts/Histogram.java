@@ -0,0 +1,20 @@
+package com.obsinity.telemetry.ts;
+
+import java.util.Map;
+
+/** Distribution of arbitrary values; each point carries count, sum, min and max for its flush window. */
+public final class Histogram extends Meter {
+
+	Histogram(ObsinityTS ts, int index, String name, Map<String, String> tags, String prefix) {
+		super(ts, index, name, tags, prefix);
+	}
+
+	public void record(double value) {
+		ts.offer(index, Double.doubleToRawLongBits(value));
+	}
+
+	@Override
+	double decode(long value) {
+		return Double.longBitsToDouble(value);
+	}
+}
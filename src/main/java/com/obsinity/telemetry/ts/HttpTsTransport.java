@@ -0,0 +1,49 @@
+package com.obsinity.telemetry.ts;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * {@link TsTransport} posting batches as {@code application/x-ndjson} with the JDK {@link HttpClient}, synchronously on
+ * the flusher thread. Sends {@code Authorization: Bearer <apiKey>} when a key is configured; non-2xx responses fail the
+ * batch.
+ */
+public final class HttpTsTransport implements TsTransport {
+
+	private final URI endpoint;
+	private final String apiKey;
+	private final Duration timeout;
+	private final HttpClient client;
+
+	public HttpTsTransport(URI endpoint, String apiKey, Duration timeout) {
+		this.endpoint = Objects.requireNonNull(endpoint, "endpoint");
+		this.apiKey = apiKey == null || apiKey.isBlank() ? null : apiKey;
+		this.timeout = Objects.requireNonNull(timeout, "timeout");
+		this.client = HttpClient.newBuilder().connectTimeout(timeout).build();
+	}
+
+	@Override
+	public void send(byte[] payload, int offset, int length) throws IOException {
+		HttpRequest.Builder request = HttpRequest.newBuilder(endpoint)
+				.timeout(timeout)
+				.header("Content-Type", "application/x-ndjson")
+				.POST(HttpRequest.BodyPublishers.ofByteArray(payload, offset, length));
+		if (apiKey != null) request.header("Authorization", "Bearer " + apiKey);
+		final HttpResponse<Void> response;
+		try {
+			response = client.send(request.build(), HttpResponse.BodyHandlers.discarding());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("interrupted sending to " + endpoint);
+		}
+		if (response.statusCode() / 100 != 2) {
+			throw new IOException("HTTP " + response.statusCode() + " from " + endpoint);
+		}
+	}
+}
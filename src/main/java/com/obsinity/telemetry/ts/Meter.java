@@ -0,0 +1,72 @@
+package com.obsinity.telemetry.ts;
+
+import java.util.Map;
+
+/**
+ * A registered {@link ObsinityTS} meter: name, type and tags are fixed at registration and pre-rendered as the JSON
+ * prefix of every point it emits. Samples are aggregated per flush window on the flusher thread.
+ */
+public abstract class Meter {
+
+	private final String name;
+	private final Map<String, String> tags;
+	final ObsinityTS ts;
+	final int index;
+	final String prefix;
+
+	// Flush-window aggregate; flusher thread only
+	long count;
+	double sum;
+	double min = Double.POSITIVE_INFINITY;
+	double max = Double.NEGATIVE_INFINITY;
+
+	Meter(ObsinityTS ts, int index, String name, Map<String, String> tags, String prefix) {
+		this.ts = ts;
+		this.index = index;
+		this.name = name;
+		this.tags = tags;
+		this.prefix = prefix;
+	}
+
+	public String name() {
+		return name;
+	}
+
+	/** Tags sorted by key. */
+	public Map<String, String> tags() {
+		return tags;
+	}
+
+	/** Fold one drained sample into the window. */
+	void accumulate(long value) {
+		final double v = decode(value);
+		count++;
+		sum += v;
+		if (v < min) min = v;
+		if (v > max) max = v;
+	}
+
+	double decode(long value) {
+		return value;
+	}
+
+	/** Whether the window has anything to emit. */
+	boolean dirty() {
+		return count > 0;
+	}
+
+	/** Append the window's fields (after {@code "ts":...,}) without the closing brace. */
+	void appendFields(StringBuilder line) {
+		line.append("\"count\":").append(count);
+		line.append(",\"sum\":").append(sum);
+		line.append(",\"min\":").append(min);
+		line.append(",\"max\":").append(max);
+	}
+
+	void reset() {
+		count = 0;
+		sum = 0;
+		min = Double.POSITIVE_INFINITY;
+		max = Double.NEGATIVE_INFINITY;
+	}
+}
@@ -0,0 +1,364 @@
+package com.obsinity.telemetry.ts;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.DoubleSupplier;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+
+/**
+ * Native Obsinity time-series client: counters, timers, histograms and function-backed gauges, batched to a
+ * {@link TsTransport}.
+ *
+ * <ul>
+ *   <li>Meters are registered once ({@link #counter}, {@link #timer}, ...) and reused; {@code inc()}/{@code record()}
+ *       write a primitive {@code (meter, value)} sample into a lock-free {@link SampleRing} and never allocate.
+ *   <li>A single daemon flusher thread drains the ring and aggregates samples per meter (count, sum, min, max), so what
+ *       is sent depends on the number of active meters, not on the request rate.
+ *   <li>Points are flushed every {@link Config#flushInterval()}, or as soon as the pending points reach
+ *       {@link Config#batchBytes()}; a flush is split into requests of at most that size.
+ *   <li>When the ring is full, {@link Config#backpressure()} decides: drop the oldest sample, drop the new one, or
+ *       block the recording thread until the flusher catches up. Drops are counted in {@link #stats()}.
+ * </ul>
+ *
+ * Wire format: one JSON object per line, {@code {"name":..,"type":..,"tags":{..},"ts":<epochMillis>,...}} with
+ * {@code count} for counters, {@code count/sum/min/max} for timers (nanoseconds) and histograms, and {@code value} for
+ * gauges.
+ */
+public final class ObsinityTS implements AutoCloseable {
+
+	private static final Logger log = LoggerFactory.getLogger(ObsinityTS.class);
+
+	private static final int DRAIN_BATCH = 4096;
+	private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+	private static final int POINT_BYTES = 96; // estimate of a point's fields after its prefix
+
+	/** What {@code inc()}/{@code record()} do when the ring is full. */
+	public enum Backpressure {
+		DROP_OLDEST,
+		DROP_NEW,
+		BLOCK
+	}
+
+	/** Endpoint, batching thresholds and buffering. {@code ringCapacity} must be a power of two. */
+	public record Config(
+			URI endpoint,
+			String apiKey,
+			int batchBytes,
+			Duration flushInterval,
+			int ringCapacity,
+			Backpressure backpressure,
+			Duration timeout) {
+		public Config {
+			Objects.requireNonNull(endpoint, "endpoint");
+			if (batchBytes < 1024) throw new IllegalArgumentException("batchBytes must be >= 1024");
+			if (flushInterval == null || flushInterval.isNegative() || flushInterval.isZero()) {
+				throw new IllegalArgumentException("flushInterval must be > 0");
+			}
+			if (ringCapacity < 2 || Integer.bitCount(ringCapacity) != 1) {
+				throw new IllegalArgumentException("ringCapacity must be a power of two >= 2");
+			}
+			Objects.requireNonNull(backpressure, "backpressure");
+			if (timeout == null || timeout.isNegative() || timeout.isZero()) {
+				throw new IllegalArgumentException("timeout must be > 0");
+			}
+		}
+
+		/**
+		 * From {@code obsinity.ts.endpoint} (default {@code http://localhost:8443/v1/metrics}), {@code .apiKey} (else
+		 * {@code OBSINITY_API_KEY}), {@code .batchBytes} (256 KiB), {@code .flushIntervalMillis} (500),
+		 * {@code .ringCapacity} (65536), {@code .backpressure} ({@code DROP_OLDEST}) and {@code .timeoutMillis}
+		 * (10000).
+		 */
+		public static Config fromSystemProperties() {
+			return new Config(
+					URI.create(System.getProperty("obsinity.ts.endpoint", "http://localhost:8443/v1/metrics")),
+					System.getProperty("obsinity.ts.apiKey", System.getenv("OBSINITY_API_KEY")),
+					Integer.getInteger("obsinity.ts.batchBytes", 256 << 10),
+					Duration.ofMillis(Long.getLong("obsinity.ts.flushIntervalMillis", 500L)),
+					Integer.getInteger("obsinity.ts.ringCapacity", 1 << 16),
+					Backpressure.valueOf(System.getProperty("obsinity.ts.backpressure", "DROP_OLDEST")),
+					Duration.ofMillis(Long.getLong("obsinity.ts.timeoutMillis", 10000L)));
+		}
+	}
+
+	/**
+	 * Point-in-time metrics: samples aggregated, dropped (ring full or client closed) and blocked (recorders that had
+	 * to wait), points and requests sent, payload bytes sent, and requests that failed.
+	 */
+	public record Stats(
+			long samples, long dropped, long blocked, long points, long requests, long bytes, long failed) {}
+
+	private final Config config;
+	private final TsTransport transport;
+	private final Clock clock;
+	private final SampleRing ring;
+	private final Map<String, Meter> registry = new ConcurrentHashMap<>();
+	private final JsonStringEncoder json = JsonStringEncoder.getInstance();
+	private final Thread flusher;
+	private final SampleRing.Consumer accumulator = this::accumulate;
+	private final AtomicLong flushRequests = new AtomicLong();
+
+	private volatile Meter[] meters = new Meter[0]; // by index; replaced under registry lock
+	private volatile boolean closed;
+	private volatile long flushesCompleted;
+	private final AtomicLong droppedClosed = new AtomicLong();
+
+	// Flusher thread only (volatile where read by stats())
+	private Meter[] drainTable = meters;
+	private long pendingBytes;
+	private volatile long samples;
+	private volatile long points;
+	private volatile long requests;
+	private volatile long bytes;
+	private volatile long failed;
+	private final StringBuilder line = new StringBuilder(256);
+	private byte[] out;
+	private int outSize;
+
+	/** Client posting to {@link Config#endpoint()} over HTTP. */
+	public static ObsinityTS create(Config config) {
+		return new ObsinityTS(
+				config, new HttpTsTransport(config.endpoint(), config.apiKey(), config.timeout()), Clock.systemUTC());
+	}
+
+	/** Client sending through {@code transport} (closed with the client). */
+	public static ObsinityTS create(Config config, TsTransport transport) {
+		return new ObsinityTS(config, transport, Clock.systemUTC());
+	}
+
+	ObsinityTS(Config config, TsTransport transport, Clock clock) {
+		this.config = Objects.requireNonNull(config, "config");
+		this.transport = Objects.requireNonNull(transport, "transport");
+		this.clock = Objects.requireNonNull(clock, "clock");
+		this.ring = new SampleRing(config.ringCapacity(), config.backpressure());
+		this.out = new byte[config.batchBytes()];
+		this.flusher = new Thread(this::runFlusher, "obsinity-ts-flusher");
+		this.flusher.setDaemon(true);
+		this.flusher.start();
+	}
+
+	public Config config() {
+		return config;
+	}
+
+	/* ========================= Registration ========================= */
+
+	/** Counter {@code name} with {@code tags} as key/value pairs; the same name and tags return the same meter. */
+	public Counter counter(String name, String... tags) {
+		return (Counter) register("counter", name, tags, (r) -> new Counter(this, r.index, name, r.tags, r.prefix));
+	}
+
+	public Timer timer(String name, String... tags) {
+		return (Timer) register("timer", name, tags, (r) -> new Timer(this, r.index, name, r.tags, r.prefix));
+	}
+
+	public Histogram histogram(String name, String... tags) {
+		return (Histogram)
+				register("histogram", name, tags, (r) -> new Histogram(this, r.index, name, r.tags, r.prefix));
+	}
+
+	/** Gauge sampled from {@code supplier} at each flush; re-registering returns the existing gauge and supplier. */
+	public Gauge gauge(String name, DoubleSupplier supplier, String... tags) {
+		Objects.requireNonNull(supplier, "supplier");
+		return (Gauge) register("gauge", name, tags, (r) -> new Gauge(this, r.index, name, r.tags, r.prefix, supplier));
+	}
+
+	private record Registration(int index, Map<String, String> tags, String prefix) {}
+
+	private Meter register(String type, String name, String[] tags, Function<Registration, Meter> factory) {
+		if (name == null || name.isBlank()) throw new IllegalArgumentException("meter name is blank");
+		if (tags.length % 2 != 0) throw new IllegalArgumentException("tags must be key/value pairs");
+		final TreeMap<String, String> sorted = new TreeMap<>();
+		for (int i = 0; i < tags.length; i += 2) {
+			sorted.put(Objects.requireNonNull(tags[i], "tag key"), Objects.requireNonNull(tags[i + 1], "tag value"));
+		}
+		final String prefix = prefix(type, name, sorted);
+		final Meter existing = registry.get(prefix);
+		if (existing != null) return existing;
+		synchronized (registry) {
+			Meter meter = registry.get(prefix);
+			if (meter != null) return meter;
+			final Meter[] table = Arrays.copyOf(meters, meters.length + 1);
+			meter = factory.apply(new Registration(
+					table.length - 1, Collections.unmodifiableMap(new LinkedHashMap<>(sorted)), prefix));
+			table[meter.index] = meter;
+			meters = table; // publish before the meter can record
+			registry.put(prefix, meter);
+			return meter;
+		}
+	}
+
+	private String prefix(String type, String name, Map<String, String> tags) {
+		StringBuilder sb = new StringBuilder(64).append("{\"name\":\"");
+		sb.append(json.quoteAsString(name))
+				.append("\",\"type\":\"")
+				.append(type)
+				.append('"');
+		if (type.equals("timer")) sb.append(",\"unit\":\"ns\"");
+		sb.append(",\"tags\":{");
+		boolean first = true;
+		for (Map.Entry<String, String> e : tags.entrySet()) {
+			if (!first) sb.append(',');
+			first = false;
+			sb.append('"').append(json.quoteAsString(e.getKey())).append("\":\"");
+			sb.append(json.quoteAsString(e.getValue())).append('"');
+		}
+		return sb.append("},").toString();
+	}
+
+	/* ========================= Recording ========================= */
+
+	void offer(int meter, long value) {
+		if (closed) {
+			droppedClosed.incrementAndGet();
+			return;
+		}
+		ring.offer(meter, value);
+	}
+
+	/**
+	 * Ask the flusher to drain and send everything recorded so far, waiting up to {@code timeout}; false on timeout or
+	 * if the client is closed.
+	 */
+	public boolean flush(Duration timeout) {
+		if (closed) return false;
+		final long target = flushRequests.incrementAndGet();
+		LockSupport.unpark(flusher);
+		final long deadline = System.nanoTime() + timeout.toNanos();
+		while (flushesCompleted < target) {
+			if (closed || System.nanoTime() - deadline >= 0) return false;
+			LockSupport.parkNanos(IDLE_PARK_NANOS / 4);
+		}
+		return true;
+	}
+
+	public Stats stats() {
+		return new Stats(
+				samples, ring.dropped() + droppedClosed.get(), ring.blocked(), points, requests, bytes, failed);
+	}
+
+	/** Stop recording, flush what is buffered (waiting up to the transport timeout) and close the transport. */
+	@Override
+	public void close() {
+		if (closed) return;
+		closed = true;
+		ring.close();
+		LockSupport.unpark(flusher);
+		try {
+			flusher.join(config.timeout().toMillis());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		if (flusher.isAlive()) log.warn("ObsinityTS flusher did not finish within {}", config.timeout());
+		try {
+			transport.close();
+		} catch (Exception e) {
+			log.warn("ObsinityTS transport close failed", e);
+		}
+	}
+
+	/* ========================= Flusher ========================= */
+
+	private void runFlusher() {
+		final long interval = config.flushInterval().toNanos();
+		long nextFlush = System.nanoTime() + interval;
+		while (!closed) {
+			try {
+				final long requested = flushRequests.get();
+				final int drained = drainRing();
+				final long now = System.nanoTime();
+				final boolean wanted = requested != flushesCompleted;
+				if (wanted || pendingBytes >= config.batchBytes() || now - nextFlush >= 0) {
+					if (wanted) drainRing(); // include samples recorded just before the request
+					flushPoints();
+					nextFlush = now + interval;
+					flushesCompleted = requested;
+				} else if (drained == 0) {
+					LockSupport.parkNanos(Math.min(IDLE_PARK_NANOS, nextFlush - now));
+				}
+			} catch (RuntimeException e) {
+				log.warn("ObsinityTS flush failed", e);
+			}
+		}
+		try {
+			drainRing();
+			flushPoints();
+		} catch (RuntimeException e) {
+			log.warn("ObsinityTS final flush failed", e);
+		}
+	}
+
+	private int drainRing() {
+		drainTable = meters;
+		int total = 0;
+		int n;
+		while ((n = ring.drain(accumulator, DRAIN_BATCH)) > 0) {
+			total += n;
+			if (pendingBytes >= config.batchBytes()) break;
+		}
+		samples += total;
+		return total;
+	}
+
+	private void accumulate(int index, long value) {
+		if (index >= drainTable.length) drainTable = meters; // registered since the drain started
+		final Meter meter = drainTable[index];
+		if (!meter.dirty()) pendingBytes += meter.prefix.length() + POINT_BYTES;
+		meter.accumulate(value);
+	}
+
+	private void flushPoints() {
+		final Meter[] table = meters;
+		final long ts = clock.millis();
+		long emitted = 0;
+		for (Meter meter : table) {
+			if (meter instanceof Gauge gauge) gauge.observe();
+			if (!meter.dirty()) continue;
+			line.setLength(0);
+			line.append(meter.prefix).append("\"ts\":").append(ts).append(',');
+			meter.appendFields(line);
+			line.append("}\n");
+			meter.reset();
+			final byte[] encoded = line.toString().getBytes(StandardCharsets.UTF_8);
+			if (outSize > 0 && outSize + encoded.length > out.length) send();
+			if (encoded.length > out.length) out = Arrays.copyOf(out, encoded.length); // one oversized point
+			System.arraycopy(encoded, 0, out, outSize, encoded.length);
+			outSize += encoded.length;
+			emitted++;
+		}
+		if (outSize > 0) send();
+		points += emitted;
+		pendingBytes = 0;
+	}
+
+	private void send() {
+		try {
+			transport.send(out, 0, outSize);
+			bytes += outSize;
+		} catch (IOException | RuntimeException e) {
+			failed++;
+			log.warn("ObsinityTS send of {} bytes failed", outSize, e);
+		} finally {
+			requests++;
+			outSize = 0;
+		}
+	}
+}
@@ -0,0 +1,130 @@
+package com.obsinity.telemetry.ts;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded multi-producer / single-consumer ring of {@code (meter, value)} samples held in primitive arrays, so offering
+ * a sample never allocates.
+ *
+ * <p>Producers claim a sequence with a CAS on {@code head}; each slot carries the sequence last written to it, which a
+ * writer swaps to {@link #WRITING} before filling the slot and sets to its own sequence to publish. The consumer reads
+ * a published slot, re-checks its sequence (seqlock style) and then advances {@code tail} with a CAS, so that under
+ * {@link ObsinityTS.Backpressure#DROP_OLDEST} producers can move {@code tail} past the oldest sample themselves.
+ */
+final class SampleRing {
+
+	/** Receives drained samples on the consumer thread. */
+	@FunctionalInterface
+	interface Consumer {
+		void accept(int meter, long value);
+	}
+
+	private static final long WRITING = Long.MIN_VALUE;
+
+	private final int mask;
+	private final int capacity;
+	private final ObsinityTS.Backpressure backpressure;
+	private final int[] meters;
+	private final long[] values;
+	private final AtomicLongArray sequences;
+	private final AtomicLong head = new AtomicLong();
+	private final AtomicLong tail = new AtomicLong();
+	private final LongAdder dropped = new LongAdder();
+	private final LongAdder blocked = new LongAdder();
+	private volatile boolean closed;
+
+	SampleRing(int capacity, ObsinityTS.Backpressure backpressure) {
+		if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+			throw new IllegalArgumentException("capacity must be a power of two >= 2");
+		}
+		this.capacity = capacity;
+		this.mask = capacity - 1;
+		this.backpressure = backpressure;
+		this.meters = new int[capacity];
+		this.values = new long[capacity];
+		this.sequences = new AtomicLongArray(capacity);
+		for (int i = 0; i < capacity; i++) sequences.set(i, i - (long) capacity); // "previous lap" written
+	}
+
+	/** Offer a sample; false if it (or, for DROP_OLDEST, nothing) was dropped. */
+	boolean offer(int meter, long value) {
+		boolean waited = false;
+		while (true) {
+			final long h = head.get();
+			final long t = tail.get();
+			if (h - t >= capacity) {
+				switch (backpressure) {
+					case DROP_NEW -> {
+						dropped.increment();
+						return false;
+					}
+					case DROP_OLDEST -> {
+						if (tail.compareAndSet(t, t + 1)) dropped.increment();
+					}
+					case BLOCK -> {
+						if (closed) {
+							dropped.increment();
+							return false;
+						}
+						if (!waited) {
+							waited = true;
+							blocked.increment();
+						}
+						LockSupport.parkNanos(10_000L);
+					}
+				}
+				continue;
+			}
+			if (!head.compareAndSet(h, h + 1)) continue;
+
+			final int idx = (int) (h & mask);
+			// A writer from the previous lap may still be filling this slot (only possible under DROP_OLDEST)
+			while (!sequences.compareAndSet(idx, h - capacity, WRITING)) Thread.onSpinWait();
+			meters[idx] = meter;
+			values[idx] = value;
+			sequences.set(idx, h);
+			return true;
+		}
+	}
+
+	/** Drain up to {@code max} samples into {@code consumer}; returns how many were delivered. Consumer thread only. */
+	int drain(Consumer consumer, int max) {
+		int n = 0;
+		while (n < max) {
+			final long t = tail.get();
+			final int idx = (int) (t & mask);
+			final long seq = sequences.get(idx);
+			if (seq != t) {
+				if (seq == WRITING || seq < t) {
+					// Not yet published, unless t was dropped meanwhile and a later lap is writing
+					if (tail.get() == t) return n;
+				}
+				continue; // t was dropped (DROP_OLDEST): re-read tail
+			}
+			final int meter = meters[idx];
+			final long value = values[idx];
+			VarHandle.acquireFence();
+			if (sequences.get(idx) != t || !tail.compareAndSet(t, t + 1)) continue;
+			consumer.accept(meter, value);
+			n++;
+		}
+		return n;
+	}
+
+	/** Release producers blocked under {@link ObsinityTS.Backpressure#BLOCK}; their samples are dropped. */
+	void close() {
+		closed = true;
+	}
+
+	long dropped() {
+		return dropped.sum();
+	}
+
+	long blocked() {
+		return blocked.sum();
+	}
+}
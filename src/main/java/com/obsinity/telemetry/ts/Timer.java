@@ -0,0 +1,25 @@
+package com.obsinity.telemetry.ts;
+
+import java.time.Duration;
+import java.util.Map;
+
+/** Durations in nanoseconds; each point carries count, sum, min and max for its flush window. */
+public final class Timer extends Meter {
+
+	Timer(ObsinityTS ts, int index, String name, Map<String, String> tags, String prefix) {
+		super(ts, index, name, tags, prefix);
+	}
+
+	public void record(long nanos) {
+		ts.offer(index, Math.max(0L, nanos));
+	}
+
+	public void record(Duration duration) {
+		record(duration.toNanos());
+	}
+
+	/** Record the time elapsed since {@code startNanos} (a {@link System#nanoTime()} reading). */
+	public void recordSince(long startNanos) {
+		record(System.nanoTime() - startNanos);
+	}
+}
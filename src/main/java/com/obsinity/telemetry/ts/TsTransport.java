@@ -0,0 +1,16 @@
+package com.obsinity.telemetry.ts;
+
+import java.io.IOException;
+
+/**
+ * Delivers encoded {@link ObsinityTS} batches (newline-delimited JSON points). Called from the single flusher thread
+ * only; a thrown exception counts the batch as failed.
+ */
+@FunctionalInterface
+public interface TsTransport extends AutoCloseable {
+
+	void send(byte[] payload, int offset, int length) throws IOException;
+
+	@Override
+	default void close() {}
+}
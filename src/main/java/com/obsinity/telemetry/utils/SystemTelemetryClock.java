@@ -0,0 +1,144 @@
+package com.obsinity.telemetry.utils;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/**
+ * {@link TelemetryClock} backed by {@link System#nanoTime()} with an {@link Instant#now()} anchor.
+ *
+ * <p>Epoch time is {@code anchorEpochNanos + (nanoTime - anchorNanoTime)}, so derived timestamps follow the monotonic
+ * clock rather than wall-clock steps (NTP jumps, manual changes). The monotonic oscillator drifts from UTC (typically
+ * milliseconds per day), so once every resync interval ({@code -Dobsinity.clock.resyncSeconds}, default 60; 0 keeps the
+ * first anchor forever) the next {@link #epochNanos(long)} call re-anchors, slewing toward the wall clock by at most
+ * 500 ppm of the elapsed time (30 ms per minute). A wall-clock step is therefore absorbed gradually, never as a jump;
+ * durations come from {@link #nanoTime()} and are unaffected.
+ *
+ * <p>Coarse step mode: when enabled, {@link #stepNanoTime()} returns a value refreshed by a single daemon ticker thread
+ * every {@code resolutionNanos}, turning the step-edge clock read into a volatile load. Configure with
+ * {@code -Dobsinity.clock.coarseSteps=true} and optionally {@code -Dobsinity.clock.coarseResolutionMicros=1000}.
+ * {@link #close()} stops the ticker (step edges then read {@link System#nanoTime()}); the process-wide
+ * {@link TelemetryClock#system()} clock ignores it.
+ */
+public final class SystemTelemetryClock implements TelemetryClock, AutoCloseable {
+
+	static final SystemTelemetryClock DEFAULT = fromSystemProperties();
+
+	/** Largest correction per resync, as a fraction of the time since the previous anchor (1/2000 = 500 ppm). */
+	private static final long MAX_SLEW_DIVISOR = 2_000L;
+
+	private record Anchor(long epochNanos, long nanoTime) {}
+
+	private final AtomicReference<Anchor> anchor;
+	private final long resyncIntervalNanos; // 0 = never
+	private final LongSupplier wallEpochNanos;
+	private volatile Ticker ticker; // null = precise step edges
+
+	public SystemTelemetryClock() {
+		this(0L);
+	}
+
+	/** @param coarseStepResolutionNanos ticker period for {@link #stepNanoTime()}; {@code <= 0} disables coarse mode */
+	public SystemTelemetryClock(long coarseStepResolutionNanos) {
+		this(coarseStepResolutionNanos, TimeUnit.SECONDS.toNanos(60));
+	}
+
+	/** @param resyncIntervalNanos how often the epoch anchor is corrected; {@code <= 0} keeps the first anchor */
+	public SystemTelemetryClock(long coarseStepResolutionNanos, long resyncIntervalNanos) {
+		this(coarseStepResolutionNanos, resyncIntervalNanos, SystemTelemetryClock::wallEpochNanos);
+	}
+
+	SystemTelemetryClock(long coarseStepResolutionNanos, long resyncIntervalNanos, LongSupplier wallEpochNanos) {
+		this.wallEpochNanos = wallEpochNanos;
+		this.anchor = new AtomicReference<>(new Anchor(wallEpochNanos.getAsLong(), System.nanoTime()));
+		this.resyncIntervalNanos = Math.max(0L, resyncIntervalNanos);
+		this.ticker = (coarseStepResolutionNanos > 0L) ? new Ticker(coarseStepResolutionNanos) : null;
+	}
+
+	static SystemTelemetryClock fromSystemProperties() {
+		long resync = TimeUnit.SECONDS.toNanos(Long.getLong("obsinity.clock.resyncSeconds", 60L));
+		if (!Boolean.getBoolean("obsinity.clock.coarseSteps")) return new SystemTelemetryClock(0L, resync);
+		long micros = Long.getLong("obsinity.clock.coarseResolutionMicros", 1_000L);
+		return new SystemTelemetryClock(TimeUnit.MICROSECONDS.toNanos(Math.max(1L, micros)), resync);
+	}
+
+	@Override
+	public long nanoTime() {
+		return System.nanoTime();
+	}
+
+	@Override
+	public long epochNanos(long nanoTime) {
+		Anchor a = anchor.get();
+		if (resyncIntervalNanos > 0L && nanoTime - a.nanoTime() >= resyncIntervalNanos) a = resync(a);
+		return a.epochNanos() + (nanoTime - a.nanoTime());
+	}
+
+	@Override
+	public long stepNanoTime() {
+		final Ticker t = ticker;
+		return (t != null) ? t.now : System.nanoTime();
+	}
+
+	public boolean isCoarseSteps() {
+		return ticker != null;
+	}
+
+	/** Stop the coarse-step ticker thread, if any; a no-op on the process-wide clock. */
+	@Override
+	public void close() {
+		if (this == DEFAULT) return;
+		final Ticker t = ticker;
+		ticker = null;
+		if (t != null) t.stop();
+	}
+
+	/** Re-anchor now, moving toward the wall clock by at most the slew limit; losers of a race use the winner's. */
+	private Anchor resync(Anchor current) {
+		final long now = System.nanoTime();
+		final long derived = current.epochNanos() + (now - current.nanoTime());
+		final Anchor next = new Anchor(slew(derived, wallEpochNanos.getAsLong(), now - current.nanoTime()), now);
+		return anchor.compareAndSet(current, next) ? next : anchor.get();
+	}
+
+	/** {@code derived} corrected toward {@code wall}, by at most 500 ppm of {@code elapsedNanos}. */
+	static long slew(long derived, long wall, long elapsedNanos) {
+		final long max = elapsedNanos / MAX_SLEW_DIVISOR;
+		return derived + Math.max(-max, Math.min(max, wall - derived));
+	}
+
+	private static long wallEpochNanos() {
+		Instant now = Instant.now();
+		return now.getEpochSecond() * 1_000_000_000L + now.getNano();
+	}
+
+	/** Daemon thread publishing {@link System#nanoTime()} at a fixed period until stopped. */
+	private static final class Ticker implements Runnable {
+		private final long periodNanos;
+		private final Thread thread;
+		private volatile long now = System.nanoTime();
+		private volatile boolean running = true;
+
+		Ticker(long periodNanos) {
+			this.periodNanos = periodNanos;
+			this.thread = new Thread(this, "obsinity-clock-ticker");
+			this.thread.setDaemon(true);
+			this.thread.start();
+		}
+
+		void stop() {
+			running = false;
+			LockSupport.unpark(thread);
+		}
+
+		@Override
+		public void run() {
+			while (running) {
+				LockSupport.parkNanos(periodNanos);
+				now = System.nanoTime();
+			}
+		}
+	}
+}
@@ -0,0 +1,47 @@
+package com.obsinity.telemetry.utils;
+
+import java.time.Instant;
+
+/**
+ * Single time source for the processor.
+ *
+ * <p>One monotonic read ({@link #nanoTime()}) per lifecycle edge; epoch timestamps are derived from it with
+ * {@link #epochNanos(long)} against a wall-clock anchor (only slewed, never stepped), so start/end pairs stay
+ * consistent and durations never go negative when the wall clock is adjusted.
+ *
+ * <p>{@link #stepNanoTime()} is used for nested {@code @Step} edges. The system clock can serve it from a cached,
+ * coarse ticker ({@code -Dobsinity.clock.coarseSteps=true}) for very hot steps that do not need sub-millisecond
+ * accuracy.
+ *
+ * <p>Tests can supply any implementation (e.g. a manually advanced counter) to get deterministic timestamps.
+ *
+ * @see SystemTelemetryClock
+ */
+public interface TelemetryClock {
+
+	/** Monotonic nanoseconds; only differences are meaningful. */
+	long nanoTime();
+
+	/** Epoch nanoseconds corresponding to a value previously returned by {@link #nanoTime()}. */
+	long epochNanos(long nanoTime);
+
+	/** Monotonic time for nested step edges; defaults to {@link #nanoTime()}. */
+	default long stepNanoTime() {
+		return nanoTime();
+	}
+
+	/** {@link Instant} corresponding to a value previously returned by {@link #nanoTime()}. */
+	default Instant instant(long nanoTime) {
+		return toInstant(epochNanos(nanoTime));
+	}
+
+	/** Process-wide system clock configured from system properties. */
+	static TelemetryClock system() {
+		return SystemTelemetryClock.DEFAULT;
+	}
+
+	static Instant toInstant(long epochNanos) {
+		return Instant.ofEpochSecond(
+				Math.floorDiv(epochNanos, 1_000_000_000L), Math.floorMod(epochNanos, 1_000_000_000L));
+	}
+}
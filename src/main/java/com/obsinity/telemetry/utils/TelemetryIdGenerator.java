@@ -1,33 +1,103 @@
 package com.obsinity.telemetry.utils;
 
-import java.security.SecureRandom;
-import java.time.Instant;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
 import java.util.UUID;
 
-/** Minimal UUIDv7 generator + OTEL-friendly hex helpers. */
+/**
+ * Minimal UUIDv7 generator + OTEL-friendly hex helpers.
+ *
+ * <p>Random bits come from a pluggable {@link TelemetryIdStrategy}; the initial strategy is taken from the
+ * {@code obsinity.ids.strategy} system property ({@code secure} (default) or {@code fast}). Hex encoding is
+ * table-driven and produces Latin-1 strings directly (no {@code String.format}).
+ */
 public final class TelemetryIdGenerator {
-	private static final SecureRandom RNG = new SecureRandom();
+
+	private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+	private static volatile TelemetryIdStrategy strategy =
+			TelemetryIdStrategy.named(System.getProperty("obsinity.ids.strategy"));
+
+	/** Currently active strategy. */
+	public static TelemetryIdStrategy strategy() {
+		return strategy;
+	}
+
+	/** Swap the strategy used by all subsequent calls (e.g. {@link TelemetryIdStrategy#fast()}). */
+	public static void setStrategy(TelemetryIdStrategy s) {
+		strategy = Objects.requireNonNull(s, "strategy");
+	}
 
 	public static UUID generate() {
-		long millis = Instant.now().toEpochMilli(); // 48 bits
-		long msb = (millis & 0xFFFFFFFFFFFFL) << 16; // timestamp << 16
-		msb |= 0x7000L; // version 7 in bits 12..15
-		msb |= (RNG.nextLong() & 0x0FFFL); // 12-bit rand_a
+		return strategy.nextUuidV7();
+	}
 
-		long lsb = RNG.nextLong();
-		lsb = (lsb & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L; // set variant 10xx
+	/** New 128-bit trace id (UUIDv7 bits), lowercase hex, 32 chars. */
+	public static String newTraceId() {
+		UUID u = strategy.nextUuidV7();
+		return hex128(u.getMostSignificantBits(), u.getLeastSignificantBits());
+	}
+
+	/** New non-zero 64-bit span id, lowercase hex, 16 chars. */
+	public static String newSpanId() {
+		return hex64(strategy.nextSpanId());
+	}
 
-		return new UUID(msb, lsb);
+	/** New non-zero 64-bit span id in binary form. */
+	public static long newSpanIdBits() {
+		return strategy.nextSpanId();
 	}
 
 	/** 128-bit hex (lowercase, 32 chars) — good for OTEL traceId. */
 	public static String hex128(UUID u) {
-		return String.format("%016x%016x", u.getMostSignificantBits(), u.getLeastSignificantBits());
+		return hex128(u.getMostSignificantBits(), u.getLeastSignificantBits());
 	}
 
 	/** 64-bit hex from LSB (lowercase, 16 chars) — good for OTEL spanId. */
 	public static String hex64lsb(UUID u) {
-		return String.format("%016x", u.getLeastSignificantBits());
+		return hex64(u.getLeastSignificantBits());
+	}
+
+	/** 128-bit hex (lowercase, 32 chars) from two longs. */
+	public static String hex128(long hi, long lo) {
+		byte[] out = new byte[32];
+		writeHex(hi, out, 0);
+		writeHex(lo, out, 16);
+		return new String(out, StandardCharsets.ISO_8859_1);
+	}
+
+	/** 64-bit hex (lowercase, 16 chars). */
+	public static String hex64(long v) {
+		byte[] out = new byte[16];
+		writeHex(v, out, 0);
+		return new String(out, StandardCharsets.ISO_8859_1);
+	}
+
+	/** True if {@code s} is exactly {@code len} lowercase hex characters (the only form parsed into binary ids). */
+	public static boolean isLowerHex(String s, int len) {
+		if (s == null || s.length() != len) return false;
+		for (int i = 0; i < len; i++) {
+			char c = s.charAt(i);
+			if (!((c >= '0' && c <= '9') || (c >= 'a' && c <= 'f'))) return false;
+		}
+		return true;
+	}
+
+	/** Parse 16 lowercase hex characters starting at {@code off}; caller validates with {@link #isLowerHex}. */
+	public static long parseHex64(String s, int off) {
+		long v = 0L;
+		for (int i = off; i < off + 16; i++) {
+			char c = s.charAt(i);
+			v = (v << 4) | (c <= '9' ? c - '0' : c - 'a' + 10);
+		}
+		return v;
+	}
+
+	private static void writeHex(long v, byte[] out, int off) {
+		for (int i = off + 15; i >= off; i--) {
+			out[i] = HEX[(int) (v & 0xF)];
+			v >>>= 4;
+		}
 	}
 
 	private TelemetryIdGenerator() {}
@@ -0,0 +1,139 @@
+package com.obsinity.telemetry.utils;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Source of random bits for trace/span identifiers.
+ *
+ * <p>Implementations must be thread-safe and should be contention-free: every built-in strategy keeps its generator
+ * state per thread, so ID generation never serialises request threads on a shared lock.
+ *
+ * <ul>
+ *   <li>{@link #secure()} (default) — per-thread, block-buffered {@link SecureRandom} (DRBG where available).
+ *       Unpredictable IDs.
+ *   <li>{@link #fast()} — {@link ThreadLocalRandom}. Much cheaper, statistically unique, but predictable; use when IDs
+ *       need not be unguessable.
+ * </ul>
+ *
+ * <p>Both produce UUIDv7-compatible UUIDs and W3C-valid IDs (trace and span IDs are never all zero).
+ *
+ * @see TelemetryIdGenerator#setStrategy(TelemetryIdStrategy)
+ */
+public interface TelemetryIdStrategy {
+
+	/** Next 64 random bits. */
+	long nextLong();
+
+	/** Short name used in config and logs ({@code secure} / {@code fast}). */
+	String name();
+
+	/** UUIDv7: 48-bit unix millis, version 7, 12 random bits, variant {@code 10}, 62 random bits. */
+	default UUID nextUuidV7() {
+		long millis = System.currentTimeMillis();
+		long msb = (millis & 0xFFFFFFFFFFFFL) << 16; // timestamp << 16
+		msb |= 0x7000L; // version 7 in bits 12..15
+		msb |= (nextLong() & 0x0FFFL); // 12-bit rand_a
+
+		long lsb = nextLong();
+		lsb = (lsb & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L; // set variant 10xx
+
+		return new UUID(msb, lsb);
+	}
+
+	/** Non-zero 64-bit span id (W3C: all-zero is invalid). */
+	default long nextSpanId() {
+		long id;
+		do {
+			id = nextLong();
+		} while (id == 0L);
+		return id;
+	}
+
+	/** Per-thread {@link SecureRandom}; the default strategy. */
+	static TelemetryIdStrategy secure() {
+		return Secure.INSTANCE;
+	}
+
+	/** {@link ThreadLocalRandom}-backed strategy; fastest, not cryptographically strong. */
+	static TelemetryIdStrategy fast() {
+		return Fast.INSTANCE;
+	}
+
+	/** Resolve a strategy by {@link #name()}; unknown or blank values fall back to {@link #secure()}. */
+	static TelemetryIdStrategy named(String name) {
+		if (name != null && "fast".equalsIgnoreCase(name.trim())) return fast();
+		return secure();
+	}
+
+	/* ---------------- built-ins ---------------- */
+
+	/**
+	 * One generator per thread (DRBG instances lock only themselves, so threads never contend). Random bytes are drawn
+	 * in blocks and handed out as longs, amortising the per-call cost of the DRBG.
+	 */
+	final class Secure implements TelemetryIdStrategy {
+		static final Secure INSTANCE = new Secure();
+
+		private static final int BLOCK_LONGS = 64;
+		private static final VarHandle LONGS =
+				MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+		private static final ThreadLocal<Block> BLOCK = ThreadLocal.withInitial(Block::new);
+
+		private Secure() {}
+
+		@Override
+		public long nextLong() {
+			return BLOCK.get().nextLong();
+		}
+
+		@Override
+		public String name() {
+			return "secure";
+		}
+
+		private static final class Block {
+			private final SecureRandom rng = newRandom();
+			private final byte[] bytes = new byte[BLOCK_LONGS * Long.BYTES];
+			private int next = BLOCK_LONGS;
+
+			long nextLong() {
+				if (next == BLOCK_LONGS) {
+					rng.nextBytes(bytes);
+					next = 0;
+				}
+				return (long) LONGS.get(bytes, (next++) * Long.BYTES);
+			}
+
+			private static SecureRandom newRandom() {
+				try {
+					return SecureRandom.getInstance("DRBG");
+				} catch (NoSuchAlgorithmException e) {
+					return new SecureRandom();
+				}
+			}
+		}
+	}
+
+	/** ThreadLocalRandom: lock-free, allocation-free. */
+	final class Fast implements TelemetryIdStrategy {
+		static final Fast INSTANCE = new Fast();
+
+		private Fast() {}
+
+		@Override
+		public long nextLong() {
+			return ThreadLocalRandom.current().nextLong();
+		}
+
+		@Override
+		public String name() {
+			return "fast";
+		}
+	}
+}
@@ -0,0 +1,62 @@
+package com.obsinity.telemetry.aspect;
+
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import com.obsinity.telemetry.dispatch.TelemetryEventHandlerScanner;
+import com.obsinity.telemetry.processor.TelemetryAttributeBinder;
+import com.obsinity.telemetry.processor.TelemetryProcessor;
+import com.obsinity.telemetry.processor.TelemetryProcessorSupport;
+import com.obsinity.telemetry.receivers.AsyncDispatchEngine;
+import com.obsinity.telemetry.receivers.TelemetryDispatchBus;
+
+/**
+ * Hand-wired SDK stack for unit tests that don't need a Spring context (see {@link TelemetryBootSuite} for those that
+ * do).
+ *
+ * <p>Mirrors what the auto-configuration builds: scanner → handler groups → dispatch bus → processor → aspect.
+ * Configure the {@link #processor} (clock, samplers, resource) before calling the proxied service; nested calls must go
+ * through the proxy, so services keep a {@code self} reference set to the result of {@link #proxy(Object)}.
+ *
+ * <pre>{@code
+ * TelemetryTestStack stack = TelemetryTestStack.of(recorder);
+ * stack.processor.setClock(clock);
+ * Service target = new Service();
+ * Service service = stack.proxy(target);
+ * target.self = service;
+ * }</pre>
+ */
+public final class TelemetryTestStack {
+
+	public final TelemetryProcessorSupport support = new TelemetryProcessorSupport();
+	public final TelemetryDispatchBus bus;
+	public final TelemetryProcessor processor;
+
+	private TelemetryTestStack(final AsyncDispatchEngine.Config async, final Object... receivers) {
+		final StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+		for (int i = 0; i < receivers.length; i++) beanFactory.addBean("receiver" + i, receivers[i]);
+		final TelemetryEventHandlerScanner scanner = new TelemetryEventHandlerScanner(beanFactory, support);
+		this.bus = async != null
+				? new TelemetryDispatchBus(scanner.handlerGroups(), async)
+				: new TelemetryDispatchBus(scanner.handlerGroups());
+		this.processor = new TelemetryProcessor(new TelemetryAttributeBinder(), support, bus);
+	}
+
+	/** Stack dispatching to {@code receivers} with the default async engine settings. */
+	public static TelemetryTestStack of(final Object... receivers) {
+		return new TelemetryTestStack(null, receivers);
+	}
+
+	/** Stack whose async receivers run on an engine configured by {@code async}. */
+	public static TelemetryTestStack async(final AsyncDispatchEngine.Config async, final Object... receivers) {
+		return new TelemetryTestStack(async, receivers);
+	}
+
+	/** Class-based proxy of {@code target} with the telemetry aspect applied. */
+	public <T> T proxy(final T target) {
+		final AspectJProxyFactory factory = new AspectJProxyFactory(target);
+		factory.setProxyTargetClass(true);
+		factory.addAspect(new TelemetryAspect(processor));
+		return factory.getProxy();
+	}
+}
@@ -0,0 +1,97 @@
+package com.obsinity.telemetry.dispatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.obsinity.telemetry.model.Lifecycle;
+import com.obsinity.telemetry.model.TelemetryHolder;
+
+@DisplayName("HandlerInvoker: compiled MethodHandle call paths")
+class HandlerInvokerTest {
+
+	private static final TelemetryHolder HOLDER =
+			TelemetryHolder.builder().name("orders.create").serviceId("svc").build();
+
+	@Test
+	@DisplayName("Specialized arities bind each parameter in order")
+	void specializedArities() throws Throwable {
+		Target t = new Target();
+
+		invoker(t, "zero").invoke(HOLDER, Lifecycle.FLOW_FINISHED, null);
+		invoker(t, "one", holderBinder()).invoke(HOLDER, Lifecycle.FLOW_FINISHED, null);
+		invoker(t, "two", holderBinder(), (h, p, e) -> p).invoke(HOLDER, Lifecycle.FLOW_STARTED, null);
+
+		assertThat(t.calls).containsExactly("zero", "one:orders.create", "two:orders.create:FLOW_STARTED");
+	}
+
+	@Test
+	@DisplayName("Wide methods use the spreader; missing binders bind null")
+	void wideMethodAndMissingBinders() throws Throwable {
+		Target t = new Target();
+
+		invoker(t, "five", (h, p, e) -> "a", (h, p, e) -> "b").invoke(HOLDER, Lifecycle.FLOW_FINISHED, null);
+
+		assertThat(t.calls).containsExactly("five:a,b,null,null,null");
+	}
+
+	@Test
+	@DisplayName("Handler exceptions propagate unwrapped through Handler.invoke")
+	void exceptionsUnwrapped() throws Exception {
+		Method m = Target.class.getDeclaredMethod("fail");
+		Handler h =
+				new Handler(new Target(), m, "x", null, null, List.of(), true, null, null, List.of(), Set.of(), "fail");
+
+		assertThatThrownBy(() -> h.invoke(HOLDER, Lifecycle.FLOW_FINISHED))
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessage("boom");
+	}
+
+	private static ParamBinder holderBinder() {
+		return (h, p, e) -> h;
+	}
+
+	private static HandlerInvoker invoker(Object bean, String name, ParamBinder... binders) {
+		Method m = null;
+		for (Method candidate : bean.getClass().getDeclaredMethods()) {
+			if (candidate.getName().equals(name)) m = candidate;
+		}
+		List<ParamBinder> list = new ArrayList<>();
+		Collections.addAll(list, binders);
+		return HandlerInvoker.compile(bean, m, list);
+	}
+
+	/** Deliberately package-private to exercise the accessibility path. */
+	static class Target {
+		final List<String> calls = new ArrayList<>();
+
+		void zero() {
+			calls.add("zero");
+		}
+
+		String one(TelemetryHolder h) {
+			calls.add("one:" + h.name());
+			return "ignored";
+		}
+
+		void two(TelemetryHolder h, Lifecycle phase) {
+			calls.add("two:" + h.name() + ":" + phase);
+		}
+
+		void five(String a, String b, Object c, Object d, Object e) {
+			calls.add("five:" + a + "," + b + "," + c + "," + d + "," + e);
+		}
+
+		void fail() {
+			throw new IllegalStateException("boom");
+		}
+	}
+}
@@ -0,0 +1,186 @@
+package com.obsinity.telemetry.dispatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import com.obsinity.telemetry.annotations.Bulkhead;
+import com.obsinity.telemetry.annotations.EventReceiver;
+import com.obsinity.telemetry.annotations.OnFlowLifecycle;
+import com.obsinity.telemetry.annotations.OnFlowSuccess;
+import com.obsinity.telemetry.model.Lifecycle;
+import com.obsinity.telemetry.model.TelemetryHolder;
+import com.obsinity.telemetry.processor.TelemetryProcessorSupport;
+import com.obsinity.telemetry.receivers.TelemetryDispatchBus;
+import com.obsinity.telemetry.utils.TelemetryClock;
+
+@DisplayName("ReceiverBulkhead: concurrency cap, time budget and circuit breaker")
+class ReceiverBulkheadTest {
+
+	private static final long MS = 1_000_000L;
+
+	private final ManualClock clock = new ManualClock();
+
+	@Test
+	@DisplayName("Calls beyond maxConcurrent are skipped and counted")
+	void saturation() {
+		ReceiverBulkhead b = bulkhead(new ReceiverBulkhead.Config(1, 0, 0, 1.0, 10, 5, 0, 1));
+
+		int first = b.acquire();
+		assertThat(b.acquire()).isEqualTo(ReceiverBulkhead.DENIED);
+		b.complete(first, clock.nanoTime(), false);
+		assertThat(b.acquire()).isEqualTo(ReceiverBulkhead.CALL);
+
+		assertThat(b.stats().skippedSaturated()).isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("Error rate opens the breaker; healthy probes close it again")
+	void errorRateTripAndProbe() {
+		ReceiverBulkhead b = bulkhead(new ReceiverBulkhead.Config(0, 0, 0, 0.5, 10, 4, 100 * MS, 2));
+
+		call(b, 0, true);
+		call(b, 0, true);
+		call(b, 0, false);
+		assertThat(b.state()).isEqualTo(ReceiverBulkhead.State.CLOSED);
+		call(b, 0, true); // 3 failures of 4 > 0.5
+		assertThat(b.state()).isEqualTo(ReceiverBulkhead.State.OPEN);
+
+		assertThat(b.acquire()).isEqualTo(ReceiverBulkhead.DENIED);
+		clock.advance(100 * MS);
+
+		int probe = b.acquire();
+		assertThat(probe).isEqualTo(ReceiverBulkhead.PROBE);
+		assertThat(b.acquire()).isEqualTo(ReceiverBulkhead.DENIED); // one probe at a time
+		b.complete(probe, clock.nanoTime(), false);
+		assertThat(b.state()).isEqualTo(ReceiverBulkhead.State.HALF_OPEN);
+		call(b, 0, false);
+
+		assertThat(b.state()).isEqualTo(ReceiverBulkhead.State.CLOSED);
+		assertThat(b.stats().skippedOpen()).isEqualTo(2);
+		assertThat(b.stats().opened()).isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("A failed probe re-opens the breaker")
+	void failedProbeReopens() {
+		ReceiverBulkhead b = bulkhead(new ReceiverBulkhead.Config(0, 0, 0, 0.0, 4, 1, 10 * MS, 1));
+		call(b, 0, true);
+		clock.advance(10 * MS);
+
+		call(b, 0, true);
+
+		assertThat(b.state()).isEqualTo(ReceiverBulkhead.State.OPEN);
+		assertThat(b.stats().opened()).isEqualTo(2);
+	}
+
+	@Test
+	@DisplayName("p99 above the threshold opens the breaker; budget overruns count as timeouts")
+	void latencyTrip() {
+		ReceiverBulkhead b = bulkhead(new ReceiverBulkhead.Config(0, 20 * MS, 50 * MS, 1.0, 100, 100, 10 * MS, 1));
+
+		for (int i = 0; i < 98; i++) call(b, 10 * MS, false);
+		call(b, 30 * MS, false); // over budget, under p99 threshold
+		assertThat(b.state()).isEqualTo(ReceiverBulkhead.State.CLOSED);
+		call(b, 60 * MS, false); // 1 slow sample of 100: p99 still fine
+		assertThat(b.state()).isEqualTo(ReceiverBulkhead.State.CLOSED);
+		call(b, 60 * MS, false); // 2 of the last 100 slow: p99 exceeded
+
+		assertThat(b.state()).isEqualTo(ReceiverBulkhead.State.OPEN);
+		assertThat(b.stats().timedOut()).isEqualTo(3);
+	}
+
+	@Test
+	@DisplayName("Concurrent calls record into the window without locking; the counts stay exact once quiet")
+	void concurrentWindow() throws Exception {
+		ReceiverBulkhead b = bulkhead(new ReceiverBulkhead.Config(0, 0, 0, 0.5, 100, 10, 100 * MS, 1));
+		Thread[] threads = new Thread[8];
+		for (int t = 0; t < threads.length; t++) {
+			threads[t] = new Thread(() -> {
+				for (int i = 0; i < 2_000; i++) call(b, 0, false);
+			});
+			threads[t].start();
+		}
+		for (Thread t : threads) t.join();
+
+		assertThat(b.state()).isEqualTo(ReceiverBulkhead.State.CLOSED);
+		assertThat(b.stats().calls()).isEqualTo(16_000);
+		for (int i = 0; i < 50; i++) call(b, 0, true); // 50 of the last 100 is not above 0.5
+		assertThat(b.state()).isEqualTo(ReceiverBulkhead.State.CLOSED);
+		call(b, 0, true);
+		assertThat(b.state()).isEqualTo(ReceiverBulkhead.State.OPEN);
+		assertThat(b.stats().opened()).isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("Bus skips a failing receiver once its breaker is open and exposes the counts")
+	void busSkipsOpenReceiver() {
+		StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+		FailingReceiver receiver = new FailingReceiver();
+		beanFactory.addBean("failing", receiver);
+		TelemetryDispatchBus bus = new TelemetryDispatchBus(
+				new TelemetryEventHandlerScanner(beanFactory, new TelemetryProcessorSupport()).handlerGroups());
+
+		for (int i = 0; i < 10; i++) {
+			bus.flowFinished(TelemetryHolder.builder()
+					.name("orders.create")
+					.serviceId("svc")
+					.build());
+		}
+
+		assertThat(receiver.calls.get()).isEqualTo(3);
+		ReceiverBulkhead.Stats stats = bus.bulkheadStats().get("FailingReceiver");
+		assertThat(stats.state()).isEqualTo(ReceiverBulkhead.State.OPEN);
+		assertThat(stats.errors()).isEqualTo(3);
+		assertThat(stats.skipped()).isEqualTo(7);
+		assertThat(List.copyOf(bus.bulkheadStats().keySet())).containsExactly("FailingReceiver");
+	}
+
+	private ReceiverBulkhead bulkhead(ReceiverBulkhead.Config config) {
+		return new ReceiverBulkhead("test", config, clock);
+	}
+
+	private void call(ReceiverBulkhead b, long durationNanos, boolean error) {
+		int permit = b.acquire();
+		assertThat(permit).isNotEqualTo(ReceiverBulkhead.DENIED);
+		long start = b.nanoTime();
+		clock.advance(durationNanos);
+		b.complete(permit, start, error);
+	}
+
+	private static final class ManualClock implements TelemetryClock {
+		private long now = 1_000L;
+
+		void advance(long nanos) {
+			now += nanos;
+		}
+
+		@Override
+		public long nanoTime() {
+			return now;
+		}
+
+		@Override
+		public long epochNanos(long nanoTime) {
+			return nanoTime;
+		}
+	}
+
+	@EventReceiver
+	@OnFlowLifecycle(Lifecycle.FLOW_FINISHED)
+	@Bulkhead(errorRate = 0.5, window = 10, minCalls = 3, openMillis = 60_000)
+	public static class FailingReceiver {
+		final AtomicInteger calls = new AtomicInteger();
+
+		@OnFlowSuccess("orders.create")
+		public void onFinished(TelemetryHolder holder) {
+			calls.incrementAndGet();
+			throw new IllegalStateException("downstream unavailable");
+		}
+	}
+}
@@ -0,0 +1,201 @@
+package com.obsinity.telemetry.dispatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import com.obsinity.telemetry.annotations.EventReceiver;
+import com.obsinity.telemetry.annotations.ExecutionMode;
+import com.obsinity.telemetry.annotations.OnFlowCompleted;
+import com.obsinity.telemetry.annotations.OnFlowLifecycle;
+import com.obsinity.telemetry.annotations.OnFlowSuccess;
+import com.obsinity.telemetry.model.Lifecycle;
+import com.obsinity.telemetry.model.TelemetryHolder;
+import com.obsinity.telemetry.model.TelemetrySnapshot;
+import com.obsinity.telemetry.processor.TelemetryProcessorSupport;
+import com.obsinity.telemetry.receivers.TelemetryDispatchBus;
+
+@DisplayName("ReceiverExecution: execution modes and per-receiver concurrency limits")
+class ReceiverExecutionTest {
+
+	private final ExecutorService pool = Executors.newFixedThreadPool(8);
+
+	@AfterEach
+	void tearDown() {
+		pool.shutdownNow();
+	}
+
+	@Test
+	@DisplayName("Executor mode never exceeds maxConcurrency and runs every queued task")
+	void executorLimit() throws Exception {
+		ReceiverExecution exec = ReceiverExecution.executor("limited", pool, 2);
+		AtomicInteger running = new AtomicInteger();
+		AtomicInteger peak = new AtomicInteger();
+		CountDownLatch done = new CountDownLatch(20);
+
+		for (int i = 0; i < 20; i++) {
+			exec.execute(() -> {
+				peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+				sleep(5);
+				running.decrementAndGet();
+				done.countDown();
+			});
+		}
+
+		assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(peak.get()).isLessThanOrEqualTo(2);
+		assertThat(exec.waiting()).isZero();
+		assertThat(exec.rejected()).isZero();
+	}
+
+	@Test
+	@DisplayName("Rejected submissions are counted, not thrown")
+	void rejectedIsCounted() {
+		ExecutorService closed = Executors.newSingleThreadExecutor();
+		closed.shutdown();
+		ReceiverExecution exec = ReceiverExecution.executor("closed", closed, 1);
+
+		exec.execute(() -> {});
+		exec.execute(() -> {});
+
+		assertThat(exec.rejected()).isEqualTo(2);
+		assertThat(exec.waiting()).isZero();
+	}
+
+	@Test
+	@DisplayName("Tasks waiting for a permit are bounded by maxWaiting; the overflow is dropped and counted")
+	void waitingIsBounded() throws Exception {
+		ReceiverExecution exec = ReceiverExecution.executor("bounded", pool, 1, 2);
+		CountDownLatch release = new CountDownLatch(1);
+		CountDownLatch done = new CountDownLatch(3);
+		for (int i = 0; i < 6; i++) {
+			exec.execute(() -> {
+				await(release);
+				done.countDown();
+			});
+		}
+
+		assertThat(exec.waiting()).isEqualTo(2);
+		assertThat(exec.dropped()).isEqualTo(3);
+		release.countDown();
+		assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(exec.waiting()).isZero();
+		assertThat(exec.rejected()).isZero();
+	}
+
+	@Test
+	@DisplayName("Pre-21 VIRTUAL fallback without a limit uses a bounded pool; overflow is rejected and counted")
+	void virtualFallbackIsBounded() throws Exception {
+		assumeTrue(Runtime.version().feature() < 21, "virtual threads available");
+		CountDownLatch release = new CountDownLatch(1);
+		try (ReceiverExecution exec = ReceiverExecution.virtual("fallback", 0, 2)) {
+			for (int i = 0; i < ReceiverExecution.FALLBACK_THREADS + 2 + 3; i++) exec.execute(() -> await(release));
+			assertThat(exec.rejected()).isEqualTo(3);
+		} finally {
+			release.countDown();
+		}
+	}
+
+	@Test
+	@DisplayName("VIRTUAL runs off the calling thread")
+	void virtualRunsOffThread() throws Exception {
+		try (ReceiverExecution exec = ReceiverExecution.virtual("v", 0)) {
+			CountDownLatch done = new CountDownLatch(1);
+			List<Thread> threads = new CopyOnWriteArrayList<>();
+			exec.execute(() -> {
+				threads.add(Thread.currentThread());
+				done.countDown();
+			});
+			assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+			assertThat(threads).doesNotContain(Thread.currentThread());
+		}
+	}
+
+	@Test
+	@DisplayName("Bus runs EXECUTOR receivers on the named bean with the root batch and isolated errors")
+	void busHonoursExecutionMode() throws Exception {
+		StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+		BlockingReceiver receiver = new BlockingReceiver();
+		beanFactory.addBean("sinkPool", pool);
+		beanFactory.addBean("blocking", receiver);
+		List<HandlerGroup> groups =
+				new TelemetryEventHandlerScanner(beanFactory, new TelemetryProcessorSupport()).handlerGroups();
+		TelemetryDispatchBus bus = new TelemetryDispatchBus(groups);
+
+		TelemetryHolder root =
+				TelemetryHolder.builder().name("orders.create").serviceId("svc").build();
+		root.freeze();
+		bus.flowFinished(root);
+		bus.rootFlowFinished(List.of(root));
+
+		assertThat(receiver.done.await(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(groups.get(0).getExecution().mode()).isEqualTo(ExecutionMode.EXECUTOR);
+		assertThat(receiver.threads).doesNotContain(Thread.currentThread().getName());
+		assertThat(receiver.events).containsExactlyInAnyOrder("FLOW_FINISHED:orders.create", "ROOT:1");
+	}
+
+	@Test
+	@DisplayName("EXECUTOR without a matching bean fails at scan time")
+	void missingExecutorBean() {
+		StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+		beanFactory.addBean("blocking", new BlockingReceiver());
+
+		assertThatThrownBy(() ->
+						new TelemetryEventHandlerScanner(beanFactory, new TelemetryProcessorSupport()).handlerGroups())
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessageContaining("no Executor bean named 'sinkPool'");
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	@EventReceiver(execution = ExecutionMode.EXECUTOR, executor = "sinkPool", maxConcurrency = 1)
+	public static class BlockingReceiver {
+		final List<String> events = new CopyOnWriteArrayList<>();
+		final List<String> threads = new CopyOnWriteArrayList<>();
+		final CountDownLatch done = new CountDownLatch(2);
+
+		@OnFlowSuccess("orders.create")
+		@OnFlowLifecycle(Lifecycle.FLOW_FINISHED)
+		public void onFinished(TelemetrySnapshot snapshot) {
+			threads.add(Thread.currentThread().getName());
+			events.add("FLOW_FINISHED:" + snapshot.name());
+			done.countDown();
+			throw new IllegalStateException("sink down"); // must not escape the executor task
+		}
+
+		@OnFlowCompleted("orders.create")
+		@OnFlowLifecycle(Lifecycle.ROOT_FLOW_FINISHED)
+		public void onRoot(List<TelemetryHolder> batch) {
+			threads.add(Thread.currentThread().getName());
+			events.add("ROOT:" + batch.size());
+			done.countDown();
+		}
+	}
+}
@@ -0,0 +1,215 @@
+package com.obsinity.telemetry.export;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.EventData;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import com.obsinity.telemetry.annotations.Flow;
+import com.obsinity.telemetry.annotations.PushAttribute;
+import com.obsinity.telemetry.annotations.Step;
+import com.obsinity.telemetry.aspect.TelemetryTestStack;
+import com.obsinity.telemetry.model.TelemetryHolder;
+
+@DisplayName("BatchingSpanExportStage: finished flows exported as SpanData through any SpanExporter")
+class BatchingSpanExportStageTest {
+
+	private final RecordingExporter exporter = new RecordingExporter();
+	private BatchingSpanExportStage stage;
+
+	@AfterEach
+	void tearDown() {
+		if (stage != null) stage.close();
+	}
+
+	@Test
+	@DisplayName("SpanData view carries ids, parents, times, attributes, folded steps, status and resource")
+	void spanDataView() {
+		stage = new BatchingSpanExportStage(exporter, config(16, Duration.ofSeconds(30), 64));
+		Orders orders = proxy(stage);
+
+		orders.place("A-1");
+		try {
+			orders.fail();
+		} catch (IllegalStateException expected) {
+		}
+		assertThat(stage.forceFlush(Duration.ofSeconds(5))).isTrue();
+
+		List<SpanData> spans = exporter.spans();
+		// The step finishes first and is exported as a child span as well as folded into the flow
+		assertThat(spans)
+				.extracting(SpanData::getName)
+				.containsExactly("inventory.reserve", "orders.place", "orders.fail");
+
+		SpanData placed = spans.get(1);
+		assertThat(spans.get(0).getParentSpanId()).isEqualTo(placed.getSpanId());
+		assertThat(spans.get(0).getTraceId()).isEqualTo(placed.getTraceId());
+		TelemetrySpanData view = (TelemetrySpanData) placed;
+		assertThat(placed.getTraceId()).isEqualTo(view.snapshot().traceId());
+		assertThat(placed.getSpanId()).isEqualTo(view.snapshot().spanId());
+		assertThat(placed.getParentSpanContext().isValid()).isFalse();
+		assertThat(placed.hasEnded()).isTrue();
+		assertThat(placed.getEndEpochNanos()).isGreaterThanOrEqualTo(placed.getStartEpochNanos());
+		assertThat(placed.getStatus().getStatusCode()).isEqualTo(StatusCode.OK);
+		assertThat(placed.getResource().getAttribute(AttributeKey.stringKey("service.name")))
+				.isNotBlank();
+		assertThat(placed.getInstrumentationScopeInfo().getName()).isEqualTo("com.obsinity.telemetry");
+
+		assertThat(placed.getEvents()).extracting(EventData::getName).containsExactly("inventory.reserve");
+		EventData step = placed.getEvents().get(0);
+		assertThat(step.getAttributes().get(AttributeKey.stringKey("sku"))).isEqualTo("A-1");
+		assertThat(step.getAttributes().get(AttributeKey.longKey("duration.nanos")))
+				.isNotNull();
+		assertThat(placed.getEvents()).isSameAs(placed.getEvents());
+
+		assertThat(spans.get(2).getStatus().getStatusCode()).isEqualTo(StatusCode.ERROR);
+	}
+
+	@Test
+	@DisplayName("Exports full batches without waiting for the delay; flush exports the tail")
+	void batching() throws Exception {
+		stage = new BatchingSpanExportStage(exporter, config(2, Duration.ofSeconds(30), 16));
+
+		for (int i = 0; i < 5; i++) assertThat(stage.offer(holder("s" + i))).isTrue();
+		assertThat(exporter.awaitSpans(4, Duration.ofSeconds(5))).isTrue();
+		assertThat(exporter.batchSizes).containsExactly(2, 2);
+
+		assertThat(stage.forceFlush(Duration.ofSeconds(5))).isTrue();
+		assertThat(exporter.batchSizes).containsExactly(2, 2, 1);
+		assertThat(stage.stats().exported()).isEqualTo(5);
+		assertThat(stage.stats().batches()).isEqualTo(3);
+	}
+
+	@Test
+	@DisplayName("Exports a partial batch once the schedule delay passes")
+	void scheduleDelay() throws Exception {
+		stage = new BatchingSpanExportStage(exporter, config(100, Duration.ofMillis(50), 200));
+
+		stage.offer(holder("late"));
+		assertThat(exporter.awaitSpans(1, Duration.ofSeconds(5))).isTrue();
+		assertThat(exporter.batchSizes).containsExactly(1);
+	}
+
+	@Test
+	@DisplayName("A full queue drops spans instead of blocking the caller")
+	void boundedQueue() throws Exception {
+		exporter.block = new CountDownLatch(1);
+		stage = new BatchingSpanExportStage(exporter, config(2, Duration.ofMillis(10), 2));
+
+		stage.offer(holder("a"));
+		stage.offer(holder("b"));
+		assertThat(exporter.entered.await(5, TimeUnit.SECONDS)).isTrue(); // worker stuck in export with a, b
+		stage.offer(holder("c"));
+		stage.offer(holder("d"));
+		assertThat(stage.offer(holder("e"))).isFalse();
+		assertThat(stage.stats().dropped()).isEqualTo(1);
+
+		exporter.block.countDown();
+		assertThat(stage.forceFlush(Duration.ofSeconds(5))).isTrue();
+		assertThat(exporter.spans()).extracting(SpanData::getName).containsExactly("a", "b", "c", "d");
+	}
+
+	@Test
+	@DisplayName("Config validates sizes and durations")
+	void configValidation() {
+		assertThatThrownBy(() -> config(0, Duration.ofSeconds(1), 1)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> config(10, Duration.ofSeconds(1), 5)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> config(1, Duration.ZERO, 1)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private static BatchingSpanExportStage.Config config(int batch, Duration delay, int queue) {
+		return new BatchingSpanExportStage.Config(batch, delay, queue, Duration.ofSeconds(5));
+	}
+
+	private static TelemetryHolder holder(String name) {
+		TelemetryHolder h =
+				TelemetryHolder.builder().name(name).serviceId("svc").build();
+		h.setEndTimestamp(h.timestamp());
+		return h;
+	}
+
+	private static Orders proxy(BatchingSpanExportStage stage) {
+		Orders target = new Orders();
+		Orders proxy = TelemetryTestStack.of(new SpanExportReceiver(stage)).proxy(target);
+		target.self = proxy;
+		return proxy;
+	}
+
+	public static class Orders {
+		Orders self;
+
+		@Flow(name = "orders.place")
+		public void place(String sku) {
+			self.reserve(sku);
+		}
+
+		@Step(name = "inventory.reserve")
+		public void reserve(@PushAttribute("sku") String sku) {}
+
+		@Flow(name = "orders.fail")
+		public void fail() {
+			throw new IllegalStateException("boom");
+		}
+	}
+
+	static final class RecordingExporter implements SpanExporter {
+		final List<SpanData> exported = new CopyOnWriteArrayList<>();
+		final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+		final CountDownLatch entered = new CountDownLatch(1);
+		volatile CountDownLatch block;
+
+		@Override
+		public CompletableResultCode export(Collection<SpanData> spans) {
+			entered.countDown();
+			CountDownLatch b = block;
+			if (b != null) {
+				try {
+					b.await(5, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			batchSizes.add(spans.size());
+			exported.addAll(spans);
+			return CompletableResultCode.ofSuccess();
+		}
+
+		List<SpanData> spans() {
+			return exported;
+		}
+
+		boolean awaitSpans(int n, Duration timeout) throws InterruptedException {
+			long deadline = System.nanoTime() + timeout.toNanos();
+			while (exported.size() < n) {
+				if (System.nanoTime() - deadline >= 0) return false;
+				TimeUnit.MILLISECONDS.sleep(2);
+			}
+			return true;
+		}
+
+		@Override
+		public CompletableResultCode flush() {
+			return CompletableResultCode.ofSuccess();
+		}
+
+		@Override
+		public CompletableResultCode shutdown() {
+			return CompletableResultCode.ofSuccess();
+		}
+	}
+}
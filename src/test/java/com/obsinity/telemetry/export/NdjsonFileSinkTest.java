@@ -0,0 +1,183 @@
+package com.obsinity.telemetry.export;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.obsinity.telemetry.annotations.Flow;
+import com.obsinity.telemetry.annotations.PushAttribute;
+import com.obsinity.telemetry.aspect.TelemetryTestStack;
+import com.obsinity.telemetry.model.TelemetryHolder;
+import com.obsinity.telemetry.receivers.TelemetryDispatchBus;
+
+@DisplayName("NdjsonFileSink: one JSON holder per line, rolled by size and age")
+class NdjsonFileSinkTest {
+
+	private static final ObjectMapper JSON = new ObjectMapper();
+
+	@TempDir
+	Path dir;
+
+	@Test
+	@DisplayName("Writes one line per holder with the model's JSON contract")
+	void writesLines() throws IOException {
+		try (NdjsonFileSink sink = new NdjsonFileSink(config(1 << 20, Duration.ofHours(1)))) {
+			assertThat(sink.append(List.of(holder("a"), holder("b")))).isTrue();
+			assertThat(sink.append(holder("c"))).isTrue();
+
+			List<String> lines = Files.readAllLines(sink.currentFile());
+			assertThat(lines).hasSize(3);
+			assertThat(lines.get(0)).isEqualTo(JSON.writeValueAsString(holder("a")));
+			assertThat(lines)
+					.extracting(l -> JSON.readTree(l).path("name").asText())
+					.containsExactly("a", "b", "c");
+			assertThat(sink.stats().written()).isEqualTo(3);
+			assertThat(sink.stats().files()).isEqualTo(1);
+			assertThat(sink.stats().bytes()).isEqualTo(Files.size(sink.currentFile()));
+		}
+	}
+
+	@Test
+	@DisplayName("Rolls before a write that would exceed maxFileBytes, never splitting a batch")
+	void rollsBySize() throws IOException {
+		int line = JSON.writeValueAsString(holder("x0")).length() + 1;
+		try (NdjsonFileSink sink = new NdjsonFileSink(config(line * 2L, Duration.ofHours(1)))) {
+			for (int i = 0; i < 5; i++) sink.append(holder("x" + i));
+			sink.append(List.of(holder("y0"), holder("y1"), holder("y2"))); // larger than a file: gets its own
+
+			assertThat(sink.stats().files()).isEqualTo(4);
+			assertThat(files()).extracting(this::lineCount).containsExactly(2L, 2L, 1L, 3L);
+		}
+	}
+
+	@Test
+	@DisplayName("Rolls once the current file is older than maxFileAge")
+	void rollsByAge() throws IOException {
+		MutableClock clock = new MutableClock();
+		try (NdjsonFileSink sink = new NdjsonFileSink(config(1 << 20, Duration.ofSeconds(10)), clock)) {
+			sink.append(holder("a"));
+			clock.advance(Duration.ofSeconds(9));
+			sink.append(holder("b"));
+			clock.advance(Duration.ofSeconds(1));
+			sink.append(holder("c"));
+
+			assertThat(files()).extracting(this::lineCount).containsExactly(2L, 1L);
+		}
+	}
+
+	@Test
+	@DisplayName("Async receiver appends each root batch; closed sinks reject appends")
+	void receiver() throws Exception {
+		NdjsonFileSink sink = new NdjsonFileSink(config(1 << 20, Duration.ofHours(1)));
+		TelemetryTestStack stack = TelemetryTestStack.of(new NdjsonExportReceiver(sink));
+		TelemetryDispatchBus bus = stack.bus;
+		Orders orders = stack.proxy(new Orders());
+
+		try {
+			orders.place("A-1");
+			orders.place("B-2");
+			assertThat(bus.asyncEngine().awaitQuiescence(Duration.ofSeconds(5))).isTrue();
+
+			List<String> lines = Files.readAllLines(sink.currentFile());
+			assertThat(lines)
+					.extracting(
+							l -> JSON.readTree(l).path("attributes").path("sku").asText())
+					.containsExactly("A-1", "B-2");
+			JsonNode first = JSON.readTree(lines.get(0));
+			assertThat(first.path("name").asText()).isEqualTo("orders.place");
+			assertThat(first.path("status").path("code").asText()).isEqualTo("OK");
+		} finally {
+			bus.destroy();
+			sink.close();
+		}
+		assertThat(sink.append(holder("late"))).isFalse();
+		assertThat(sink.stats().failed()).isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("Config validates prefix, size and age")
+	void configValidation() {
+		assertThatThrownBy(() -> new NdjsonFileSink.Config(dir, " ", 1, Duration.ofSeconds(1)))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> config(0, Duration.ofSeconds(1))).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> config(1, Duration.ZERO)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private NdjsonFileSink.Config config(long maxBytes, Duration maxAge) {
+		return new NdjsonFileSink.Config(dir, "test", maxBytes, maxAge);
+	}
+
+	/** Files in creation order (the sequence number is the last name segment). */
+	private List<Path> files() throws IOException {
+		try (Stream<Path> s = Files.list(dir)) {
+			return s.sorted((a, b) -> Long.compare(sequence(a), sequence(b))).toList();
+		}
+	}
+
+	private static long sequence(Path p) {
+		String name = p.getFileName().toString();
+		return Long.parseLong(name.substring(name.lastIndexOf('-') + 1, name.length() - ".ndjson".length()));
+	}
+
+	private long lineCount(Path p) {
+		try {
+			return Files.readAllLines(p).size();
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static TelemetryHolder holder(String name) {
+		return TelemetryHolder.builder()
+				.name(name)
+				.timestamp(Instant.ofEpochSecond(1_700_000_000L))
+				.traceId(1L, 2L)
+				.spanId(3L)
+				.serviceId("svc")
+				.build();
+	}
+
+	public static class Orders {
+		@Flow(name = "orders.place")
+		public void place(@PushAttribute("sku") String sku) {}
+	}
+
+	static final class MutableClock extends Clock {
+		private Instant now = Instant.ofEpochSecond(1_700_000_000L);
+
+		void advance(Duration d) {
+			now = now.plus(d);
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+
+		@Override
+		public Instant instant() {
+			return now;
+		}
+	}
+}
@@ -0,0 +1,308 @@
+package com.obsinity.telemetry.export;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpServer;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.exporter.internal.otlp.traces.TraceRequestMarshaler;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import com.obsinity.telemetry.annotations.EventReceiver;
+import com.obsinity.telemetry.annotations.Flow;
+import com.obsinity.telemetry.annotations.OnFlowLifecycle;
+import com.obsinity.telemetry.annotations.OnFlowNotMatched;
+import com.obsinity.telemetry.annotations.PushAttribute;
+import com.obsinity.telemetry.annotations.Step;
+import com.obsinity.telemetry.aspect.TelemetryTestStack;
+import com.obsinity.telemetry.model.Lifecycle;
+import com.obsinity.telemetry.model.OAttributes;
+import com.obsinity.telemetry.model.OEvent;
+import com.obsinity.telemetry.model.OLink;
+import com.obsinity.telemetry.model.OResource;
+import com.obsinity.telemetry.model.OStatus;
+import com.obsinity.telemetry.model.TelemetryHolder;
+
+@DisplayName("OtlpTraceEncoder: OTLP/protobuf bytes straight from frozen holders")
+class OtlpTraceEncoderTest {
+
+	private final ByteBufferPool pool = new ByteBufferPool(4, 1 << 20);
+	private final OtlpTraceEncoder encoder = new OtlpTraceEncoder(pool);
+
+	@Test
+	@DisplayName("Flows, steps and attributes of every type encode byte-for-byte like the OTEL reference marshaler")
+	void matchesReferenceForProcessorBatch() throws IOException {
+		Capture capture = new Capture();
+		Orders orders = proxy(capture);
+		orders.place("A-1", 3, 2.5d, true, List.of("x", "y"), Map.of("k", "v"));
+		orders.place("B-é中😀", 0, -1.0d, false, List.of(), Map.of());
+
+		assertThat(capture.batches).hasSize(2);
+		for (List<TelemetryHolder> batch : capture.batches)
+			assertThat(encodeBytes(batch)).isEqualTo(reference(batch));
+	}
+
+	@Test
+	@DisplayName("Links, kinds, explicit status, events and mixed resources match the reference")
+	void matchesReferenceForHandBuiltHolders() throws IOException {
+		OResource shared = OResource.shared(Map.of("service.name", "svc", "host.cores", 8L));
+		OAttributes linkAttrs = new OAttributes();
+		linkAttrs.put("link.reason", "retry");
+		OAttributes eventAttrs = new OAttributes();
+		eventAttrs.put("z", 1);
+		eventAttrs.put("a", "first");
+		eventAttrs.put("skip", null);
+
+		TelemetryHolder client = TelemetryHolder.builder()
+				.name("http.get")
+				.serviceId("svc")
+				.timestamp(Instant.ofEpochSecond(1_700_000_000L, 5))
+				.endTimestamp(Instant.ofEpochSecond(1_700_000_001L))
+				.traceId(0x0102030405060708L, 0x1112131415161718L)
+				.spanId(0x2122232425262728L)
+				.parentSpanId(0x3132333435363738L)
+				.kind(SpanKind.CLIENT)
+				.resource(shared)
+				.putAttribute("zeta", 42L)
+				.putAttribute("alpha", 1.5f)
+				.putAttribute("mixed", List.of("a", 1))
+				.putAttribute("", "no key")
+				.addEvent(new OEvent("retry", 1_700_000_000_500L, null, eventAttrs, 2, 0L))
+				.addLink(new OLink(0x0AL, 0x0BL, 0x0CL, linkAttrs))
+				.status(new OStatus(StatusCode.ERROR, "timeout"))
+				.build();
+		TelemetryHolder consumer = TelemetryHolder.builder()
+				.name("queue.take")
+				.serviceId("svc")
+				.timestamp(Instant.ofEpochSecond(1_700_000_002L))
+				.endTimestamp(Instant.ofEpochSecond(1_700_000_003L))
+				.traceId(0x0102030405060708L, 0x1112131415161718L)
+				.spanId(0x4142434445464748L)
+				.kind(SpanKind.CONSUMER)
+				.resource(new OResource(new OAttributes(Map.of("service.name", "other"))))
+				.build();
+		TelemetryHolder sameShared = TelemetryHolder.builder()
+				.name("cache.hit")
+				.serviceId("svc")
+				.timestamp(Instant.ofEpochSecond(1_700_000_004L))
+				.traceId(0x0102030405060708L, 0x1112131415161718L)
+				.spanId(0x5152535455565758L)
+				.resource(shared)
+				.build();
+
+		List<TelemetryHolder> sharedOnly = List.of(client, sameShared);
+		assertThat(encodeBytes(sharedOnly)).isEqualTo(reference(sharedOnly));
+		// Encoding again reuses the cached resource and scratch state
+		assertThat(encodeBytes(sharedOnly)).isEqualTo(reference(sharedOnly));
+
+		// The reference orders resource groups by hash; ours keeps first-seen order. Same groups, same bytes.
+		List<TelemetryHolder> mixed = List.of(client, consumer, sameShared);
+		assertThat(resourceSpans(encodeBytes(mixed)))
+				.hasSize(2)
+				.containsExactlyInAnyOrderElementsOf(resourceSpans(reference(mixed)));
+	}
+
+	@Test
+	@DisplayName("Steady-state encoding allocates less than one object per span")
+	void allocationFree() {
+		Capture capture = new Capture();
+		Orders orders = proxy(capture);
+		for (int i = 0; i < 16; i++) orders.place("SKU-" + i, i, i * 0.5d, (i & 1) == 0, List.of("x"), null);
+		List<TelemetryHolder> batch = new ArrayList<>();
+		for (List<TelemetryHolder> b : capture.batches) batch.addAll(b);
+		for (TelemetryHolder h : batch) h.freeze();
+
+		for (int i = 0; i < 2_000; i++) pool.release(encoder.encode(batch)); // warm up (JIT, pool, scratch arrays)
+
+		com.sun.management.ThreadMXBean mx = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long thread = Thread.currentThread().getId();
+		int rounds = 1_000;
+		long before = mx.getThreadAllocatedBytes(thread);
+		for (int i = 0; i < rounds; i++) pool.release(encoder.encode(batch));
+		long allocated = mx.getThreadAllocatedBytes(thread) - before;
+
+		// The smallest object is 16 bytes, so this bounds the rate below one allocation per span
+		assertThat(allocated / ((double) rounds * batch.size())).isLessThan(16d);
+	}
+
+	@Test
+	@DisplayName("Root batches are POSTed to an OTLP/HTTP collector as application/x-protobuf")
+	void postsToCollector() throws Exception {
+		HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		List<byte[]> bodies = new CopyOnWriteArrayList<>();
+		List<String> contentTypes = new CopyOnWriteArrayList<>();
+		CountDownLatch received = new CountDownLatch(1);
+		server.createContext("/v1/traces", exchange -> {
+			bodies.add(exchange.getRequestBody().readAllBytes());
+			contentTypes.add(exchange.getRequestHeaders().getFirst("Content-Type"));
+			exchange.sendResponseHeaders(200, -1);
+			exchange.close();
+			received.countDown();
+		});
+		server.start();
+		try (OtlpHttpTraceExporter exporter = new OtlpHttpTraceExporter(new OtlpHttpTraceExporter.Config(
+				URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/v1/traces"),
+				Duration.ofSeconds(5),
+				2))) {
+			Capture capture = new Capture();
+			Orders orders = proxy(capture, new OtlpExportReceiver(exporter));
+			orders.place("C-1", 1, 1.0d, true, List.of("x"), Map.of());
+
+			assertThat(received.await(5, TimeUnit.SECONDS)).isTrue();
+			assertThat(exporter.flush(Duration.ofSeconds(5))).isTrue();
+			assertThat(contentTypes).containsExactly("application/x-protobuf");
+			assertThat(bodies.get(0)).isEqualTo(reference(capture.batches.get(0)));
+			assertThat(exporter.stats().exported())
+					.isEqualTo(capture.batches.get(0).size());
+			assertThat(exporter.stats().bytes()).isEqualTo(bodies.get(0).length);
+			assertThat(exporter.stats().failed()).isZero();
+		} finally {
+			server.stop(0);
+		}
+	}
+
+	@Test
+	@DisplayName("Threads exporting at once each encode with their own encoder; every request body stays intact")
+	void concurrentExportsEncodeIndependently() throws Exception {
+		HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		List<String> bodies = new CopyOnWriteArrayList<>();
+		server.createContext("/v1/traces", exchange -> {
+			bodies.add(HexFormat.of().formatHex(exchange.getRequestBody().readAllBytes()));
+			exchange.sendResponseHeaders(200, -1);
+			exchange.close();
+		});
+		server.start();
+		Capture capture = new Capture();
+		Orders orders = proxy(capture);
+		for (int t = 0; t < 4; t++) orders.place("T-" + t, t, t, t % 2 == 0, List.of("x" + t), Map.of("k", "v" + t));
+		try (OtlpHttpTraceExporter exporter = new OtlpHttpTraceExporter(new OtlpHttpTraceExporter.Config(
+				URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/v1/traces"),
+				Duration.ofSeconds(5),
+				128))) {
+			ExecutorService threads = Executors.newFixedThreadPool(4);
+			CountDownLatch start = new CountDownLatch(1);
+			for (List<TelemetryHolder> batch : capture.batches) {
+				threads.execute(() -> {
+					try {
+						start.await();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+					for (int i = 0; i < 25; i++) exporter.export(batch);
+				});
+			}
+			start.countDown();
+			threads.shutdown();
+			assertThat(threads.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+			assertThat(exporter.flush(Duration.ofSeconds(5))).isTrue();
+
+			assertThat(exporter.stats().dropped()).isZero();
+			assertThat(bodies).hasSize(100);
+			for (List<TelemetryHolder> batch : capture.batches) {
+				String expected = HexFormat.of().formatHex(reference(batch));
+				assertThat(bodies.stream().filter(expected::equals)).hasSize(25);
+			}
+		} finally {
+			server.stop(0);
+		}
+	}
+
+	private byte[] encodeBytes(List<TelemetryHolder> batch) {
+		ByteBuffer buf = encoder.encode(batch);
+		try {
+			byte[] out = new byte[buf.remaining()];
+			buf.get(out);
+			return out;
+		} finally {
+			pool.release(buf);
+		}
+	}
+
+	private static byte[] reference(List<TelemetryHolder> batch) throws IOException {
+		List<SpanData> spans = new ArrayList<>();
+		for (TelemetryHolder h : batch) spans.add(TelemetrySpanData.of(h));
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		TraceRequestMarshaler.create(spans).writeBinaryTo(out);
+		return out.toByteArray();
+	}
+
+	/** Top-level {@code resource_spans} entries of a request, as hex strings. */
+	private static List<String> resourceSpans(byte[] request) {
+		List<String> out = new ArrayList<>();
+		ByteBuffer in = ByteBuffer.wrap(request);
+		while (in.hasRemaining()) {
+			assertThat(in.get()).isEqualTo((byte) 0x0A); // field 1, length-delimited
+			int length = 0;
+			for (int shift = 0; ; shift += 7) {
+				byte b = in.get();
+				length |= (b & 0x7F) << shift;
+				if (b >= 0) break;
+			}
+			byte[] chunk = new byte[length];
+			in.get(chunk);
+			out.add(HexFormat.of().formatHex(chunk));
+		}
+		return out;
+	}
+
+	private static Orders proxy(Object... receivers) {
+		Orders target = new Orders();
+		Orders proxy = TelemetryTestStack.of(receivers).proxy(target);
+		target.self = proxy;
+		return proxy;
+	}
+
+	/** Keeps each root batch; FLOW_FINISHED catch-all also makes steps export as child spans. */
+	@EventReceiver
+	@OnFlowLifecycle(Lifecycle.ROOT_FLOW_FINISHED)
+	public static class Capture {
+		final List<List<TelemetryHolder>> batches = new CopyOnWriteArrayList<>();
+
+		@OnFlowNotMatched
+		public void onRoot(List<TelemetryHolder> batch) {
+			batches.add(List.copyOf(batch));
+		}
+	}
+
+	public static class Orders {
+		Orders self;
+
+		@Flow(name = "orders.place")
+		public void place(
+				@PushAttribute("sku") String sku,
+				@PushAttribute("qty") int qty,
+				@PushAttribute("weight") double weight,
+				@PushAttribute("gift") boolean gift,
+				@PushAttribute("tags") List<String> tags,
+				@PushAttribute("extra") Map<String, Object> extra) {
+			self.reserve(sku);
+			self.ship(sku);
+		}
+
+		@Flow(name = "inventory.reserve")
+		public void reserve(@PushAttribute("sku") String sku) {}
+
+		@Step(name = "shipping.book")
+		public void ship(@PushAttribute("sku") String sku) {}
+	}
+}
@@ -0,0 +1,328 @@
+package com.obsinity.telemetry.export;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.sun.net.httpserver.HttpServer;
+import com.obsinity.telemetry.model.TelemetryHolder;
+
+@DisplayName("SegmentSpool: CRC-framed mmap segments with a durable read cursor")
+class SegmentSpoolTest {
+
+	private static final int SEGMENT = 4096;
+	private static final int RECORD = 1000; // four per segment
+
+	@TempDir
+	Path dir;
+
+	@Test
+	@DisplayName("peek returns the head until ack; records come back in append order")
+	void appendPeekAck() throws IOException {
+		try (SegmentSpool spool = new SegmentSpool(config(1 << 20, 64))) {
+			assertThat(spool.peek()).isNull();
+			spool.append(utf8("a"));
+			spool.append(utf8("bb"));
+			spool.append(ByteBuffer.wrap(utf8("xccx")).position(1).limit(3));
+
+			assertThat(text(spool.peek())).isEqualTo("a");
+			assertThat(text(spool.peek())).isEqualTo("a");
+			spool.ack();
+			assertThat(drain(spool)).containsExactly("bb", "cc");
+			assertThat(spool.peek()).isNull();
+			spool.ack(); // nothing pending: no-op
+
+			SegmentSpool.Stats stats = spool.stats();
+			assertThat(stats.appended()).isEqualTo(3);
+			assertThat(stats.acked()).isEqualTo(3);
+			assertThat(stats.pendingSegments()).isEqualTo(1);
+		}
+	}
+
+	@Test
+	@DisplayName("Rolls to a new segment when full and deletes segments once read")
+	void rollsAndDeletesConsumed() throws IOException {
+		try (SegmentSpool spool = new SegmentSpool(config(1 << 20, 64))) {
+			for (int i = 0; i < 10; i++) spool.append(record(i));
+			assertThat(segmentFiles()).hasSize(3);
+
+			List<Integer> seen = new ArrayList<>();
+			for (ByteBuffer r; (r = spool.peek()) != null; spool.ack()) seen.add((int) r.get(0));
+			assertThat(seen).containsExactly(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+			assertThat(segmentFiles()).hasSize(1); // only the one still being written
+		}
+	}
+
+	@Test
+	@DisplayName("Replays unacknowledged records after a restart and keeps appending to the last segment")
+	void replayAfterRestart() throws IOException {
+		try (SegmentSpool spool = new SegmentSpool(config(1 << 20, 64))) {
+			for (int i = 0; i < 6; i++) spool.append(record(i));
+			for (int i = 0; i < 2; i++) {
+				spool.peek();
+				spool.ack();
+			}
+		}
+		try (SegmentSpool spool = new SegmentSpool(config(1 << 20, 64))) {
+			spool.append(record(6));
+			List<Integer> seen = new ArrayList<>();
+			for (ByteBuffer r; (r = spool.peek()) != null; spool.ack()) seen.add((int) r.get(0));
+			assertThat(seen).containsExactly(2, 3, 4, 5, 6);
+		}
+	}
+
+	@Test
+	@DisplayName("Truncates a torn tail on open; a corrupt record skips the rest of its segment and is counted")
+	void recoversFromCorruption() throws IOException {
+		try (SegmentSpool spool = new SegmentSpool(config(1 << 20, 64))) {
+			for (int i = 0; i < 7; i++) spool.append(record(i)); // segment 0: 0..3, segment 1: 4..6
+		}
+		List<Path> files = segmentFiles();
+		corrupt(files.get(0), offsetOf(1)); // mid-spool: records 1..3 lost on read
+		corrupt(files.get(1), offsetOf(2)); // tail: record 6 truncated on open
+
+		try (SegmentSpool spool = new SegmentSpool(config(1 << 20, 64))) {
+			spool.append(record(7)); // written over the torn record
+			List<Integer> seen = new ArrayList<>();
+			for (ByteBuffer r; (r = spool.peek()) != null; spool.ack()) seen.add((int) r.get(0));
+			assertThat(seen).containsExactly(0, 4, 5, 7);
+			assertThat(spool.stats().corruptRecords()).isEqualTo(1);
+		}
+	}
+
+	@Test
+	@DisplayName("Evicts the oldest segment past maxBytes and counts its unread records")
+	void evictsOldest() throws IOException {
+		try (SegmentSpool spool = new SegmentSpool(config(2L * SEGMENT, 64))) {
+			spool.append(record(0));
+			spool.peek();
+			spool.ack(); // one of segment 0's four records already read
+			for (int i = 1; i < 9; i++) spool.append(record(i)); // opens segment 2: segment 0 goes
+
+			SegmentSpool.Stats stats = spool.stats();
+			assertThat(stats.evictedSegments()).isEqualTo(1);
+			assertThat(stats.evictedRecords()).isEqualTo(3);
+			assertThat(segmentFiles()).hasSize(2);
+			assertThat(spool.peek().get(0)).isEqualTo((byte) 4);
+		}
+	}
+
+	@Test
+	@DisplayName("Forces the mapped segment once per fsyncEveryRecords appends")
+	void batchesFsync() throws IOException {
+		try (SegmentSpool spool = new SegmentSpool(config(1 << 20, 3))) {
+			for (int i = 0; i < 7; i++) spool.append(utf8("r" + i));
+			assertThat(spool.stats().syncs()).isEqualTo(2);
+			spool.sync();
+			assertThat(spool.stats().syncs()).isEqualTo(3);
+		}
+	}
+
+	@Test
+	@DisplayName("Rejects empty and oversized records, invalid configs and use after close")
+	void validation() throws IOException {
+		SegmentSpool spool = new SegmentSpool(config(1 << 20, 64));
+		assertThatThrownBy(() -> spool.append(new byte[0])).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> spool.append(new byte[SEGMENT])).isInstanceOf(IllegalArgumentException.class);
+		spool.close();
+		assertThatThrownBy(spool::peek).isInstanceOf(IllegalStateException.class);
+
+		assertThatThrownBy(() -> new SegmentSpool.Config(dir, 1024, 1 << 20, 1, Duration.ofSeconds(1)))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> config(SEGMENT, 1)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> config(1 << 20, 0)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	@DisplayName("OTLP exporter spools rejected batches and replays them once the collector accepts requests")
+	void exporterSpoolsAndReplays() throws Exception {
+		HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		AtomicBoolean up = new AtomicBoolean(false);
+		List<byte[]> accepted = new CopyOnWriteArrayList<>();
+		server.createContext("/v1/traces", exchange -> {
+			byte[] body = exchange.getRequestBody().readAllBytes();
+			if (up.get()) accepted.add(body);
+			exchange.sendResponseHeaders(up.get() ? 200 : 503, -1);
+			exchange.close();
+		});
+		server.start();
+		try (SegmentSpool spool = new SegmentSpool(config(1 << 20, 64));
+				OtlpHttpTraceExporter exporter = new OtlpHttpTraceExporter(
+						new OtlpHttpTraceExporter.Config(
+								URI.create("http://127.0.0.1:"
+										+ server.getAddress().getPort() + "/v1/traces"),
+								Duration.ofSeconds(5),
+								2),
+						HttpClient.newHttpClient(),
+						spool)) {
+			assertThat(exporter.export(List.of(holder("first"), holder("second"))))
+					.isTrue();
+			assertThat(exporter.flush(Duration.ofSeconds(5))).isTrue();
+			assertThat(exporter.stats().spooled()).isEqualTo(2);
+			assertThat(exporter.stats().failed()).isZero();
+
+			up.set(true);
+			assertThat(exporter.export(List.of(holder("third")))).isTrue();
+			awaitReplay(exporter);
+
+			assertThat(accepted).hasSize(2);
+			assertThat(contains(accepted.get(1), "first")).isTrue();
+			assertThat(exporter.stats().exported()).isEqualTo(1);
+			assertThat(spool.peek()).isNull();
+		} finally {
+			server.stop(0);
+		}
+	}
+
+	@Test
+	@DisplayName(
+			"OTLP exporter spools only retryable failures and discards records rejected for good or out of attempts")
+	void exporterRetriesOnlyRetryableFailures() throws Exception {
+		HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		AtomicInteger status = new AtomicInteger(400);
+		server.createContext("/v1/traces", exchange -> {
+			exchange.getRequestBody().readAllBytes();
+			exchange.sendResponseHeaders(status.get(), -1);
+			exchange.close();
+		});
+		server.start();
+		try (SegmentSpool spool = new SegmentSpool(config(1 << 20, 64));
+				OtlpHttpTraceExporter exporter = new OtlpHttpTraceExporter(
+						new OtlpHttpTraceExporter.Config(
+								URI.create("http://127.0.0.1:"
+										+ server.getAddress().getPort() + "/v1/traces"),
+								Duration.ofSeconds(5),
+								2,
+								2),
+						HttpClient.newHttpClient(),
+						spool)) {
+			// 400: permanent, counted as failed and never spooled
+			exporter.export(List.of(holder("bad")));
+			assertThat(exporter.flush(Duration.ofSeconds(5))).isTrue();
+			assertThat(exporter.stats().failed()).isEqualTo(1);
+			assertThat(exporter.stats().spooled()).isZero();
+
+			// 429: spooled, then discarded by the second failed replay
+			status.set(429);
+			exporter.export(List.of(holder("busy")));
+			await(() -> exporter.stats().spooled() == 1);
+			assertThat(exporter.flush(Duration.ofSeconds(5))).isTrue(); // replay attempt 1
+			assertThat(exporter.stats().discarded()).isZero();
+			assertThat(spool.peek()).isNotNull();
+			assertThat(exporter.flush(Duration.ofSeconds(5))).isTrue(); // attempt 2 of 2
+			await(() -> exporter.stats().discarded() == 1);
+
+			// 503: spooled; a 400 on replay discards it at once
+			status.set(503);
+			exporter.export(List.of(holder("down")));
+			await(() -> exporter.stats().spooled() == 2);
+			status.set(400);
+			assertThat(exporter.flush(Duration.ofSeconds(5))).isTrue();
+			await(() -> exporter.stats().discarded() == 2);
+
+			assertThat(exporter.stats().discarded()).isEqualTo(2);
+			assertThat(exporter.stats().replayed()).isZero();
+			assertThat(spool.peek()).isNull();
+		} finally {
+			server.stop(0);
+		}
+	}
+
+	private static void await(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+		while (!condition.getAsBoolean() && System.nanoTime() < deadline) Thread.sleep(10);
+		assertThat(condition.getAsBoolean()).isTrue();
+	}
+
+	private void awaitReplay(OtlpHttpTraceExporter exporter) throws InterruptedException {
+		long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+		while (exporter.stats().replayed() < 1 && System.nanoTime() < deadline) Thread.sleep(10);
+		assertThat(exporter.flush(Duration.ofSeconds(5))).isTrue();
+		assertThat(exporter.stats().replayed()).isEqualTo(1);
+	}
+
+	private SegmentSpool.Config config(long maxBytes, int fsyncEvery) {
+		return new SegmentSpool.Config(dir, SEGMENT, maxBytes, fsyncEvery, Duration.ofHours(1));
+	}
+
+	private List<Path> segmentFiles() throws IOException {
+		try (Stream<Path> s = Files.list(dir)) {
+			return s.filter(p -> p.toString().endsWith(".seg")).sorted().toList();
+		}
+	}
+
+	/** Byte offset of the {@code index}-th {@link #record} in its segment (16-byte header, 8-byte frames). */
+	private static int offsetOf(int index) {
+		return 16 + index * (8 + RECORD);
+	}
+
+	/** Flip a payload byte of the record framed at {@code offset}. */
+	private static void corrupt(Path file, int offset) throws IOException {
+		try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			ByteBuffer b = ByteBuffer.allocate(1);
+			ch.read(b, offset + 8 + 10);
+			b.put(0, (byte) (b.get(0) ^ 0x5A)).rewind();
+			ch.write(b, offset + 8 + 10);
+		}
+	}
+
+	private static byte[] record(int i) {
+		byte[] r = new byte[RECORD];
+		Arrays.fill(r, (byte) i);
+		return r;
+	}
+
+	private static byte[] utf8(String s) {
+		return s.getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static String text(ByteBuffer b) {
+		byte[] bytes = new byte[b.remaining()];
+		b.duplicate().get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static List<String> drain(SegmentSpool spool) {
+		List<String> out = new ArrayList<>();
+		for (ByteBuffer r; (r = spool.peek()) != null; spool.ack()) out.add(text(r));
+		return out;
+	}
+
+	private static boolean contains(byte[] haystack, String needle) {
+		return new String(haystack, StandardCharsets.ISO_8859_1).contains(needle);
+	}
+
+	private static TelemetryHolder holder(String name) {
+		return TelemetryHolder.builder()
+				.name(name)
+				.timestamp(Instant.ofEpochSecond(1_700_000_000L))
+				.traceId(1L, 2L)
+				.spanId(3L)
+				.serviceId("svc")
+				.build();
+	}
+}
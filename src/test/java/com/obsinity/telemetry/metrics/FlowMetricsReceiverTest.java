@@ -0,0 +1,167 @@
+package com.obsinity.telemetry.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.obsinity.telemetry.annotations.Flow;
+import com.obsinity.telemetry.aspect.TelemetryTestStack;
+import com.obsinity.telemetry.receivers.TelemetryDispatchBus;
+
+@DisplayName("FlowMetricsReceiver: per-flow latency histograms, outcomes and throughput")
+class FlowMetricsReceiverTest {
+
+	@Test
+	@DisplayName("Buckets are contiguous and at most ~3% wide across the long range")
+	void bucketLayout() {
+		assertThat(LogLinearHistogram.bucket(0)).isZero();
+		assertThat(LogLinearHistogram.bucket(31)).isEqualTo(31);
+		assertThat(LogLinearHistogram.bucket(Long.MAX_VALUE)).isEqualTo(LogLinearHistogram.BUCKETS - 1);
+		for (int i = 1; i < LogLinearHistogram.BUCKETS; i++) {
+			assertThat(LogLinearHistogram.lowerBound(i)).isEqualTo(LogLinearHistogram.upperBound(i - 1) + 1);
+			long lower = LogLinearHistogram.lowerBound(i);
+			assertThat(LogLinearHistogram.bucket(lower)).isEqualTo(i);
+			assertThat(LogLinearHistogram.bucket(LogLinearHistogram.upperBound(i)))
+					.isEqualTo(i);
+			assertThat(LogLinearHistogram.upperBound(i) - lower).isLessThanOrEqualTo(Math.max(0, lower / 32));
+		}
+	}
+
+	@Test
+	@DisplayName("Percentiles track exact values within bucket precision")
+	void percentiles() {
+		LogLinearHistogram histogram = new LogLinearHistogram();
+		List<Long> values = new ArrayList<>();
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		for (int i = 0; i < 100_000; i++) {
+			long v = (long) Math.exp(random.nextDouble(Math.log(1_000), Math.log(5_000_000_000d)));
+			values.add(v);
+			histogram.record(v);
+		}
+		values.sort(null);
+		HistogramSnapshot snapshot = histogram.snapshot();
+		assertThat(snapshot.count()).isEqualTo(100_000);
+		for (double p : new double[] {50, 90, 99, 99.9, 100}) {
+			long exact = values.get((int) Math.ceil(p / 100 * values.size()) - 1);
+			assertThat((double) snapshot.valueAtPercentile(p)).isCloseTo(exact, within(exact / 32d + 1));
+			assertThat(snapshot.valueAtPercentile(p)).isGreaterThanOrEqualTo(exact);
+		}
+		assertThat(snapshot.mean())
+				.isCloseTo(values.stream().mapToLong(Long::longValue).average().orElseThrow(), within(1d));
+		assertThat(snapshot.max()).isGreaterThanOrEqualTo(values.get(values.size() - 1));
+		assertThatThrownBy(() -> snapshot.valueAtPercentile(0)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	@DisplayName("Interval snapshots report deltas since the previous call; cumulative keeps totals")
+	void intervals() {
+		MutableClock clock = new MutableClock();
+		FlowMetricsReceiver receiver = new FlowMetricsReceiver(10, clock);
+		for (int i = 0; i < 8; i++) receiver.record("checkout", 1_000_000L, false);
+		receiver.record("checkout", 9_000_000L, true);
+		receiver.record("checkout", 9_000_000L, true);
+		clock.advance(Duration.ofSeconds(10));
+
+		FlowSnapshot first = receiver.snapshot().get("checkout");
+		assertThat(first.successes()).isEqualTo(8);
+		assertThat(first.failures()).isEqualTo(2);
+		assertThat(first.errorRate()).isEqualTo(0.2);
+		assertThat(first.throughputPerSecond()).isEqualTo(1.0);
+		assertThat(first.latency().valueAtPercentile(50)).isBetween(1_000_000L, 1_031_250L);
+		assertThat(first.latency().valueAtPercentile(99)).isBetween(9_000_000L, 9_281_250L);
+
+		receiver.record("checkout", 2_000_000L, false);
+		clock.advance(Duration.ofSeconds(2));
+		FlowSnapshot second = receiver.snapshot().get("checkout");
+		assertThat(second.total()).isEqualTo(1);
+		assertThat(second.latency().count()).isEqualTo(1);
+		assertThat(second.latency().valueAtPercentile(99)).isBetween(2_000_000L, 2_062_500L);
+		assertThat(second.throughputPerSecond()).isEqualTo(0.5);
+
+		FlowSnapshot total = receiver.cumulative().get("checkout");
+		assertThat(total.total()).isEqualTo(11);
+		assertThat(total.interval()).isEqualTo(Duration.ofSeconds(12));
+		assertThat(receiver.snapshot().get("checkout").total()).isZero();
+	}
+
+	@Test
+	@DisplayName("Stops tracking new names past maxFlows and counts them as overflow")
+	void overflow() {
+		FlowMetricsReceiver receiver = new FlowMetricsReceiver(2);
+		receiver.record("a", 1, false);
+		receiver.record("b", 1, false);
+		receiver.record("c", 1, false);
+		receiver.record("a", 1, false);
+		assertThat(receiver.cumulative()).containsOnlyKeys("a", "b");
+		assertThat(receiver.overflow()).isEqualTo(1);
+		assertThatThrownBy(() -> new FlowMetricsReceiver(0)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	@DisplayName("Aggregates flows finished through the dispatch bus, failures included")
+	void receiver() {
+		FlowMetricsReceiver metrics = new FlowMetricsReceiver(FlowMetricsReceiver.DEFAULT_MAX_FLOWS);
+		TelemetryTestStack stack = TelemetryTestStack.of(metrics);
+		TelemetryDispatchBus bus = stack.bus;
+		Orders orders = stack.proxy(new Orders());
+
+		try {
+			orders.place(false);
+			orders.place(false);
+			orders.place(false);
+			assertThatThrownBy(() -> orders.place(true)).isInstanceOf(IllegalStateException.class);
+
+			Map<String, FlowSnapshot> snapshot = metrics.snapshot();
+			FlowSnapshot place = snapshot.get("orders.place");
+			assertThat(place.successes()).isEqualTo(3);
+			assertThat(place.failures()).isEqualTo(1);
+			assertThat(place.latency().count()).isEqualTo(4);
+			assertThat(place.latency().max()).isPositive();
+		} finally {
+			bus.destroy();
+		}
+	}
+
+	public static class Orders {
+		@Flow(name = "orders.place")
+		public void place(boolean fail) {
+			if (fail) throw new IllegalStateException("declined");
+		}
+	}
+
+	static final class MutableClock extends Clock {
+		private Instant now = Instant.ofEpochSecond(1_700_000_000L);
+
+		void advance(Duration d) {
+			now = now.plus(d);
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+
+		@Override
+		public Instant instant() {
+			return now;
+		}
+	}
+}
@@ -0,0 +1,99 @@
+package com.obsinity.telemetry.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+
+@DisplayName("CompactAttributeMap: array-backed small map behind OAttributes")
+class CompactAttributeMapTest {
+
+	@Test
+	@DisplayName("Behaves like an insertion-ordered map and re-boxes primitive slots to equal values")
+	void mapSemantics() {
+		CompactAttributeMap m = new CompactAttributeMap(16);
+		m.put("s", "x");
+		m.put("i", 2);
+		m.put("l", 3L);
+		m.put("d", 1.5d);
+		m.put("b", true);
+		m.putLong("n", 7L);
+
+		Map<String, Object> expected = new LinkedHashMap<>();
+		expected.put("s", "x");
+		expected.put("i", 2);
+		expected.put("l", 3L);
+		expected.put("d", 1.5d);
+		expected.put("b", true);
+		expected.put("n", 7L);
+		assertThat(m).isEqualTo(expected);
+		assertThat(m.hashCode()).isEqualTo(expected.hashCode());
+		assertThat(m.keySet()).containsExactly("s", "i", "l", "d", "b", "n");
+		assertThat(m.get("i")).isInstanceOf(Integer.class);
+
+		assertThat(m.put("l", "now a string")).isEqualTo(3L);
+		assertThat(m.getLong("l", -1)).isEqualTo(-1);
+		assertThat(m.getLong("i", -1)).isEqualTo(2);
+		assertThat(m.getDouble("d", 0)).isEqualTo(1.5d);
+		assertThat(m.getBoolean("b", false)).isTrue();
+
+		assertThat(m.remove("s")).isEqualTo("x");
+		Iterator<Map.Entry<String, Object>> it = m.entrySet().iterator();
+		it.next();
+		it.remove();
+		assertThat(m.keySet()).containsExactly("l", "d", "b", "n");
+		m.entrySet().iterator().next().setValue(9L);
+		assertThat(m).containsEntry("l", 9L).hasSize(4);
+	}
+
+	@Test
+	@DisplayName("Upgrades to a hash map past the threshold and keeps order and primitive access")
+	void spills() {
+		CompactAttributeMap m = new CompactAttributeMap(4);
+		for (int i = 0; i < 4; i++) m.putLong("k" + i, i);
+		assertThat(m.isSpilled()).isFalse();
+
+		m.putDouble("k4", 4.5d);
+		assertThat(m.isSpilled()).isTrue();
+		assertThat(m.keySet()).containsExactly("k0", "k1", "k2", "k3", "k4");
+		assertThat(m.getLong("k3", -1)).isEqualTo(3);
+		assertThat(m.getDouble("k4", 0)).isEqualTo(4.5d);
+
+		m.clear();
+		assertThat(m.isSpilled()).isFalse();
+		m.put("again", 1L);
+		assertThat(m).containsExactly(Map.entry("again", 1L));
+	}
+
+	@Test
+	@DisplayName("OAttributes writes primitives unboxed, exports typed OTEL keys and wraps without copying")
+	void oattributes() {
+		OAttributes a = new OAttributes();
+		a.putLong("duration.nanos", 42L);
+		a.putDouble("ratio", 0.25d);
+		a.putBoolean("ok", true);
+		a.put("qty", 2);
+		a.put("tags", List.of("a", "b"));
+
+		Attributes otel = a.toOtel();
+		assertThat(otel.get(AttributeKey.longKey("duration.nanos"))).isEqualTo(42L);
+		assertThat(otel.get(AttributeKey.doubleKey("ratio"))).isEqualTo(0.25d);
+		assertThat(otel.get(AttributeKey.booleanKey("ok"))).isTrue();
+		assertThat(otel.get(AttributeKey.longKey("qty"))).isEqualTo(2L);
+		assertThat(otel.get(AttributeKey.stringArrayKey("tags"))).containsExactly("a", "b");
+		assertThat(OAttributes.fromOtel(otel).map()).containsEntry("duration.nanos", 42L);
+
+		Map<String, Object> owned = new LinkedHashMap<>();
+		OAttributes wrapped = OAttributes.wrap(owned);
+		owned.put("late", "seen");
+		assertThat(wrapped.map()).isSameAs(owned).containsEntry("late", "seen");
+	}
+}
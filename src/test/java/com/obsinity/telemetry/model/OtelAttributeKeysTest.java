@@ -0,0 +1,63 @@
+package com.obsinity.telemetry.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+
+@DisplayName("OtelAttributeKeys: interned keys and memoized OTEL attributes")
+class OtelAttributeKeysTest {
+
+	@Test
+	@DisplayName("Keys are interned per name and type and equal to OTEL's own keys")
+	void interned() {
+		assertThat(OtelAttributeKeys.longKey("http.status")).isSameAs(OtelAttributeKeys.longKey("http.status"));
+		assertThat(OtelAttributeKeys.stringKey("http.status"))
+				.isNotSameAs(OtelAttributeKeys.longKey("http.status"))
+				.isEqualTo(AttributeKey.stringKey("http.status"));
+		assertThat(OtelAttributeKeys.stringArrayKey("tags")).isEqualTo(AttributeKey.stringArrayKey("tags"));
+	}
+
+	@Test
+	@DisplayName("Conversions reuse interned keys; mixed lists fall back to a string")
+	void conversionUsesCache() {
+		OAttributes a = new OAttributes();
+		a.put("user.id", "u-1");
+		a.put("mixed", List.of("a", 1));
+
+		Attributes otel = a.toOtel();
+		otel.forEach((k, v) -> {
+			if (k.getKey().equals("user.id")) assertThat(k).isSameAs(OtelAttributeKeys.stringKey("user.id"));
+		});
+		assertThat(otel.get(AttributeKey.stringKey("mixed"))).isEqualTo("[a, 1]");
+		assertThat(a.toOtel()).isNotSameAs(otel).isEqualTo(otel); // mutable bag: rebuilt each call
+	}
+
+	@Test
+	@DisplayName("Read-only bags and snapshot attributes memoize their OTEL form")
+	void memoized() {
+		Map<String, Object> m = new LinkedHashMap<>();
+		m.put("service.name", "orders");
+		m.put("replicas", 3L);
+		OAttributes ro = OAttributes.unmodifiable(m);
+		assertThat(ro.toOtel()).isSameAs(ro.toOtel());
+
+		OAttributes flow = new OAttributes(m);
+		TelemetrySnapshot snapshot = TelemetryHolder.builder()
+				.name("orders.place")
+				.serviceId("svc")
+				.attributes(flow)
+				.build()
+				.freeze();
+		Attributes otel = snapshot.attributes().toOtel();
+		assertThat(otel).isSameAs(snapshot.attributes().toOtel());
+		assertThat(otel.get(AttributeKey.longKey("replicas"))).isEqualTo(3L);
+	}
+}
@@ -0,0 +1,69 @@
+package com.obsinity.telemetry.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("TelemetryHolder/OLink: binary ids with lazy hex")
+class TelemetryHolderIdsTest {
+
+	private static final String TRACE = "4bf92f3577b34da6a3ce929d0e0e4736";
+	private static final String SPAN = "00f067aa0ba902b7";
+
+	@Test
+	@DisplayName("Hex ids are parsed into longs and rendered back unchanged")
+	void hexRoundTrip() {
+		TelemetryHolder h = holder().traceId(TRACE).spanId(SPAN).build();
+
+		assertThat(h.traceIdHigh()).isEqualTo(0x4bf92f3577b34da6L);
+		assertThat(h.traceIdLow()).isEqualTo(0xa3ce929d0e0e4736L);
+		assertThat(h.spanIdLong()).isEqualTo(0x00f067aa0ba902b7L);
+		assertThat(h.traceId()).isEqualTo(TRACE);
+		assertThat(h.spanId()).isEqualTo(SPAN);
+		assertThat(h.parentSpanId()).isNull();
+		assertThat(h.hasParentSpanId()).isFalse();
+	}
+
+	@Test
+	@DisplayName("Binary ids render lazily and cache the hex string")
+	void binaryIdsRenderLazily() {
+		TelemetryHolder h = holder().traceId(0x4bf92f3577b34da6L, 0xa3ce929d0e0e4736L)
+				.spanId(0x00f067aa0ba902b7L)
+				.parentSpanId(1L)
+				.build();
+
+		assertThat(h.traceId()).isEqualTo(TRACE).isSameAs(h.traceId());
+		assertThat(h.spanId()).isEqualTo(SPAN);
+		assertThat(h.parentSpanId()).isEqualTo("0000000000000001");
+		assertThat(h.hasParentSpanId()).isTrue();
+	}
+
+	@Test
+	@DisplayName("Non-canonical id strings are kept verbatim")
+	void nonCanonicalIdsKeptVerbatim() {
+		TelemetryHolder h =
+				holder().traceId("ABC").spanId("not-hex").parentSpanId("P").build();
+
+		assertThat(h.traceId()).isEqualTo("ABC");
+		assertThat(h.traceIdHigh()).isZero();
+		assertThat(h.spanId()).isEqualTo("not-hex");
+		assertThat(h.hasParentSpanId()).isTrue();
+	}
+
+	@Test
+	@DisplayName("OLink keeps binary ids and renders hex for toOtel")
+	void linkIds() {
+		OLink link = new OLink(0x4bf92f3577b34da6L, 0xa3ce929d0e0e4736L, 0x00f067aa0ba902b7L, null);
+		assertThat(link.traceId()).isEqualTo(TRACE);
+		assertThat(link.toOtel().getSpanContext().getSpanId()).isEqualTo(SPAN);
+
+		OLink parsed = new OLink(TRACE, SPAN, null);
+		assertThat(parsed.traceIdLow()).isEqualTo(0xa3ce929d0e0e4736L);
+		assertThat(parsed.spanIdLong()).isEqualTo(0x00f067aa0ba902b7L);
+	}
+
+	private static TelemetryHolder.Builder holder() {
+		return TelemetryHolder.builder().name("ids").serviceId("svc");
+	}
+}
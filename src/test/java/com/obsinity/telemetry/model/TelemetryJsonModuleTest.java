@@ -0,0 +1,131 @@
+package com.obsinity.telemetry.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+
+@DisplayName("TelemetryJsonModule: streaming serializers with the reflective output contract")
+class TelemetryJsonModuleTest {
+
+	private final ObjectMapper reflective = new ObjectMapper();
+	private final ObjectMapper streaming = new ObjectMapper().registerModule(new TelemetryJsonModule());
+
+	@Test
+	@DisplayName("A fully populated holder serializes to identical bytes")
+	void fullHolder() throws Exception {
+		OAttributes attrs = new OAttributes();
+		attrs.put("s", "text \"quoted\" é");
+		attrs.put("i", 2);
+		attrs.putLong("l", 3L);
+		attrs.putDouble("d", 1.25d);
+		attrs.putBoolean("b", true);
+		attrs.put("list", List.of("x", 1, true));
+		attrs.put("map", Map.of("k", 1));
+		attrs.put("uuid", new UUID(1L, 2L));
+		attrs.put("nothing", null);
+
+		OAttributes eventAttrs = new OAttributes();
+		eventAttrs.putLong("duration.nanos", 42L);
+		TelemetryHolder h = TelemetryHolder.builder()
+				.name("orders.place")
+				.timestamp(Instant.ofEpochSecond(1_700_000_000L, 123))
+				.timeUnixNano(1_700_000_000_000_000_123L)
+				.endTimestamp(Instant.ofEpochSecond(1_700_000_001L))
+				.traceId(0x0102030405060708L, 0x1112131415161718L)
+				.spanId(0x2122232425262728L)
+				.parentSpanId("not-hex")
+				.kind(SpanKind.SERVER)
+				.resource(OResource.shared(Map.of("service.id", "svc")))
+				.attributes(attrs)
+				.addEvent(new OEvent("inventory.reserve", 5L, 6L, eventAttrs, 1, 0L))
+				.addEvent(new OEvent("open", 7L, null, null, null, 0L))
+				.addLink(new OLink(1L, 2L, 3L, null))
+				.status(new OStatus(StatusCode.ERROR, "boom"))
+				.serviceId("svc")
+				.correlationId("corr-1")
+				.synthetic(false)
+				.build();
+
+		String json = streaming.writeValueAsString(h);
+		assertThat(json).isEqualTo(reflective.writeValueAsString(h));
+
+		JsonNode tree = reflective.readTree(json);
+		assertThat(tree.path("traceId").asText()).isEqualTo("01020304050607081112131415161718");
+		assertThat(tree.path("parentSpanId").asText()).isEqualTo("not-hex");
+		assertThat(tree.path("attributes").path("l").isIntegralNumber()).isTrue();
+		assertThat(tree.path("attributes").has("nothing")).isTrue();
+		assertThat(tree.path("events").get(1).has("endEpochNanos")).isFalse();
+		assertThat(tree.has("eventContext")).isFalse();
+		assertThat(tree.has("spanKind")).isFalse();
+	}
+
+	@Test
+	@DisplayName("Minimal holders, spilled and read-only attribute bags and bare model types match too")
+	void edgeCases() throws Exception {
+		TelemetryHolder minimal =
+				TelemetryHolder.builder().name("m").serviceId("svc").build();
+		assertThat(streaming.writeValueAsString(minimal)).isEqualTo(reflective.writeValueAsString(minimal));
+
+		OAttributes spilled = new OAttributes();
+		for (int i = 0; i < OAttributes.COMPACT_MAX + 4; i++) spilled.putLong("k" + i, i);
+		assertThat(streaming.writeValueAsString(spilled)).isEqualTo(reflective.writeValueAsString(spilled));
+
+		OAttributes readOnly = OAttributes.unmodifiable(Map.of("a", 1.5d));
+		assertThat(streaming.writeValueAsString(readOnly)).isEqualTo(reflective.writeValueAsString(readOnly));
+
+		List<Object> values = new ArrayList<>();
+		values.add(new OStatus(StatusCode.OK, null));
+		values.add(new OLink("abc", "def", null));
+		values.add(new OResource(null));
+		values.add(null);
+		assertThat(streaming.writeValueAsString(values)).isEqualTo(reflective.writeValueAsString(values));
+	}
+
+	@Test
+	@DisplayName("Instants are formatted exactly like Instant.toString()")
+	void instantFormat() {
+		List<Instant> instants = new ArrayList<>(List.of(
+				Instant.EPOCH,
+				Instant.ofEpochSecond(-1L),
+				Instant.ofEpochSecond(0L, 1_000_000),
+				Instant.ofEpochSecond(0L, 1_000),
+				Instant.ofEpochSecond(0L, 1),
+				Instant.parse("2000-02-29T23:59:59.999999999Z"),
+				Instant.parse("0000-01-01T00:00:00Z"),
+				Instant.parse("9999-12-31T23:59:59.5Z")));
+		Random random = new Random(42);
+		for (int i = 0; i < 10_000; i++) {
+			long seconds = random.nextLong(Instant.parse("0000-01-01T00:00:00Z").getEpochSecond(), 253_402_300_800L);
+			int nanos =
+					switch (i % 4) {
+						case 0 -> 0;
+						case 1 -> random.nextInt(1000) * 1_000_000;
+						case 2 -> random.nextInt(1_000_000) * 1_000;
+						default -> random.nextInt(1_000_000_000);
+					};
+			instants.add(Instant.ofEpochSecond(seconds, nanos));
+		}
+		char[] buf = new char[30];
+		for (Instant t : instants) {
+			int len = TelemetryJsonModule.formatIso(t, buf);
+			assertThat(new String(buf, 0, len)).as("%s", t).isEqualTo(t.toString());
+		}
+		assertThat(TelemetryJsonModule.formatIso(Instant.parse("+10000-01-01T00:00:00Z"), buf))
+				.isZero();
+		assertThat(TelemetryJsonModule.formatIso(Instant.parse("-0001-12-31T00:00:00Z"), buf))
+				.isZero();
+	}
+}
@@ -0,0 +1,147 @@
+package com.obsinity.telemetry.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.opentelemetry.api.trace.StatusCode;
+
+@DisplayName("TelemetryHolder.freeze(): immutable snapshots")
+class TelemetrySnapshotTest {
+
+	@Test
+	@DisplayName("Snapshot is detached from later holder mutations")
+	void detachedFromHolder() {
+		TelemetryHolder h = finishedHolder();
+		List<String> tags = new ArrayList<>(List.of("a"));
+		h.attributes().put("tags", tags);
+
+		TelemetrySnapshot s = h.freeze();
+		h.attributes().put("late", true);
+		h.eventContext().put("late", true);
+		h.events().add(new OEvent("late", 0L, null, null, 0, 0L));
+		h.setStatus(new OStatus(StatusCode.ERROR, "late"));
+		tags.add("b");
+
+		assertThat(s.attributes().containsKey("late")).isFalse();
+		assertThat(s.attributes().get("tags")).isEqualTo(List.of("a"));
+		assertThat(s.eventContext()).containsOnlyKeys("tenant");
+		assertThat(s.events()).extracting(TelemetrySnapshot.Event::name).containsExactly("step");
+		assertThat(s.status().code()).isEqualTo(StatusCode.OK);
+		assertThat(h.freeze()).isSameAs(s);
+		assertThat(h.frozen()).isSameAs(s);
+	}
+
+	@Test
+	@DisplayName(
+			"Freezing a running flow is not cached: the finish snapshot still sees end time, status and late attributes")
+	void unfinishedFreezeIsNotCached() {
+		TelemetryHolder h = finishedHolder();
+		h.setEndNanoTime(0L);
+		h.setEndTimestamp(null);
+		h.setStatus(null);
+
+		TelemetrySnapshot early = h.freeze();
+		assertThat(early.endTimestamp()).isNull();
+		assertThat(h.frozen()).isNull();
+		assertThat(h.freeze()).isNotSameAs(early);
+
+		h.attributes().put("late", true);
+		h.setStatus(new OStatus(StatusCode.OK, null));
+		h.setEndNanoTime(3_000L);
+		h.setEndTimestamp(Instant.ofEpochSecond(2));
+
+		TelemetrySnapshot finished = h.freeze();
+		assertThat(finished.endTimestamp()).isEqualTo(Instant.ofEpochSecond(2));
+		assertThat(finished.durationNanos()).isEqualTo(2_500L);
+		assertThat(finished.status().code()).isEqualTo(StatusCode.OK);
+		assertThat(finished.attributes().get("late")).isEqualTo(true);
+		assertThat(h.frozen()).isSameAs(finished);
+	}
+
+	@Test
+	@DisplayName("Attributes are array-backed and ordered; collections are unmodifiable")
+	void compactAndUnmodifiable() {
+		TelemetrySnapshot s = finishedHolder().freeze();
+
+		assertThat(s.attributes().size()).isEqualTo(2);
+		assertThat(s.attributes().key(0)).isEqualTo("order.id");
+		assertThat(s.attributes().value(1)).isEqualTo(3L);
+		assertThat(s.attributes().toMap()).containsExactly(Map.entry("order.id", "O-1"), Map.entry("items", 3L));
+		assertThat(s.events().get(0).attributes().get("phase")).isEqualTo("finish");
+
+		assertThatThrownBy(() -> s.events().clear()).isInstanceOf(UnsupportedOperationException.class);
+		assertThatThrownBy(() -> s.eventContext().put("x", 1)).isInstanceOf(UnsupportedOperationException.class);
+		assertThatThrownBy(() -> s.attributes().toMap().put("x", 1)).isInstanceOf(UnsupportedOperationException.class);
+	}
+
+	@Test
+	@DisplayName("Duration, times, ids and service id are precomputed")
+	void precomputedFields() {
+		TelemetryHolder h = finishedHolder();
+		TelemetrySnapshot s = h.freeze();
+
+		assertThat(s.durationNanos()).isEqualTo(2_500L);
+		assertThat(s.startEpochNanos()).isEqualTo(1_000_000_000L);
+		assertThat(s.endTimestamp()).isEqualTo(Instant.ofEpochSecond(2));
+		assertThat(s.traceId()).isEqualTo(h.traceId());
+		assertThat(s.spanIdLong()).isEqualTo(h.spanIdLong());
+		assertThat(s.hasParentSpanId()).isFalse();
+		assertThat(s.serviceId()).isEqualTo("svc");
+	}
+
+	@Test
+	@DisplayName("toHolder() rebuilds an equivalent, detached holder that freezes to the same snapshot")
+	void toHolderRoundTrip() {
+		TelemetryHolder h = finishedHolder();
+		TelemetrySnapshot s = h.freeze();
+
+		TelemetryHolder copy = s.toHolder();
+		assertThat(copy.isDetached()).isTrue();
+		assertThat(copy.freeze()).isSameAs(s);
+		assertThat(copy.name()).isEqualTo(h.name());
+		assertThat(copy.traceIdHigh()).isEqualTo(0x1234L);
+		assertThat(copy.spanIdLong()).isEqualTo(0x9abcL);
+		assertThat(copy.timestamp()).isEqualTo(h.timestamp());
+		assertThat(copy.endTimestamp()).isEqualTo(h.endTimestamp());
+		assertThat(copy.durationNanos()).isEqualTo(2_500L);
+		assertThat(copy.attributes().map()).isEqualTo(h.attributes().map());
+		assertThat(copy.eventContext()).isEqualTo(h.eventContext());
+		assertThat(copy.events()).extracting(OEvent::name).containsExactly("step");
+		assertThat(copy.status()).isSameAs(h.status());
+		assertThat(copy.effectiveServiceId()).isEqualTo("svc");
+
+		copy.attributes().put("mine", 1);
+		assertThat(h.attributes().map()).doesNotContainKey("mine");
+	}
+
+	private static TelemetryHolder finishedHolder() {
+		OAttributes stepAttrs = new OAttributes(new LinkedHashMap<>());
+		stepAttrs.put("phase", "finish");
+		TelemetryHolder h = TelemetryHolder.builder()
+				.name("orders.create")
+				.serviceId("svc")
+				.timestamp(Instant.ofEpochSecond(1))
+				.timeUnixNano(1_000_000_000L)
+				.traceId(0x1234L, 0x5678L)
+				.spanId(0x9abcL)
+				.putAttribute("order.id", "O-1")
+				.putAttribute("items", 3L)
+				.addEvent(new OEvent("step", 1_000_000_100L, 1_000_000_200L, stepAttrs, 0, 0L))
+				.putEventContext("tenant", "t1")
+				.status(new OStatus(StatusCode.OK, null))
+				.startNanoTime(500L)
+				.build();
+		h.setEndNanoTime(3_000L);
+		h.setEndTimestamp(Instant.ofEpochSecond(2));
+		return h;
+	}
+}
@@ -0,0 +1,272 @@
+package com.obsinity.telemetry.processor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.obsinity.telemetry.annotations.EventReceiver;
+import com.obsinity.telemetry.annotations.Flow;
+import com.obsinity.telemetry.annotations.OnFlowLifecycle;
+import com.obsinity.telemetry.annotations.OnFlowNotMatched;
+import com.obsinity.telemetry.annotations.PushAttribute;
+import com.obsinity.telemetry.annotations.Step;
+import com.obsinity.telemetry.aspect.TelemetryTestStack;
+import com.obsinity.telemetry.metrics.FlowMetricsReceiver;
+import com.obsinity.telemetry.metrics.FlowSnapshot;
+import com.obsinity.telemetry.model.Lifecycle;
+import com.obsinity.telemetry.model.TelemetryHolder;
+
+@DisplayName("HeadSampler: per-root sampling decisions with an untraced fast path")
+class HeadSamplerTest {
+
+	@Test
+	@DisplayName("Unsampled roots and everything nested run untraced; outcomes are still counted")
+	void unsampledRootIsUntraced() {
+		HeadSampler sampler = new HeadSampler(HeadSampler.Policy.never());
+		Fixture f = new Fixture(sampler);
+
+		assertThat(f.service.checkout("A-1")).isEqualTo("ok:A-1");
+		assertThatThrownBy(() -> f.service.fail()).isInstanceOf(IllegalStateException.class);
+
+		assertThat(f.recorder.seen).isEmpty();
+		assertThat(f.support.hasActiveFlow()).isFalse();
+		assertThat(f.support.inUnsampledRoot()).isFalse();
+		assertThat(f.target.contextWrites).isEqualTo(1); // TelemetryContext is a no-op without a flow
+
+		HeadSampler.Stats checkout = sampler.stats().get("checkout");
+		assertThat(checkout.unsampled()).isEqualTo(1);
+		assertThat(checkout.unsampledSuccesses()).isEqualTo(1);
+		assertThat(sampler.stats().get("fail").unsampledFailures()).isEqualTo(1);
+		assertThat(sampler.stats()).containsOnlyKeys("checkout", "fail"); // nested flows make no decisions
+	}
+
+	@Test
+	@DisplayName("Sampled roots are traced as before")
+	void sampledRootIsTraced() {
+		HeadSampler sampler = new HeadSampler(HeadSampler.Policy.always());
+		Fixture f = new Fixture(sampler);
+
+		f.service.checkout("A-1");
+
+		assertThat(f.recorder.names()).contains("checkout", "inventory.reserve");
+		assertThat(sampler.stats().get("checkout").sampled()).isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("keepingErrors emits a failed unsampled root as a lone root holder")
+	void keepsErrors() {
+		HeadSampler sampler = new HeadSampler(HeadSampler.Policy.never().keepingErrors());
+		Fixture f = new Fixture(sampler);
+
+		f.service.checkout("A-1");
+		assertThatThrownBy(() -> f.service.fail()).isInstanceOf(IllegalStateException.class);
+
+		assertThat(f.recorder.roots).hasSize(1);
+		TelemetryHolder kept = f.recorder.roots.get(0).get(0);
+		assertThat(kept.name()).isEqualTo("fail");
+		assertThat(kept.throwable()).isInstanceOf(IllegalStateException.class);
+		assertThat(kept.attributes().map()).containsEntry("sampling", "error").containsEntry("origin", "FLOW");
+		assertThat(kept.traceId()).isNotBlank();
+		assertThat(kept.durationNanos()).isPositive();
+		assertThat(f.recorder.names()).doesNotContain("checkout").containsExactly("fail"); // no FLOW_STARTED
+		assertThat(sampler.stats().get("fail").keptErrors()).isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("A kept failure is counted once when unsampled outcomes are also forwarded to metrics")
+	void keptErrorsAreNotForwarded() {
+		FlowMetricsReceiver metrics = new FlowMetricsReceiver(FlowMetricsReceiver.DEFAULT_MAX_FLOWS);
+		HeadSampler sampler =
+				new HeadSampler(HeadSampler.Policy.never().keepingErrors()).onUnsampledOutcome(metrics::record);
+		Fixture f = new Fixture(sampler, metrics);
+
+		f.service.checkout("A-1");
+		assertThatThrownBy(() -> f.service.fail()).isInstanceOf(IllegalStateException.class);
+
+		assertThat(metrics.cumulative().get("fail").failures()).isEqualTo(1);
+		assertThat(metrics.cumulative().get("checkout").successes()).isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("perSecond admits a one-second burst, then one root per interval")
+	void rateLimit() {
+		AtomicLong now = new AtomicLong(1_000L);
+		HeadSampler sampler = new HeadSampler(HeadSampler.Policy.perSecond(3), now::get);
+		HeadSampler.FlowState s = sampler.state("hot");
+
+		int sampled = 0;
+		for (int i = 0; i < 10; i++) if (sampler.sample(s)) sampled++;
+		assertThat(sampled).isEqualTo(3);
+
+		now.addAndGet(TimeUnit.MILLISECONDS.toNanos(340));
+		assertThat(sampler.sample(s)).isTrue();
+		assertThat(sampler.sample(s)).isFalse();
+
+		now.addAndGet(TimeUnit.SECONDS.toNanos(5));
+		sampled = 0;
+		for (int i = 0; i < 10; i++) if (sampler.sample(s)) sampled++;
+		assertThat(sampled).isEqualTo(3);
+		assertThat(sampler.stats().get("hot").sampled()).isEqualTo(7);
+	}
+
+	@Test
+	@DisplayName("probability samples about that fraction; per-name policies override the default")
+	void probabilityAndOverrides() {
+		HeadSampler sampler =
+				new HeadSampler(HeadSampler.Policy.probability(0.25)).policy("audit", HeadSampler.Policy.always());
+		HeadSampler.FlowState s = sampler.state("checkout");
+		int sampled = 0;
+		for (int i = 0; i < 20_000; i++) if (sampler.sample(s)) sampled++;
+		assertThat(sampled).isBetween(4_500, 5_500);
+
+		HeadSampler.FlowState audit = sampler.state("audit");
+		for (int i = 0; i < 100; i++) assertThat(sampler.sample(audit)).isTrue();
+
+		assertThatThrownBy(() -> HeadSampler.Policy.probability(1.5)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> HeadSampler.Policy.perSecond(0)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	@DisplayName("Forwarding unsampled outcomes keeps FlowMetricsReceiver totals complete")
+	void outcomeListenerKeepsTotals() {
+		FlowMetricsReceiver metrics = new FlowMetricsReceiver(FlowMetricsReceiver.DEFAULT_MAX_FLOWS);
+		HeadSampler sampler = new HeadSampler(HeadSampler.Policy.probability(0.5)).onUnsampledOutcome(metrics::record);
+		Fixture f = new Fixture(sampler, metrics);
+
+		for (int i = 0; i < 200; i++) f.service.checkout("A-" + i);
+
+		FlowSnapshot checkout = metrics.cumulative().get("checkout");
+		assertThat(checkout.successes()).isEqualTo(200);
+		HeadSampler.Stats stats = sampler.stats().get("checkout");
+		assertThat(stats.sampled() + stats.unsampled()).isEqualTo(200);
+		assertThat(stats.unsampled()).isPositive();
+	}
+
+	@Test
+	@DisplayName("Threads started inside an unsampled root stay untraced until the root exits")
+	void childThreadsInheritUnsampledRoot() throws Exception {
+		HeadSampler sampler =
+				new HeadSampler(HeadSampler.Policy.never()).policy("payment.charge", HeadSampler.Policy.always());
+		Fixture f = new Fixture(sampler);
+
+		f.service.fanout();
+		assertThat(f.recorder.seen).isEmpty(); // the child's flow ran inside the unsampled root
+
+		f.target.rootClosed.countDown();
+		f.target.late.join(TimeUnit.SECONDS.toMillis(5));
+		assertThat(f.recorder.names()).containsExactly("payment.charge", "payment.charge");
+		assertThat(sampler.stats().get("payment.charge").sampled()).isEqualTo(1);
+		assertThat(f.support.inUnsampledRoot()).isFalse();
+	}
+
+	private static final class Fixture {
+		final Recorder recorder = new Recorder();
+		final TelemetryProcessorSupport support;
+		final Service target;
+		final Service service;
+
+		Fixture(HeadSampler sampler, Object... receivers) {
+			Object[] beans = new Object[receivers.length + 2];
+			beans[0] = recorder;
+			beans[1] = recorder.rootRecorder;
+			System.arraycopy(receivers, 0, beans, 2, receivers.length);
+			TelemetryTestStack stack = TelemetryTestStack.of(beans);
+			stack.processor.setHeadSampler(sampler);
+			support = stack.support;
+
+			target = new Service(new TelemetryContext(support));
+			service = stack.proxy(target);
+			target.self = service;
+		}
+	}
+
+	public static class Service {
+		private final TelemetryContext telemetry;
+		Service self;
+		int contextWrites;
+
+		public Service(TelemetryContext telemetry) {
+			this.telemetry = telemetry;
+		}
+
+		@Flow(name = "checkout")
+		public String checkout(@PushAttribute("order.id") String orderId) {
+			self.reserve(orderId);
+			self.charge();
+			return "ok:" + orderId;
+		}
+
+		@Step(name = "inventory.reserve")
+		public void reserve(@PushAttribute("sku") String sku) {
+			telemetry.putAttr("qty", 1);
+			contextWrites++;
+		}
+
+		@Flow(name = "payment.charge")
+		public void charge() {}
+
+		final CountDownLatch rootClosed = new CountDownLatch(1);
+		Thread late;
+
+		/** Runs a flow on a child thread before returning, and starts another that runs one after the root exits. */
+		@Flow(name = "fanout")
+		public void fanout() throws InterruptedException {
+			Thread inside = new Thread(self::charge);
+			inside.start();
+			inside.join();
+			late = new Thread(() -> {
+				try {
+					rootClosed.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+				self.charge();
+			});
+			late.start();
+		}
+
+		@Flow(name = "fail")
+		public void fail() {
+			self.charge();
+			throw new IllegalStateException("declined");
+		}
+	}
+
+	@EventReceiver
+	@OnFlowLifecycle(Lifecycle.FLOW_STARTED)
+	@OnFlowLifecycle(Lifecycle.FLOW_FINISHED)
+	public static class Recorder {
+		final List<TelemetryHolder> seen = new CopyOnWriteArrayList<>();
+		final RootRecorder rootRecorder = new RootRecorder();
+		final List<List<TelemetryHolder>> roots = rootRecorder.roots;
+
+		@OnFlowNotMatched
+		public void any(TelemetryHolder holder) {
+			seen.add(holder);
+		}
+
+		List<String> names() {
+			return seen.stream().map(TelemetryHolder::name).toList();
+		}
+	}
+
+	@EventReceiver
+	@OnFlowLifecycle(Lifecycle.ROOT_FLOW_FINISHED)
+	public static class RootRecorder {
+		final List<List<TelemetryHolder>> roots = new CopyOnWriteArrayList<>();
+
+		@OnFlowNotMatched
+		public void root(List<TelemetryHolder> batch) {
+			roots.add(List.copyOf(batch));
+		}
+	}
+}
@@ -0,0 +1,278 @@
+package com.obsinity.telemetry.processor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.obsinity.telemetry.annotations.EventReceiver;
+import com.obsinity.telemetry.annotations.Flow;
+import com.obsinity.telemetry.annotations.OnFlowCompleted;
+import com.obsinity.telemetry.annotations.OnFlowLifecycle;
+import com.obsinity.telemetry.annotations.OnFlowNotMatched;
+import com.obsinity.telemetry.annotations.PushAttribute;
+import com.obsinity.telemetry.aspect.TelemetryTestStack;
+import com.obsinity.telemetry.model.Lifecycle;
+import com.obsinity.telemetry.model.TelemetryHolder;
+import com.obsinity.telemetry.receivers.AsyncDispatchEngine;
+import com.obsinity.telemetry.receivers.TelemetryDispatchBus;
+import com.obsinity.telemetry.utils.TelemetryClock;
+
+@DisplayName("TailSampler: policy decisions on finished root batches before ROOT_FLOW_FINISHED")
+class TailSamplerTest {
+
+	private static final TailSampler.Config INLINE = new TailSampler.Config(0);
+
+	@Test
+	@DisplayName("Failed and slow traces are kept, healthy ones dropped; FLOW_FINISHED still sees every flow")
+	void keepsErrorsAndSlowTraces() {
+		TailSampler sampler = new TailSampler(
+				INLINE, TailSampler.Policy.errors(), TailSampler.Policy.slowerThan(Duration.ofSeconds(2)));
+		Fixture f = new Fixture(sampler);
+
+		f.service.order("A-1", "bronze", 0L);
+		f.service.order("A-2", "bronze", TimeUnit.SECONDS.toNanos(3));
+		assertThatThrownBy(() -> f.service.fail()).isInstanceOf(IllegalStateException.class);
+
+		assertThat(f.roots.rootNames()).containsExactly("order", "fail");
+		assertThat(f.roots.batches.get(0).get(0).durationNanos()).isGreaterThan(TimeUnit.SECONDS.toNanos(2));
+		assertThat(f.roots.batches.get(1)).extracting(TelemetryHolder::name).containsExactly("fail", "payment.charge");
+		assertThat(f.finished.names).hasSize(6); // three roots, three nested charges
+
+		TailSampler.Stats stats = sampler.stats();
+		assertThat(stats.keptTraces()).isEqualTo(2);
+		assertThat(stats.droppedTraces()).isEqualTo(1);
+		assertThat(stats.keptSpans()).isEqualTo(4);
+		assertThat(stats.droppedSpans()).isEqualTo(2);
+		assertThat(stats.keptByPolicy()).containsEntry("errors", 1L).containsEntry("slow", 1L);
+	}
+
+	@Test
+	@DisplayName("Attribute matches anywhere in the batch; probability keeps about that fraction of the rest")
+	void attributeAndProbability() {
+		TailSampler sampler = new TailSampler(
+				INLINE, TailSampler.Policy.attribute("tier", "gold"), TailSampler.Policy.probability(0.25));
+		Fixture f = new Fixture(sampler);
+
+		for (int i = 0; i < 100; i++) f.service.order("G-" + i, "gold", 0L);
+		assertThat(sampler.stats().keptByPolicy()).containsEntry("attribute:tier", 100L);
+
+		for (int i = 0; i < 4_000; i++) f.service.order("B-" + i, "bronze", 0L);
+		long byProbability = sampler.stats().keptByPolicy().get("probability");
+		assertThat(byProbability).isBetween(800L, 1_200L);
+		assertThat(sampler.stats().droppedTraces()).isEqualTo(4_000 - byProbability);
+
+		assertThatThrownBy(() -> TailSampler.Policy.probability(-0.1)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> new TailSampler(INLINE)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	@DisplayName("By default the finishing thread decides, so ROOT_FLOW_FINISHED receivers keep their thread")
+	void decidesInlineByDefault() {
+		assertThat(TailSampler.Config.fromSystemProperties().bufferCapacity()).isZero();
+		TailSampler sampler =
+				new TailSampler(TailSampler.Config.fromSystemProperties(), TailSampler.Policy.probability(1.0));
+		Fixture f = new Fixture(sampler);
+
+		f.service.order("A-1", "bronze", 0L);
+		f.service.order("A-2", "bronze", 0L);
+
+		assertThat(f.roots.threads).containsOnly(Thread.currentThread().getName());
+		assertThat(sampler.stats().decidedInline()).isEqualTo(2);
+		assertThat(sampler.stats().buffered()).isZero();
+	}
+
+	@Test
+	@DisplayName("Opt-in buffer: batches are decided on the worker; when full the finishing thread decides itself")
+	void boundedBuffer() throws Exception {
+		TailSampler sampler = new TailSampler(new TailSampler.Config(2), TailSampler.Policy.probability(1.0));
+		Fixture f = new Fixture(sampler);
+		f.roots.blockWorker();
+		try {
+			f.service.order("A-1", "bronze", 0L);
+			assertThat(f.roots.workerEntered.await(5, TimeUnit.SECONDS)).isTrue();
+
+			f.service.order("A-2", "bronze", 0L);
+			f.service.order("A-3", "bronze", 0L);
+			f.service.order("A-4", "bronze", 0L); // buffer holds A-2 and A-3
+
+			assertThat(sampler.stats().buffered()).isEqualTo(2);
+			assertThat(sampler.stats().decidedInline()).isEqualTo(1);
+			assertThat(f.roots.threads).containsExactly(Thread.currentThread().getName());
+		} finally {
+			f.roots.release.countDown();
+		}
+
+		assertThat(sampler.flush(Duration.ofSeconds(5))).isTrue();
+		assertThat(sampler.stats().keptTraces()).isEqualTo(4);
+		assertThat(f.roots.threads).hasSize(4).contains("obsinity-tail-sampler");
+		sampler.close();
+
+		f.service.order("A-5", "bronze", 0L);
+		assertThat(sampler.stats().keptTraces()).isEqualTo(5);
+		assertThat(sampler.stats().decidedInline()).isEqualTo(2);
+	}
+
+	@Test
+	@DisplayName(
+			"Async receivers: dropped traces get FLOW_FINISHED but no ROOT_FLOW_FINISHED, and leave no state behind")
+	void dropsWithAsyncReceivers() {
+		TailSampler sampler = new TailSampler(INLINE, TailSampler.Policy.attribute("tier", "gold"));
+		AsyncRecorder async = new AsyncRecorder();
+		Fixture f = new Fixture(sampler, async);
+		try {
+			for (int i = 0; i < 200; i++) f.service.order("O-" + i, i % 10 == 0 ? "gold" : "bronze", 0L);
+
+			AsyncDispatchEngine engine = f.bus.asyncEngine();
+			assertThat(engine.awaitQuiescence(Duration.ofSeconds(5))).isTrue();
+			assertThat(sampler.stats().droppedTraces()).isEqualTo(180);
+			assertThat(async.finished).hasSize(400); // every root and nested charge
+			assertThat(async.roots).hasSize(20).allMatch("order"::equals);
+			// no ROOT_FINISH for the 180 dropped roots, yet their worker-queue pins are released
+			assertThat(engine.stats().queueDepths()).containsOnly(0);
+			assertThat(engine.stats().pinnedFlows()).isZero();
+		} finally {
+			f.bus.destroy();
+		}
+	}
+
+	private static final class Fixture {
+		final TestClock clock = new TestClock();
+		final FinishedRecorder finished = new FinishedRecorder();
+		final RootRecorder roots = new RootRecorder();
+		final TelemetryDispatchBus bus;
+		final Service service;
+
+		Fixture(TailSampler sampler) {
+			this(sampler, null);
+		}
+
+		Fixture(TailSampler sampler, AsyncRecorder async) {
+			TelemetryTestStack stack = async != null
+					? TelemetryTestStack.async(
+							new AsyncDispatchEngine.Config(2, 1024, 32, AsyncDispatchEngine.Backpressure.BLOCK),
+							finished,
+							roots,
+							async)
+					: TelemetryTestStack.of(finished, roots);
+			bus = stack.bus;
+			stack.processor.setClock(clock);
+			stack.processor.setTailSampler(sampler);
+
+			Service target = new Service(clock);
+			service = stack.proxy(target);
+			target.self = service;
+		}
+	}
+
+	public static class Service {
+		private final TestClock clock;
+		Service self;
+
+		public Service(TestClock clock) {
+			this.clock = clock;
+		}
+
+		@Flow(name = "order")
+		public void order(@PushAttribute("order.id") String orderId, @PushAttribute("tier") String tier, long nanos) {
+			clock.now.addAndGet(nanos);
+			self.charge();
+		}
+
+		@Flow(name = "payment.charge")
+		public void charge() {}
+
+		@Flow(name = "fail")
+		public void fail() {
+			self.charge();
+			throw new IllegalStateException("declined");
+		}
+	}
+
+	/** Monotonic time advanced only by the service; epoch nanos mirror it. */
+	static final class TestClock implements TelemetryClock {
+		final AtomicLong now = new AtomicLong(1_000L);
+
+		@Override
+		public long nanoTime() {
+			return now.incrementAndGet();
+		}
+
+		@Override
+		public long epochNanos(long nanoTime) {
+			return nanoTime;
+		}
+	}
+
+	@EventReceiver
+	@OnFlowLifecycle(Lifecycle.FLOW_FINISHED)
+	public static class FinishedRecorder {
+		final List<String> names = new CopyOnWriteArrayList<>();
+
+		@OnFlowNotMatched
+		public void finished(TelemetryHolder holder) {
+			names.add(holder.name());
+		}
+	}
+
+	@EventReceiver
+	@OnFlowLifecycle(Lifecycle.ROOT_FLOW_FINISHED)
+	public static class RootRecorder {
+		final List<List<TelemetryHolder>> batches = new CopyOnWriteArrayList<>();
+		final List<String> threads = new CopyOnWriteArrayList<>();
+		final CountDownLatch workerEntered = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		private volatile boolean blockWorker;
+
+		void blockWorker() {
+			blockWorker = true;
+		}
+
+		@OnFlowNotMatched
+		public void root(List<TelemetryHolder> batch) throws InterruptedException {
+			final String thread = Thread.currentThread().getName();
+			if (blockWorker && thread.equals("obsinity-tail-sampler") && workerEntered.getCount() > 0) {
+				workerEntered.countDown();
+				release.await(5, TimeUnit.SECONDS);
+			}
+			threads.add(thread);
+			batches.add(List.copyOf(batch));
+		}
+
+		List<String> rootNames() {
+			return batches.stream().map(b -> b.get(0).name()).toList();
+		}
+	}
+
+	@EventReceiver(async = true)
+	public static class AsyncRecorder {
+		final List<String> finished = new CopyOnWriteArrayList<>();
+		final List<String> roots = new CopyOnWriteArrayList<>();
+
+		@OnFlowCompleted("order")
+		@OnFlowLifecycle(Lifecycle.FLOW_FINISHED)
+		public void finishedOrder(TelemetryHolder holder) {
+			finished.add(holder.name());
+		}
+
+		@OnFlowCompleted("payment.charge")
+		@OnFlowLifecycle(Lifecycle.FLOW_FINISHED)
+		public void finishedCharge(TelemetryHolder holder) {
+			finished.add(holder.name());
+		}
+
+		@OnFlowCompleted("order")
+		@OnFlowLifecycle(Lifecycle.ROOT_FLOW_FINISHED)
+		public void root(List<TelemetryHolder> batch) {
+			roots.add(batch.get(0).name());
+		}
+	}
+}
@@ -0,0 +1,106 @@
+package com.obsinity.telemetry.processor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.obsinity.telemetry.annotations.EventReceiver;
+import com.obsinity.telemetry.annotations.Flow;
+import com.obsinity.telemetry.annotations.OnAllLifecycles;
+import com.obsinity.telemetry.annotations.OnFlowNotMatched;
+import com.obsinity.telemetry.annotations.Step;
+import com.obsinity.telemetry.aspect.TelemetryTestStack;
+import com.obsinity.telemetry.model.Lifecycle;
+import com.obsinity.telemetry.model.OEvent;
+import com.obsinity.telemetry.model.TelemetryHolder;
+import com.obsinity.telemetry.utils.TelemetryClock;
+
+@DisplayName("TelemetryProcessor: TelemetryClock drives all timestamps")
+class TelemetryProcessorClockTest {
+
+	/** Epoch anchor: 2025-01-01T00:00:00Z. */
+	private static final long ANCHOR_EPOCH_NANOS = 1_735_689_600_000_000_000L;
+
+	private ManualClock clock;
+	private Recorder recorder;
+	private Service service;
+
+	@BeforeEach
+	void setUp() {
+		clock = new ManualClock();
+		recorder = new Recorder();
+
+		TelemetryTestStack stack = TelemetryTestStack.of(recorder);
+		stack.processor.setClock(clock);
+
+		Service target = new Service();
+		service = stack.proxy(target);
+		target.self = service;
+	}
+
+	@Test
+	@DisplayName("Root flow records monotonic start/end and epoch times derived from the anchor")
+	void rootFlowDuration() {
+		service.flow();
+
+		TelemetryHolder root =
+				recorder.finished.stream().filter(h -> !h.isStep()).findFirst().orElseThrow();
+
+		// Reads: flow open (t=100), step open (t=200), step end (t=300), flow end (t=400)
+		assertThat(root.getStartNanoTime()).isEqualTo(100L);
+		assertThat(root.getEndNanoTime()).isEqualTo(400L);
+		assertThat(root.durationNanos()).isEqualTo(300L);
+		assertThat(root.timeUnixNano()).isEqualTo(ANCHOR_EPOCH_NANOS + 100L);
+		assertThat(root.timestamp()).isEqualTo(TelemetryClock.toInstant(ANCHOR_EPOCH_NANOS + 100L));
+		assertThat(root.endTimestamp()).isEqualTo(TelemetryClock.toInstant(ANCHOR_EPOCH_NANOS + 400L));
+
+		OEvent step = root.events().get(0);
+		assertThat(step.epochNanos()).isEqualTo(ANCHOR_EPOCH_NANOS + 200L);
+		assertThat(step.endEpochNanos()).isEqualTo(ANCHOR_EPOCH_NANOS + 300L);
+		assertThat(step.attributes().map()).containsEntry("duration.nanos", 100L);
+	}
+
+	/** Deterministic clock: every read advances by 100ns. */
+	static final class ManualClock implements TelemetryClock {
+		private long now;
+
+		@Override
+		public long nanoTime() {
+			now += 100L;
+			return now;
+		}
+
+		@Override
+		public long epochNanos(long nanoTime) {
+			return ANCHOR_EPOCH_NANOS + nanoTime;
+		}
+	}
+
+	public static class Service {
+		Service self;
+
+		@Flow(name = "clock.flow")
+		public void flow() {
+			self.step();
+		}
+
+		@Step(name = "clock.step")
+		public void step() {}
+	}
+
+	@EventReceiver
+	@OnAllLifecycles
+	public static class Recorder {
+		final List<TelemetryHolder> finished = new CopyOnWriteArrayList<>();
+
+		@OnFlowNotMatched
+		public void any(TelemetryHolder holder, Lifecycle phase) {
+			if (phase == Lifecycle.FLOW_FINISHED) finished.add(holder);
+		}
+	}
+}
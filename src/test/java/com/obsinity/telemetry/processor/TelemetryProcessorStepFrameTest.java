@@ -0,0 +1,162 @@
+package com.obsinity.telemetry.processor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.obsinity.telemetry.annotations.EventReceiver;
+import com.obsinity.telemetry.annotations.Flow;
+import com.obsinity.telemetry.annotations.OnFlowLifecycle;
+import com.obsinity.telemetry.annotations.OnFlowNotMatched;
+import com.obsinity.telemetry.annotations.OnFlowSuccess;
+import com.obsinity.telemetry.annotations.PushAttribute;
+import com.obsinity.telemetry.annotations.Step;
+import com.obsinity.telemetry.aspect.TelemetryTestStack;
+import com.obsinity.telemetry.metrics.FlowMetricsReceiver;
+import com.obsinity.telemetry.model.Lifecycle;
+import com.obsinity.telemetry.model.OEvent;
+import com.obsinity.telemetry.model.TelemetryHolder;
+import com.obsinity.telemetry.receivers.TelemetryDispatchBus;
+
+@DisplayName("TelemetryProcessor: nested steps use lean frames unless a handler needs a holder")
+class TelemetryProcessorStepFrameTest {
+
+	private Recorder recorder;
+	private TelemetryDispatchBus bus;
+	private Service service;
+
+	@BeforeEach
+	void setUp() {
+		recorder = new Recorder();
+		wire(recorder);
+	}
+
+	private void wire(Object... receivers) {
+		TelemetryTestStack stack = TelemetryTestStack.of(receivers);
+		bus = stack.bus;
+
+		Service target = new Service(new TelemetryContext(stack.support));
+		service = stack.proxy(target);
+		target.self = service;
+	}
+
+	@Test
+	@DisplayName("Unhandled step is folded from its frame; pushed attributes and context are kept")
+	void leanStepFolds() {
+		service.checkout();
+
+		assertThat(recorder.finished).extracting(TelemetryHolder::name).containsExactly("payment.charge", "checkout");
+		TelemetryHolder root = recorder.finished.get(1);
+		assertThat(root.events()).extracting(OEvent::name).containsExactly("inventory.reserve", "payment.charge");
+
+		OEvent lean = root.events().get(0);
+		assertThat(lean.attributes().map())
+				.containsEntry("sku", "A-1")
+				.containsEntry("qty", 2)
+				.containsEntry("origin", "FLOW_STEP")
+				.containsEntry("result", "success")
+				.containsKey("duration.nanos");
+		assertThat(lean.eventContext()).containsEntry("cart", "c-9");
+	}
+
+	@Test
+	@DisplayName("Step with a matching FLOW_FINISHED handler is materialised as a step holder under the flow")
+	void handledStepMaterialises() {
+		service.checkout();
+
+		TelemetryHolder hot = recorder.finished.get(0);
+		TelemetryHolder root = recorder.finished.get(1);
+		assertThat(hot.isStep()).isTrue();
+		assertThat(hot.traceId()).isEqualTo(root.traceId());
+		assertThat(hot.parentSpanId()).isEqualTo(root.spanId());
+		assertThat(hot.attributes().map()).containsEntry("tier", "gold").containsEntry("step.name", "payment.charge");
+		assertThat(hot.eventContext()).containsEntry("hot", true);
+		assertThat(hot.durationNanos()).isPositive();
+	}
+
+	@Test
+	@DisplayName("Catch-all receivers that opt out of steps see flows only and leave unhandled steps lean")
+	void stepOptOutKeepsStepsLean() {
+		FlowMetricsReceiver flowsOnly = new FlowMetricsReceiver(100, false);
+		FlowsOnlyReceiver catchAll = new FlowsOnlyReceiver();
+		wire(recorder, flowsOnly, catchAll);
+
+		assertThat(bus.hasStepInterest(Lifecycle.FLOW_FINISHED, "inventory.reserve"))
+				.isFalse();
+		assertThat(bus.hasStepInterest(Lifecycle.FLOW_FINISHED, "payment.charge"))
+				.isTrue();
+		assertThat(bus.hasInterest(Lifecycle.FLOW_FINISHED, "inventory.reserve"))
+				.isTrue();
+
+		service.checkout();
+		assertThat(flowsOnly.cumulative()).containsOnlyKeys("checkout");
+		assertThat(catchAll.names).containsExactly("checkout"); // not the materialized payment.charge step
+		assertThat(recorder.finished).extracting(TelemetryHolder::name).containsExactly("payment.charge", "checkout");
+
+		// Default: metrics include steps, so every step is materialized for them
+		FlowMetricsReceiver withSteps = new FlowMetricsReceiver(100);
+		wire(withSteps);
+		assertThat(bus.hasStepInterest(Lifecycle.FLOW_FINISHED, "inventory.reserve"))
+				.isTrue();
+		service.checkout();
+		assertThat(withSteps.cumulative()).containsOnlyKeys("checkout", "inventory.reserve", "payment.charge");
+	}
+
+	public static class Service {
+		private final TelemetryContext telemetry;
+		Service self;
+
+		public Service(TelemetryContext telemetry) {
+			this.telemetry = telemetry;
+		}
+
+		@Flow(name = "checkout")
+		public void checkout() {
+			self.lean("A-1");
+			self.hot("gold");
+		}
+
+		@Step(name = "inventory.reserve")
+		public void lean(@PushAttribute("sku") String sku) {
+			telemetry.putAttr("qty", 2);
+			telemetry.putContext("cart", "c-9");
+		}
+
+		@Step(name = "payment.charge")
+		public void hot(@PushAttribute("tier") String tier) {
+			telemetry.putContext("hot", true);
+		}
+	}
+
+	@EventReceiver
+	@OnFlowLifecycle(Lifecycle.FLOW_FINISHED)
+	public static class Recorder {
+		final List<TelemetryHolder> finished = new CopyOnWriteArrayList<>();
+
+		@OnFlowSuccess("checkout")
+		public void flow(TelemetryHolder holder) {
+			finished.add(holder);
+		}
+
+		@OnFlowSuccess("payment.charge")
+		public void hot(TelemetryHolder holder) {
+			finished.add(holder);
+		}
+	}
+
+	@EventReceiver(steps = false)
+	@OnFlowLifecycle(Lifecycle.FLOW_FINISHED)
+	public static class FlowsOnlyReceiver {
+		final List<String> names = new CopyOnWriteArrayList<>();
+
+		@OnFlowNotMatched
+		public void any(TelemetryHolder holder) {
+			names.add(holder.name());
+		}
+	}
+}
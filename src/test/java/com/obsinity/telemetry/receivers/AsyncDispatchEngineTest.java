@@ -0,0 +1,406 @@
+package com.obsinity.telemetry.receivers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import com.obsinity.telemetry.annotations.EventReceiver;
+import com.obsinity.telemetry.annotations.OnFlowCompleted;
+import com.obsinity.telemetry.annotations.OnFlowLifecycle;
+import com.obsinity.telemetry.annotations.OnFlowStarted;
+import com.obsinity.telemetry.annotations.OnFlowSuccess;
+import com.obsinity.telemetry.dispatch.TelemetryEventHandlerScanner;
+import com.obsinity.telemetry.model.Lifecycle;
+import com.obsinity.telemetry.model.TelemetryHolder;
+import com.obsinity.telemetry.processor.TelemetryProcessorSupport;
+import com.obsinity.telemetry.utils.TelemetryIdGenerator;
+
+@DisplayName("AsyncDispatchEngine: multi-queue delivery with per-flow affinity")
+class AsyncDispatchEngineTest {
+
+	private final List<AutoCloseable> toClose = new ArrayList<>();
+
+	@AfterEach
+	void tearDown() throws Exception {
+		for (AutoCloseable c : toClose) c.close();
+	}
+
+	@Test
+	@DisplayName("Signals of one root flow stay on one worker, in submission order")
+	void perFlowFifo() {
+		Map<String, List<String>> seenByFlow = new ConcurrentHashMap<>();
+		Map<String, String> threadByFlow = new ConcurrentHashMap<>();
+		List<String> affinityViolations = new CopyOnWriteArrayList<>();
+		AsyncDispatchEngine engine = engine(config(3, 64, AsyncDispatchEngine.Backpressure.BLOCK), s -> {
+			String flow = s.rootFlowId();
+			String previous =
+					threadByFlow.putIfAbsent(flow, Thread.currentThread().getName());
+			if (previous != null && !previous.equals(Thread.currentThread().getName())) affinityViolations.add(flow);
+			seenByFlow
+					.computeIfAbsent(flow, k -> new CopyOnWriteArrayList<>())
+					.add(s.holder().name());
+		});
+
+		List<TelemetryHolder> flows = new ArrayList<>();
+		for (int f = 0; f < 6; f++) flows.add(holder("flow" + f));
+		for (int step = 0; step < 20; step++) {
+			for (TelemetryHolder h : flows) engine.submit(TelemetrySignal.finish(holder(h, "s" + step)));
+		}
+
+		assertThat(engine.awaitQuiescence(Duration.ofSeconds(5))).isTrue();
+		assertThat(affinityViolations).isEmpty();
+		for (TelemetryHolder h : flows) {
+			List<String> expected = new ArrayList<>();
+			for (int step = 0; step < 20; step++) expected.add("s" + step);
+			assertThat(seenByFlow.get(h.traceId())).containsExactlyElementsOf(expected);
+		}
+		assertThat(engine.stats().submitted()).isEqualTo(120);
+	}
+
+	@Test
+	@DisplayName("Unpinned, affinity is a hash of the binary trace id: START, FINISH and ROOT_FINISH share one worker")
+	void affinityByTraceIdBits() {
+		Map<String, List<String>> threadsByFlow = new ConcurrentHashMap<>();
+		AsyncDispatchEngine engine = engine(config(4, 64, AsyncDispatchEngine.Backpressure.BLOCK), s -> threadsByFlow
+				.computeIfAbsent(s.rootFlowId(), k -> new CopyOnWriteArrayList<>())
+				.add(Thread.currentThread().getName()));
+
+		for (int f = 0; f < 16; f++) {
+			TelemetryHolder root = holder("root" + f);
+			TelemetryHolder child = holder(root, "child");
+			assertThat(TelemetrySignal.start(child).rootFlowKey())
+					.isEqualTo(TelemetrySignal.rootFinish(List.of(root)).rootFlowKey());
+			engine.submit(TelemetrySignal.start(root));
+			engine.submit(TelemetrySignal.finish(child));
+			engine.submit(TelemetrySignal.rootFinish(List.of(root, child)));
+		}
+
+		assertThat(engine.awaitQuiescence(Duration.ofSeconds(5))).isTrue();
+		assertThat(threadsByFlow).hasSize(16);
+		threadsByFlow.values().forEach(threads -> assertThat(threads).hasSize(3).containsOnly(threads.get(0)));
+	}
+
+	@Test
+	@DisplayName("Roots are pinned to the least-loaded queue, so new flows do not wait behind a blocked worker")
+	void pinsToLeastLoadedQueue() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		CountDownLatch othersDone = new CountDownLatch(4);
+		Map<String, String> threadByFlow = new ConcurrentHashMap<>();
+		TelemetryHolder busy = holder("busy");
+		AsyncDispatchEngine engine = engine(config(2, 64, AsyncDispatchEngine.Backpressure.BLOCK), s -> {
+			if (s.rootFlowId().equals(busy.traceId())) await(release);
+			else if (s.stage == TelemetrySignal.Stage.ROOT_FINISH) othersDone.countDown();
+			threadByFlow.putIfAbsent(s.rootFlowId(), Thread.currentThread().getName());
+		});
+
+		engine.pin(busy);
+		for (int i = 0; i < 20; i++) engine.submit(TelemetrySignal.finish(holder(busy, "b" + i)));
+		List<TelemetryHolder> others = new ArrayList<>();
+		for (int f = 0; f < 4; f++) {
+			TelemetryHolder root = holder("other" + f);
+			others.add(root);
+			engine.pin(root);
+			engine.submit(TelemetrySignal.start(root));
+			engine.submit(TelemetrySignal.rootFinish(List.of(root)));
+		}
+
+		assertThat(othersDone.await(5, TimeUnit.SECONDS)).isTrue(); // while the busy worker is still blocked
+		for (TelemetryHolder root : others)
+			assertThat(threadByFlow.get(root.traceId())).isEqualTo("obsinity-dispatch-1");
+		assertThat(engine.stats().pinnedFlows()).isEqualTo(1); // ROOT_FINISH released the others
+
+		engine.release(busy);
+		release.countDown();
+		assertThat(engine.awaitQuiescence(Duration.ofSeconds(5))).isTrue();
+		assertThat(threadByFlow.get(busy.traceId())).isEqualTo("obsinity-dispatch-0");
+		assertThat(engine.stats().pinnedFlows()).isZero();
+	}
+
+	@Test
+	@DisplayName("The pin table is bounded; flows started while it is full are hashed and counted")
+	void pinsAreBounded() {
+		AsyncDispatchEngine engine =
+				engine(new AsyncDispatchEngine.Config(2, 64, 16, AsyncDispatchEngine.Backpressure.BLOCK, 1), s -> {});
+
+		engine.pin(holder("a"));
+		engine.pin(holder("b"));
+
+		assertThat(engine.stats().pinnedFlows()).isEqualTo(1);
+		assertThat(engine.stats().unpinnedFlows()).isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("DROP_NEWEST rejects signals when the worker queue is full")
+	void dropNewest() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		List<String> delivered = new CopyOnWriteArrayList<>();
+		AsyncDispatchEngine engine = engine(config(1, 1, AsyncDispatchEngine.Backpressure.DROP_NEWEST), s -> {
+			started.countDown();
+			await(release);
+			delivered.add(s.holder().name());
+		});
+		TelemetryHolder flow = holder("f");
+
+		engine.submit(TelemetrySignal.finish(holder(flow, "a")));
+		assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(engine.submit(TelemetrySignal.finish(holder(flow, "b")))).isTrue();
+		assertThat(engine.submit(TelemetrySignal.finish(holder(flow, "c")))).isFalse();
+		release.countDown();
+
+		assertThat(engine.awaitQuiescence(Duration.ofSeconds(5))).isTrue();
+		assertThat(delivered).containsExactly("a", "b");
+		assertThat(engine.stats().droppedNewest()).isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("DROP_OLDEST evicts the oldest queued signal to admit the newest")
+	void dropOldest() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		List<String> delivered = new CopyOnWriteArrayList<>();
+		AsyncDispatchEngine engine = engine(config(1, 1, AsyncDispatchEngine.Backpressure.DROP_OLDEST), s -> {
+			started.countDown();
+			await(release);
+			delivered.add(s.holder().name());
+		});
+		TelemetryHolder flow = holder("f");
+
+		engine.submit(TelemetrySignal.finish(holder(flow, "a")));
+		assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+		engine.submit(TelemetrySignal.finish(holder(flow, "b")));
+		assertThat(engine.submit(TelemetrySignal.finish(holder(flow, "c")))).isTrue();
+		release.countDown();
+
+		assertThat(engine.awaitQuiescence(Duration.ofSeconds(5))).isTrue();
+		assertThat(delivered).containsExactly("a", "c");
+		assertThat(engine.stats().droppedOldest()).isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("Bus delivers async receivers on worker threads, including the root batch")
+	void busDeliversAsyncReceivers() {
+		StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+		AsyncReceiver async = new AsyncReceiver();
+		InlineReceiver inline = new InlineReceiver();
+		beanFactory.addBean("async", async);
+		beanFactory.addBean("inline", inline);
+		TelemetryDispatchBus bus = new TelemetryDispatchBus(
+				new TelemetryEventHandlerScanner(beanFactory, new TelemetryProcessorSupport()).handlerGroups(),
+				config(2, 64, AsyncDispatchEngine.Backpressure.BLOCK));
+		toClose.add(bus::destroy);
+
+		TelemetryHolder root = holder("orders.create");
+		bus.flowFinished(root);
+		bus.rootFlowFinished(List.of(root));
+
+		assertThat(inline.threads).containsExactly(Thread.currentThread().getName());
+		assertThat(bus.asyncEngine().awaitQuiescence(Duration.ofSeconds(5))).isTrue();
+		assertThat(async.events).containsExactly("FLOW_FINISHED:orders.create", "ROOT_FLOW_FINISHED:1");
+		assertThat(async.threads).allSatisfy(t -> assertThat(t).startsWith("obsinity-dispatch-"));
+	}
+
+	@Test
+	@DisplayName("Async FLOW_FINISHED handlers get a detached copy, unaffected by later writes to the live holder")
+	void asyncFinishIsDetached() {
+		StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+		AsyncReceiver async = new AsyncReceiver();
+		beanFactory.addBean("async", async);
+		TelemetryDispatchBus bus = new TelemetryDispatchBus(
+				new TelemetryEventHandlerScanner(beanFactory, new TelemetryProcessorSupport()).handlerGroups(),
+				config(1, 64, AsyncDispatchEngine.Backpressure.BLOCK));
+		toClose.add(bus::destroy);
+
+		TelemetryHolder root = holder("orders.create");
+		root.attributes().put("order.id", "O-1");
+		root.setEndNanoTime(42L);
+		bus.flowFinished(root);
+		root.attributes().put("late", true);
+		root.eventContext().put("late", true);
+
+		assertThat(bus.asyncEngine().awaitQuiescence(Duration.ofSeconds(5))).isTrue();
+		TelemetryHolder seen = async.holders.get(0);
+		assertThat(seen).isNotSameAs(root);
+		assertThat(seen.isDetached()).isTrue();
+		assertThat(seen.traceId()).isEqualTo(root.traceId());
+		assertThat(seen.attributes().map()).containsOnlyKeys("order.id");
+		assertThat(seen.eventContext()).isEmpty();
+		assertThat(seen.freeze()).isSameAs(root.frozen());
+	}
+
+	@Test
+	@DisplayName("Async FLOW_STARTED handlers see the START state, not attributes written while the flow runs")
+	void asyncStartIsSnapshotted() {
+		StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+		StartReceiver async = new StartReceiver();
+		beanFactory.addBean("async", async);
+		TelemetryDispatchBus bus = new TelemetryDispatchBus(
+				new TelemetryEventHandlerScanner(beanFactory, new TelemetryProcessorSupport()).handlerGroups(),
+				config(1, 64, AsyncDispatchEngine.Backpressure.BLOCK));
+		toClose.add(bus::destroy);
+
+		TelemetryHolder root = holder("orders.create");
+		root.attributes().put("order.id", "O-1");
+		bus.flowStarted(root);
+		root.attributes().put("written.later", true);
+
+		assertThat(bus.asyncEngine().awaitQuiescence(Duration.ofSeconds(5))).isTrue();
+		TelemetryHolder seen = async.holders.get(0);
+		assertThat(seen).isNotSameAs(root);
+		assertThat(seen.attributes().map()).containsOnlyKeys("order.id");
+		assertThat(seen.endTimestamp()).isNull();
+		assertThat(root.frozen()).isNull(); // the START snapshot is not cached on the live holder
+	}
+
+	@Test
+	@DisplayName(
+			"An event matched by an inline receiver is not reported as unmatched by the async table, and vice versa")
+	void unmatchedIsDecidedAcrossTables() {
+		StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+		beanFactory.addBean("inline", new InlineReceiver());
+		beanFactory.addBean("otherAsync", new OtherAsyncReceiver());
+		TelemetryDispatchBus bus = new TelemetryDispatchBus(
+				new TelemetryEventHandlerScanner(beanFactory, new TelemetryProcessorSupport()).handlerGroups(),
+				config(1, 64, AsyncDispatchEngine.Backpressure.BLOCK));
+		toClose.add(bus::destroy);
+		bus.trace().setEnabled(true);
+
+		bus.flowFinished(holder("orders.create")); // inline only
+		bus.flowFinished(holder("payments.charge")); // async only
+		assertThat(bus.asyncEngine().awaitQuiescence(Duration.ofSeconds(5))).isTrue();
+
+		assertThat(bus.trace().snapshot())
+				.extracting(e -> e.eventName() + ":" + e.outcome())
+				.containsExactlyInAnyOrder(
+						"orders.create:matched",
+						"orders.create:matched-elsewhere",
+						"payments.charge:matched-elsewhere",
+						"payments.charge:matched");
+	}
+
+	@Test
+	@DisplayName("The bus snapshots and queues only events an async receiver can handle, and releases unused pins")
+	void busSubmitsOnlyHandledEvents() {
+		StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+		beanFactory.addBean("otherAsync", new OtherAsyncReceiver());
+		TelemetryDispatchBus bus = new TelemetryDispatchBus(
+				new TelemetryEventHandlerScanner(beanFactory, new TelemetryProcessorSupport()).handlerGroups(),
+				config(2, 64, AsyncDispatchEngine.Backpressure.BLOCK));
+		toClose.add(bus::destroy);
+
+		TelemetryHolder orders = holder("orders.create");
+		bus.flowStarted(orders);
+		bus.flowFinished(orders);
+		assertThat(bus.asyncEngine().stats().pinnedFlows()).isEqualTo(1);
+		bus.rootFlowFinished(List.of(orders));
+		assertThat(bus.asyncEngine().stats().submitted()).isZero();
+		assertThat(bus.asyncEngine().stats().pinnedFlows()).isZero();
+
+		TelemetryHolder payments = holder("payments.charge");
+		bus.flowStarted(payments);
+		bus.flowFinished(payments);
+		bus.rootFlowDropped(List.of(payments));
+		assertThat(bus.asyncEngine().stats().submitted()).isEqualTo(1);
+		assertThat(bus.asyncEngine().stats().pinnedFlows()).isZero();
+	}
+
+	private AsyncDispatchEngine engine(AsyncDispatchEngine.Config config, Consumer<TelemetrySignal> sink) {
+		AsyncDispatchEngine engine = new AsyncDispatchEngine(config, sink);
+		toClose.add(engine);
+		return engine;
+	}
+
+	private static AsyncDispatchEngine.Config config(
+			int workers, int capacity, AsyncDispatchEngine.Backpressure backpressure) {
+		return new AsyncDispatchEngine.Config(workers, capacity, 16, backpressure);
+	}
+
+	private static TelemetryHolder holder(String name) {
+		return TelemetryHolder.builder()
+				.name(name)
+				.serviceId("svc")
+				.traceId(TelemetryIdGenerator.newTraceId())
+				.build();
+	}
+
+	/** Same trace as {@code root}, different name. */
+	private static TelemetryHolder holder(TelemetryHolder root, String name) {
+		return TelemetryHolder.builder()
+				.name(name)
+				.serviceId("svc")
+				.traceId(root.traceId())
+				.build();
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	@EventReceiver(async = true)
+	public static class AsyncReceiver {
+		final List<String> events = new CopyOnWriteArrayList<>();
+		final List<String> threads = new CopyOnWriteArrayList<>();
+		final List<TelemetryHolder> holders = new CopyOnWriteArrayList<>();
+
+		@OnFlowSuccess("orders.create")
+		@OnFlowLifecycle(Lifecycle.FLOW_FINISHED)
+		public void onFinished(TelemetryHolder holder, Lifecycle phase) {
+			holders.add(holder);
+			events.add(phase + ":" + holder.name());
+			threads.add(Thread.currentThread().getName());
+		}
+
+		@OnFlowCompleted("orders.create")
+		@OnFlowLifecycle(Lifecycle.ROOT_FLOW_FINISHED)
+		public void onRoot(List<TelemetryHolder> batch) {
+			events.add("ROOT_FLOW_FINISHED:" + batch.size());
+			threads.add(Thread.currentThread().getName());
+		}
+	}
+
+	@EventReceiver(async = true)
+	@OnFlowLifecycle(Lifecycle.FLOW_STARTED)
+	public static class StartReceiver {
+		final List<TelemetryHolder> holders = new CopyOnWriteArrayList<>();
+
+		@OnFlowStarted("orders.create")
+		public void onStarted(TelemetryHolder holder) {
+			holders.add(holder);
+		}
+	}
+
+	@EventReceiver(async = true)
+	@OnFlowLifecycle(Lifecycle.FLOW_FINISHED)
+	public static class OtherAsyncReceiver {
+		@OnFlowSuccess("payments.charge")
+		public void onFinished(TelemetryHolder holder) {}
+	}
+
+	@EventReceiver
+	@OnFlowLifecycle(Lifecycle.FLOW_FINISHED)
+	public static class InlineReceiver {
+		final List<String> threads = new CopyOnWriteArrayList<>();
+
+		@OnFlowSuccess("orders.create")
+		public void onFinished(TelemetryHolder holder) {
+			threads.add(Thread.currentThread().getName());
+		}
+	}
+}
@@ -0,0 +1,99 @@
+package com.obsinity.telemetry.receivers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import com.obsinity.telemetry.annotations.EventReceiver;
+import com.obsinity.telemetry.annotations.OnFlowLifecycle;
+import com.obsinity.telemetry.annotations.OnFlowSuccess;
+import com.obsinity.telemetry.dispatch.TelemetryEventHandlerScanner;
+import com.obsinity.telemetry.model.Lifecycle;
+import com.obsinity.telemetry.model.TelemetryHolder;
+import com.obsinity.telemetry.processor.TelemetryProcessorSupport;
+
+@DisplayName("TelemetryDispatchBus: structured dispatch trace")
+class DispatchTraceTest {
+
+	private Receiver receiver;
+	private TelemetryDispatchBus bus;
+
+	@BeforeEach
+	void setUp() {
+		receiver = new Receiver();
+		StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+		beanFactory.addBean("receiver", receiver);
+		bus = new TelemetryDispatchBus(
+				new TelemetryEventHandlerScanner(beanFactory, new TelemetryProcessorSupport()).handlerGroups());
+	}
+
+	@Test
+	@DisplayName("Disabled trace records nothing while handlers still run")
+	void disabledRecordsNothing() {
+		bus.trace().setEnabled(false);
+
+		bus.flowFinished(holder("orders.create"));
+
+		assertThat(receiver.seen).containsExactly("orders.create");
+		assertThat(bus.trace().snapshot()).isEmpty();
+	}
+
+	@Test
+	@DisplayName("Enabled trace records gates, tier and invoked handlers per dispatch")
+	void enabledRecordsDecisions() {
+		bus.trace().setEnabled(true);
+
+		bus.flowFinished(holder("orders.create"));
+		bus.flowStarted(holder("orders.create"));
+
+		List<DispatchTrace.Entry> entries = bus.trace().snapshot();
+		assertThat(entries).hasSize(2);
+
+		DispatchTrace.Entry finished = entries.get(0);
+		assertThat(finished.phase()).isEqualTo(Lifecycle.FLOW_FINISHED);
+		assertThat(finished.eventName()).isEqualTo("orders.create");
+		assertThat(finished.outcome()).isEqualTo("matched");
+		assertThat(finished.decisions())
+				.extracting(DispatchTrace.Decision::stage)
+				.contains("tier", "tier.success");
+		assertThat(finished.decisions()).anySatisfy(d -> assertThat(d.detail()).startsWith("invoke "));
+
+		DispatchTrace.Entry started = entries.get(1);
+		assertThat(started.outcome()).isEqualTo("suppressed");
+		assertThat(started.decisions()).anySatisfy(d -> assertThat(d.detail()).isEqualTo("lifecycle_blocked"));
+	}
+
+	@Test
+	@DisplayName("Ring buffer keeps only the most recent entries")
+	void ringIsBounded() {
+		DispatchTrace trace = new DispatchTrace(true, 4);
+		TelemetryHolder h = holder("orders.create");
+		for (int i = 0; i < 10; i++) {
+			trace.begin(Lifecycle.FLOW_FINISHED, h, -1).finish("matched");
+		}
+
+		assertThat(trace.snapshot()).extracting(DispatchTrace.Entry::sequence).containsExactly(6L, 7L, 8L, 9L);
+		assertThat(trace.recent(2)).extracting(DispatchTrace.Entry::sequence).containsExactly(8L, 9L);
+	}
+
+	private static TelemetryHolder holder(String name) {
+		return TelemetryHolder.builder().name(name).serviceId("svc").build();
+	}
+
+	@EventReceiver
+	@OnFlowLifecycle(Lifecycle.FLOW_FINISHED)
+	public static class Receiver {
+		final List<String> seen = new CopyOnWriteArrayList<>();
+
+		@OnFlowSuccess("orders.create")
+		public void onSuccess(TelemetryHolder holder) {
+			seen.add(holder.name());
+		}
+	}
+}
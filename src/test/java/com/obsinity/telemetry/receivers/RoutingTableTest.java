@@ -0,0 +1,144 @@
+package com.obsinity.telemetry.receivers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import com.obsinity.telemetry.annotations.EventReceiver;
+import com.obsinity.telemetry.annotations.OnEventScope;
+import com.obsinity.telemetry.annotations.OnFlowFailure;
+import com.obsinity.telemetry.annotations.OnFlowLifecycle;
+import com.obsinity.telemetry.annotations.OnFlowNotMatched;
+import com.obsinity.telemetry.annotations.OnFlowSuccess;
+import com.obsinity.telemetry.dispatch.HandlerGroup;
+import com.obsinity.telemetry.dispatch.TelemetryEventHandlerScanner;
+import com.obsinity.telemetry.model.Lifecycle;
+import com.obsinity.telemetry.model.TelemetryHolder;
+import com.obsinity.telemetry.processor.TelemetryProcessorSupport;
+
+@DisplayName("RoutingTable: compiled (phase, name, outcome) routes")
+class RoutingTableTest {
+
+	private List<HandlerGroup> groups;
+
+	@BeforeEach
+	void setUp() {
+		StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+		beanFactory.addBean("orders", new OrdersReceiver());
+		beanFactory.addBean("payments", new PaymentsReceiver());
+		groups = new TelemetryEventHandlerScanner(beanFactory, new TelemetryProcessorSupport()).handlerGroups();
+	}
+
+	@Test
+	@DisplayName("Routes are compiled once and reused for the same key")
+	void routesAreCached() {
+		RoutingTable table = new RoutingTable(groups, 16);
+
+		RoutingTable.Route first = table.route(Lifecycle.FLOW_FINISHED, "orders.create", false);
+		RoutingTable.Route second = table.route(Lifecycle.FLOW_FINISHED, "orders.create", false);
+
+		assertThat(second).isSameAs(first);
+		assertThat(table.route(Lifecycle.FLOW_FINISHED, "orders.create", true)).isNotSameAs(first);
+		assertThat(table.size()).isEqualTo(2);
+	}
+
+	@Test
+	@DisplayName("Only components passing scope gates are kept, with the dot-chop tier resolved")
+	void routeContainsOnlyEligibleComponents() {
+		RoutingTable table = new RoutingTable(groups, 16);
+
+		RoutingTable.Route route = table.route(Lifecycle.FLOW_FINISHED, "orders.create.bulk", false);
+
+		assertThat(route.groups()).singleElement().satisfies(gr -> {
+			assertThat(gr.group().getComponentName()).isEqualTo("OrdersReceiver");
+			assertThat(gr.tierFound()).isTrue();
+			assertThat(gr.outcome()).hasSize(1);
+		});
+		assertThat(route.skips()).extracting(RoutingTable.Skip::reason).containsExactly("out_of_scope");
+
+		RoutingTable.Route failure = table.route(Lifecycle.FLOW_FINISHED, "orders.create", true);
+		assertThat(failure.groups()).singleElement().satisfies(gr -> {
+			assertThat(gr.tierFound()).isTrue();
+			assertThat(gr.outcome()).isEmpty();
+			assertThat(gr.unmatchedCompleted()).hasSize(1);
+		});
+	}
+
+	@Test
+	@DisplayName("Phases outside a component's lifecycle scope are suppressed")
+	void lifecycleBlocked() {
+		RoutingTable table = new RoutingTable(groups, 16);
+
+		RoutingTable.Route route = table.route(Lifecycle.FLOW_STARTED, "orders.create", false);
+
+		assertThat(route.anyEligible()).isFalse();
+		assertThat(route.skips()).extracting(RoutingTable.Skip::reason).containsOnly("lifecycle_blocked");
+	}
+
+	@Test
+	@DisplayName("Cache is bounded; overflow names are compiled without being retained")
+	void cacheIsBounded() {
+		RoutingTable table = new RoutingTable(groups, 2);
+
+		table.route(Lifecycle.FLOW_FINISHED, "orders.a", false);
+		table.route(Lifecycle.FLOW_FINISHED, "orders.b", false);
+		RoutingTable.Route overflow = table.route(Lifecycle.FLOW_FINISHED, "orders.c", false);
+
+		assertThat(table.size()).isEqualTo(2);
+		assertThat(overflow.groups()).hasSize(1);
+		assertThat(table.route(Lifecycle.FLOW_FINISHED, "orders.c", false)).isNotSameAs(overflow);
+	}
+
+	@Test
+	@DisplayName("Bus dispatch through compiled routes still applies per-holder outcome routing")
+	void busUsesRoutes() {
+		StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+		OrdersReceiver orders = new OrdersReceiver();
+		beanFactory.addBean("orders", orders);
+		TelemetryDispatchBus bus = new TelemetryDispatchBus(
+				new TelemetryEventHandlerScanner(beanFactory, new TelemetryProcessorSupport()).handlerGroups());
+
+		bus.flowFinished(holder("orders.create", null));
+		bus.flowFinished(holder("orders.create", new IllegalStateException("boom")));
+
+		assertThat(orders.calls).containsExactly("success:orders.create", "unmatched:orders.create");
+	}
+
+	private static TelemetryHolder holder(String name, Throwable error) {
+		TelemetryHolder h =
+				TelemetryHolder.builder().name(name).serviceId("svc").build();
+		h.setThrowable(error);
+		return h;
+	}
+
+	@EventReceiver
+	@OnEventScope("orders")
+	@OnFlowLifecycle(Lifecycle.FLOW_FINISHED)
+	public static class OrdersReceiver {
+		final List<String> calls = new CopyOnWriteArrayList<>();
+
+		@OnFlowSuccess("orders.create")
+		public void onCreate(TelemetryHolder holder) {
+			calls.add("success:" + holder.name());
+		}
+
+		@OnFlowNotMatched
+		public void onOther(TelemetryHolder holder) {
+			calls.add("unmatched:" + holder.name());
+		}
+	}
+
+	@EventReceiver
+	@OnEventScope("payments")
+	@OnFlowLifecycle(Lifecycle.FLOW_FINISHED)
+	public static class PaymentsReceiver {
+		@OnFlowFailure("payments.charge")
+		public void onChargeFailed(TelemetryHolder holder) {}
+	}
+}
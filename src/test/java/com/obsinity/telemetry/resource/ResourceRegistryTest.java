@@ -0,0 +1,108 @@
+package com.obsinity.telemetry.resource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import com.obsinity.telemetry.annotations.EventReceiver;
+import com.obsinity.telemetry.annotations.Flow;
+import com.obsinity.telemetry.annotations.OnFlowLifecycle;
+import com.obsinity.telemetry.annotations.OnFlowSuccess;
+import com.obsinity.telemetry.aspect.TelemetryTestStack;
+import com.obsinity.telemetry.model.Lifecycle;
+import com.obsinity.telemetry.model.OResource;
+import com.obsinity.telemetry.model.TelemetryHolder;
+
+@DisplayName("ResourceRegistry: one immutable, cached resource per process")
+class ResourceRegistryTest {
+
+	private static ResourceRegistry registry() {
+		MockEnvironment env = new MockEnvironment()
+				.withProperty("obsinity.serviceId", "orders")
+				.withProperty("obsinity.service.version", "1.2.3")
+				.withProperty("obsinity.environment", "staging");
+		return new ResourceRegistry(
+				env, List.of(ResourceDetector.serviceVersion(), ResourceDetector.environment(), (props, into) -> {
+					into.put("cloud.region", "eu-west-1");
+				}));
+	}
+
+	@Test
+	@DisplayName("Service id and detector attributes are recorded in order")
+	void detectsAttributes() {
+		ResourceRegistry registry = registry();
+
+		assertThat(registry.serviceId()).isEqualTo("orders");
+		assertThat(registry.resource().attributes().map())
+				.containsExactly(
+						Map.entry("service.name", "orders"),
+						Map.entry("service.id", "orders"),
+						Map.entry("service.version", "1.2.3"),
+						Map.entry("deployment.environment", "staging"),
+						Map.entry("cloud.region", "eu-west-1"));
+	}
+
+	@Test
+	@DisplayName("Shared resource is read-only and caches its OTEL and JSON forms")
+	void sharedAndCached() {
+		OResource resource = registry().resource();
+
+		assertThat(resource.isShared()).isTrue();
+		assertThatThrownBy(() -> resource.attributes().put("x", 1)).isInstanceOf(UnsupportedOperationException.class);
+		assertThat(resource.toOtel()).isSameAs(resource.toOtel());
+		assertThat(resource.toJson()).isSameAs(resource.toJson()).contains("\"service.name\":\"orders\"");
+	}
+
+	@Test
+	@DisplayName("A failing detector is skipped")
+	void failingDetectorSkipped() {
+		ResourceRegistry registry = new ResourceRegistry(new MockEnvironment(), List.of((props, into) -> {
+			throw new IllegalStateException("boom");
+		}));
+
+		assertThat(registry.serviceId()).isEqualTo("obsinity-demo");
+		assertThat(registry.resource().attributes().map()).containsOnlyKeys("service.name", "service.id");
+	}
+
+	@Test
+	@DisplayName("Every flow carries the same resource instance")
+	void flowsShareResource() {
+		Recorder recorder = new Recorder();
+		TelemetryTestStack stack = TelemetryTestStack.of(recorder);
+		ResourceRegistry registry = registry();
+		stack.processor.setResourceRegistry(registry);
+		Service service = stack.proxy(new Service());
+
+		service.place();
+		service.place();
+
+		assertThat(recorder.finished).hasSize(2);
+		assertThat(recorder.finished.get(0).resource())
+				.isSameAs(recorder.finished.get(1).resource())
+				.isSameAs(registry.resource());
+		assertThat(recorder.finished.get(0).serviceId()).isEqualTo("orders");
+	}
+
+	public static class Service {
+		@Flow(name = "orders.place")
+		public void place() {}
+	}
+
+	@EventReceiver
+	@OnFlowLifecycle(Lifecycle.FLOW_FINISHED)
+	public static class Recorder {
+		final List<TelemetryHolder> finished = new CopyOnWriteArrayList<>();
+
+		@OnFlowSuccess("orders.place")
+		public void flow(TelemetryHolder holder) {
+			finished.add(holder);
+		}
+	}
+}
@@ -0,0 +1,271 @@
+package com.obsinity.telemetry.ts;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+
+@DisplayName("ObsinityTS: ring-buffered meters aggregated by a single flusher")
+class ObsinityTSTest {
+
+	private static final ObjectMapper JSON = new ObjectMapper();
+
+	@Test
+	@DisplayName("Posts aggregated NDJSON points to an HTTP endpoint with the API key")
+	void httpTransport() throws Exception {
+		HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		List<String> bodies = new CopyOnWriteArrayList<>();
+		List<String> auth = new CopyOnWriteArrayList<>();
+		List<String> contentTypes = new CopyOnWriteArrayList<>();
+		server.createContext("/v1/metrics", exchange -> {
+			bodies.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+			auth.add(exchange.getRequestHeaders().getFirst("Authorization"));
+			contentTypes.add(exchange.getRequestHeaders().getFirst("Content-Type"));
+			exchange.sendResponseHeaders(204, -1);
+			exchange.close();
+		});
+		server.start();
+		URI endpoint = URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/v1/metrics");
+		try (ObsinityTS ts = ObsinityTS.create(config(endpoint, 64 << 10, Duration.ofHours(1), 1024))) {
+			Counter orders = ts.counter("checkout.orders", "tenant", "acme", "region", "eu");
+			assertThat(ts.counter("checkout.orders", "region", "eu", "tenant", "acme"))
+					.isSameAs(orders);
+			orders.inc();
+			orders.inc();
+			orders.inc(3);
+			Timer latency = ts.timer("http.server.latency", "route", "/api/checkout");
+			latency.record(Duration.ofMillis(10));
+			latency.record(30_000_000L);
+			ts.histogram("db.rows").record(1.5);
+			ts.histogram("db.rows").record(2.5);
+			ts.gauge("queue.depth", () -> 7, "queue", "billing");
+
+			assertThat(ts.flush(Duration.ofSeconds(5))).isTrue();
+
+			Map<String, JsonNode> points = parse(String.join("", bodies));
+			assertThat(points.get("checkout.orders").path("count").asLong()).isEqualTo(5);
+			assertThat(points.get("checkout.orders").path("tags").toString())
+					.isEqualTo("{\"region\":\"eu\",\"tenant\":\"acme\"}");
+			JsonNode timer = points.get("http.server.latency");
+			assertThat(timer.path("unit").asText()).isEqualTo("ns");
+			assertThat(timer.path("count").asLong()).isEqualTo(2);
+			assertThat(timer.path("sum").asDouble()).isEqualTo(40_000_000d);
+			assertThat(timer.path("min").asDouble()).isEqualTo(10_000_000d);
+			assertThat(timer.path("max").asDouble()).isEqualTo(30_000_000d);
+			assertThat(points.get("db.rows").path("sum").asDouble()).isEqualTo(4.0);
+			assertThat(points.get("queue.depth").path("value").asDouble()).isEqualTo(7.0);
+			assertThat(points.get("queue.depth").path("type").asText()).isEqualTo("gauge");
+			assertThat(auth).containsOnly("Bearer secret");
+			assertThat(contentTypes).containsOnly("application/x-ndjson");
+			assertThat(ts.stats().samples()).isEqualTo(7);
+			assertThat(ts.stats().failed()).isZero();
+
+			// Idle meters emit nothing; gauges are sampled every flush
+			bodies.clear();
+			assertThat(ts.flush(Duration.ofSeconds(5))).isTrue();
+			assertThat(parse(String.join("", bodies))).containsOnlyKeys("queue.depth");
+		} finally {
+			server.stop(0);
+		}
+	}
+
+	@Test
+	@DisplayName("Flushes on the interval without being asked")
+	void timeThreshold() throws Exception {
+		CountDownLatch sent = new CountDownLatch(1);
+		try (ObsinityTS ts =
+				ObsinityTS.create(config(64 << 10, Duration.ofMillis(50), 1024), (b, o, l) -> sent.countDown())) {
+			ts.counter("ticks").inc();
+			assertThat(sent.await(5, TimeUnit.SECONDS)).isTrue();
+		}
+	}
+
+	@Test
+	@DisplayName("Flushes early once pending points reach batchBytes and never sends more than that per request")
+	void byteThreshold() throws Exception {
+		List<Integer> sizes = new CopyOnWriteArrayList<>();
+		List<String> bodies = new CopyOnWriteArrayList<>();
+		try (ObsinityTS ts = ObsinityTS.create(config(2048, Duration.ofHours(1), 1024), (b, o, l) -> {
+			sizes.add(l);
+			bodies.add(new String(b, o, l, StandardCharsets.UTF_8));
+		})) {
+			for (int i = 0; i < 60; i++)
+				ts.counter("batch.meter." + i, "tag", "value-" + i).inc();
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+			while (sizes.isEmpty() && System.nanoTime() < deadline) Thread.sleep(5);
+			assertThat(sizes).isNotEmpty(); // well before the one-hour interval
+
+			assertThat(ts.flush(Duration.ofSeconds(5))).isTrue();
+			assertThat(sizes).allSatisfy(size -> assertThat(size).isLessThanOrEqualTo(2048));
+			assertThat(parse(String.join("", bodies))).hasSize(60);
+		}
+	}
+
+	@Test
+	@DisplayName("Counts from concurrent recorders are exact under BLOCK backpressure")
+	void concurrentBlock() throws Exception {
+		try (ObsinityTS ts = ObsinityTS.create(
+				new ObsinityTS.Config(
+						URI.create("http://unused"),
+						null,
+						64 << 10,
+						Duration.ofMillis(20),
+						64,
+						ObsinityTS.Backpressure.BLOCK,
+						Duration.ofSeconds(5)),
+				(b, o, l) -> {})) {
+			Counter counter = ts.counter("hits");
+			List<Thread> threads = new ArrayList<>();
+			for (int t = 0; t < 4; t++) {
+				Thread thread = new Thread(() -> {
+					for (int i = 0; i < 50_000; i++) counter.inc();
+				});
+				threads.add(thread);
+				thread.start();
+			}
+			for (Thread thread : threads) thread.join();
+			assertThat(ts.flush(Duration.ofSeconds(5))).isTrue();
+			assertThat(ts.stats().samples()).isEqualTo(200_000);
+			assertThat(ts.stats().dropped()).isZero();
+		}
+	}
+
+	@Test
+	@DisplayName("Ring backpressure: DROP_NEW keeps the oldest, DROP_OLDEST the newest, BLOCK waits for the consumer")
+	void ringBackpressure() throws Exception {
+		assertThat(fillAndDrain(ObsinityTS.Backpressure.DROP_NEW)).containsExactly(0L, 1L, 2L, 3L);
+		assertThat(fillAndDrain(ObsinityTS.Backpressure.DROP_OLDEST)).containsExactly(2L, 3L, 4L, 5L);
+
+		SampleRing ring = new SampleRing(4, ObsinityTS.Backpressure.BLOCK);
+		for (int i = 0; i < 4; i++) ring.offer(0, i);
+		Thread producer = new Thread(() -> ring.offer(0, 4));
+		producer.start();
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (ring.blocked() == 0 && System.nanoTime() < deadline) Thread.sleep(1);
+		assertThat(ring.blocked()).isEqualTo(1);
+		assertThat(producer.isAlive()).isTrue();
+
+		List<Long> values = new ArrayList<>();
+		ring.drain((m, v) -> values.add(v), 1);
+		producer.join(5000);
+		assertThat(producer.isAlive()).isFalse();
+		ring.drain((m, v) -> values.add(v), 10);
+		assertThat(values).containsExactly(0L, 1L, 2L, 3L, 4L);
+		assertThat(ring.dropped()).isZero();
+
+		ring.offer(0, 5);
+		ring.offer(0, 6);
+		ring.offer(0, 7);
+		ring.offer(0, 8);
+		ring.close(); // releases (and drops) blocked producers
+		assertThat(ring.offer(0, 9)).isFalse();
+		assertThat(ring.dropped()).isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("Steady-state inc()/record() allocate nothing")
+	void allocationFree() {
+		try (ObsinityTS ts = ObsinityTS.create(config(64 << 10, Duration.ofMillis(10), 1 << 12), (b, o, l) -> {})) {
+			Counter counter = ts.counter("alloc.counter");
+			Timer timer = ts.timer("alloc.timer");
+			Histogram histogram = ts.histogram("alloc.histogram");
+			for (int i = 0; i < 20_000; i++) record(counter, timer, histogram, i); // warm up
+
+			com.sun.management.ThreadMXBean mx = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+			long thread = Thread.currentThread().getId();
+			long before = mx.getThreadAllocatedBytes(thread);
+			for (int i = 0; i < 100_000; i++) record(counter, timer, histogram, i);
+			long allocated = mx.getThreadAllocatedBytes(thread) - before;
+
+			assertThat(allocated).isLessThan(1024);
+		}
+	}
+
+	@Test
+	@DisplayName("Failed sends are counted; closed clients drop samples; bad tags and configs are rejected")
+	void failuresAndValidation() {
+		ObsinityTS ts = ObsinityTS.create(config(64 << 10, Duration.ofHours(1), 1024), (b, o, l) -> {
+			throw new IOException("down");
+		});
+		Counter counter = ts.counter("c");
+		counter.inc();
+		assertThat(ts.flush(Duration.ofSeconds(5))).isTrue();
+		assertThat(ts.stats().failed()).isEqualTo(1);
+		assertThat(ts.stats().requests()).isEqualTo(1);
+		ts.close();
+		counter.inc();
+		assertThat(ts.stats().dropped()).isEqualTo(1);
+		assertThat(ts.flush(Duration.ofSeconds(1))).isFalse();
+
+		assertThatThrownBy(() -> ts.counter("c", "odd")).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> ts.counter(" ")).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> config(64 << 10, Duration.ofSeconds(1), 1000))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> config(512, Duration.ofSeconds(1), 1024)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private static void record(Counter counter, Timer timer, Histogram histogram, int i) {
+		counter.inc();
+		timer.record(i);
+		histogram.record(i * 0.5);
+	}
+
+	private static List<Long> fillAndDrain(ObsinityTS.Backpressure backpressure) {
+		SampleRing ring = new SampleRing(4, backpressure);
+		for (int i = 0; i < 6; i++) ring.offer(0, i);
+		assertThat(ring.dropped()).isEqualTo(2);
+		List<Long> values = new ArrayList<>();
+		ring.drain((m, v) -> values.add(v), 10);
+		return values;
+	}
+
+	/** Points by meter name (the tests use one series per name). */
+	private static Map<String, JsonNode> parse(String ndjson) {
+		return ndjson.lines()
+				.filter(l -> !l.isBlank())
+				.map(ObsinityTSTest::readTree)
+				.collect(Collectors.toMap(n -> n.path("name").asText(), n -> n));
+	}
+
+	private static JsonNode readTree(String line) {
+		try {
+			return JSON.readTree(line);
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static ObsinityTS.Config config(int batchBytes, Duration flushInterval, int ringCapacity) {
+		return config(URI.create("http://unused"), batchBytes, flushInterval, ringCapacity);
+	}
+
+	private static ObsinityTS.Config config(URI endpoint, int batchBytes, Duration flushInterval, int ringCapacity) {
+		return new ObsinityTS.Config(
+				endpoint,
+				"secret",
+				batchBytes,
+				flushInterval,
+				ringCapacity,
+				ObsinityTS.Backpressure.DROP_NEW,
+				Duration.ofSeconds(5));
+	}
+}
@@ -0,0 +1,76 @@
+package com.obsinity.telemetry.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("SystemTelemetryClock: anchor resync and the coarse-step ticker")
+class SystemTelemetryClockTest {
+
+	private static final long MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+	@Test
+	@DisplayName("Resync slews toward the wall clock by at most 500 ppm of the elapsed time")
+	void slewIsBounded() {
+		assertThat(SystemTelemetryClock.slew(0L, 5_000L, MINUTE)).isEqualTo(5_000L);
+		assertThat(SystemTelemetryClock.slew(0L, -5_000L, MINUTE)).isEqualTo(-5_000L);
+		assertThat(SystemTelemetryClock.slew(0L, TimeUnit.SECONDS.toNanos(10), MINUTE))
+				.isEqualTo(TimeUnit.MILLISECONDS.toNanos(30));
+		assertThat(SystemTelemetryClock.slew(0L, -TimeUnit.SECONDS.toNanos(10), MINUTE))
+				.isEqualTo(-TimeUnit.MILLISECONDS.toNanos(30));
+	}
+
+	@Test
+	@DisplayName("A wall-clock step is absorbed gradually, never as a jump in derived timestamps")
+	void wallClockStepIsSlewed() throws Exception {
+		AtomicLong offset = new AtomicLong();
+		SystemTelemetryClock clock =
+				new SystemTelemetryClock(0L, TimeUnit.MILLISECONDS.toNanos(1), () -> wallEpochNanos() + offset.get());
+
+		offset.set(TimeUnit.SECONDS.toNanos(10));
+		long previous = clock.epochNanos(clock.nanoTime());
+		for (int i = 0; i < 20; i++) {
+			Thread.sleep(2);
+			long now = clock.epochNanos(clock.nanoTime());
+			assertThat(now).isGreaterThanOrEqualTo(previous);
+			previous = now;
+		}
+
+		long drift = clock.epochNanos(clock.nanoTime()) - wallEpochNanos();
+		assertThat(drift).isBetween(-TimeUnit.MILLISECONDS.toNanos(1), TimeUnit.MILLISECONDS.toNanos(50));
+	}
+
+	@Test
+	@DisplayName("close() stops the ticker thread; step edges fall back to System.nanoTime()")
+	void closeStopsTicker() throws Exception {
+		int before = tickers();
+		SystemTelemetryClock clock = new SystemTelemetryClock(TimeUnit.MILLISECONDS.toNanos(1));
+		assertThat(clock.isCoarseSteps()).isTrue();
+		assertThat(tickers()).isEqualTo(before + 1);
+
+		clock.close();
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (tickers() > before && System.nanoTime() < deadline) Thread.sleep(5);
+
+		assertThat(tickers()).isEqualTo(before);
+		assertThat(clock.isCoarseSteps()).isFalse();
+		long t0 = System.nanoTime();
+		assertThat(clock.stepNanoTime()).isGreaterThanOrEqualTo(t0);
+	}
+
+	private static int tickers() {
+		return (int) Thread.getAllStackTraces().keySet().stream()
+				.filter(t -> t.isAlive() && t.getName().equals("obsinity-clock-ticker"))
+				.count();
+	}
+
+	private static long wallEpochNanos() {
+		Instant now = Instant.now();
+		return now.getEpochSecond() * 1_000_000_000L + now.getNano();
+	}
+}
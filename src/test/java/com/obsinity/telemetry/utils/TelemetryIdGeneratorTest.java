@@ -0,0 +1,59 @@
+package com.obsinity.telemetry.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+@DisplayName("TelemetryIdGenerator: strategies and hex encoding")
+class TelemetryIdGeneratorTest {
+
+	@Test
+	@DisplayName("Table hex matches String.format output")
+	void hexMatchesFormat() {
+		long[] samples = {0L, 1L, -1L, Long.MIN_VALUE, Long.MAX_VALUE, 0x00f067aa0ba902b7L, 0xdeadbeefcafebabeL};
+		for (long hi : samples) {
+			assertThat(TelemetryIdGenerator.hex64(hi)).isEqualTo(String.format("%016x", hi));
+			for (long lo : samples) {
+				assertThat(TelemetryIdGenerator.hex128(hi, lo)).isEqualTo(String.format("%016x%016x", hi, lo));
+			}
+		}
+		UUID u = new UUID(0x4bf92f3577b34da6L, 0xa3ce929d0e0e4736L);
+		assertThat(TelemetryIdGenerator.hex128(u)).isEqualTo("4bf92f3577b34da6a3ce929d0e0e4736");
+		assertThat(TelemetryIdGenerator.hex64lsb(u)).isEqualTo("a3ce929d0e0e4736");
+	}
+
+	@ParameterizedTest(name = "{0}")
+	@ValueSource(strings = {"secure", "fast"})
+	@DisplayName("Strategies produce UUIDv7 and W3C-valid ids")
+	void strategiesProduceValidIds(String name) {
+		TelemetryIdStrategy strategy = TelemetryIdStrategy.named(name);
+		assertThat(strategy.name()).isEqualTo(name);
+
+		for (int i = 0; i < 1_000; i++) {
+			UUID u = strategy.nextUuidV7();
+			assertThat(u.version()).isEqualTo(7);
+			assertThat(u.variant()).isEqualTo(2);
+			assertThat(strategy.nextSpanId()).isNotZero();
+		}
+	}
+
+	@Test
+	@DisplayName("Generated hex ids are lowercase, fixed length and non-zero")
+	void generatedIdsAreW3cValid() {
+		TelemetryIdStrategy previous = TelemetryIdGenerator.strategy();
+		try {
+			TelemetryIdGenerator.setStrategy(TelemetryIdStrategy.fast());
+			String traceId = TelemetryIdGenerator.newTraceId();
+			String spanId = TelemetryIdGenerator.newSpanId();
+			assertThat(traceId).matches("[0-9a-f]{32}").isNotEqualTo("0".repeat(32));
+			assertThat(spanId).matches("[0-9a-f]{16}").isNotEqualTo("0".repeat(16));
+		} finally {
+			TelemetryIdGenerator.setStrategy(previous);
+		}
+	}
+}